@@ -0,0 +1,10 @@
+package ma.event.eventreservationsystem.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// Active les tâches planifiées (expiration des blocages de places, etc.)
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,35 @@
+package ma.event.eventreservationsystem.dto;
+
+import ma.event.eventreservationsystem.entity.enums.EventStatus;
+import ma.event.eventreservationsystem.entity.enums.ReservationStatus;
+import ma.event.eventreservationsystem.entity.enums.UserRole;
+
+import java.util.Map;
+
+/**
+ * Compteurs du tableau de bord administrateur (toutes les valeurs des énumérations présentes, à 0 si besoin).
+ * Le revenu et les places ne concernent que les réservations confirmées.
+ */
+public record AdminDashboard(Map<UserRole, Long> utilisateursParRole,
+                             long utilisateursActifs,
+                             Map<EventStatus, Long> evenementsParStatut,
+                             Map<ReservationStatus, Long> reservationsParStatut,
+                             double revenuTotal,
+                             long nombreTotalPlaces) {
+
+    public long totalUtilisateurs() {
+        return somme(utilisateursParRole);
+    }
+
+    public long totalEvenements() {
+        return somme(evenementsParStatut);
+    }
+
+    public long totalReservations() {
+        return somme(reservationsParStatut);
+    }
+
+    private static long somme(Map<?, Long> compteurs) {
+        return compteurs.values().stream().mapToLong(Long::longValue).sum();
+    }
+}
@@ -0,0 +1,7 @@
+package ma.event.eventreservationsystem.dto;
+
+/**
+ * Une demande de réservation d'un lot (guichet, partenaires).
+ */
+public record DemandeReservation(Long utilisateurId, Long evenementId, Integer nombrePlaces, String commentaire) {
+}
@@ -0,0 +1,18 @@
+package ma.event.eventreservationsystem.dto;
+
+import ma.event.eventreservationsystem.entity.enums.EventCategory;
+import ma.event.eventreservationsystem.service.search.PriceBucket;
+
+import java.util.Map;
+
+/**
+ * Nombre d'événements publiés par valeur de chaque filtre du catalogue.
+ * Chaque facette tient compte de tous les filtres choisis sauf le sien :
+ * avec "Concert" sélectionné, les autres catégories restent comptées pour pouvoir en changer.
+ * Les villes sont triées de la plus fournie à la moins fournie.
+ */
+public record EventFacets(long total,
+                          Map<EventCategory, Long> parCategorie,
+                          Map<String, Long> parVille,
+                          Map<PriceBucket, Long> parTranchePrix) {
+}
@@ -0,0 +1,14 @@
+package ma.event.eventreservationsystem.dto;
+
+import java.util.List;
+
+/**
+ * Fenêtre d'une liste parcourue par clé : les éléments et le curseur opaque à fournir pour la suite
+ * ({@code null} en fin de liste).
+ */
+public record KeysetPage<T>(List<T> contenu, String curseurSuivant) {
+
+    public boolean aUneSuite() {
+        return curseurSuivant != null;
+    }
+}
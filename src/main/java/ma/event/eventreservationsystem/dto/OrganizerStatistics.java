@@ -0,0 +1,22 @@
+package ma.event.eventreservationsystem.dto;
+
+import ma.event.eventreservationsystem.entity.enums.EventStatus;
+
+import java.util.Map;
+
+/**
+ * Tableau de bord d'un organisateur : ses événements par statut (tous les statuts présents, à 0 si besoin),
+ * le nombre de réservations reçues et le revenu des réservations confirmées.
+ */
+public record OrganizerStatistics(Map<EventStatus, Long> evenementsParStatut,
+                                  long nombreTotalReservations,
+                                  double revenuTotal) {
+
+    public long nombreEvenements() {
+        return evenementsParStatut.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    public long nombre(EventStatus statut) {
+        return evenementsParStatut.getOrDefault(statut, 0L);
+    }
+}
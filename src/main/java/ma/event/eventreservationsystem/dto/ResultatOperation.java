@@ -0,0 +1,15 @@
+package ma.event.eventreservationsystem.dto;
+
+/**
+ * Issue d'une opération groupée pour une réservation : appliquée, ou le motif du refus.
+ */
+public record ResultatOperation(Long reservationId, boolean reussie, String motif) {
+
+    public static ResultatOperation succes(Long reservationId) {
+        return new ResultatOperation(reservationId, true, null);
+    }
+
+    public static ResultatOperation echec(Long reservationId, String motif) {
+        return new ResultatOperation(reservationId, false, motif);
+    }
+}
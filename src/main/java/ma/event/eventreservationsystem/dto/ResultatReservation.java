@@ -0,0 +1,21 @@
+package ma.event.eventreservationsystem.dto;
+
+import ma.event.eventreservationsystem.entity.Reservation;
+
+/**
+ * Résultat d'une demande d'un lot : la réservation créée, ou le motif du refus.
+ */
+public record ResultatReservation(DemandeReservation demande, Reservation reservation, String erreur) {
+
+    public static ResultatReservation succes(DemandeReservation demande, Reservation reservation) {
+        return new ResultatReservation(demande, reservation, null);
+    }
+
+    public static ResultatReservation echec(DemandeReservation demande, String erreur) {
+        return new ResultatReservation(demande, null, erreur);
+    }
+
+    public boolean estReussie() {
+        return reservation != null;
+    }
+}
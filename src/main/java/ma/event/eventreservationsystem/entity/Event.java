@@ -5,6 +5,7 @@ import jakarta.validation.constraints.*;
 import lombok.*;
 import ma.event.eventreservationsystem.entity.enums.EventCategory;
 import ma.event.eventreservationsystem.entity.enums.EventStatus;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.proxy.HibernateProxy;
 
 import java.time.LocalDateTime;
@@ -13,7 +14,12 @@ import java.util.List;
 import java.util.Objects;
 
 @Entity
-@Table(name = "events")
+@Table(name = "events",
+        indexes = {
+                // Pagination par clé (dateDebut, id), globale et par organisateur
+                @Index(name = "idx_events_date_debut_id", columnList = "date_debut, id"),
+                @Index(name = "idx_events_organisateur_date_debut_id", columnList = "organisateur_id, date_debut, id")
+        })
 @Getter // Remplace @Data (Safe)
 @Setter // Remplace @Data (Safe)
 @ToString // Remplace @Data (Safe)
@@ -77,6 +83,19 @@ public class Event {
 
     private LocalDateTime dateModification;
 
+    // Compteur dénormalisé des places engagées (réservations en attente + confirmées).
+    // Mis à jour uniquement par UPDATE atomique (voir SeatCounter) : jamais écrit lors de l'enregistrement
+    // de l'entité, pour qu'une édition de l'événement n'écrase pas les ventes en cours
+    @Builder.Default
+    @ColumnDefault("0")
+    @Column(nullable = false, updatable = false)
+    private Integer placesReservees = 0;
+
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
     // --- RELATIONS ---
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -96,6 +115,9 @@ public class Event {
         if (statut == null) {
             statut = EventStatus.BROUILLON;
         }
+        if (placesReservees == null) {
+            placesReservees = 0;
+        }
     }
 
     @PreUpdate
@@ -106,11 +128,8 @@ public class Event {
     // --- MÉTHODES MÉTIER ---
 
     public int getPlacesDisponibles() {
-        int placesReservees = reservations.stream()
-                .filter(r -> r.getStatut() == ma.event.eventreservationsystem.entity.enums.ReservationStatus.CONFIRMEE)
-                .mapToInt(Reservation::getNombrePlaces)
-                .sum();
-        return capaciteMax - placesReservees;
+        // Lecture du compteur dénormalisé : aucun parcours de la collection des réservations
+        return capaciteMax - (placesReservees != null ? placesReservees : 0);
     }
 
     // --- EQUALS & HASHCODE (Optimisés pour JPA) ---
@@ -7,7 +7,13 @@ import ma.event.eventreservationsystem.entity.enums.ReservationStatus;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "reservations")
+@Table(name = "reservations",
+        indexes = {
+                // Pagination par clé (dateReservation, id), globale, par utilisateur et par événement
+                @Index(name = "idx_reservations_date_id", columnList = "date_reservation, id"),
+                @Index(name = "idx_reservations_utilisateur_date_id", columnList = "utilisateur_id, date_reservation, id"),
+                @Index(name = "idx_reservations_evenement_date_id", columnList = "evenement_id, date_reservation, id")
+        })
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -19,7 +25,10 @@ import java.time.LocalDateTime;
 public class Reservation {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Séquence à allocation groupée (50 identifiants par appel) : contrairement à IDENTITY,
+    // Hibernate connaît l'ID avant l'INSERT et peut donc regrouper les insertions en lots JDBC
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "reservations_seq")
+    @SequenceGenerator(name = "reservations_seq", sequenceName = "reservations_seq", allocationSize = 50)
     @EqualsAndHashCode.Include // <-- C'est ici qu'on dit "utilise seulement l'ID pour identifier l'objet"
     private Long id;
 
@@ -61,10 +70,6 @@ public class Reservation {
         if (statut == null) {
             statut = ReservationStatus.EN_ATTENTE;
         }
-        // Générer le code de réservation
-        if (codeReservation == null) {
-            codeReservation = genererCodeReservation();
-        }
         // Note : Le calcul du montant ici peut être risqué si l'événement n'est pas complet.
         // Il vaut mieux gérer le montant dans le Service, mais je laisse tel quel pour l'instant.
         if (evenement != null && nombrePlaces != null && montantTotal == null) {
@@ -79,13 +84,6 @@ public class Reservation {
         }
     }
 
-    // Méthode pour générer un code unique
-    private String genererCodeReservation() {
-        // Format: EVT-12345 (5 chiffres aléatoires)
-        int randomNum = (int) (Math.random() * 90000) + 10000;
-        return "EVT-" + randomNum;
-    }
-
     // Méthode pour vérifier si l'annulation est possible
     public boolean peutEtreAnnulee() {
         if (statut == ReservationStatus.ANNULEE) {
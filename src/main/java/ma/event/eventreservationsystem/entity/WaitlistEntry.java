@@ -0,0 +1,68 @@
+package ma.event.eventreservationsystem.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.*;
+import lombok.*;
+import ma.event.eventreservationsystem.entity.enums.WaitlistStatus;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "waitlist_entries",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"evenement_id", "position"}),
+        indexes = @Index(name = "idx_waitlist_evenement_statut_position", columnList = "evenement_id, statut, position"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ToString(exclude = {"utilisateur", "evenement"})
+public class WaitlistEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @NotNull(message = "Le nombre de places est obligatoire")
+    @Min(value = 1, message = "Au moins une place doit être demandée")
+    @Max(value = 10, message = "Maximum 10 places par réservation")
+    @Column(nullable = false)
+    private Integer nombrePlaces;
+
+    // Rang d'arrivée dans la file de l'événement (croissant, jamais réutilisé)
+    @Column(nullable = false)
+    private Long position;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private WaitlistStatus statut;
+
+    @Column(nullable = false)
+    private LocalDateTime dateInscription;
+
+    // Réservation créée lors de la promotion
+    private Long reservationId;
+
+    // Date limite de confirmation de cette réservation (blocage propre aux promotions)
+    private LocalDateTime echeanceConfirmation;
+
+    // Relations
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "utilisateur_id", nullable = false)
+    private User utilisateur;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "evenement_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Event evenement;
+
+    @PrePersist
+    protected void onCreate() {
+        dateInscription = LocalDateTime.now();
+        if (statut == null) {
+            statut = WaitlistStatus.EN_ATTENTE;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package ma.event.eventreservationsystem.entity.enums;
+
+public enum WaitlistStatus {
+    EN_ATTENTE("En attente"),
+    PROMUE("Promue"),
+    ANNULEE("Annulée"),
+    EXPIREE("Expirée");
+
+    private final String label;
+
+    WaitlistStatus(String label) {
+        this.label = label;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+}
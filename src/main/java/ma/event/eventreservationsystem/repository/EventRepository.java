@@ -4,16 +4,29 @@ import ma.event.eventreservationsystem.entity.Event;
 import ma.event.eventreservationsystem.entity.User;
 import ma.event.eventreservationsystem.entity.enums.EventCategory;
 import ma.event.eventreservationsystem.entity.enums.EventStatus;
+import ma.event.eventreservationsystem.repository.projection.EvenementsParStatut;
+import ma.event.eventreservationsystem.repository.projection.EventDimensions;
+import ma.event.eventreservationsystem.repository.projection.EventSeatCounter;
+import ma.event.eventreservationsystem.repository.projection.EventTotauxParStatut;
+import ma.event.eventreservationsystem.repository.projection.KeysetKey;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface EventRepository extends JpaRepository<Event, Long> {
+public interface EventRepository extends JpaRepository<Event, Long>, JpaSpecificationExecutor<Event> {
 
     // --- REQUÊTES OPTIMISÉES ---
 
@@ -26,16 +39,30 @@ public interface EventRepository extends JpaRepository<Event, Long> {
             "LOWER(e.lieu) LIKE LOWER(CONCAT('%', :keyword, '%'))")
     List<Event> searchWithOrganisateur(@Param("keyword") String keyword);
 
+    @Query("SELECT e FROM Event e LEFT JOIN FETCH e.organisateur WHERE e.id IN :ids")
+    List<Event> findAllWithOrganisateurByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Recherche multicritère paginée (voir EventSpecifications), organisateur chargé dans la même requête
+    @Override
+    @EntityGraph(attributePaths = "organisateur")
+    Page<Event> findAll(Specification<Event> spec, Pageable pageable);
+
     // --- REQUÊTES STANDARD ---
 
     List<Event> findByCategorie(EventCategory categorie);
 
-    @Query("SELECT e FROM Event e WHERE e.statut = 'PUBLIE' AND e.dateDebut BETWEEN :dateDebut AND :dateFin")
+    @Query("SELECT e FROM Event e LEFT JOIN FETCH e.organisateur WHERE e.statut = 'PUBLIE' " +
+            "AND e.dateDebut BETWEEN :dateDebut AND :dateFin ORDER BY e.dateDebut, e.id")
     List<Event> findPublishedEventsBetweenDates(
             @Param("dateDebut") LocalDateTime dateDebut,
             @Param("dateFin") LocalDateTime dateFin
     );
 
+    // Événements en cours à un moment de la période (chevauchement de [dateDebut, dateFin])
+    @Query("SELECT e FROM Event e LEFT JOIN FETCH e.organisateur WHERE e.statut = 'PUBLIE' " +
+            "AND e.dateDebut <= :fin AND e.dateFin >= :debut ORDER BY e.dateDebut, e.id")
+    List<Event> findPublishedEventsOverlapping(@Param("debut") LocalDateTime debut, @Param("fin") LocalDateTime fin);
+
     List<Event> findByOrganisateurAndStatut(User organisateur, EventStatus statut);
 
     @Query("SELECT e FROM Event e WHERE e.statut = 'PUBLIE' AND e.statut != 'TERMINE'")
@@ -50,7 +77,10 @@ public interface EventRepository extends JpaRepository<Event, Long> {
     @Query("SELECT e FROM Event e WHERE LOWER(e.titre) LIKE LOWER(CONCAT('%', :keyword, '%'))")
     List<Event> searchByTitre(@Param("keyword") String keyword);
 
-    @Query("SELECT e FROM Event e WHERE e.prixUnitaire BETWEEN :prixMin AND :prixMax")
+    // Événements publiés dans la plage de prix (borne nulle = non limitée), du moins cher au plus cher
+    @Query("SELECT e FROM Event e LEFT JOIN FETCH e.organisateur WHERE e.statut = 'PUBLIE' " +
+            "AND (:prixMin IS NULL OR e.prixUnitaire >= :prixMin) " +
+            "AND (:prixMax IS NULL OR e.prixUnitaire <= :prixMax) ORDER BY e.prixUnitaire, e.id")
     List<Event> findByPrixBetween(@Param("prixMin") Double prixMin, @Param("prixMax") Double prixMax);
 
     @Query("SELECT e FROM Event e LEFT JOIN FETCH e.organisateur WHERE e.id = :id")
@@ -67,15 +97,13 @@ public interface EventRepository extends JpaRepository<Event, Long> {
 
     List<Event> findByVille(String ville);
 
+    // Orthographes distinctes des villes (quelques dizaines de valeurs)
+    @Query("SELECT DISTINCT e.ville FROM Event e")
+    List<String> findVillesDistinctes();
+
     @Query("SELECT e FROM Event e WHERE e.dateDebut >= :date")
     List<Event> findEventsAfterDate(@Param("date") LocalDateTime date);
 
-    @Query("SELECT e FROM Event e LEFT JOIN e.reservations r " +
-            "WHERE e.statut = 'PUBLIE' " +
-            "GROUP BY e.id " +
-            "ORDER BY COUNT(r.id) DESC")
-    List<Event> findPopularEvents();
-
     long countByStatut(EventStatus statut);
 
     @Query("SELECT e FROM Event e WHERE e.organisateur.id = :organisateurId AND e.statut = :statut")
@@ -83,4 +111,79 @@ public interface EventRepository extends JpaRepository<Event, Long> {
             @Param("organisateurId") Long organisateurId,
             @Param("statut") EventStatus statut
     );
-}
\ No newline at end of file
+
+    // --- PAGINATION PAR CLÉ (dateDebut, id) : la fenêtre commence strictement après la dernière ligne lue ---
+
+    @Query("SELECT e FROM Event e LEFT JOIN FETCH e.organisateur " +
+            "WHERE e.dateDebut > :dateDebut OR (e.dateDebut = :dateDebut AND e.id > :id) " +
+            "ORDER BY e.dateDebut, e.id")
+    List<Event> findFenetreApres(@Param("dateDebut") LocalDateTime dateDebut,
+                                 @Param("id") Long id,
+                                 Pageable limite);
+
+    // Même parcours réduit aux clés : un saut de n lignes ne lit que la dernière (voir KeysetCursor.saut)
+    @Query("SELECT new ma.event.eventreservationsystem.repository.projection.KeysetKey(e.dateDebut, e.id) FROM Event e " +
+            "WHERE e.dateDebut > :dateDebut OR (e.dateDebut = :dateDebut AND e.id > :id) " +
+            "ORDER BY e.dateDebut, e.id")
+    List<KeysetKey> findClesApres(@Param("dateDebut") LocalDateTime dateDebut,
+                                  @Param("id") Long id,
+                                  Pageable saut);
+
+    @Query("SELECT e FROM Event e LEFT JOIN FETCH e.organisateur " +
+            "WHERE e.organisateur.id = :organisateurId " +
+            "AND (e.dateDebut > :dateDebut OR (e.dateDebut = :dateDebut AND e.id > :id)) " +
+            "ORDER BY e.dateDebut, e.id")
+    List<Event> findFenetreByOrganisateurApres(@Param("organisateurId") Long organisateurId,
+                                               @Param("dateDebut") LocalDateTime dateDebut,
+                                               @Param("id") Long id,
+                                               Pageable limite);
+
+    // --- INDEX BITMAP (statut, catégorie, ville) ---
+
+    @Query("SELECT new ma.event.eventreservationsystem.repository.projection.EventDimensions(" +
+            "e.id, e.statut, e.categorie, e.ville) FROM Event e")
+    List<EventDimensions> findAllDimensions();
+
+    @Query("SELECT new ma.event.eventreservationsystem.repository.projection.EventDimensions(" +
+            "e.id, e.statut, e.categorie, e.ville) FROM Event e WHERE e.id = :id")
+    Optional<EventDimensions> findDimensionsById(@Param("id") Long id);
+
+    // --- STATISTIQUES ---
+
+    @Query("SELECT new ma.event.eventreservationsystem.repository.projection.EvenementsParStatut(" +
+            "e.statut, COUNT(e)) FROM Event e GROUP BY e.statut")
+    List<EvenementsParStatut> countParStatut();
+
+    // Une seule requête pour le tableau de bord d'un organisateur, quel que soit son nombre d'événements
+    @Query("SELECT new ma.event.eventreservationsystem.repository.projection.EventTotauxParStatut(" +
+            "e.statut, COUNT(DISTINCT e.id), COUNT(r.id), " +
+            "COALESCE(SUM(CASE WHEN r.statut = 'CONFIRMEE' THEN r.montantTotal ELSE 0.0 END), 0.0)) " +
+            "FROM Event e LEFT JOIN e.reservations r " +
+            "WHERE e.organisateur.id = :organisateurId GROUP BY e.statut")
+    List<EventTotauxParStatut> sumParStatutByOrganisateur(@Param("organisateurId") Long organisateurId);
+
+    // --- COMPTEUR DE PLACES (UPDATE atomique conditionné par la capacité, sans toucher à la version) ---
+
+    @Query("SELECT new ma.event.eventreservationsystem.repository.projection.EventSeatCounter(" +
+            "e.id, e.capaciteMax, e.placesReservees) FROM Event e WHERE e.id = :id")
+    Optional<EventSeatCounter> findSeatCounterById(@Param("id") Long id);
+
+    @Modifying
+    @Query("UPDATE Event e SET e.placesReservees = e.placesReservees + :places " +
+            "WHERE e.id = :id AND e.placesReservees + :places <= e.capaciteMax")
+    int incrementerPlacesReservees(@Param("id") Long id, @Param("places") int places);
+
+    @Modifying
+    @Query("UPDATE Event e SET e.placesReservees = " +
+            "CASE WHEN e.placesReservees > :places THEN e.placesReservees - :places ELSE 0 END " +
+            "WHERE e.id = :id")
+    int decrementerPlacesReservees(@Param("id") Long id, @Param("places") int places);
+
+    // Réconciliation des compteurs avec les réservations (en attente + confirmées)
+    @Modifying
+    @Query(value = "UPDATE events e SET places_reservees = (" +
+            "SELECT COALESCE(SUM(r.nombre_places), 0) FROM reservations r " +
+            "WHERE r.evenement_id = e.id AND r.statut <> 'ANNULEE')",
+            nativeQuery = true)
+    int reconcilierPlacesReservees();
+}
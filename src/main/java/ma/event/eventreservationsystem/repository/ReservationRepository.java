@@ -4,17 +4,31 @@ import ma.event.eventreservationsystem.entity.Event;
 import ma.event.eventreservationsystem.entity.Reservation;
 import ma.event.eventreservationsystem.entity.User;
 import ma.event.eventreservationsystem.entity.enums.ReservationStatus;
+import ma.event.eventreservationsystem.repository.projection.KeysetKey;
+import ma.event.eventreservationsystem.repository.projection.PendingHold;
+import ma.event.eventreservationsystem.repository.projection.ReservationRecente;
+import ma.event.eventreservationsystem.repository.projection.ReservationStatut;
+import ma.event.eventreservationsystem.repository.projection.ReservationTotaux;
+import ma.event.eventreservationsystem.repository.projection.ReservationsParHeure;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.EntityGraph; // <--- IMPERATIF
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface ReservationRepository extends JpaRepository<Reservation, Long> {
+public interface ReservationRepository extends JpaRepository<Reservation, Long>, JpaSpecificationExecutor<Reservation> {
 
     // =================================================================================
     //  LA CORRECTION EST ICI :
@@ -24,6 +38,10 @@ public interface ReservationRepository extends JpaRepository<Reservation, Long>
     @EntityGraph(attributePaths = {"utilisateur", "evenement"})
     List<Reservation> findAll();
 
+    // Recherche multicritère paginée (voir ReservationSpecifications), client et événement chargés dans la même requête
+    @Override
+    @EntityGraph(attributePaths = {"utilisateur", "evenement"})
+    Page<Reservation> findAll(Specification<Reservation> spec, Pageable pageable);
 
     // --- Le reste de votre code original ---
 
@@ -96,6 +114,135 @@ public interface ReservationRepository extends JpaRepository<Reservation, Long>
             "WHERE r.evenement.id = :evenementId AND r.statut = 'CONFIRMEE'")
     Double calculateTotalRevenueByEvent(@Param("evenementId") Long evenementId);
 
-    // Vérifier si un code de réservation existe
-    boolean existsByCodeReservation(String codeReservation);
-}
\ No newline at end of file
+    // --- PAGINATION PAR CLÉ (dateReservation, id), des plus récentes aux plus anciennes ---
+    // La fenêtre commence strictement avant la dernière ligne lue : son coût ne dépend pas de la profondeur
+
+    @Query("SELECT r FROM Reservation r JOIN FETCH r.utilisateur JOIN FETCH r.evenement " +
+            "WHERE (:statut IS NULL OR r.statut = :statut) " +
+            "AND (r.dateReservation < :date OR (r.dateReservation = :date AND r.id < :id)) " +
+            "ORDER BY r.dateReservation DESC, r.id DESC")
+    List<Reservation> findFenetreAvant(@Param("statut") ReservationStatus statut,
+                                       @Param("date") LocalDateTime date,
+                                       @Param("id") Long id,
+                                       Pageable limite);
+
+    // Même parcours réduit aux clés : un saut de n lignes ne lit que la dernière (voir KeysetCursor.saut)
+    @Query("SELECT new ma.event.eventreservationsystem.repository.projection.KeysetKey(r.dateReservation, r.id) " +
+            "FROM Reservation r WHERE (:statut IS NULL OR r.statut = :statut) " +
+            "AND (r.dateReservation < :date OR (r.dateReservation = :date AND r.id < :id)) " +
+            "ORDER BY r.dateReservation DESC, r.id DESC")
+    List<KeysetKey> findClesAvant(@Param("statut") ReservationStatus statut,
+                                  @Param("date") LocalDateTime date,
+                                  @Param("id") Long id,
+                                  Pageable saut);
+
+    @Query("SELECT r FROM Reservation r JOIN FETCH r.utilisateur JOIN FETCH r.evenement " +
+            "WHERE r.utilisateur.id = :utilisateurId " +
+            "AND (r.dateReservation < :date OR (r.dateReservation = :date AND r.id < :id)) " +
+            "ORDER BY r.dateReservation DESC, r.id DESC")
+    List<Reservation> findFenetreByUtilisateurAvant(@Param("utilisateurId") Long utilisateurId,
+                                                    @Param("date") LocalDateTime date,
+                                                    @Param("id") Long id,
+                                                    Pageable limite);
+
+    @Query("SELECT r FROM Reservation r JOIN FETCH r.utilisateur JOIN FETCH r.evenement " +
+            "WHERE r.evenement.id = :evenementId " +
+            "AND (r.dateReservation < :date OR (r.dateReservation = :date AND r.id < :id)) " +
+            "ORDER BY r.dateReservation DESC, r.id DESC")
+    List<Reservation> findFenetreByEvenementAvant(@Param("evenementId") Long evenementId,
+                                                  @Param("date") LocalDateTime date,
+                                                  @Param("id") Long id,
+                                                  Pageable limite);
+
+    @Query("SELECT r FROM Reservation r JOIN FETCH r.utilisateur JOIN FETCH r.evenement " +
+            "WHERE r.dateReservation BETWEEN :dateDebut AND :dateFin " +
+            "AND (r.dateReservation < :date OR (r.dateReservation = :date AND r.id < :id)) " +
+            "ORDER BY r.dateReservation DESC, r.id DESC")
+    List<Reservation> findFenetreEntreDatesAvant(@Param("dateDebut") LocalDateTime dateDebut,
+                                                 @Param("dateFin") LocalDateTime dateFin,
+                                                 @Param("date") LocalDateTime date,
+                                                 @Param("id") Long id,
+                                                 Pageable limite);
+
+    // --- BLOCAGES DE PLACES ET CHANGEMENTS DE STATUT ---
+
+    // Charger une réservation en verrouillant sa ligne (confirmation / annulation concurrentes)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM Reservation r WHERE r.id = :id")
+    Optional<Reservation> findByIdForUpdate(@Param("id") Long id);
+
+    // Verrouiller les réservations d'une liste qui sont encore dans le statut donné
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM Reservation r WHERE r.id IN :ids AND r.statut = :statut")
+    List<Reservation> findByIdInAndStatutForUpdate(
+            @Param("ids") Collection<Long> ids,
+            @Param("statut") ReservationStatus statut
+    );
+
+    // Changer le statut d'un lot de réservations (seulement celles encore dans le statut attendu)
+    @Modifying
+    @Query("UPDATE Reservation r SET r.statut = :nouveau WHERE r.id IN :ids AND r.statut = :attendu")
+    int updateStatutByIds(
+            @Param("ids") Collection<Long> ids,
+            @Param("attendu") ReservationStatus attendu,
+            @Param("nouveau") ReservationStatus nouveau
+    );
+
+    // --- OPÉRATIONS GROUPÉES (ORGANISATEURS) ---
+
+    // Verrouiller les réservations d'un événement, parmi une liste, qui sont dans l'un des statuts donnés
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM Reservation r WHERE r.evenement.id = :evenementId AND r.id IN :ids AND r.statut IN :statuts")
+    List<Reservation> findByEvenementAndIdInAndStatutInForUpdate(
+            @Param("evenementId") Long evenementId,
+            @Param("ids") Collection<Long> ids,
+            @Param("statuts") Collection<ReservationStatus> statuts
+    );
+
+    // Changer le statut d'un lot de réservations (seulement celles encore dans l'un des statuts attendus)
+    @Modifying
+    @Query("UPDATE Reservation r SET r.statut = :nouveau WHERE r.id IN :ids AND r.statut IN :attendus")
+    int updateStatutByIdsAndStatutIn(
+            @Param("ids") Collection<Long> ids,
+            @Param("attendus") Collection<ReservationStatus> attendus,
+            @Param("nouveau") ReservationStatus nouveau
+    );
+
+    // Totaux par statut en une requête (reconstruction des statistiques au démarrage)
+    @Query("SELECT new ma.event.eventreservationsystem.repository.projection.ReservationTotaux(" +
+            "r.statut, COUNT(r), SUM(r.nombrePlaces), SUM(r.montantTotal)) " +
+            "FROM Reservation r GROUP BY r.statut")
+    List<ReservationTotaux> sumParStatut();
+
+    @Query("SELECT new ma.event.eventreservationsystem.repository.projection.ReservationStatut(" +
+            "r.id, r.evenement.id, r.statut) FROM Reservation r WHERE r.id IN :ids")
+    List<ReservationStatut> findStatutsByIds(@Param("ids") Collection<Long> ids);
+
+    // Réservations en attente, pour reconstruire les blocages au démarrage
+    @Query("SELECT new ma.event.eventreservationsystem.repository.projection.PendingHold(" +
+            "r.id, r.evenement.id, r.nombrePlaces, r.dateReservation, w.echeanceConfirmation) " +
+            "FROM Reservation r LEFT JOIN WaitlistEntry w ON w.reservationId = r.id WHERE r.statut = 'EN_ATTENTE'")
+    List<PendingHold> findPendingHolds();
+
+    // Plus grand code au format courant : à longueur et préfixe égaux, l'ordre alphabétique suit l'ordre d'émission
+    @Query("SELECT MAX(r.codeReservation) FROM Reservation r " +
+            "WHERE r.codeReservation LIKE :prefixe AND LENGTH(r.codeReservation) = :longueur")
+    Optional<String> findMaxCodeReservation(@Param("prefixe") String prefixe, @Param("longueur") int longueur);
+
+    // Réservations non annulées faites depuis une date (index sur date_reservation), pour reconstruire les tendances au démarrage
+    @Query("SELECT new ma.event.eventreservationsystem.repository.projection.ReservationRecente(" +
+            "r.evenement.id, r.nombrePlaces, r.dateReservation) " +
+            "FROM Reservation r WHERE r.dateReservation >= :depuis AND r.statut <> 'ANNULEE'")
+    List<ReservationRecente> findRecentes(@Param("depuis") LocalDateTime depuis);
+
+    // Réservations regroupées par événement, heure de réservation et statut, pour reconstruire les séries temporelles
+    @Query("SELECT new ma.event.eventreservationsystem.repository.projection.ReservationsParHeure(" +
+            "r.evenement.id, r.evenement.categorie, EXTRACT(YEAR FROM r.dateReservation), " +
+            "EXTRACT(MONTH FROM r.dateReservation), EXTRACT(DAY FROM r.dateReservation), " +
+            "EXTRACT(HOUR FROM r.dateReservation), r.statut, COUNT(r), SUM(r.nombrePlaces), SUM(r.montantTotal)) " +
+            "FROM Reservation r " +
+            "GROUP BY r.evenement.id, r.evenement.categorie, EXTRACT(YEAR FROM r.dateReservation), " +
+            "EXTRACT(MONTH FROM r.dateReservation), EXTRACT(DAY FROM r.dateReservation), " +
+            "EXTRACT(HOUR FROM r.dateReservation), r.statut")
+    List<ReservationsParHeure> sumParEvenementEtHeure();
+}
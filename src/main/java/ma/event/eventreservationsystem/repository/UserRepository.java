@@ -2,7 +2,9 @@ package ma.event.eventreservationsystem.repository;
 
 import ma.event.eventreservationsystem.entity.User;
 import ma.event.eventreservationsystem.entity.enums.UserRole;
+import ma.event.eventreservationsystem.repository.projection.UtilisateursParRole;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -10,7 +12,7 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, JpaSpecificationExecutor<User> {
 
     // Trouver un utilisateur par email
     Optional<User> findByEmail(String email);
@@ -29,6 +31,11 @@ public interface UserRepository extends JpaRepository<User, Long> {
     // Compter les utilisateurs par rôle
     long countByRole(UserRole role);
 
+    // Comptage par rôle et par état du compte en une requête (tableau de bord)
+    @Query("SELECT new ma.event.eventreservationsystem.repository.projection.UtilisateursParRole(" +
+            "u.role, u.actif, COUNT(u)) FROM User u GROUP BY u.role, u.actif")
+    List<UtilisateursParRole> countParRoleEtActif();
+
     // Trouver tous les utilisateurs par rôle
     List<User> findByRole(UserRole role);
 
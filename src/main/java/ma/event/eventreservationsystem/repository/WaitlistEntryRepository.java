@@ -0,0 +1,52 @@
+package ma.event.eventreservationsystem.repository;
+
+import ma.event.eventreservationsystem.entity.WaitlistEntry;
+import ma.event.eventreservationsystem.entity.enums.WaitlistStatus;
+import ma.event.eventreservationsystem.repository.projection.WaitlistHead;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface WaitlistEntryRepository extends JpaRepository<WaitlistEntry, Long> {
+
+    // Entrées en attente d'un événement, dans l'ordre d'arrivée (parcours de l'index evenement/statut/position)
+    @Query("SELECT new ma.event.eventreservationsystem.repository.projection.WaitlistHead(w.id, w.position, w.nombrePlaces) " +
+            "FROM WaitlistEntry w WHERE w.evenement.id = :evenementId AND w.statut = 'EN_ATTENTE' ORDER BY w.position")
+    List<WaitlistHead> findHeadsEnAttente(@Param("evenementId") Long evenementId);
+
+    @Query("SELECT COALESCE(MAX(w.position), 0) FROM WaitlistEntry w WHERE w.evenement.id = :evenementId")
+    long findMaxPosition(@Param("evenementId") Long evenementId);
+
+    // Nombre d'entrées encore en attente devant une position donnée
+    @Query("SELECT COUNT(w) FROM WaitlistEntry w WHERE w.evenement.id = :evenementId " +
+            "AND w.statut = 'EN_ATTENTE' AND w.position < :position")
+    long countEnAttenteAvant(@Param("evenementId") Long evenementId, @Param("position") Long position);
+
+    boolean existsByEvenementIdAndUtilisateurIdAndStatut(Long evenementId, Long utilisateurId, WaitlistStatus statut);
+
+    @Modifying
+    @Query("UPDATE WaitlistEntry w SET w.statut = :statut WHERE w.id = :id")
+    int updateStatut(@Param("id") Long id, @Param("statut") WaitlistStatus statut);
+
+    // Promotions dont la réservation attend encore la confirmation de l'utilisateur
+    @Query("SELECT w FROM WaitlistEntry w JOIN FETCH w.evenement WHERE w.utilisateur.id = :utilisateurId " +
+            "AND w.statut = 'PROMUE' AND EXISTS (SELECT r.id FROM Reservation r " +
+            "WHERE r.id = w.reservationId AND r.statut = 'EN_ATTENTE') ORDER BY w.echeanceConfirmation")
+    List<WaitlistEntry> findPromotionsAConfirmer(@Param("utilisateurId") Long utilisateurId);
+
+    // Promotions dont la réservation a expiré sans être confirmée
+    @Modifying
+    @Query("UPDATE WaitlistEntry w SET w.statut = 'EXPIREE' WHERE w.reservationId IN :reservationIds AND w.statut = 'PROMUE'")
+    int expirerPromotions(@Param("reservationIds") Collection<Long> reservationIds);
+
+    // Expiration en une requête des entrées encore en attente d'un événement qui n'est plus publié
+    @Modifying
+    @Query("UPDATE WaitlistEntry w SET w.statut = 'EXPIREE' WHERE w.evenement.id = :evenementId AND w.statut = 'EN_ATTENTE'")
+    int expirerEnAttente(@Param("evenementId") Long evenementId);
+}
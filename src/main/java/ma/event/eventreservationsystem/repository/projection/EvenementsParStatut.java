@@ -0,0 +1,9 @@
+package ma.event.eventreservationsystem.repository.projection;
+
+import ma.event.eventreservationsystem.entity.enums.EventStatus;
+
+/**
+ * Nombre d'événements dans un statut.
+ */
+public record EvenementsParStatut(EventStatus statut, Long nombre) {
+}
@@ -0,0 +1,10 @@
+package ma.event.eventreservationsystem.repository.projection;
+
+import ma.event.eventreservationsystem.entity.enums.EventCategory;
+import ma.event.eventreservationsystem.entity.enums.EventStatus;
+
+/**
+ * Colonnes à faible cardinalité d'un événement, lues pour les index bitmap.
+ */
+public record EventDimensions(Long id, EventStatus statut, EventCategory categorie, String ville) {
+}
@@ -0,0 +1,11 @@
+package ma.event.eventreservationsystem.repository.projection;
+
+/**
+ * Ligne minimale lue pour le compteur de places d'un événement (lecture par clé primaire).
+ */
+public record EventSeatCounter(Long id, Integer capaciteMax, Integer placesReservees) {
+
+    public int placesDisponibles() {
+        return capaciteMax - placesReservees;
+    }
+}
@@ -0,0 +1,10 @@
+package ma.event.eventreservationsystem.repository.projection;
+
+import ma.event.eventreservationsystem.entity.enums.EventStatus;
+
+/**
+ * Totaux des événements d'un organisateur dans un statut : nombre d'événements,
+ * nombre de réservations reçues et revenu des réservations confirmées.
+ */
+public record EventTotauxParStatut(EventStatus statut, Long nombreEvenements, Long nombreReservations, Double revenu) {
+}
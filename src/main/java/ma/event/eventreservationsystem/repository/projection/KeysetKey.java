@@ -0,0 +1,9 @@
+package ma.event.eventreservationsystem.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * Clé de parcours (date, id) d'une ligne, sans l'entité : de quoi reconstruire un curseur.
+ */
+public record KeysetKey(LocalDateTime date, Long id) {
+}
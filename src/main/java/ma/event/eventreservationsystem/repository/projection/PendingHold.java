@@ -0,0 +1,11 @@
+package ma.event.eventreservationsystem.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * Réservation en attente, réduite à ce qu'il faut pour reconstruire son blocage de places.
+ * L'échéance n'est renseignée que pour une réservation issue de la liste d'attente.
+ */
+public record PendingHold(Long reservationId, Long evenementId, Integer places, LocalDateTime dateReservation,
+                          LocalDateTime echeance) {
+}
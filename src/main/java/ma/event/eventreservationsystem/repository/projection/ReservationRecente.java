@@ -0,0 +1,9 @@
+package ma.event.eventreservationsystem.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * Réservation récente, réduite à ce qu'il faut pour reconstruire la vitesse de réservation de son événement.
+ */
+public record ReservationRecente(Long evenementId, Integer places, LocalDateTime dateReservation) {
+}
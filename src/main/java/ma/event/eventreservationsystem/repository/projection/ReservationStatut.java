@@ -0,0 +1,9 @@
+package ma.event.eventreservationsystem.repository.projection;
+
+import ma.event.eventreservationsystem.entity.enums.ReservationStatus;
+
+/**
+ * Statut courant d'une réservation, pour expliquer le refus d'une opération groupée.
+ */
+public record ReservationStatut(Long id, Long evenementId, ReservationStatus statut) {
+}
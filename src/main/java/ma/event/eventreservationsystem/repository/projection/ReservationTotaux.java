@@ -0,0 +1,9 @@
+package ma.event.eventreservationsystem.repository.projection;
+
+import ma.event.eventreservationsystem.entity.enums.ReservationStatus;
+
+/**
+ * Totaux des réservations d'un statut : nombre, places et montant cumulés.
+ */
+public record ReservationTotaux(ReservationStatus statut, Long nombre, Long places, Double montant) {
+}
@@ -0,0 +1,18 @@
+package ma.event.eventreservationsystem.repository.projection;
+
+import ma.event.eventreservationsystem.entity.enums.EventCategory;
+import ma.event.eventreservationsystem.entity.enums.ReservationStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Réservations d'un événement faites dans une même heure et ayant le même statut : nombre, places et montant cumulés.
+ */
+public record ReservationsParHeure(Long evenementId, EventCategory categorie,
+                                   Integer annee, Integer mois, Integer jour, Integer heure,
+                                   ReservationStatus statut, Long nombre, Long places, Double montant) {
+
+    public LocalDateTime debut() {
+        return LocalDateTime.of(annee, mois, jour, heure, 0);
+    }
+}
@@ -0,0 +1,9 @@
+package ma.event.eventreservationsystem.repository.projection;
+
+import ma.event.eventreservationsystem.entity.enums.UserRole;
+
+/**
+ * Nombre d'utilisateurs d'un rôle, actifs ou non.
+ */
+public record UtilisateursParRole(UserRole role, Boolean actif, Long nombre) {
+}
@@ -0,0 +1,7 @@
+package ma.event.eventreservationsystem.repository.projection;
+
+/**
+ * Élément de l'index en mémoire d'une liste d'attente : de quoi décider d'une promotion sans relire l'entrée.
+ */
+public record WaitlistHead(Long id, Long position, Integer nombrePlaces) {
+}
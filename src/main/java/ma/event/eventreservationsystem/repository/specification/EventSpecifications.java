@@ -0,0 +1,80 @@
+package ma.event.eventreservationsystem.repository.specification;
+
+import ma.event.eventreservationsystem.entity.Event;
+import ma.event.eventreservationsystem.entity.enums.EventCategory;
+import ma.event.eventreservationsystem.entity.enums.EventStatus;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.util.StringUtils;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+/**
+ * Critères de recherche des événements, combinables ; un critère non renseigné ne filtre rien
+ */
+public final class EventSpecifications {
+
+    private EventSpecifications() {
+    }
+
+    public static Specification<Event> avecStatut(EventStatus statut) {
+        return (root, query, cb) -> statut == null ? null : cb.equal(root.get("statut"), statut);
+    }
+
+    public static Specification<Event> avecStatutParmi(Collection<EventStatus> statuts) {
+        return (root, query, cb) -> statuts == null || statuts.isEmpty() ? null : root.get("statut").in(statuts);
+    }
+
+    public static Specification<Event> avecCategorieParmi(Collection<EventCategory> categories) {
+        return (root, query, cb) -> categories == null || categories.isEmpty() ? null : root.get("categorie").in(categories);
+    }
+
+    /**
+     * Ville parmi des orthographes exactes, telles qu'enregistrées ; la correspondance sans accents ni casse
+     * ("Fès" = "fes", comme dans les index) est résolue par l'appelant. Collection vide : aucun événement
+     * @param orthographes null pour ne pas filtrer
+     */
+    public static Specification<Event> avecVilleParmi(Collection<String> orthographes) {
+        return (root, query, cb) -> orthographes == null ? null
+                : orthographes.isEmpty() ? cb.disjunction() : root.get("ville").in(orthographes);
+    }
+
+    public static Specification<Event> avecCategorie(EventCategory categorie) {
+        return (root, query, cb) -> categorie == null ? null : cb.equal(root.get("categorie"), categorie);
+    }
+
+    /**
+     * Pas encore terminé à cette date : avec {@link #commenceAvant}, événements en cours pendant une période
+     */
+    public static Specification<Event> termineApres(LocalDateTime date) {
+        return (root, query, cb) -> date == null ? null : cb.greaterThanOrEqualTo(root.get("dateFin"), date);
+    }
+
+    public static Specification<Event> commenceAvant(LocalDateTime date) {
+        return (root, query, cb) -> date == null ? null : cb.lessThanOrEqualTo(root.get("dateDebut"), date);
+    }
+
+    /**
+     * Texte contenu dans le titre ou la ville (insensible à la casse)
+     */
+    public static Specification<Event> contenantTexte(String texte) {
+        return (root, query, cb) -> {
+            if (!StringUtils.hasText(texte)) {
+                return null;
+            }
+            String motif = "%" + texte.trim().toLowerCase() + "%";
+            return cb.or(
+                    cb.like(cb.lower(root.get("titre")), motif),
+                    cb.like(cb.lower(root.get("ville")), motif)
+            );
+        };
+    }
+
+    public static Specification<Event> prixAuMoins(Double prixMin) {
+        return (root, query, cb) -> prixMin == null ? null : cb.greaterThanOrEqualTo(root.get("prixUnitaire"), prixMin);
+    }
+
+    public static Specification<Event> prixAuPlus(Double prixMax) {
+        return (root, query, cb) -> prixMax == null ? null : cb.lessThanOrEqualTo(root.get("prixUnitaire"), prixMax);
+    }
+}
@@ -0,0 +1,41 @@
+package ma.event.eventreservationsystem.repository.specification;
+
+import ma.event.eventreservationsystem.entity.Reservation;
+import ma.event.eventreservationsystem.entity.enums.ReservationStatus;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.util.StringUtils;
+
+/**
+ * Critères de recherche des réservations, combinables ; un critère non renseigné ne filtre rien
+ */
+public final class ReservationSpecifications {
+
+    private ReservationSpecifications() {
+    }
+
+    public static Specification<Reservation> avecStatut(ReservationStatus statut) {
+        return (root, query, cb) -> statut == null ? null : cb.equal(root.get("statut"), statut);
+    }
+
+    public static Specification<Reservation> pourEvenement(Long evenementId) {
+        return (root, query, cb) -> evenementId == null ? null : cb.equal(root.get("evenement").get("id"), evenementId);
+    }
+
+    /**
+     * Texte contenu dans le code, le nom ou le prénom du client, ou le titre de l'événement (insensible à la casse)
+     */
+    public static Specification<Reservation> contenantTexte(String texte) {
+        return (root, query, cb) -> {
+            if (!StringUtils.hasText(texte)) {
+                return null;
+            }
+            String motif = "%" + texte.trim().toLowerCase() + "%";
+            return cb.or(
+                    cb.like(cb.lower(root.get("codeReservation")), motif),
+                    cb.like(cb.lower(root.get("utilisateur").get("nom")), motif),
+                    cb.like(cb.lower(root.get("utilisateur").get("prenom")), motif),
+                    cb.like(cb.lower(root.get("evenement").get("titre")), motif)
+            );
+        };
+    }
+}
@@ -0,0 +1,40 @@
+package ma.event.eventreservationsystem.repository.specification;
+
+import ma.event.eventreservationsystem.entity.User;
+import ma.event.eventreservationsystem.entity.enums.UserRole;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.util.StringUtils;
+
+/**
+ * Critères de recherche des utilisateurs, combinables ; un critère non renseigné ne filtre rien
+ */
+public final class UserSpecifications {
+
+    private UserSpecifications() {
+    }
+
+    public static Specification<User> avecRole(UserRole role) {
+        return (root, query, cb) -> role == null ? null : cb.equal(root.get("role"), role);
+    }
+
+    public static Specification<User> avecActif(Boolean actif) {
+        return (root, query, cb) -> actif == null ? null : cb.equal(root.get("actif"), actif);
+    }
+
+    /**
+     * Texte contenu dans le nom, le prénom ou l'email (insensible à la casse)
+     */
+    public static Specification<User> contenantTexte(String texte) {
+        return (root, query, cb) -> {
+            if (!StringUtils.hasText(texte)) {
+                return null;
+            }
+            String motif = "%" + texte.trim().toLowerCase() + "%";
+            return cb.or(
+                    cb.like(cb.lower(root.get("nom")), motif),
+                    cb.like(cb.lower(root.get("prenom")), motif),
+                    cb.like(cb.lower(root.get("email")), motif)
+            );
+        };
+    }
+}
@@ -0,0 +1,8 @@
+package ma.event.eventreservationsystem.service;
+
+import ma.event.eventreservationsystem.dto.AdminDashboard;
+
+public interface DashboardService {
+    // Compteurs du tableau de bord administrateur, sans charger d'entités
+    AdminDashboard getTableauDeBordAdmin();
+}
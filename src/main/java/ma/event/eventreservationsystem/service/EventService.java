@@ -1,11 +1,17 @@
 package ma.event.eventreservationsystem.service;
 
+import ma.event.eventreservationsystem.dto.EventFacets;
+import ma.event.eventreservationsystem.dto.KeysetPage;
+import ma.event.eventreservationsystem.dto.OrganizerStatistics;
 import ma.event.eventreservationsystem.entity.Event;
 import ma.event.eventreservationsystem.entity.enums.EventCategory;
 import ma.event.eventreservationsystem.entity.enums.EventStatus;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
-import java.util.Map;
 
 public interface EventService {
     // Gestion des événements
@@ -22,17 +28,41 @@ public interface EventService {
     List<Event> findByCategorie(EventCategory categorie);
     List<Event> findByStatut(EventStatus statut);
     List<Event> findAvailableEvents();
-    List<Event> findPopularEvents();
+    // Événements en tendance (vitesse de réservation récente), complétés par les prochains événements
+    List<Event> findTrendingEvents(int nombre);
+    // Parcours par clé (dateDebut, id) : curseur null pour la première fenêtre
+    KeysetPage<Event> findFenetre(String curseur, int taille);
+    // Curseur situé {@code lignes} lignes plus loin (null au-delà de la fin), sans charger les événements sautés
+    String sauterFenetre(String curseur, int lignes);
+    KeysetPage<Event> findFenetreByOrganisateur(Long organisateurId, String curseur, int taille);
+    Page<Event> findByCriteres(Collection<EventStatus> statuts, Collection<EventCategory> categories,
+                               Collection<String> villes, Pageable pageable);
+    Page<Event> searchByCriteres(Collection<EventStatus> statuts, Collection<EventCategory> categories,
+                                 String texte, Pageable pageable);
+    long countByCriteres(Collection<EventStatus> statuts, Collection<EventCategory> categories, String texte);
 
     // Recherche avancée
-    List<Event> searchEvents(EventCategory categorie, LocalDateTime dateDebut,
+    Page<Event> searchEvents(EventCategory categorie, LocalDateTime dateDebut,
                              LocalDateTime dateFin, String ville,
-                             Double prixMin, Double prixMax);
+                             Double prixMin, Double prixMax, Pageable pageable);
+    long countEvents(EventCategory categorie, LocalDateTime dateDebut,
+                     LocalDateTime dateFin, String ville,
+                     Double prixMin, Double prixMax);
+    // Tous statuts (organisateurs, administrateurs)
     List<Event> searchByTitre(String keyword);
+    // Catalogue public : événements publiés uniquement, classés par pertinence
+    List<Event> searchCatalogue(String keyword);
+    List<Event> fuzzySearchByTitre(String keyword);
+    List<Event> findHappeningBetween(LocalDateTime debut, LocalDateTime fin);
+    List<Event> findStartingBetween(LocalDateTime debut, LocalDateTime fin);
+    List<Event> findByPrixBetween(Double prixMin, Double prixMax);
+    EventFacets getFacettes(EventCategory categorie, LocalDateTime dateDebut,
+                            LocalDateTime dateFin, String ville,
+                            Double prixMin, Double prixMax);
 
     // Calculs
     int getPlacesDisponibles(Long eventId);
-    Map<String, Object> getStatistiquesOrganisateur(Long organisateurId);
+    OrganizerStatistics getStatistiquesOrganisateur(Long organisateurId);
 
     // Vérifications
     void verifierEvenementsTermines();
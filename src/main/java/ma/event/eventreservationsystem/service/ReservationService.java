@@ -1,16 +1,31 @@
 package ma.event.eventreservationsystem.service;
 
+import ma.event.eventreservationsystem.dto.DemandeReservation;
+import ma.event.eventreservationsystem.dto.KeysetPage;
+import ma.event.eventreservationsystem.dto.ResultatOperation;
+import ma.event.eventreservationsystem.dto.ResultatReservation;
 import ma.event.eventreservationsystem.entity.Reservation;
 import ma.event.eventreservationsystem.entity.enums.ReservationStatus;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
 public interface ReservationService {
     // Gestion des réservations
     Reservation createReservation(Reservation reservation, Long utilisateurId, Long evenementId);
+    Reservation createReservation(Reservation reservation, Long utilisateurId, Long evenementId, String cleIdempotence);
+    List<ResultatReservation> createReservations(List<DemandeReservation> demandes);
     Reservation confirmerReservation(Long id, Long utilisateurId);
     void annulerReservation(Long id, Long utilisateurId);
 
+    // Opérations groupées (organisateur de l'événement ou admin)
+    List<ResultatOperation> confirmerReservations(Long evenementId, Collection<Long> reservationIds, Long utilisateurId);
+    List<ResultatOperation> annulerReservations(Long evenementId, Collection<Long> reservationIds, Long utilisateurId);
+
     // Recherche et récupération
     Reservation findById(Long id);
     Reservation findByCode(String codeReservation);
@@ -20,6 +35,16 @@ public interface ReservationService {
     List<Reservation> findUpcomingReservationsByUser(Long utilisateurId);
     List<Reservation> findAll();
     List<Reservation> getAllReservations();
+    Page<Reservation> searchReservations(ReservationStatus statut, Long evenementId, String texte, Pageable pageable);
+    long countReservations(ReservationStatus statut, Long evenementId, String texte);
+
+    // Parcours par clé (dateReservation, id), des plus récentes aux plus anciennes : curseur null pour la première fenêtre
+    KeysetPage<Reservation> findFenetre(ReservationStatus statut, String curseur, int taille);
+    // Curseur situé {@code lignes} lignes plus loin (null au-delà de la fin), sans charger les réservations sautées
+    String sauterFenetre(ReservationStatus statut, String curseur, int lignes);
+    KeysetPage<Reservation> findFenetreByUtilisateur(Long utilisateurId, String curseur, int taille);
+    KeysetPage<Reservation> findFenetreByEvenement(Long evenementId, String curseur, int taille);
+    KeysetPage<Reservation> findFenetreEntreDates(LocalDateTime debut, LocalDateTime fin, String curseur, int taille);
 
     // Statistiques
     Map<String, Object> getStatistiquesReservation();
@@ -2,6 +2,9 @@ package ma.event.eventreservationsystem.service;
 
 import ma.event.eventreservationsystem.entity.User;
 import ma.event.eventreservationsystem.entity.enums.UserRole;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
 import java.util.List;
 import java.util.Map;
 
@@ -26,6 +29,8 @@ public interface UserService {
     List<User> findByRole(UserRole role);
     List<User> findActifs();
     List<User> searchByNomOrPrenom(String keyword);
+    Page<User> searchUsers(UserRole role, Boolean actif, String texte, Pageable pageable);
+    long countUsers(UserRole role, Boolean actif, String texte);
 
     // Statistiques
     Map<String, Object> getStatistiquesUtilisateur(Long id);
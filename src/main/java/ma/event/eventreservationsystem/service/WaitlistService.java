@@ -0,0 +1,20 @@
+package ma.event.eventreservationsystem.service;
+
+import ma.event.eventreservationsystem.entity.WaitlistEntry;
+
+import java.util.List;
+
+public interface WaitlistService {
+    // Gestion de la liste d'attente
+    WaitlistEntry inscrire(Long utilisateurId, Long evenementId, Integer nombrePlaces);
+    void quitter(Long entreeId, Long utilisateurId);
+
+    // Rang dans la file (1 = prochain servi, 0 = plus en attente)
+    long getRang(Long entreeId);
+
+    // Places obtenues par la liste d'attente, dont la réservation reste à confirmer avant l'échéance
+    List<WaitlistEntry> findPromotionsAConfirmer(Long utilisateurId);
+
+    // Promotion des premiers de la file dans la limite des places disponibles
+    void promouvoir(Long evenementId);
+}
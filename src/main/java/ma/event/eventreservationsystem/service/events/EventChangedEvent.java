@@ -0,0 +1,8 @@
+package ma.event.eventreservationsystem.service.events;
+
+/**
+ * Un événement a été créé, modifié, publié, annulé, terminé ou supprimé.
+ * Publié dans la transaction qui le modifie ; à écouter après sa validation.
+ */
+public record EventChangedEvent(Long evenementId) {
+}
@@ -0,0 +1,8 @@
+package ma.event.eventreservationsystem.service.events;
+
+/**
+ * Des places d'un événement ont été rendues (annulation, expiration d'un blocage).
+ * Publié dans la transaction qui rend les places ; à écouter après sa validation.
+ */
+public record SeatsReleasedEvent(Long evenementId, int places) {
+}
@@ -0,0 +1,8 @@
+package ma.event.eventreservationsystem.service.events;
+
+/**
+ * Des places d'un événement ont été réservées (réservation unitaire ou groupée).
+ * Publié dans la transaction qui réserve les places ; à écouter après sa validation.
+ */
+public record SeatsReservedEvent(Long evenementId, int places) {
+}
@@ -0,0 +1,64 @@
+package ma.event.eventreservationsystem.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import ma.event.eventreservationsystem.dto.AdminDashboard;
+import ma.event.eventreservationsystem.entity.enums.EventStatus;
+import ma.event.eventreservationsystem.entity.enums.ReservationStatus;
+import ma.event.eventreservationsystem.entity.enums.UserRole;
+import ma.event.eventreservationsystem.repository.EventRepository;
+import ma.event.eventreservationsystem.repository.UserRepository;
+import ma.event.eventreservationsystem.repository.projection.EvenementsParStatut;
+import ma.event.eventreservationsystem.repository.projection.ReservationTotaux;
+import ma.event.eventreservationsystem.repository.projection.UtilisateursParRole;
+import ma.event.eventreservationsystem.service.DashboardService;
+import ma.event.eventreservationsystem.service.stats.ReservationStatistics;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class DashboardServiceImpl implements DashboardService {
+
+    private final UserRepository userRepository;
+    private final EventRepository eventRepository;
+    private final ReservationStatistics reservationStatistics;
+
+    @Override
+    public AdminDashboard getTableauDeBordAdmin() {
+        // Deux requêtes GROUP BY (utilisateurs, événements) dans la même transaction ;
+        // les totaux des réservations sont tenus à jour en mémoire
+        Map<UserRole, Long> parRole = zeros(UserRole.class);
+        long actifs = 0;
+        for (UtilisateursParRole ligne : userRepository.countParRoleEtActif()) {
+            parRole.merge(ligne.role(), ligne.nombre(), Long::sum);
+            if (Boolean.TRUE.equals(ligne.actif())) {
+                actifs += ligne.nombre();
+            }
+        }
+
+        Map<EventStatus, Long> parStatut = zeros(EventStatus.class);
+        for (EvenementsParStatut ligne : eventRepository.countParStatut()) {
+            parStatut.put(ligne.statut(), ligne.nombre());
+        }
+
+        Map<ReservationStatus, ReservationTotaux> totaux = reservationStatistics.getTotaux();
+        Map<ReservationStatus, Long> reservations = zeros(ReservationStatus.class);
+        totaux.forEach((statut, t) -> reservations.put(statut, t.nombre()));
+        ReservationTotaux confirmees = totaux.get(ReservationStatus.CONFIRMEE);
+
+        return new AdminDashboard(parRole, actifs, parStatut, reservations,
+                confirmees.montant(), confirmees.places());
+    }
+
+    private static <E extends Enum<E>> Map<E, Long> zeros(Class<E> type) {
+        Map<E, Long> compteurs = new EnumMap<>(type);
+        for (E valeur : type.getEnumConstants()) {
+            compteurs.put(valeur, 0L);
+        }
+        return compteurs;
+    }
+}
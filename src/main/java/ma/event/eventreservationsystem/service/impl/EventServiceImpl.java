@@ -1,6 +1,9 @@
 package ma.event.eventreservationsystem.service.impl;
 
 import lombok.RequiredArgsConstructor;
+import ma.event.eventreservationsystem.dto.EventFacets;
+import ma.event.eventreservationsystem.dto.KeysetPage;
+import ma.event.eventreservationsystem.dto.OrganizerStatistics;
 import ma.event.eventreservationsystem.entity.Event;
 import ma.event.eventreservationsystem.entity.User;
 import ma.event.eventreservationsystem.entity.enums.EventCategory;
@@ -8,26 +11,70 @@ import ma.event.eventreservationsystem.entity.enums.EventStatus;
 import ma.event.eventreservationsystem.entity.enums.UserRole;
 import ma.event.eventreservationsystem.repository.EventRepository;
 import ma.event.eventreservationsystem.repository.ReservationRepository;
+import ma.event.eventreservationsystem.repository.projection.EventTotauxParStatut;
 import ma.event.eventreservationsystem.service.EventService;
 import ma.event.eventreservationsystem.service.UserService;
+import ma.event.eventreservationsystem.service.events.EventChangedEvent;
+import ma.event.eventreservationsystem.service.inventory.AvailabilityCache;
+import ma.event.eventreservationsystem.service.inventory.SeatInventory;
+import ma.event.eventreservationsystem.service.search.EventBitmapIndex;
+import ma.event.eventreservationsystem.service.search.EventDateIndex;
+import ma.event.eventreservationsystem.service.search.EventFacetIndex;
+import ma.event.eventreservationsystem.service.search.EventPriceIndex;
+import ma.event.eventreservationsystem.service.search.EventSearchIndex;
+import ma.event.eventreservationsystem.service.search.FuzzyTitleIndex;
+import ma.event.eventreservationsystem.service.search.TextNormalizer;
+import ma.event.eventreservationsystem.service.search.TrendingIndex;
 import ma.event.eventreservationsystem.exception.*;
+import ma.event.eventreservationsystem.util.KeysetCursor;
+import ma.event.eventreservationsystem.util.TransactionHooks;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
+import static ma.event.eventreservationsystem.repository.specification.EventSpecifications.*;
+
 @Service
 @RequiredArgsConstructor
 @Transactional
 public class EventServiceImpl implements EventService {
 
+    // Nombre maximal de résultats d'une recherche par mots-clés
+    private static final int LIMITE_RECHERCHE = 200;
+    // Nombre maximal d'identifiants par requête IN
+    private static final int TAILLE_LOT_CHARGEMENT = 1000;
+
     private final EventRepository eventRepository;
     private final ReservationRepository reservationRepository;
     private final UserService userService;
+    private final SeatInventory seatInventory;
+    private final AvailabilityCache availabilityCache;
+    private final EventSearchIndex eventSearchIndex;
+    private final FuzzyTitleIndex fuzzyTitleIndex;
+    private final EventFacetIndex eventFacetIndex;
+    private final EventBitmapIndex eventBitmapIndex;
+    private final EventDateIndex eventDateIndex;
+    private final EventPriceIndex eventPriceIndex;
+    private final TrendingIndex trendingIndex;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional(readOnly = true)
@@ -59,7 +106,9 @@ public class EventServiceImpl implements EventService {
         event.setOrganisateur(organisateur);
         event.setStatut(EventStatus.BROUILLON);
 
-        return eventRepository.save(event);
+        Event saved = eventRepository.save(event);
+        eventPublisher.publishEvent(new EventChangedEvent(saved.getId()));
+        return saved;
     }
 
     @Override
@@ -84,6 +133,11 @@ public class EventServiceImpl implements EventService {
             throw new BadRequestException("La date de fin doit être après la date de début");
         }
 
+        if (updatedEvent.getCapaciteMax() < event.getPlacesReservees()) {
+            throw new BusinessException("La capacité ne peut pas être inférieure aux places déjà réservées ("
+                    + event.getPlacesReservees() + ")");
+        }
+
         event.setTitre(updatedEvent.getTitre());
         event.setDescription(updatedEvent.getDescription());
         event.setCategorie(updatedEvent.getCategorie());
@@ -95,7 +149,11 @@ public class EventServiceImpl implements EventService {
         event.setPrixUnitaire(updatedEvent.getPrixUnitaire());
         event.setImageUrl(updatedEvent.getImageUrl());
 
-        return eventRepository.save(event);
+        Event saved = eventRepository.save(event);
+        // La capacité a pu changer
+        TransactionHooks.apresCommit(() -> availabilityCache.invalider(id));
+        eventPublisher.publishEvent(new EventChangedEvent(id));
+        return saved;
     }
 
     @Override
@@ -117,7 +175,9 @@ public class EventServiceImpl implements EventService {
         }
 
         event.setStatut(EventStatus.PUBLIE);
-        return eventRepository.save(event);
+        Event saved = eventRepository.save(event);
+        eventPublisher.publishEvent(new EventChangedEvent(id));
+        return saved;
     }
 
     @Override
@@ -132,6 +192,7 @@ public class EventServiceImpl implements EventService {
 
         event.setStatut(EventStatus.ANNULE);
         eventRepository.save(event);
+        eventPublisher.publishEvent(new EventChangedEvent(id));
     }
 
     @Override
@@ -150,6 +211,8 @@ public class EventServiceImpl implements EventService {
         }
 
         eventRepository.delete(event);
+        seatInventory.invalider(id);
+        eventPublisher.publishEvent(new EventChangedEvent(id));
     }
 
     @Override
@@ -176,49 +239,160 @@ public class EventServiceImpl implements EventService {
     }
     // ------------------------------------
 
+    @Override
+    @Transactional(readOnly = true)
+    public KeysetPage<Event> findFenetre(String curseur, int taille) {
+        KeysetCursor.Position apres = KeysetCursor.decoder(curseur, KeysetCursor.DEBUT_CROISSANT);
+        List<Event> lignes = eventRepository.findFenetreApres(apres.date(), apres.id(), KeysetCursor.limite(taille));
+        return KeysetCursor.page(lignes, taille, Event::getDateDebut, Event::getId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public String sauterFenetre(String curseur, int lignes) {
+        KeysetCursor.Position apres = KeysetCursor.decoder(curseur, KeysetCursor.DEBUT_CROISSANT);
+        return KeysetCursor.apresSaut(eventRepository.findClesApres(apres.date(), apres.id(), KeysetCursor.saut(lignes)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public KeysetPage<Event> findFenetreByOrganisateur(Long organisateurId, String curseur, int taille) {
+        KeysetCursor.Position apres = KeysetCursor.decoder(curseur, KeysetCursor.DEBUT_CROISSANT);
+        List<Event> lignes = eventRepository.findFenetreByOrganisateurApres(
+                organisateurId, apres.date(), apres.id(), KeysetCursor.limite(taille));
+        return KeysetCursor.page(lignes, taille, Event::getDateDebut, Event::getId);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<Event> findByCategorie(EventCategory categorie) {
-        return eventRepository.findByCategorie(categorie);
+        if (!eventBitmapIndex.estPret()) {
+            return eventRepository.findByCategorie(categorie);
+        }
+        return chargerDansLOrdre(eventBitmapIndex.selectionner(
+                null, Set.of(categorie), null, 0, Integer.MAX_VALUE).ids());
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<Event> findByStatut(EventStatus statut) {
-        return eventRepository.findByStatut(statut);
+        if (!eventBitmapIndex.estPret()) {
+            return eventRepository.findByStatut(statut);
+        }
+        return chargerDansLOrdre(eventBitmapIndex.selectionner(
+                Set.of(statut), null, null, 0, Integer.MAX_VALUE).ids());
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<Event> findAvailableEvents() {
-        return eventRepository.findAvailableEvents();
+        return findByStatut(EventStatus.PUBLIE);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<Event> findByCriteres(Collection<EventStatus> statuts,
+                                      Collection<EventCategory> categories,
+                                      Collection<String> villes,
+                                      Pageable pageable) {
+        if (!eventBitmapIndex.estPret()) {
+            Specification<Event> criteres = Specification.allOf(
+                    avecStatutParmi(statuts), avecCategorieParmi(categories),
+                    avecVilleParmi(villes == null || villes.isEmpty() ? null : orthographesVilles(villes)));
+            return eventRepository.findAll(criteres, pageable.isPaged()
+                    ? PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), Sort.by("id"))
+                    : Pageable.unpaged(Sort.by("id")));
+        }
+
+        // Filtres résolus sur les bitmaps ; seuls les événements de la page sont lus en base
+        EventBitmapIndex.Selection selection = pageable.isPaged()
+                ? eventBitmapIndex.selectionner(statuts, categories, villes, pageable.getOffset(), pageable.getPageSize())
+                : eventBitmapIndex.selectionner(statuts, categories, villes, 0, Integer.MAX_VALUE);
+        return new PageImpl<>(chargerDansLOrdre(selection.ids()), pageable, selection.total());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<Event> searchByCriteres(Collection<EventStatus> statuts,
+                                        Collection<EventCategory> categories,
+                                        String texte,
+                                        Pageable pageable) {
+        Specification<Event> criteres = Specification.allOf(
+                avecStatutParmi(statuts), avecCategorieParmi(categories), contenantTexte(texte));
+
+        // Ordre stable d'une page à l'autre, même à valeur de tri égale
+        Sort tri = pageable.getSort().isSorted()
+                ? pageable.getSort().and(Sort.by("id"))
+                : Sort.by("dateDebut", "id");
+        return eventRepository.findAll(criteres, pageable.isPaged()
+                ? PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), tri)
+                : Pageable.unpaged(tri));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long countByCriteres(Collection<EventStatus> statuts, Collection<EventCategory> categories, String texte) {
+        // Sans texte, le comptage se fait sur les bitmaps, sans requête
+        if (!StringUtils.hasText(texte) && eventBitmapIndex.estPret()) {
+            return eventBitmapIndex.compter(statuts, categories, null);
+        }
+        return eventRepository.count(Specification.allOf(
+                avecStatutParmi(statuts), avecCategorieParmi(categories), contenantTexte(texte)));
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<Event> findPopularEvents() {
-        return eventRepository.findPopularEvents();
+    public List<Event> findTrendingEvents(int nombre) {
+        LocalDateTime maintenant = LocalDateTime.now();
+        if (!trendingIndex.estPret() || !eventDateIndex.estPret()) {
+            return eventRepository.findPublishedEventsBetweenDates(maintenant, maintenant.plusMonths(1)).stream()
+                    .limit(nombre)
+                    .toList();
+        }
+        // Classement servi depuis la mémoire ; sans assez de réservations récentes, les prochains événements publiés
+        List<Long> ids = new ArrayList<>(trendingIndex.tendances(nombre));
+        if (ids.size() < nombre) {
+            eventDateIndex.commencantEntre(maintenant, null, id -> {
+                if (!ids.contains(id)) {
+                    ids.add(id);
+                }
+                return ids.size() < nombre;
+            });
+        }
+        return chargerDansLOrdre(ids);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<Event> searchEvents(EventCategory categorie, LocalDateTime dateDebut,
+    public Page<Event> searchEvents(EventCategory categorie, LocalDateTime dateDebut,
                                     LocalDateTime dateFin, String ville,
-                                    Double prixMin, Double prixMax) {
-        return eventRepository.findAllWithOrganisateur().stream()
-                .filter(e -> categorie == null || e.getCategorie().equals(categorie))
-                .filter(e -> dateDebut == null || e.getDateDebut().isAfter(dateDebut))
-                .filter(e -> dateFin == null || e.getDateDebut().isBefore(dateFin))
-                .filter(e -> ville == null || e.getVille().equalsIgnoreCase(ville))
-                .filter(e -> prixMin == null || e.getPrixUnitaire() >= prixMin)
-                .filter(e -> prixMax == null || e.getPrixUnitaire() <= prixMax)
-                .filter(e -> e.getStatut() == EventStatus.PUBLIE)
-                .collect(Collectors.toList());
+                                    Double prixMin, Double prixMax, Pageable pageable) {
+        // Tri par date ou par prix : filtres et découpage résolus sur les index, seule la page est lue en base
+        EventFacetIndex.Ordre ordre = ordreCatalogue(pageable.getSort());
+        if (ordre != null && eventFacetIndex.peutSelectionner()) {
+            EventBitmapIndex.Selection selection = eventFacetIndex.selectionner(
+                    categorie, dateDebut, dateFin, ville, prixMin, prixMax, ordre,
+                    pageable.isPaged() ? pageable.getOffset() : 0,
+                    pageable.isPaged() ? pageable.getPageSize() : Integer.MAX_VALUE);
+            return new PageImpl<>(chargerDansLOrdre(selection.ids()), pageable, selection.total());
+        }
+
+        // Sinon seuls les critères renseignés sont ajoutés à la requête ; tri et découpage faits par la base
+        Specification<Event> criteres = criteresRecherche(categorie, dateDebut, dateFin, ville, prixMin, prixMax);
+
+        // Ordre stable d'une page à l'autre, même à date égale
+        Sort tri = pageable.getSort().isSorted()
+                ? pageable.getSort().and(Sort.by("id"))
+                : Sort.by("dateDebut", "id");
+        return eventRepository.findAll(criteres, pageable.isPaged()
+                ? PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), tri)
+                : Pageable.unpaged(tri));
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<Event> searchByTitre(String keyword) {
+        // Tous statuts confondus (brouillons, annulés, terminés) : la base, pas le catalogue en mémoire
         if (keyword == null || keyword.isEmpty()) {
             return eventRepository.findAllWithOrganisateur();
         }
@@ -227,53 +401,171 @@ public class EventServiceImpl implements EventService {
 
     @Override
     @Transactional(readOnly = true)
-    public int getPlacesDisponibles(Long eventId) {
-        Event event = findById(eventId);
-        Integer placesReservees = reservationRepository.countTotalPlacesReserveesForEvent(eventId);
-        if (placesReservees == null) placesReservees = 0;
-        return event.getCapaciteMax() - placesReservees;
+    public List<Event> searchCatalogue(String keyword) {
+        if (keyword == null || keyword.isBlank()) {
+            return findAvailableEvents();
+        }
+        // Avant la construction de l'index au démarrage, on interroge encore la base
+        if (!eventSearchIndex.estPret()) {
+            return eventRepository.searchWithOrganisateur(keyword).stream()
+                    .filter(e -> e.getStatut() == EventStatus.PUBLIE)
+                    .collect(Collectors.toList());
+        }
+
+        // L'index ne contient que les événements publiés, déjà classés par pertinence
+        List<Long> ids = eventSearchIndex.rechercher(keyword, LIMITE_RECHERCHE);
+        if (ids.isEmpty()) {
+            // Aucun mot trouvé tel quel : on tolère les fautes de frappe sur le titre
+            return fuzzySearchByTitre(keyword);
+        }
+        return chargerDansLOrdre(ids);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Event> fuzzySearchByTitre(String keyword) {
+        if (keyword == null || keyword.isBlank() || !fuzzyTitleIndex.estPret()) {
+            return List.of();
+        }
+        // Classés du titre le plus proche au moins proche
+        return chargerDansLOrdre(fuzzyTitleIndex.rechercher(keyword, LIMITE_RECHERCHE));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Event> findHappeningBetween(LocalDateTime debut, LocalDateTime fin) {
+        verifierPeriode(debut, fin);
+        if (!eventDateIndex.estPret()) {
+            return eventRepository.findPublishedEventsOverlapping(debut, fin);
+        }
+        // Commencés au plus tard à la fin de la période et terminés au plus tôt à son début, par date de début
+        return chargerDansLOrdre(eventDateIndex.seDeroulantPendant(debut, fin));
     }
 
-    // 🔥 CORRECTION ICI EGALEMENT POUR LES STATS 🔥
     @Override
     @Transactional(readOnly = true)
-    public Map<String, Object> getStatistiquesOrganisateur(Long organisateurId) {
-        Map<String, Object> stats = new HashMap<>();
+    public List<Event> findStartingBetween(LocalDateTime debut, LocalDateTime fin) {
+        verifierPeriode(debut, fin);
+        if (!eventDateIndex.estPret()) {
+            return eventRepository.findPublishedEventsBetweenDates(debut, fin);
+        }
+        return chargerDansLOrdre(eventDateIndex.commencantEntre(debut, fin));
+    }
+
+    private static void verifierPeriode(LocalDateTime debut, LocalDateTime fin) {
+        if (debut == null || fin == null) {
+            throw new BadRequestException("Les dates de début et de fin de la période sont obligatoires");
+        }
+        if (fin.isBefore(debut)) {
+            throw new BadRequestException("La fin de la période doit être postérieure à son début");
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long countEvents(EventCategory categorie, LocalDateTime dateDebut,
+                            LocalDateTime dateFin, String ville,
+                            Double prixMin, Double prixMax) {
+        if (eventFacetIndex.peutSelectionner()) {
+            return eventFacetIndex.compter(categorie, dateDebut, dateFin, ville, prixMin, prixMax);
+        }
+        return eventRepository.count(criteresRecherche(categorie, dateDebut, dateFin, ville, prixMin, prixMax));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Event> findByPrixBetween(Double prixMin, Double prixMax) {
+        if (prixMin != null && prixMax != null && prixMax < prixMin) {
+            throw new BadRequestException("Le prix maximum doit être supérieur au prix minimum");
+        }
+        if (!eventPriceIndex.estPret()) {
+            return eventRepository.findByPrixBetween(prixMin, prixMax);
+        }
+        // Du moins cher au plus cher
+        return chargerDansLOrdre(eventPriceIndex.entre(prixMin, prixMax, true));
+    }
 
-        // On utilise aussi la méthode par ID ici
-        List<Event> events = eventRepository.findByOrganisateurId(organisateurId);
+    /**
+     * Ordre de parcours des index correspondant au tri demandé ; null si seule la base sait le faire
+     */
+    private static EventFacetIndex.Ordre ordreCatalogue(Sort tri) {
+        if (tri.isUnsorted()) {
+            return EventFacetIndex.Ordre.DATE_DEBUT;
+        }
+        List<Sort.Order> ordres = tri.toList();
+        if (ordres.size() != 1) {
+            return null;
+        }
+        Sort.Order ordre = ordres.get(0);
+        return switch (ordre.getProperty()) {
+            case "dateDebut" -> ordre.isAscending() ? EventFacetIndex.Ordre.DATE_DEBUT : null;
+            case "prixUnitaire" -> ordre.isAscending()
+                    ? EventFacetIndex.Ordre.PRIX_CROISSANT : EventFacetIndex.Ordre.PRIX_DECROISSANT;
+            default -> null;
+        };
+    }
 
-        stats.put("nombreEvenements", events.size());
+    private Specification<Event> criteresRecherche(EventCategory categorie, LocalDateTime dateDebut,
+                                                          LocalDateTime dateFin, String ville,
+                                                          Double prixMin, Double prixMax) {
+        return Specification.allOf(
+                avecStatut(EventStatus.PUBLIE),
+                avecCategorie(categorie),
+                // Événements en cours pendant la période, pas seulement ceux qui y commencent
+                termineApres(dateDebut),
+                commenceAvant(dateFin),
+                avecVilleParmi(StringUtils.hasText(ville) ? orthographesVilles(List.of(ville)) : null),
+                prixAuMoins(prixMin),
+                prixAuPlus(prixMax)
+        );
+    }
 
-        long nbBrouillon = events.stream().filter(e -> e.getStatut() == EventStatus.BROUILLON).count();
-        long nbPublie = events.stream().filter(e -> e.getStatut() == EventStatus.PUBLIE).count();
-        long nbAnnule = events.stream().filter(e -> e.getStatut() == EventStatus.ANNULE).count();
-        long nbTermine = events.stream().filter(e -> e.getStatut() == EventStatus.TERMINE).count();
+    /**
+     * Orthographes enregistrées des villes demandées, comparées comme dans les index :
+     * sans accents ni casse ("Fès", "FES" et "fes" désignent la même ville)
+     */
+    private Set<String> orthographesVilles(Collection<String> villes) {
+        Set<String> cles = villes.stream()
+                .map(v -> TextNormalizer.normaliser(v).trim())
+                .collect(Collectors.toSet());
+        return eventRepository.findVillesDistinctes().stream()
+                .filter(v -> cles.contains(TextNormalizer.normaliser(v).trim()))
+                .collect(Collectors.toSet());
+    }
 
-        stats.put("nombreBrouillons", nbBrouillon);
-        stats.put("nombrePublies", nbPublie);
-        stats.put("nombreAnnules", nbAnnule);
-        stats.put("nombreTermines", nbTermine);
+    @Override
+    @Transactional(readOnly = true)
+    public EventFacets getFacettes(EventCategory categorie, LocalDateTime dateDebut,
+                                   LocalDateTime dateFin, String ville,
+                                   Double prixMin, Double prixMax) {
+        // Mêmes critères que searchEvents, comptés en mémoire sur les événements publiés
+        return eventFacetIndex.calculer(categorie, dateDebut, dateFin, ville, prixMin, prixMax);
+    }
 
-        long totalReservations = events.stream()
-                .mapToLong(e -> reservationRepository.countByEvenement(e))
-                .sum();
-        stats.put("nombreTotalReservations", totalReservations);
+    @Override
+    @Transactional(readOnly = true)
+    public int getPlacesDisponibles(Long eventId) {
+        // Lecture par clé primaire du compteur dénormalisé, partagée entre appels simultanés
+        // et mise en cache brièvement (invalidée à chaque réservation / libération)
+        return availabilityCache.getPlacesDisponibles(eventId);
+    }
 
+    @Override
+    @Transactional(readOnly = true)
+    public OrganizerStatistics getStatistiquesOrganisateur(Long organisateurId) {
+        // Une requête groupée par statut d'événement, au lieu de deux requêtes par événement
+        Map<EventStatus, Long> parStatut = new EnumMap<>(EventStatus.class);
+        for (EventStatus statut : EventStatus.values()) {
+            parStatut.put(statut, 0L);
+        }
+        long totalReservations = 0;
         double revenuTotal = 0.0;
-        try {
-            revenuTotal = events.stream()
-                    .mapToDouble(e -> {
-                        Double rev = reservationRepository.calculateTotalRevenueByEvent(e.getId());
-                        return rev != null ? rev : 0.0;
-                    })
-                    .sum();
-        } catch (Exception e) {
-            // Ignorer si la méthode n'existe pas encore
+        for (EventTotauxParStatut totaux : eventRepository.sumParStatutByOrganisateur(organisateurId)) {
+            parStatut.put(totaux.statut(), totaux.nombreEvenements());
+            totalReservations += totaux.nombreReservations();
+            revenuTotal += totaux.revenu();
         }
-        stats.put("revenuTotal", revenuTotal);
-
-        return stats;
+        return new OrganizerStatistics(parStatut, totalReservations, revenuTotal);
     }
 
     @Override
@@ -285,6 +577,26 @@ public class EventServiceImpl implements EventService {
         eventsATerminer.forEach(event -> {
             event.setStatut(EventStatus.TERMINE);
             eventRepository.save(event);
+            eventPublisher.publishEvent(new EventChangedEvent(event.getId()));
         });
     }
-}
\ No newline at end of file
+
+    /**
+     * Charge les événements (avec leur organisateur) dans l'ordre des identifiants fournis par un index
+     */
+    private List<Event> chargerDansLOrdre(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Event> parId = new HashMap<>();
+        for (int debut = 0; debut < ids.size(); debut += TAILLE_LOT_CHARGEMENT) {
+            List<Long> lot = ids.subList(debut, Math.min(ids.size(), debut + TAILLE_LOT_CHARGEMENT));
+            eventRepository.findAllWithOrganisateurByIdIn(lot).forEach(e -> parId.put(e.getId(), e));
+        }
+        // Un événement supprimé entre la lecture de l'index et celle de la base est ignoré
+        return ids.stream()
+                .map(parId::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+}
@@ -1,25 +1,59 @@
 package ma.event.eventreservationsystem.service.impl;
 
 import lombok.RequiredArgsConstructor;
+import ma.event.eventreservationsystem.dto.DemandeReservation;
+import ma.event.eventreservationsystem.dto.KeysetPage;
+import ma.event.eventreservationsystem.dto.ResultatOperation;
+import ma.event.eventreservationsystem.dto.ResultatReservation;
 import ma.event.eventreservationsystem.entity.Event;
 import ma.event.eventreservationsystem.entity.Reservation;
 import ma.event.eventreservationsystem.entity.User;
 import ma.event.eventreservationsystem.entity.enums.EventStatus;
 import ma.event.eventreservationsystem.entity.enums.ReservationStatus;
+import ma.event.eventreservationsystem.entity.enums.UserRole;
 import ma.event.eventreservationsystem.exception.*;
+import ma.event.eventreservationsystem.repository.EventRepository;
 import ma.event.eventreservationsystem.repository.ReservationRepository;
+import ma.event.eventreservationsystem.repository.UserRepository;
+import ma.event.eventreservationsystem.repository.projection.ReservationTotaux;
 import ma.event.eventreservationsystem.service.EventService;
 import ma.event.eventreservationsystem.service.ReservationService;
 import ma.event.eventreservationsystem.service.UserService;
+import ma.event.eventreservationsystem.service.inventory.SeatHoldManager;
+import ma.event.eventreservationsystem.service.inventory.SeatInventory;
+import ma.event.eventreservationsystem.service.search.TrendingIndex;
+import ma.event.eventreservationsystem.service.stats.ReservationRollups;
+import ma.event.eventreservationsystem.service.stats.ReservationStatistics;
+import ma.event.eventreservationsystem.util.IdempotencyStore;
+import ma.event.eventreservationsystem.util.KeysetCursor;
+import ma.event.eventreservationsystem.util.ReservationCodeGenerator;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Random;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static ma.event.eventreservationsystem.repository.specification.ReservationSpecifications.*;
 
 @Service
 @RequiredArgsConstructor
@@ -27,8 +61,18 @@ import java.util.Random;
 public class ReservationServiceImpl implements ReservationService {
 
     private final ReservationRepository reservationRepository;
+    private final UserRepository userRepository;
+    private final EventRepository eventRepository;
     private final UserService userService;
     private final EventService eventService;
+    private final SeatInventory seatInventory;
+    private final SeatHoldManager seatHoldManager;
+    private final ReservationStatistics reservationStatistics;
+    private final ReservationRollups reservationRollups;
+    private final TrendingIndex trendingIndex;
+    private final ReservationCodeGenerator reservationCodeGenerator;
+    private final IdempotencyStore idempotencyStore;
+    private final TransactionTemplate transactionTemplate;
 
     // --- MÉTHODES POUR L'ADMIN (Correspond aux erreurs des screenshots) ---
 
@@ -42,57 +86,60 @@ public class ReservationServiceImpl implements ReservationService {
         return reservationRepository.findAll();
     }
 
-    // -----------------------------------------------------------------------
+    @Override
+    @Transactional(readOnly = true)
+    public Page<Reservation> searchReservations(ReservationStatus statut, Long evenementId, String texte, Pageable pageable) {
+        // Par défaut les plus récentes d'abord ; l'id départage les égalités pour un ordre stable d'une page à l'autre
+        Sort tri = pageable.getSort().isSorted()
+                ? pageable.getSort().and(Sort.by("id"))
+                : Sort.by(Sort.Direction.DESC, "dateReservation", "id");
+        return reservationRepository.findAll(criteres(statut, evenementId, texte), pageable.isPaged()
+                ? PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), tri)
+                : Pageable.unpaged(tri));
+    }
 
     @Override
-    public Reservation createReservation(Reservation reservation, Long utilisateurId, Long evenementId) {
-        User utilisateur = userService.findById(utilisateurId);
-        Event evenement = eventService.findById(evenementId);
+    @Transactional(readOnly = true)
+    public long countReservations(ReservationStatus statut, Long evenementId, String texte) {
+        return reservationRepository.count(criteres(statut, evenementId, texte));
+    }
 
-        // RÈGLE 1 : Vérifier que l'événement est publié
-        if (evenement.getStatut() != EventStatus.PUBLIE) {
-            throw new BusinessException("Cet événement n'est pas disponible pour les réservations");
-        }
+    @Override
+    @Transactional(readOnly = true)
+    public KeysetPage<Reservation> findFenetre(ReservationStatus statut, String curseur, int taille) {
+        KeysetCursor.Position avant = KeysetCursor.decoder(curseur, KeysetCursor.DEBUT_DECROISSANT);
+        return fenetre(reservationRepository.findFenetreAvant(statut, avant.date(), avant.id(), KeysetCursor.limite(taille)), taille);
+    }
 
-        // RÈGLE 2 : Vérifier que l'événement n'est pas terminé
-        // Note : Si l'IDE signale "always false", c'est peut-être que le statut est mal initialisé ailleurs,
-        // mais la vérification reste valide pour la logique métier.
-        if (evenement.getStatut() == EventStatus.TERMINE) {
-            throw new BusinessException("Impossible de réserver pour un événement terminé");
-        }
+    @Override
+    @Transactional(readOnly = true)
+    public String sauterFenetre(ReservationStatus statut, String curseur, int lignes) {
+        KeysetCursor.Position avant = KeysetCursor.decoder(curseur, KeysetCursor.DEBUT_DECROISSANT);
+        return KeysetCursor.apresSaut(reservationRepository.findClesAvant(
+                statut, avant.date(), avant.id(), KeysetCursor.saut(lignes)));
+    }
 
-        // RÈGLE 3 : Vérifier que l'événement n'est pas dans le passé
-        if (evenement.getDateDebut().isBefore(LocalDateTime.now())) {
-            throw new BusinessException("Impossible de réserver pour un événement passé");
-        }
+    // -----------------------------------------------------------------------
 
-        // RÈGLE 4 : Une réservation ne peut pas dépasser 10 places
-        if (reservation.getNombrePlaces() > 10) {
-            throw new BusinessException("Une réservation ne peut pas dépasser 10 places");
-        }
+    @Override
+    public Reservation createReservation(Reservation reservation, Long utilisateurId, Long evenementId) {
+        User utilisateur = userService.findById(utilisateurId);
+        Event evenement = eventService.findById(evenementId);
 
-        if (reservation.getNombrePlaces() < 1) {
-            throw new BadRequestException("Le nombre de places doit être au moins 1");
-        }
+        verifierEvenementReservable(evenement);
+        verifierNombrePlaces(reservation.getNombrePlaces());
 
-        // RÈGLE 5 : Vérifier la disponibilité des places (via le service Event)
-        int placesDisponibles = eventService.getPlacesDisponibles(evenementId);
-        if (reservation.getNombrePlaces() > placesDisponibles) {
+        // RÈGLES 5 & 6 : Réserver les places dans l'inventaire (compare-and-set en mémoire,
+        // puis UPDATE conditionnel du compteur de l'événement, sans requête SUM).
+        // Les places sont rendues automatiquement si la transaction échoue plus loin.
+        if (!seatInventory.reserver(evenementId, evenement.getCapaciteMax(), reservation.getNombrePlaces())) {
+            int placesDisponibles = Math.max(0, evenement.getCapaciteMax() - seatInventory.getPlacesEngagees(evenementId));
             throw new ConflictException(
                     String.format("Places insuffisantes. Disponibles : %d, Demandées : %d",
                             placesDisponibles, reservation.getNombrePlaces())
             );
         }
 
-        // RÈGLE 6 : Vérifier la capacité totale via le Repository
-        // Assurez-vous que cette méthode existe dans ReservationRepository, sinon utilisez findAll() et filtrez.
-        Integer placesReservees = reservationRepository.countTotalPlacesReserveesForEvent(evenementId);
-        if (placesReservees == null) placesReservees = 0;
-
-        if (placesReservees + reservation.getNombrePlaces() > evenement.getCapaciteMax()) {
-            throw new ConflictException("La capacité maximale de l'événement serait dépassée");
-        }
-
         // Configuration de la réservation
         reservation.setUtilisateur(utilisateur);
         reservation.setEvenement(evenement);
@@ -102,21 +149,146 @@ public class ReservationServiceImpl implements ReservationService {
         double montantTotal = evenement.getPrixUnitaire() * reservation.getNombrePlaces();
         reservation.setMontantTotal(montantTotal);
 
-        // RÈGLE 8 : Code unique
-        String codeReservation = genererCodeUniqueReservation();
-        reservation.setCodeReservation(codeReservation);
+        // RÈGLE 8 : Code unique (généré sans requête en base)
+        reservation.setCodeReservation(reservationCodeGenerator.generer());
 
         // Fixer la date de réservation si elle n'est pas mise
         if (reservation.getDateReservation() == null) {
             reservation.setDateReservation(LocalDateTime.now());
         }
 
-        return reservationRepository.save(reservation);
+        Reservation saved = reservationRepository.save(reservation);
+        reservationStatistics.creee(saved);
+        reservationRollups.creee(saved);
+        trendingIndex.enregistrer(saved);
+
+        // Blocage : les places restent réservées jusqu'à confirmation, dans la limite du délai configuré
+        seatHoldManager.bloquer(saved);
+
+        return saved;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Reservation createReservation(Reservation reservation, Long utilisateurId, Long evenementId,
+                                         String cleIdempotence) {
+        if (cleIdempotence == null || cleIdempotence.isBlank()) {
+            throw new BadRequestException("La clé d'idempotence est obligatoire");
+        }
+
+        // La transaction est ouverte à l'intérieur : le résultat n'est publié qu'une fois validé,
+        // et les répétitions (concurrentes ou non) reçoivent la même réservation sans rien réexécuter
+        String cle = utilisateurId + ":" + evenementId + ":" + cleIdempotence;
+        return idempotencyStore.executer(cle, () -> transactionTemplate.execute(
+                status -> createReservation(reservation, utilisateurId, evenementId)));
+    }
+
+    @Override
+    public List<ResultatReservation> createReservations(List<DemandeReservation> demandes) {
+        ResultatReservation[] resultats = new ResultatReservation[demandes.size()];
+
+        // Chargement groupé : une requête pour les utilisateurs, une pour les événements
+        Map<Long, User> utilisateurs = userRepository.findAllById(demandes.stream()
+                        .map(DemandeReservation::utilisateurId).filter(Objects::nonNull).collect(Collectors.toSet()))
+                .stream().collect(Collectors.toMap(User::getId, Function.identity()));
+        Map<Long, Event> evenements = eventRepository.findAllById(demandes.stream()
+                        .map(DemandeReservation::evenementId).filter(Objects::nonNull).collect(Collectors.toSet()))
+                .stream().collect(Collectors.toMap(Event::getId, Function.identity()));
+
+        // Regroupement des demandes valides par événement (ordre d'arrivée conservé)
+        Map<Long, List<Integer>> groupes = new LinkedHashMap<>();
+        for (int i = 0; i < demandes.size(); i++) {
+            DemandeReservation demande = demandes.get(i);
+            try {
+                verifierNombrePlaces(demande.nombrePlaces());
+                if (demande.commentaire() != null && demande.commentaire().length() > 500) {
+                    throw new BadRequestException("Le commentaire ne peut pas dépasser 500 caractères");
+                }
+                if (!utilisateurs.containsKey(demande.utilisateurId())) {
+                    throw new ResourceNotFoundException("Utilisateur non trouvé avec l'ID : " + demande.utilisateurId());
+                }
+                if (!evenements.containsKey(demande.evenementId())) {
+                    throw new ResourceNotFoundException("Événement non trouvé avec l'ID : " + demande.evenementId());
+                }
+                verifierEvenementReservable(evenements.get(demande.evenementId()));
+            } catch (BadRequestException | BusinessException | ResourceNotFoundException e) {
+                resultats[i] = ResultatReservation.echec(demande, e.getMessage());
+                continue;
+            }
+            groupes.computeIfAbsent(demande.evenementId(), id -> new ArrayList<>()).add(i);
+        }
+
+        List<Reservation> aCreer = new ArrayList<>();
+        List<Integer> indices = new ArrayList<>();
+        LocalDateTime maintenant = LocalDateTime.now();
+
+        for (Map.Entry<Long, List<Integer>> groupe : groupes.entrySet()) {
+            Event evenement = evenements.get(groupe.getKey());
+
+            // Capacité vérifiée une seule fois pour le groupe : les demandes sont servies
+            // dans l'ordre tant qu'il reste des places
+            int disponibles = Math.max(0, evenement.getCapaciteMax() - seatInventory.getPlacesEngagees(evenement.getId()));
+            List<Integer> admises = new ArrayList<>();
+            int totalPlaces = 0;
+            for (int i : groupe.getValue()) {
+                int places = demandes.get(i).nombrePlaces();
+                if (totalPlaces + places <= disponibles) {
+                    admises.add(i);
+                    totalPlaces += places;
+                } else {
+                    resultats[i] = ResultatReservation.echec(demandes.get(i), String.format(
+                            "Places insuffisantes. Disponibles : %d, Demandées : %d", disponibles - totalPlaces, places));
+                }
+            }
+            if (admises.isEmpty()) {
+                continue;
+            }
+
+            // Une seule mise à jour du compteur de l'événement pour tout le groupe
+            if (!seatInventory.reserver(evenement.getId(), evenement.getCapaciteMax(), totalPlaces)) {
+                for (int i : admises) {
+                    resultats[i] = ResultatReservation.echec(demandes.get(i),
+                            "Places insuffisantes : l'événement a été réservé entre-temps");
+                }
+                continue;
+            }
+
+            for (int i : admises) {
+                DemandeReservation demande = demandes.get(i);
+                aCreer.add(Reservation.builder()
+                        .utilisateur(utilisateurs.get(demande.utilisateurId()))
+                        .evenement(evenement)
+                        .nombrePlaces(demande.nombrePlaces())
+                        .commentaire(demande.commentaire())
+                        .statut(ReservationStatus.EN_ATTENTE)
+                        .montantTotal(evenement.getPrixUnitaire() * demande.nombrePlaces())
+                        .codeReservation(reservationCodeGenerator.generer())
+                        .dateReservation(maintenant)
+                        .build());
+                indices.add(i);
+            }
+        }
+
+        // Insertion par lots JDBC : les identifiants sont pré-alloués par la séquence
+        List<Reservation> sauvegardees = reservationRepository.saveAll(aCreer);
+        for (int k = 0; k < sauvegardees.size(); k++) {
+            Reservation saved = sauvegardees.get(k);
+            int i = indices.get(k);
+            resultats[i] = ResultatReservation.succes(demandes.get(i), saved);
+            reservationStatistics.creee(saved);
+            reservationRollups.creee(saved);
+            trendingIndex.enregistrer(saved);
+            seatHoldManager.bloquer(saved);
+        }
+
+        return Arrays.asList(resultats);
     }
 
     @Override
     public Reservation confirmerReservation(Long id, Long utilisateurId) {
-        Reservation reservation = findById(id);
+        // Verrou sur la ligne : une expiration concurrente ne peut pas annuler une réservation confirmée
+        Reservation reservation = reservationRepository.findByIdForUpdate(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Réservation non trouvée avec l'ID : " + id));
 
         // Vérifier que l'utilisateur est bien le propriétaire
         if (!reservation.getUtilisateur().getId().equals(utilisateurId)) {
@@ -127,13 +299,22 @@ public class ReservationServiceImpl implements ReservationService {
             throw new BusinessException("Seules les réservations en attente peuvent être confirmées");
         }
 
+        if (seatHoldManager.estExpire(id)) {
+            throw new BusinessException("Le délai de confirmation de cette réservation est dépassé");
+        }
+
         reservation.setStatut(ReservationStatus.CONFIRMEE);
-        return reservationRepository.save(reservation);
+        Reservation saved = reservationRepository.save(reservation);
+        reservationStatistics.transition(saved, ReservationStatus.EN_ATTENTE, ReservationStatus.CONFIRMEE);
+        reservationRollups.transition(saved, ReservationStatus.EN_ATTENTE, ReservationStatus.CONFIRMEE);
+        seatHoldManager.confirmer(id);
+        return saved;
     }
 
     @Override
     public void annulerReservation(Long id, Long utilisateurId) {
-        Reservation reservation = findById(id);
+        Reservation reservation = reservationRepository.findByIdForUpdate(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Réservation non trouvée avec l'ID : " + id));
 
         // Vérifier les droits
         if (!reservation.getUtilisateur().getId().equals(utilisateurId)) {
@@ -155,8 +336,94 @@ public class ReservationServiceImpl implements ReservationService {
             throw new BusinessException("Impossible d'annuler : délai de 48h dépassé");
         }
 
+        ReservationStatus ancienStatut = reservation.getStatut();
         reservation.setStatut(ReservationStatus.ANNULEE);
         reservationRepository.save(reservation);
+        reservationStatistics.transition(reservation, ancienStatut, ReservationStatus.ANNULEE);
+        reservationRollups.transition(reservation, ancienStatut, ReservationStatus.ANNULEE);
+        trendingIndex.retrancher(reservation);
+
+        // Les places redeviennent disponibles dès que l'annulation est validée
+        seatInventory.liberer(reservation.getEvenement().getId(), reservation.getNombrePlaces());
+        seatHoldManager.retirer(id);
+    }
+
+    @Override
+    public List<ResultatOperation> confirmerReservations(Long evenementId, Collection<Long> reservationIds,
+                                                         Long utilisateurId) {
+        verifierGestionEvenement(evenementId, utilisateurId);
+        Set<Long> ids = new LinkedHashSet<>(reservationIds);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        // Une requête : verrouille les réservations de l'événement encore en attente
+        List<Reservation> enAttente = reservationRepository.findByEvenementAndIdInAndStatutInForUpdate(
+                evenementId, ids, List.of(ReservationStatus.EN_ATTENTE));
+
+        Map<Long, String> refus = new HashMap<>();
+        List<Reservation> confirmees = new ArrayList<>();
+        for (Reservation reservation : enAttente) {
+            if (seatHoldManager.estExpire(reservation.getId())) {
+                refus.put(reservation.getId(), "Le délai de confirmation de cette réservation est dépassé");
+            } else {
+                confirmees.add(reservation);
+            }
+        }
+        List<Long> aConfirmer = confirmees.stream().map(Reservation::getId).toList();
+
+        // Une requête : UPDATE ... WHERE id IN (...) AND statut = 'EN_ATTENTE'.
+        // La confirmation ne change pas le nombre de places engagées.
+        if (!aConfirmer.isEmpty()) {
+            reservationRepository.updateStatutByIds(aConfirmer, ReservationStatus.EN_ATTENTE, ReservationStatus.CONFIRMEE);
+            reservationStatistics.transition(confirmees, ReservationStatus.EN_ATTENTE, ReservationStatus.CONFIRMEE);
+            reservationRollups.transition(confirmees, ReservationStatus.EN_ATTENTE, ReservationStatus.CONFIRMEE);
+            seatHoldManager.confirmer(aConfirmer);
+        }
+
+        return resultatsOperation(ids, evenementId, aConfirmer, refus,
+                "Seules les réservations en attente peuvent être confirmées");
+    }
+
+    @Override
+    public List<ResultatOperation> annulerReservations(Long evenementId, Collection<Long> reservationIds,
+                                                       Long utilisateurId) {
+        Event evenement = verifierGestionEvenement(evenementId, utilisateurId);
+        Set<Long> ids = new LinkedHashSet<>(reservationIds);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        // RÈGLE 9 : Délai de 48h (identique pour toutes les réservations de l'événement)
+        if (ChronoUnit.HOURS.between(LocalDateTime.now(), evenement.getDateDebut()) < 48) {
+            throw new BusinessException("Impossible d'annuler : délai de 48h dépassé");
+        }
+
+        List<ReservationStatus> annulables = List.of(ReservationStatus.EN_ATTENTE, ReservationStatus.CONFIRMEE);
+        List<Reservation> reservations = reservationRepository.findByEvenementAndIdInAndStatutInForUpdate(
+                evenementId, ids, annulables);
+
+        List<Long> aAnnuler = reservations.stream().map(Reservation::getId).toList();
+        if (!aAnnuler.isEmpty()) {
+            reservationRepository.updateStatutByIdsAndStatutIn(aAnnuler, annulables, ReservationStatus.ANNULEE);
+            // Le statut des entités chargées est encore celui d'avant la mise à jour groupée
+            reservations.stream()
+                    .collect(Collectors.groupingBy(Reservation::getStatut))
+                    .forEach((ancien, lot) -> {
+                        reservationStatistics.transition(lot, ancien, ReservationStatus.ANNULEE);
+                        reservationRollups.transition(lot, ancien, ReservationStatus.ANNULEE);
+                    });
+            trendingIndex.retrancher(reservations);
+
+            // Une seule mise à jour du compteur de places pour tout le lot
+            seatInventory.liberer(evenementId, reservations.stream().mapToInt(Reservation::getNombrePlaces).sum());
+            seatHoldManager.retirer(reservations.stream()
+                    .filter(r -> r.getStatut() == ReservationStatus.EN_ATTENTE)
+                    .map(Reservation::getId)
+                    .toList());
+        }
+
+        return resultatsOperation(ids, evenementId, aAnnuler, Map.of(), "Cette réservation est déjà annulée");
     }
 
     @Override
@@ -196,6 +463,30 @@ public class ReservationServiceImpl implements ReservationService {
         return reservationRepository.findByEvenement(evenement);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public KeysetPage<Reservation> findFenetreByUtilisateur(Long utilisateurId, String curseur, int taille) {
+        KeysetCursor.Position avant = KeysetCursor.decoder(curseur, KeysetCursor.DEBUT_DECROISSANT);
+        return fenetre(reservationRepository.findFenetreByUtilisateurAvant(
+                utilisateurId, avant.date(), avant.id(), KeysetCursor.limite(taille)), taille);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public KeysetPage<Reservation> findFenetreByEvenement(Long evenementId, String curseur, int taille) {
+        KeysetCursor.Position avant = KeysetCursor.decoder(curseur, KeysetCursor.DEBUT_DECROISSANT);
+        return fenetre(reservationRepository.findFenetreByEvenementAvant(
+                evenementId, avant.date(), avant.id(), KeysetCursor.limite(taille)), taille);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public KeysetPage<Reservation> findFenetreEntreDates(LocalDateTime debut, LocalDateTime fin, String curseur, int taille) {
+        KeysetCursor.Position avant = KeysetCursor.decoder(curseur, KeysetCursor.DEBUT_DECROISSANT);
+        return fenetre(reservationRepository.findFenetreEntreDatesAvant(
+                debut, fin, avant.date(), avant.id(), KeysetCursor.limite(taille)), taille);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<Reservation> findByUtilisateurAndStatut(Long utilisateurId, ReservationStatus statut) {
@@ -211,30 +502,17 @@ public class ReservationServiceImpl implements ReservationService {
     @Override
     @Transactional(readOnly = true)
     public Map<String, Object> getStatistiquesReservation() {
-        Map<String, Object> stats = new HashMap<>();
-
-        long totalReservations = reservationRepository.count();
-        stats.put("nombreTotalReservations", totalReservations);
+        // Totaux tenus à jour à chaque création, confirmation et annulation : aucune réservation n'est lue
+        Map<ReservationStatus, ReservationTotaux> totaux = reservationStatistics.getTotaux();
+        ReservationTotaux confirmees = totaux.get(ReservationStatus.CONFIRMEE);
 
-        List<Reservation> allReservations = reservationRepository.findAll();
-
-        long enAttente = allReservations.stream().filter(r -> r.getStatut() == ReservationStatus.EN_ATTENTE).count();
-        long confirmees = allReservations.stream().filter(r -> r.getStatut() == ReservationStatus.CONFIRMEE).count();
-        long annulees = allReservations.stream().filter(r -> r.getStatut() == ReservationStatus.ANNULEE).count();
-
-        stats.put("reservationsEnAttente", enAttente);
-        stats.put("reservationsConfirmees", confirmees);
-        stats.put("reservationsAnnulees", annulees);
-
-        double revenuTotal = allReservations.stream()
-                .filter(r -> r.getStatut() == ReservationStatus.CONFIRMEE)
-                .mapToDouble(Reservation::getMontantTotal).sum();
-        stats.put("revenuTotal", revenuTotal);
-
-        int totalPlaces = allReservations.stream()
-                .filter(r -> r.getStatut() == ReservationStatus.CONFIRMEE)
-                .mapToInt(Reservation::getNombrePlaces).sum();
-        stats.put("nombreTotalPlaces", totalPlaces);
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("nombreTotalReservations", totaux.values().stream().mapToLong(ReservationTotaux::nombre).sum());
+        stats.put("reservationsEnAttente", totaux.get(ReservationStatus.EN_ATTENTE).nombre());
+        stats.put("reservationsConfirmees", confirmees.nombre());
+        stats.put("reservationsAnnulees", totaux.get(ReservationStatus.ANNULEE).nombre());
+        stats.put("revenuTotal", confirmees.montant());
+        stats.put("nombreTotalPlaces", confirmees.places().intValue());
 
         return stats;
     }
@@ -270,13 +548,89 @@ public class ReservationServiceImpl implements ReservationService {
         return recap;
     }
 
-    private String genererCodeUniqueReservation() {
-        String code;
-        Random random = new Random();
-        do {
-            int randomNum = 10000 + random.nextInt(90000);
-            code = "EVT-" + randomNum;
-        } while (reservationRepository.existsByCodeReservation(code));
-        return code;
+    private Event verifierGestionEvenement(Long evenementId, Long utilisateurId) {
+        Event evenement = eventService.findById(evenementId);
+        User utilisateur = userService.findById(utilisateurId);
+
+        if (!evenement.getOrganisateur().getId().equals(utilisateurId) &&
+                utilisateur.getRole() != UserRole.ADMIN) {
+            throw new ForbiddenException("Vous n'avez pas les droits pour gérer les réservations de cet événement");
+        }
+        return evenement;
+    }
+
+    /**
+     * Issue de chaque réservation demandée, dans l'ordre de la demande.
+     * Le motif des refus restants est établi en une seule requête.
+     */
+    private List<ResultatOperation> resultatsOperation(Set<Long> ids, Long evenementId, List<Long> traitees,
+                                                       Map<Long, String> refus, String motifStatut) {
+        Set<Long> reussies = new HashSet<>(traitees);
+        List<Long> inexpliquees = ids.stream()
+                .filter(id -> !reussies.contains(id) && !refus.containsKey(id))
+                .toList();
+
+        Set<Long> autreStatut = new HashSet<>();
+        if (!inexpliquees.isEmpty()) {
+            reservationRepository.findStatutsByIds(inexpliquees).stream()
+                    .filter(r -> r.evenementId().equals(evenementId))
+                    .forEach(r -> autreStatut.add(r.id()));
+        }
+
+        List<ResultatOperation> resultats = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            if (reussies.contains(id)) {
+                resultats.add(ResultatOperation.succes(id));
+            } else if (refus.containsKey(id)) {
+                resultats.add(ResultatOperation.echec(id, refus.get(id)));
+            } else if (autreStatut.contains(id)) {
+                resultats.add(ResultatOperation.echec(id, motifStatut));
+            } else {
+                resultats.add(ResultatOperation.echec(id, "Réservation non trouvée pour cet événement : " + id));
+            }
+        }
+        return resultats;
+    }
+
+    private void verifierEvenementReservable(Event evenement) {
+        // RÈGLE 1 : Vérifier que l'événement est publié
+        if (evenement.getStatut() != EventStatus.PUBLIE) {
+            throw new BusinessException("Cet événement n'est pas disponible pour les réservations");
+        }
+
+        // RÈGLE 2 : Vérifier que l'événement n'est pas terminé
+        // Note : Si l'IDE signale "always false", c'est peut-être que le statut est mal initialisé ailleurs,
+        // mais la vérification reste valide pour la logique métier.
+        if (evenement.getStatut() == EventStatus.TERMINE) {
+            throw new BusinessException("Impossible de réserver pour un événement terminé");
+        }
+
+        // RÈGLE 3 : Vérifier que l'événement n'est pas dans le passé
+        if (evenement.getDateDebut().isBefore(LocalDateTime.now())) {
+            throw new BusinessException("Impossible de réserver pour un événement passé");
+        }
+    }
+
+    private void verifierNombrePlaces(Integer nombrePlaces) {
+        if (nombrePlaces == null) {
+            throw new BadRequestException("Le nombre de places est obligatoire");
+        }
+
+        // RÈGLE 4 : Une réservation ne peut pas dépasser 10 places
+        if (nombrePlaces > 10) {
+            throw new BusinessException("Une réservation ne peut pas dépasser 10 places");
+        }
+
+        if (nombrePlaces < 1) {
+            throw new BadRequestException("Le nombre de places doit être au moins 1");
+        }
+    }
+
+    private static Specification<Reservation> criteres(ReservationStatus statut, Long evenementId, String texte) {
+        return Specification.allOf(avecStatut(statut), pourEvenement(evenementId), contenantTexte(texte));
+    }
+
+    private static KeysetPage<Reservation> fenetre(List<Reservation> lignes, int taille) {
+        return KeysetCursor.page(lignes, taille, Reservation::getDateReservation, Reservation::getId);
     }
-}
\ No newline at end of file
+}
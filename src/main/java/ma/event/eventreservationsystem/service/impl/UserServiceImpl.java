@@ -8,6 +8,11 @@ import ma.event.eventreservationsystem.repository.EventRepository;
 import ma.event.eventreservationsystem.repository.ReservationRepository;
 import ma.event.eventreservationsystem.service.UserService;
 import ma.event.eventreservationsystem.exception.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -16,6 +21,8 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import static ma.event.eventreservationsystem.repository.specification.UserSpecifications.*;
+
 @Service
 @RequiredArgsConstructor
 @Transactional
@@ -167,6 +174,28 @@ public class UserServiceImpl implements UserService {
         return userRepository.searchByNomOrPrenom(keyword);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Page<User> searchUsers(UserRole role, Boolean actif, String texte, Pageable pageable) {
+        // Ordre stable d'une page à l'autre : l'id départage les égalités du tri demandé
+        Sort tri = pageable.getSort().isSorted()
+                ? pageable.getSort().and(Sort.by("id"))
+                : Sort.by("id");
+        return userRepository.findAll(criteres(role, actif, texte), pageable.isPaged()
+                ? PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), tri)
+                : Pageable.unpaged(tri));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long countUsers(UserRole role, Boolean actif, String texte) {
+        return userRepository.count(criteres(role, actif, texte));
+    }
+
+    private static Specification<User> criteres(UserRole role, Boolean actif, String texte) {
+        return Specification.allOf(avecRole(role), avecActif(actif), contenantTexte(texte));
+    }
+
     @Override
     @Transactional(readOnly = true)
     public Map<String, Object> getStatistiquesUtilisateur(Long id) {
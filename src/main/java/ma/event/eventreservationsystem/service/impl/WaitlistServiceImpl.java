@@ -0,0 +1,358 @@
+package ma.event.eventreservationsystem.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import ma.event.eventreservationsystem.entity.Event;
+import ma.event.eventreservationsystem.entity.Reservation;
+import ma.event.eventreservationsystem.entity.User;
+import ma.event.eventreservationsystem.entity.WaitlistEntry;
+import ma.event.eventreservationsystem.entity.enums.EventStatus;
+import ma.event.eventreservationsystem.entity.enums.WaitlistStatus;
+import ma.event.eventreservationsystem.exception.*;
+import ma.event.eventreservationsystem.repository.EventRepository;
+import ma.event.eventreservationsystem.repository.WaitlistEntryRepository;
+import ma.event.eventreservationsystem.repository.projection.WaitlistHead;
+import ma.event.eventreservationsystem.service.EventService;
+import ma.event.eventreservationsystem.service.ReservationService;
+import ma.event.eventreservationsystem.service.UserService;
+import ma.event.eventreservationsystem.service.WaitlistService;
+import ma.event.eventreservationsystem.service.events.EventChangedEvent;
+import ma.event.eventreservationsystem.service.events.SeatsReleasedEvent;
+import ma.event.eventreservationsystem.service.inventory.SeatCounter;
+import ma.event.eventreservationsystem.service.inventory.SeatHoldManager;
+import ma.event.eventreservationsystem.util.TransactionHooks;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Liste d'attente par événement : la file est persistée ({@link WaitlistEntry}), et un index en mémoire
+ * conserve les entrées en attente dans l'ordre d'arrivée. Chaque promotion ne lit que la tête de file.
+ * La file d'un événement qui n'est plus publié (annulé, terminé, supprimé) est retirée de la mémoire.
+ * Une entrée promue devient une réservation en attente avec un délai de confirmation propre
+ * ({@code reservation.waitlist.hold-ttl}) : l'utilisateur n'était pas forcément devant l'écran.
+ */
+@Slf4j
+@Service
+@Transactional
+public class WaitlistServiceImpl implements WaitlistService {
+
+    private final WaitlistEntryRepository waitlistEntryRepository;
+    private final EventRepository eventRepository;
+    private final SeatCounter seatCounter;
+    private final UserService userService;
+    private final EventService eventService;
+    private final ReservationService reservationService;
+    private final SeatHoldManager seatHoldManager;
+    private final Duration delaiPromotion;
+
+    // Chaque promotion est validée (ou abandonnée) indépendamment des autres
+    private final TransactionTemplate nouvelleTransaction;
+
+    private final ConcurrentHashMap<Long, FileAttente> files = new ConcurrentHashMap<>();
+
+    public WaitlistServiceImpl(WaitlistEntryRepository waitlistEntryRepository,
+                               EventRepository eventRepository,
+                               SeatCounter seatCounter,
+                               UserService userService,
+                               EventService eventService,
+                               ReservationService reservationService,
+                               SeatHoldManager seatHoldManager,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${reservation.waitlist.hold-ttl:24h}") Duration delaiPromotion) {
+        this.waitlistEntryRepository = waitlistEntryRepository;
+        this.eventRepository = eventRepository;
+        this.seatCounter = seatCounter;
+        this.userService = userService;
+        this.eventService = eventService;
+        this.reservationService = reservationService;
+        this.seatHoldManager = seatHoldManager;
+        this.delaiPromotion = delaiPromotion;
+        this.nouvelleTransaction = new TransactionTemplate(transactionManager);
+        this.nouvelleTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    public WaitlistEntry inscrire(Long utilisateurId, Long evenementId, Integer nombrePlaces) {
+        User utilisateur = userService.findById(utilisateurId);
+        Event evenement = eventService.findById(evenementId);
+
+        if (evenement.getStatut() != EventStatus.PUBLIE || evenement.getDateDebut().isBefore(LocalDateTime.now())) {
+            throw new BusinessException("Cet événement n'est pas disponible pour les réservations");
+        }
+
+        if (nombrePlaces == null || nombrePlaces < 1) {
+            throw new BadRequestException("Le nombre de places doit être au moins 1");
+        }
+
+        if (nombrePlaces > 10) {
+            throw new BusinessException("Une réservation ne peut pas dépasser 10 places");
+        }
+
+        if (eventService.getPlacesDisponibles(evenementId) >= nombrePlaces) {
+            throw new BusinessException("Des places sont disponibles : vous pouvez réserver directement");
+        }
+
+        if (waitlistEntryRepository.existsByEvenementIdAndUtilisateurIdAndStatut(
+                evenementId, utilisateurId, WaitlistStatus.EN_ATTENTE)) {
+            throw new ConflictException("Vous êtes déjà inscrit sur la liste d'attente de cet événement");
+        }
+
+        FileAttente file = file(evenementId);
+        WaitlistEntry entree = waitlistEntryRepository.save(WaitlistEntry.builder()
+                .utilisateur(utilisateur)
+                .evenement(evenement)
+                .nombrePlaces(nombrePlaces)
+                .position(file.prochainePosition())
+                .statut(WaitlistStatus.EN_ATTENTE)
+                .build());
+
+        // L'entrée n'est visible dans la file qu'une fois l'inscription validée ;
+        // des places ont pu se libérer entre-temps, d'où la tentative de promotion
+        WaitlistHead tete = new WaitlistHead(entree.getId(), entree.getPosition(), entree.getNombrePlaces());
+        TransactionHooks.apresCommit(() -> {
+            file.ajouter(tete);
+            promouvoir(evenementId);
+        });
+
+        return entree;
+    }
+
+    @Override
+    public void quitter(Long entreeId, Long utilisateurId) {
+        WaitlistEntry entree = waitlistEntryRepository.findById(entreeId)
+                .orElseThrow(() -> new ResourceNotFoundException("Inscription non trouvée avec l'ID : " + entreeId));
+
+        if (!entree.getUtilisateur().getId().equals(utilisateurId)) {
+            throw new ForbiddenException("Vous n'avez pas les droits pour modifier cette inscription");
+        }
+
+        if (entree.getStatut() != WaitlistStatus.EN_ATTENTE) {
+            throw new BusinessException("Cette inscription n'est plus en attente");
+        }
+
+        entree.setStatut(WaitlistStatus.ANNULEE);
+        waitlistEntryRepository.save(entree);
+
+        Long evenementId = entree.getEvenement().getId();
+        TransactionHooks.apresCommit(() -> file(evenementId).retirer(entreeId));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long getRang(Long entreeId) {
+        WaitlistEntry entree = waitlistEntryRepository.findById(entreeId)
+                .orElseThrow(() -> new ResourceNotFoundException("Inscription non trouvée avec l'ID : " + entreeId));
+        if (entree.getStatut() != WaitlistStatus.EN_ATTENTE) {
+            return 0;
+        }
+        return waitlistEntryRepository.countEnAttenteAvant(entree.getEvenement().getId(), entree.getPosition()) + 1;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<WaitlistEntry> findPromotionsAConfirmer(Long utilisateurId) {
+        return waitlistEntryRepository.findPromotionsAConfirmer(utilisateurId);
+    }
+
+    /**
+     * Des places ont été rendues : on sert la file dès que la libération est validée
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void surPlacesLiberees(SeatsReleasedEvent evenement) {
+        promouvoir(evenement.evenementId());
+    }
+
+    /**
+     * Un événement qui n'est plus publié ne sera plus servi : ses entrées en attente expirent
+     * et sa file quitte la mémoire
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void surEvenementModifie(EventChangedEvent changement) {
+        Long id = changement.evenementId();
+        boolean publie = Boolean.TRUE.equals(nouvelleTransaction.execute(status -> eventRepository.findById(id)
+                .map(e -> e.getStatut() == EventStatus.PUBLIE)
+                .orElse(false)));
+        if (publie) {
+            return;
+        }
+        files.remove(id);
+        Integer expirees = nouvelleTransaction.execute(status -> waitlistEntryRepository.expirerEnAttente(id));
+        if (expirees != null && expirees > 0) {
+            log.info("{} entrée(s) de la liste d'attente de l'événement {} expirée(s)", expirees, id);
+        }
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void promouvoir(Long evenementId) {
+        FileAttente file = file(evenementId);
+        // Une seule promotion à la fois par événement : l'ordre d'arrivée est strictement respecté.
+        // Un appel pendant une promotion en cours la relance au lieu de l'attendre ; le verrou de la file
+        // n'est tenu que le temps de lire ou retirer la tête, jamais pendant une transaction
+        if (!file.commencerPromotion()) {
+            return;
+        }
+        do {
+            try {
+                servir(file, evenementId);
+            } catch (RuntimeException e) {
+                file.interromprePromotion();
+                throw e;
+            }
+        } while (file.continuerPromotion());
+    }
+
+    private void servir(FileAttente file, Long evenementId) {
+        WaitlistHead tete;
+        while ((tete = file.tete()) != null && promouvoirTete(tete, evenementId)) {
+            file.retirerTete(tete);
+        }
+    }
+
+    /**
+     * @return false si la tête de file doit encore attendre (places insuffisantes)
+     */
+    private boolean promouvoirTete(WaitlistHead tete, Long evenementId) {
+        try {
+            return Boolean.TRUE.equals(nouvelleTransaction.execute(status -> {
+                WaitlistEntry entree = waitlistEntryRepository.findById(tete.id()).orElse(null);
+                if (entree == null || entree.getStatut() != WaitlistStatus.EN_ATTENTE) {
+                    return true;
+                }
+                // Lecture directe du compteur (jamais le cache) : une valeur périmée bloquerait la file
+                // jusqu'à la prochaine libération de places
+                if (seatCounter.lire(evenementId).placesDisponibles() < tete.nombrePlaces()) {
+                    return false;
+                }
+
+                Reservation reservation = reservationService.createReservation(
+                        Reservation.builder()
+                                .nombrePlaces(tete.nombrePlaces())
+                                .commentaire("Réservation issue de la liste d'attente")
+                                .build(),
+                        entree.getUtilisateur().getId(),
+                        evenementId
+                );
+                // Le blocage standard laisserait trop peu de temps à un utilisateur qui n'attendait pas la place
+                LocalDateTime echeance = LocalDateTime.now().plus(delaiPromotion);
+                seatHoldManager.prolonger(reservation, echeance);
+                entree.setStatut(WaitlistStatus.PROMUE);
+                entree.setReservationId(reservation.getId());
+                entree.setEcheanceConfirmation(echeance);
+                return true;
+            }));
+        } catch (ConflictException e) {
+            // Places reprises entre la vérification et la réservation
+            return false;
+        } catch (BadRequestException | BusinessException | ResourceNotFoundException e) {
+            // L'entrée ne pourra jamais être servie (événement annulé, passé...) : on passe à la suivante
+            log.info("Entrée {} de la liste d'attente expirée : {}", tete.id(), e.getMessage());
+            nouvelleTransaction.executeWithoutResult(status ->
+                    waitlistEntryRepository.updateStatut(tete.id(), WaitlistStatus.EXPIREE));
+            return true;
+        }
+    }
+
+    private FileAttente file(Long evenementId) {
+        FileAttente file = files.get(evenementId);
+        if (file != null) {
+            return file;
+        }
+        // Chargement unique par événement, à partir de l'index (evenement, statut, position)
+        return files.computeIfAbsent(evenementId, id -> {
+            FileAttente nouvelle = new FileAttente(waitlistEntryRepository.findMaxPosition(id));
+            waitlistEntryRepository.findHeadsEnAttente(id).forEach(nouvelle::ajouter);
+            return nouvelle;
+        });
+    }
+
+    /**
+     * Index en mémoire d'une file : entrées en attente triées par position.
+     * Lecture et retrait de la tête en O(1) ; les ajouts arrivent presque toujours en queue.
+     */
+    private static final class FileAttente {
+
+        private final ArrayDeque<WaitlistHead> entrees = new ArrayDeque<>();
+        private long dernierePosition;
+        private boolean promotionEnCours;
+        private boolean relance;
+
+        FileAttente(long dernierePosition) {
+            this.dernierePosition = dernierePosition;
+        }
+
+        synchronized long prochainePosition() {
+            return ++dernierePosition;
+        }
+
+        synchronized void ajouter(WaitlistHead entree) {
+            // Deux inscriptions peuvent être validées dans le désordre : on replace l'entrée à son rang
+            ArrayDeque<WaitlistHead> suivantes = new ArrayDeque<>();
+            while (!entrees.isEmpty() && entrees.peekLast().position() > entree.position()) {
+                suivantes.push(entrees.pollLast());
+            }
+            entrees.addLast(entree);
+            entrees.addAll(suivantes);
+        }
+
+        synchronized WaitlistHead tete() {
+            return entrees.peekFirst();
+        }
+
+        /**
+         * @return false si une promotion est déjà en cours : elle fera un tour de plus
+         */
+        synchronized boolean commencerPromotion() {
+            if (promotionEnCours) {
+                relance = true;
+                return false;
+            }
+            promotionEnCours = true;
+            relance = false;
+            return true;
+        }
+
+        /**
+         * @return true si une promotion a été demandée entre-temps (la file est à reparcourir)
+         */
+        synchronized boolean continuerPromotion() {
+            if (relance) {
+                relance = false;
+                return true;
+            }
+            promotionEnCours = false;
+            return false;
+        }
+
+        synchronized void interromprePromotion() {
+            promotionEnCours = false;
+            relance = false;
+        }
+
+        synchronized void retirerTete(WaitlistHead tete) {
+            if (entrees.peekFirst() == tete) {
+                entrees.pollFirst();
+            } else {
+                // Une inscription validée dans le désordre est passée devant pendant la promotion
+                retirer(tete.id());
+            }
+        }
+
+        synchronized void retirer(Long entreeId) {
+            entrees.removeIf(entree -> entree.id().equals(entreeId));
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package ma.event.eventreservationsystem.service.inventory;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Places disponibles par événement, lues une seule fois pour tous les appels simultanés
+ * et conservées pendant un court délai ({@code reservation.availability.ttl}).
+ * Toute réservation ou libération de places invalide l'entrée de l'événement dès sa validation.
+ * Seules des valeurs validées sont mises en cache : dans une transaction en écriture (qui peut avoir modifié
+ * le compteur), la lecture va directement en base. Une transaction annulée n'a donc rien à invalider.
+ */
+@Component
+public class AvailabilityCache {
+
+    private final SeatCounter seatCounter;
+    private final long ttlNanos;
+
+    private final ConcurrentHashMap<Long, Lecture> lectures = new ConcurrentHashMap<>();
+
+    public AvailabilityCache(SeatCounter seatCounter,
+                             @Value("${reservation.availability.ttl:500ms}") Duration ttl) {
+        this.seatCounter = seatCounter;
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    public int getPlacesDisponibles(Long evenementId) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return seatCounter.lire(evenementId).placesDisponibles();
+        }
+        while (true) {
+            Lecture existante = lectures.get(evenementId);
+            if (existante != null && existante.estUtilisable(System.nanoTime())) {
+                return attendre(existante.resultat);
+            }
+
+            // Aucune lecture utilisable : celui qui installe la nouvelle lecture interroge la base,
+            // les appels concurrents attendent son résultat
+            Lecture nouvelle = new Lecture();
+            boolean installee = existante == null
+                    ? lectures.putIfAbsent(evenementId, nouvelle) == null
+                    : lectures.replace(evenementId, existante, nouvelle);
+            if (!installee) {
+                continue;
+            }
+
+            try {
+                int places = seatCounter.lire(evenementId).placesDisponibles();
+                nouvelle.expiration = System.nanoTime() + ttlNanos;
+                nouvelle.resultat.complete(places);
+                return places;
+            } catch (RuntimeException | Error e) {
+                lectures.remove(evenementId, nouvelle);
+                nouvelle.resultat.completeExceptionally(e);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Oublie la valeur d'un événement : la prochaine consultation relit la base.
+     * Une lecture déjà en cours ne sert plus que les appels qui l'attendaient.
+     */
+    public void invalider(Long evenementId) {
+        lectures.remove(evenementId);
+    }
+
+    private static int attendre(CompletableFuture<Integer> resultat) {
+        try {
+            return resultat.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static final class Lecture {
+
+        private final CompletableFuture<Integer> resultat = new CompletableFuture<>();
+        private volatile long expiration;
+
+        boolean estUtilisable(long maintenant) {
+            // En cours : on partage la lecture ; terminée : tant qu'elle n'a pas expiré
+            return !resultat.isDone() || maintenant - expiration < 0;
+        }
+    }
+}
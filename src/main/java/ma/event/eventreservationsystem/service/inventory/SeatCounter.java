@@ -0,0 +1,62 @@
+package ma.event.eventreservationsystem.service.inventory;
+
+import lombok.RequiredArgsConstructor;
+import ma.event.eventreservationsystem.exception.ResourceNotFoundException;
+import ma.event.eventreservationsystem.repository.EventRepository;
+import ma.event.eventreservationsystem.repository.projection.EventSeatCounter;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Compteur persistant des places engagées ({@code Event.placesReservees}).
+ * Chaque modification est un seul UPDATE atomique dont la condition porte sur la capacité :
+ * pas de lecture préalable ni de nouvel essai, les acheteurs concurrents d'un même événement
+ * passent l'un après l'autre sur le verrou de la ligne. La version de l'événement n'est pas modifiée,
+ * de sorte que les ventes n'entrent jamais en conflit avec l'édition de l'événement.
+ */
+@Component
+@RequiredArgsConstructor
+@Transactional
+public class SeatCounter {
+
+    private final EventRepository eventRepository;
+
+    /**
+     * Incrémente le compteur si la capacité le permet
+     * @return false si la capacité de l'événement serait dépassée
+     */
+    public boolean reserver(Long evenementId, int places) {
+        if (eventRepository.incrementerPlacesReservees(evenementId, places) == 1) {
+            return true;
+        }
+        // Aucune ligne modifiée : capacité insuffisante, ou événement inexistant
+        lire(evenementId);
+        return false;
+    }
+
+    /**
+     * Décrémente le compteur (jamais en dessous de zéro)
+     */
+    public void liberer(Long evenementId, int places) {
+        if (eventRepository.decrementerPlacesReservees(evenementId, places) == 0) {
+            lire(evenementId);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public EventSeatCounter lire(Long evenementId) {
+        return eventRepository.findSeatCounterById(evenementId)
+                .orElseThrow(() -> new ResourceNotFoundException("Événement non trouvé avec l'ID : " + evenementId));
+    }
+
+    /**
+     * Recalcule tous les compteurs à partir des réservations (seul usage restant des agrégats SUM).
+     * Exécuté au démarrage pour prendre en compte les données insérées directement en base.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcilier() {
+        eventRepository.reconcilierPlacesReservees();
+    }
+}
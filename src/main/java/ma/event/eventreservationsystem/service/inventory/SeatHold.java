@@ -0,0 +1,7 @@
+package ma.event.eventreservationsystem.service.inventory;
+
+/**
+ * Blocage de places associé à une réservation en attente de confirmation.
+ */
+public record SeatHold(Long reservationId, Long evenementId, int places, long expirationMillis) {
+}
@@ -0,0 +1,62 @@
+package ma.event.eventreservationsystem.service.inventory;
+
+import lombok.RequiredArgsConstructor;
+import ma.event.eventreservationsystem.entity.Reservation;
+import ma.event.eventreservationsystem.entity.enums.ReservationStatus;
+import ma.event.eventreservationsystem.repository.ReservationRepository;
+import ma.event.eventreservationsystem.repository.WaitlistEntryRepository;
+import ma.event.eventreservationsystem.service.search.TrendingIndex;
+import ma.event.eventreservationsystem.service.stats.ReservationRollups;
+import ma.event.eventreservationsystem.service.stats.ReservationStatistics;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Annule par lots les réservations en attente dont le blocage a expiré et rend leurs places.
+ */
+@Component
+@RequiredArgsConstructor
+public class SeatHoldExpirer {
+
+    private final ReservationRepository reservationRepository;
+    private final WaitlistEntryRepository waitlistEntryRepository;
+    private final SeatInventory seatInventory;
+    private final ReservationStatistics reservationStatistics;
+    private final ReservationRollups reservationRollups;
+    private final TrendingIndex trendingIndex;
+
+    /**
+     * @return Le nombre de réservations réellement expirées (celles confirmées entre-temps sont ignorées)
+     */
+    @Transactional
+    public int expirer(Collection<Long> reservationIds) {
+        // Verrouille les lignes encore en attente pour ne pas croiser une confirmation concurrente
+        List<Reservation> enAttente = reservationRepository.findByIdInAndStatutForUpdate(
+                reservationIds, ReservationStatus.EN_ATTENTE);
+        if (enAttente.isEmpty()) {
+            return 0;
+        }
+
+        List<Long> ids = enAttente.stream().map(Reservation::getId).toList();
+        reservationRepository.updateStatutByIds(ids, ReservationStatus.EN_ATTENTE, ReservationStatus.ANNULEE);
+        reservationStatistics.transition(enAttente, ReservationStatus.EN_ATTENTE, ReservationStatus.ANNULEE);
+        reservationRollups.transition(enAttente, ReservationStatus.EN_ATTENTE, ReservationStatus.ANNULEE);
+        trendingIndex.retrancher(enAttente);
+
+        // Une place obtenue par la liste d'attente et non confirmée à temps est perdue : l'inscription l'indique
+        waitlistEntryRepository.expirerPromotions(ids);
+
+        // Une seule mise à jour de compteur par événement
+        Map<Long, Integer> placesParEvenement = enAttente.stream()
+                .collect(Collectors.groupingBy(r -> r.getEvenement().getId(),
+                        Collectors.summingInt(Reservation::getNombrePlaces)));
+        placesParEvenement.forEach(seatInventory::liberer);
+
+        return ids.size();
+    }
+}
@@ -0,0 +1,177 @@
+package ma.event.eventreservationsystem.service.inventory;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import ma.event.eventreservationsystem.entity.Reservation;
+import ma.event.eventreservationsystem.repository.ReservationRepository;
+import ma.event.eventreservationsystem.util.TransactionHooks;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Blocages temporaires des places des réservations en attente.
+ * Une réservation non confirmée dans le délai ({@code reservation.hold.ttl}) est annulée
+ * et ses places sont rendues. Les échéances sont gérées par une roue temporelle :
+ * l'expiration ne parcourt jamais la table des réservations.
+ * Une réservation issue de la liste d'attente a sa propre échéance, plus longue (voir {@link #prolonger}).
+ */
+@Slf4j
+@Component
+public class SeatHoldManager {
+
+    private static final int NOMBRE_CASES = 512;
+
+    private final ReservationRepository reservationRepository;
+    private final SeatHoldExpirer seatHoldExpirer;
+    private final Duration ttl;
+    private final int tailleLot;
+
+    private final ConcurrentHashMap<Long, SeatHold> blocages = new ConcurrentHashMap<>();
+    private final TimingWheel<SeatHold> roue;
+
+    private final Counter compteurCrees;
+    private final Counter compteurConfirmes;
+    private final Counter compteurLiberes;
+    private final Counter compteurExpires;
+
+    public SeatHoldManager(ReservationRepository reservationRepository,
+                           SeatHoldExpirer seatHoldExpirer,
+                           MeterRegistry meterRegistry,
+                           @Value("${reservation.hold.ttl:15m}") Duration ttl,
+                           @Value("${reservation.hold.tick-ms:1000}") long tickMillis,
+                           @Value("${reservation.hold.batch-size:500}") int tailleLot) {
+        this.reservationRepository = reservationRepository;
+        this.seatHoldExpirer = seatHoldExpirer;
+        this.ttl = ttl;
+        this.tailleLot = tailleLot;
+        this.roue = new TimingWheel<>(NOMBRE_CASES, tickMillis, System.currentTimeMillis());
+
+        this.compteurCrees = meterRegistry.counter("reservation.holds", "resultat", "cree");
+        this.compteurConfirmes = meterRegistry.counter("reservation.holds", "resultat", "confirme");
+        this.compteurLiberes = meterRegistry.counter("reservation.holds", "resultat", "libere");
+        this.compteurExpires = meterRegistry.counter("reservation.holds", "resultat", "expire");
+        meterRegistry.gauge("reservation.holds.actifs", blocages, ConcurrentHashMap::size);
+    }
+
+    /**
+     * Bloque les places d'une réservation en attente, une fois sa création validée
+     */
+    public void bloquer(Reservation reservation) {
+        long expiration = System.currentTimeMillis() + ttl.toMillis();
+        SeatHold blocage = new SeatHold(reservation.getId(), reservation.getEvenement().getId(),
+                reservation.getNombrePlaces(), expiration);
+        TransactionHooks.apresCommit(() -> {
+            planifier(blocage);
+            compteurCrees.increment();
+        });
+    }
+
+    /**
+     * Fixe une échéance propre à la réservation (promotion depuis la liste d'attente) ; appelé dans la transaction
+     * qui l'a créée, il remplace le blocage standard posé à la création
+     */
+    public void prolonger(Reservation reservation, LocalDateTime echeance) {
+        SeatHold blocage = new SeatHold(reservation.getId(), reservation.getEvenement().getId(),
+                reservation.getNombrePlaces(), enMillis(echeance));
+        // L'ancienne échéance reste dans la roue mais sera ignorée : ce n'est plus le blocage enregistré
+        TransactionHooks.apresCommit(() -> planifier(blocage));
+    }
+
+    /**
+     * Le blocage devient définitif : la réservation a été confirmée
+     */
+    public void confirmer(Long reservationId) {
+        confirmer(List.of(reservationId));
+    }
+
+    public void confirmer(Collection<Long> reservationIds) {
+        TransactionHooks.apresCommit(() -> reservationIds.forEach(id -> {
+            if (blocages.remove(id) != null) {
+                compteurConfirmes.increment();
+            }
+        }));
+    }
+
+    /**
+     * La réservation a été annulée : ses places ont déjà été rendues par l'annulation
+     */
+    public void retirer(Long reservationId) {
+        retirer(List.of(reservationId));
+    }
+
+    public void retirer(Collection<Long> reservationIds) {
+        TransactionHooks.apresCommit(() -> reservationIds.forEach(id -> {
+            if (blocages.remove(id) != null) {
+                compteurLiberes.increment();
+            }
+        }));
+    }
+
+    /**
+     * Vrai si le délai de confirmation est dépassé (même si l'expiration n'a pas encore été traitée)
+     */
+    public boolean estExpire(Long reservationId) {
+        SeatHold blocage = blocages.get(reservationId);
+        return blocage != null && blocage.expirationMillis() <= System.currentTimeMillis();
+    }
+
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    @Scheduled(fixedDelayString = "${reservation.hold.tick-ms:1000}")
+    public void expirerBlocagesEchus() {
+        List<Long> aExpirer = new ArrayList<>();
+        for (SeatHold blocage : roue.avancer(System.currentTimeMillis())) {
+            // Ignore les blocages confirmés ou annulés depuis leur planification
+            if (blocages.get(blocage.reservationId()) == blocage) {
+                aExpirer.add(blocage.reservationId());
+            }
+        }
+
+        for (int debut = 0; debut < aExpirer.size(); debut += tailleLot) {
+            List<Long> lot = aExpirer.subList(debut, Math.min(debut + tailleLot, aExpirer.size()));
+            try {
+                int expirees = seatHoldExpirer.expirer(lot);
+                compteurExpires.increment(expirees);
+                lot.forEach(blocages::remove);
+            } catch (RuntimeException e) {
+                // Nouvel essai au prochain tick
+                log.warn("Échec de l'expiration de {} blocages : {}", lot.size(), e.getMessage());
+                lot.stream().map(blocages::get).filter(b -> b != null).forEach(b -> roue.planifier(b, 0));
+            }
+        }
+    }
+
+    /**
+     * Reconstruit les blocages des réservations en attente au démarrage (une seule requête)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void chargerBlocagesEnAttente() {
+        reservationRepository.findPendingHolds().forEach(r -> planifier(new SeatHold(
+                r.reservationId(), r.evenementId(), r.places(),
+                r.echeance() != null ? enMillis(r.echeance()) : enMillis(r.dateReservation()) + ttl.toMillis())));
+        log.info("{} blocages de places en attente rechargés", blocages.size());
+    }
+
+    private static long enMillis(LocalDateTime date) {
+        return date.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private void planifier(SeatHold blocage) {
+        blocages.put(blocage.reservationId(), blocage);
+        roue.planifier(blocage, blocage.expirationMillis());
+    }
+}
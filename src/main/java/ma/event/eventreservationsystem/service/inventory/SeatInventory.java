@@ -0,0 +1,102 @@
+package ma.event.eventreservationsystem.service.inventory;
+
+import lombok.RequiredArgsConstructor;
+import ma.event.eventreservationsystem.service.events.SeatsReleasedEvent;
+import ma.event.eventreservationsystem.service.events.SeatsReservedEvent;
+import ma.event.eventreservationsystem.util.TransactionHooks;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Inventaire en mémoire des places engagées (réservations en attente + confirmées) par événement.
+ * Chaque compteur est initialisé depuis la base au premier accès, puis maintenu par compare-and-set :
+ * les demandes qui ne peuvent pas être servies sont refusées sans aucune requête.
+ * Les demandes admises sont ensuite inscrites dans le compteur persistant ({@link SeatCounter}).
+ */
+@Component
+@RequiredArgsConstructor
+public class SeatInventory {
+
+    private final SeatCounter seatCounter;
+    private final AvailabilityCache availabilityCache;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final ConcurrentHashMap<Long, AtomicInteger> placesEngagees = new ConcurrentHashMap<>();
+
+    /**
+     * Tente de réserver des places sans jamais dépasser la capacité
+     * @return true si les places ont été réservées
+     */
+    public boolean reserver(Long evenementId, int capaciteMax, int places) {
+        AtomicInteger compteur = compteur(evenementId);
+        int courant;
+        do {
+            courant = compteur.get();
+            if (courant + places > capaciteMax) {
+                return false;
+            }
+        } while (!compteur.compareAndSet(courant, courant + places));
+
+        // Le compteur persistant fait foi : s'il refuse, on rend les places et on resynchronise
+        boolean enregistre;
+        try {
+            enregistre = seatCounter.reserver(evenementId, places);
+        } catch (RuntimeException e) {
+            compteur.addAndGet(-places);
+            throw e;
+        }
+        if (!enregistre) {
+            compteur.addAndGet(-places);
+            invalider(evenementId);
+            return false;
+        }
+
+        // Les places disponibles mises en cache sont périmées une fois la réservation validée ;
+        // si elle n'est finalement pas enregistrée, on rend les places (le cache, lui, n'a pas changé)
+        TransactionHooks.apresCommit(() -> availabilityCache.invalider(evenementId));
+        TransactionHooks.siRollback(() -> compteur.addAndGet(-places));
+        eventPublisher.publishEvent(new SeatsReservedEvent(evenementId, places));
+        return true;
+    }
+
+    /**
+     * Rend des places : le compteur persistant est mis à jour dans la transaction courante,
+     * l'inventaire en mémoire une fois l'annulation validée (la liste d'attente est alors servie)
+     */
+    public void liberer(Long evenementId, int places) {
+        seatCounter.liberer(evenementId, places);
+        TransactionHooks.apresCommit(() -> {
+            AtomicInteger compteur = placesEngagees.get(evenementId);
+            if (compteur != null) {
+                compteur.updateAndGet(v -> Math.max(0, v - places));
+            }
+            availabilityCache.invalider(evenementId);
+        });
+        eventPublisher.publishEvent(new SeatsReleasedEvent(evenementId, places));
+    }
+
+    public int getPlacesEngagees(Long evenementId) {
+        return compteur(evenementId).get();
+    }
+
+    /**
+     * Oublie le compteur d'un événement (il sera relu depuis la base au prochain accès)
+     */
+    public void invalider(Long evenementId) {
+        placesEngagees.remove(evenementId);
+        availabilityCache.invalider(evenementId);
+    }
+
+    private AtomicInteger compteur(Long evenementId) {
+        AtomicInteger compteur = placesEngagees.get(evenementId);
+        if (compteur != null) {
+            return compteur;
+        }
+        // Initialisation par simple lecture de la clé primaire (compteur dénormalisé)
+        return placesEngagees.computeIfAbsent(evenementId,
+                id -> new AtomicInteger(seatCounter.lire(id).placesReservees()));
+    }
+}
@@ -0,0 +1,86 @@
+package ma.event.eventreservationsystem.service.inventory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Roue temporelle (hashed timing wheel) : planification en O(1) et expiration par tranches de temps,
+ * sans jamais parcourir l'ensemble des éléments planifiés.
+ * Chaque case contient les éléments dont l'échéance tombe sur ce tick, modulo le nombre de cases.
+ */
+public class TimingWheel<T> {
+
+    private final long tickMillis;
+    private final ArrayDeque<Echeance<T>>[] cases;
+    private long dernierTick;
+    private int taille;
+
+    @SuppressWarnings("unchecked")
+    public TimingWheel(int nombreCases, long tickMillis, long maintenantMillis) {
+        if (nombreCases <= 0 || tickMillis <= 0) {
+            throw new IllegalArgumentException("La roue doit avoir au moins une case et un tick positif");
+        }
+        this.tickMillis = tickMillis;
+        this.cases = new ArrayDeque[nombreCases];
+        for (int i = 0; i < nombreCases; i++) {
+            cases[i] = new ArrayDeque<>();
+        }
+        this.dernierTick = maintenantMillis / tickMillis;
+    }
+
+    /**
+     * Planifie un élément ; une échéance déjà passée sera rendue au prochain tick
+     */
+    public synchronized void planifier(T element, long echeanceMillis) {
+        long tick = Math.max(dernierTick + 1, Math.floorDiv(echeanceMillis + tickMillis - 1, tickMillis));
+        cases[(int) (tick % cases.length)].addLast(new Echeance<>(element, tick));
+        taille++;
+    }
+
+    /**
+     * Fait avancer la roue jusqu'à l'instant donné
+     * @return Les éléments arrivés à échéance depuis le dernier appel
+     */
+    public synchronized List<T> avancer(long maintenantMillis) {
+        long cible = maintenantMillis / tickMillis;
+        List<T> expires = new ArrayList<>();
+        if (cible <= dernierTick) {
+            return expires;
+        }
+
+        if (cible - dernierTick >= cases.length) {
+            // Long retard : un seul passage sur toutes les cases suffit
+            for (ArrayDeque<Echeance<T>> c : cases) {
+                collecter(c, cible, expires);
+            }
+        } else {
+            for (long tick = dernierTick + 1; tick <= cible; tick++) {
+                collecter(cases[(int) (tick % cases.length)], cible, expires);
+            }
+        }
+        dernierTick = cible;
+        return expires;
+    }
+
+    public synchronized int taille() {
+        return taille;
+    }
+
+    private void collecter(ArrayDeque<Echeance<T>> c, long cible, List<T> expires) {
+        Iterator<Echeance<T>> it = c.iterator();
+        while (it.hasNext()) {
+            Echeance<T> echeance = it.next();
+            // Les éléments des tours suivants restent dans la case
+            if (echeance.tick() <= cible) {
+                expires.add(echeance.element());
+                it.remove();
+                taille--;
+            }
+        }
+    }
+
+    private record Echeance<T>(T element, long tick) {
+    }
+}
@@ -0,0 +1,195 @@
+package ma.event.eventreservationsystem.service.inventory;
+
+import ma.event.eventreservationsystem.exception.BusinessException;
+import ma.event.eventreservationsystem.exception.ConflictException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Salle d'attente virtuelle devant le formulaire de réservation.
+ * Chaque visiteur reçoit un ticket numéroté par événement ; les tickets sont admis dans l'ordre,
+ * au débit configuré ({@code reservation.waiting-room.rate} par seconde et par événement, avec une rafale
+ * de {@code reservation.waiting-room.burst}). Sa position est la différence entre son ticket et le dernier admis.
+ * Les réservations des visiteurs admis passent enfin par un nombre borné d'exécutions simultanées,
+ * pour ne jamais saturer le pool de connexions.
+ * La file d'un événement où personne n'attend et où aucun visiteur n'est entré depuis
+ * {@code reservation.waiting-room.idle-timeout} est retirée de la mémoire ; elle est recréée au besoin,
+ * et ses tickets sont numérotés au-delà de tous ceux déjà délivrés (les anciens restent admis).
+ *
+ * La salle d'attente protège uniquement le parcours interactif ({@code ReservationFormView}) :
+ * {@code ReservationService.createReservation} ne la consulte pas, et les autres appelants
+ * (réservations groupées, tâches internes) n'y passent pas. La capacité reste garantie pour tous
+ * par l'inventaire des places ; seul le lissage de la charge est propre au formulaire.
+ */
+@Component
+public class WaitingRoom {
+
+    private final double debit;
+    private final double rafale;
+    private final Duration attenteMax;
+    private final long inactiviteMaxNanos;
+    private final Semaphore executions;
+
+    private final ConcurrentHashMap<Long, Salle> salles = new ConcurrentHashMap<>();
+
+    // Tickets délivrés, toutes salles confondues : point de départ de la numérotation d'une nouvelle salle
+    private final AtomicLong ticketsDelivres = new AtomicLong();
+
+    public WaitingRoom(@Value("${reservation.waiting-room.rate:20}") double debit,
+                       @Value("${reservation.waiting-room.burst:20}") double rafale,
+                       @Value("${reservation.waiting-room.max-concurrent:8}") int executionsMax,
+                       @Value("${reservation.waiting-room.max-wait:2s}") Duration attenteMax,
+                       @Value("${reservation.waiting-room.idle-timeout:5m}") Duration inactiviteMax) {
+        this.debit = debit;
+        this.rafale = rafale;
+        this.attenteMax = attenteMax;
+        this.inactiviteMaxNanos = inactiviteMax.toNanos();
+        this.executions = new Semaphore(executionsMax, true);
+    }
+
+    /**
+     * Entre dans la file de l'événement. Si personne n'attend et que le débit le permet, le ticket est admis aussitôt.
+     * @return Le numéro de ticket
+     */
+    public long entrer(Long evenementId) {
+        while (true) {
+            Salle salle = salle(evenementId);
+            long ticket = salle.entrer();
+            if (ticket > 0) {
+                return ticket;
+            }
+            // Salle fermée pour inactivité entre sa lecture et l'entrée : on la retire et on entre dans la nouvelle
+            salles.remove(evenementId, salle);
+        }
+    }
+
+    /**
+     * @return Le nombre de visiteurs à admettre avant ce ticket, lui compris (0 = admis)
+     */
+    public long getPosition(Long evenementId, long ticket) {
+        return Math.max(0, ticket - salle(evenementId).getAdmisJusqua());
+    }
+
+    public boolean estAdmis(Long evenementId, long ticket) {
+        return getPosition(evenementId, ticket) == 0;
+    }
+
+    /**
+     * Exécute l'opération d'un visiteur admis, dans la limite des exécutions simultanées
+     */
+    public <T> T executer(Long evenementId, long ticket, Supplier<T> operation) {
+        if (!estAdmis(evenementId, ticket)) {
+            throw new BusinessException("Votre tour n'est pas encore arrivé, merci de patienter");
+        }
+
+        boolean autorise;
+        try {
+            autorise = executions.tryAcquire(attenteMax.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            autorise = false;
+        }
+        if (!autorise) {
+            throw new ConflictException("Le service de réservation est très sollicité, veuillez réessayer dans un instant");
+        }
+
+        try {
+            return operation.get();
+        } finally {
+            executions.release();
+        }
+    }
+
+    /**
+     * Admet les tickets suivants de chaque file au débit configuré et retire les files inactives
+     */
+    @Scheduled(fixedRateString = "${reservation.waiting-room.tick-ms:200}")
+    public void admettre() {
+        long maintenant = System.nanoTime();
+        salles.forEach((evenementId, salle) -> {
+            salle.admettre(maintenant);
+            if (salle.fermerSiInactive(maintenant)) {
+                salles.remove(evenementId, salle);
+            }
+        });
+    }
+
+    /**
+     * @return Le nombre de files en mémoire
+     */
+    public int taille() {
+        return salles.size();
+    }
+
+    private Salle salle(Long evenementId) {
+        return salles.computeIfAbsent(evenementId, id -> new Salle(rafale, ticketsDelivres.get(), System.nanoTime()));
+    }
+
+    /**
+     * File d'un événement : compteur de tickets délivrés, dernier ticket admis et seau de jetons
+     */
+    private final class Salle {
+
+        private long derniereDelivree;
+        private long admisJusqua;
+        private double jetons;
+        private long derniereRecharge;
+        private long derniereEntree;
+        private boolean fermee;
+
+        Salle(double jetons, long origine, long maintenant) {
+            this.jetons = jetons;
+            this.derniereDelivree = origine;
+            this.admisJusqua = origine;
+            this.derniereRecharge = maintenant;
+            this.derniereEntree = maintenant;
+        }
+
+        /**
+         * @return Le ticket délivré, ou -1 si la salle vient d'être fermée
+         */
+        synchronized long entrer() {
+            if (fermee) {
+                return -1;
+            }
+            long ticket = ++derniereDelivree;
+            ticketsDelivres.incrementAndGet();
+            derniereEntree = System.nanoTime();
+            // Personne devant : admission immédiate si un jeton est disponible
+            if (ticket == admisJusqua + 1 && jetons >= 1) {
+                admisJusqua = ticket;
+                jetons--;
+            }
+            return ticket;
+        }
+
+        synchronized long getAdmisJusqua() {
+            return admisJusqua;
+        }
+
+        synchronized void admettre(long maintenant) {
+            jetons = Math.min(rafale, jetons + debit * (maintenant - derniereRecharge) / 1e9);
+            derniereRecharge = maintenant;
+
+            long admissibles = Math.min((long) jetons, derniereDelivree - admisJusqua);
+            admisJusqua += admissibles;
+            jetons -= admissibles;
+        }
+
+        /**
+         * Ferme la salle si personne n'attend et qu'aucun visiteur n'est entré depuis le délai d'inactivité
+         */
+        synchronized boolean fermerSiInactive(long maintenant) {
+            fermee = admisJusqua == derniereDelivree && maintenant - derniereEntree >= inactiviteMaxNanos;
+            return fermee;
+        }
+    }
+}
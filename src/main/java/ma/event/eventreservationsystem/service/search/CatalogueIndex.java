@@ -0,0 +1,30 @@
+package ma.event.eventreservationsystem.service.search;
+
+import java.util.Collection;
+
+/**
+ * Index en mémoire sur les événements publiés.
+ * Construit au démarrage puis tenu à jour par {@link CatalogueIndexer} à chaque modification validée.
+ */
+public interface CatalogueIndex {
+
+    /**
+     * Remplace tout le contenu de l'index
+     */
+    void reconstruire(Collection<IndexedEvent> evenements);
+
+    /**
+     * Ajoute l'événement, ou remplace sa version précédente
+     */
+    void indexer(IndexedEvent evenement);
+
+    /**
+     * Retire l'événement s'il est présent (dépublié, annulé, terminé, supprimé)
+     */
+    void retirer(Long evenementId);
+
+    /**
+     * @return false tant que la construction initiale n'est pas terminée
+     */
+    boolean estPret();
+}
@@ -0,0 +1,67 @@
+package ma.event.eventreservationsystem.service.search;
+
+import lombok.extern.slf4j.Slf4j;
+import ma.event.eventreservationsystem.entity.enums.EventStatus;
+import ma.event.eventreservationsystem.repository.EventRepository;
+import ma.event.eventreservationsystem.service.events.EventChangedEvent;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Alimente les index du catalogue : construction complète au démarrage à partir des événements publiés,
+ * puis mise à jour de l'événement concerné après chaque modification validée.
+ */
+@Slf4j
+@Component
+public class CatalogueIndexer {
+
+    private final EventRepository eventRepository;
+    private final List<CatalogueIndex> index;
+    private final TransactionTemplate lecture;
+
+    public CatalogueIndexer(EventRepository eventRepository,
+                            List<CatalogueIndex> index,
+                            PlatformTransactionManager transactionManager) {
+        this.eventRepository = eventRepository;
+        this.index = index;
+        this.lecture = new TransactionTemplate(transactionManager);
+        this.lecture.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.lecture.setReadOnly(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void construire() {
+        List<IndexedEvent> publies = lecture.execute(status ->
+                eventRepository.findByStatut(EventStatus.PUBLIE).stream()
+                        .map(IndexedEvent::depuis)
+                        .toList());
+        index.forEach(i -> i.reconstruire(publies));
+        log.info("Index du catalogue construits : {} événement(s) publié(s)", publies.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void surEvenementModifie(EventChangedEvent changement) {
+        Long id = changement.evenementId();
+        // Relecture de l'état validé : seul un événement publié figure dans le catalogue
+        IndexedEvent evenement = lecture.execute(status -> eventRepository.findById(id)
+                .filter(e -> e.getStatut() == EventStatus.PUBLIE)
+                .map(IndexedEvent::depuis)
+                .orElse(null));
+
+        if (evenement != null) {
+            index.forEach(i -> i.indexer(evenement));
+        } else {
+            index.forEach(i -> i.retirer(id));
+        }
+    }
+}
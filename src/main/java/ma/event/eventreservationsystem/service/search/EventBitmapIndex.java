@@ -0,0 +1,214 @@
+package ma.event.eventreservationsystem.service.search;
+
+import lombok.extern.slf4j.Slf4j;
+import ma.event.eventreservationsystem.entity.enums.EventCategory;
+import ma.event.eventreservationsystem.entity.enums.EventStatus;
+import ma.event.eventreservationsystem.repository.EventRepository;
+import ma.event.eventreservationsystem.repository.projection.EventDimensions;
+import ma.event.eventreservationsystem.service.events.EventChangedEvent;
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * Index secondaires de tous les événements (pas seulement publiés) sur les colonnes à faible cardinalité :
+ * un bitmap compressé d'identifiants par statut, par catégorie et par ville.
+ * Une combinaison de filtres se résout par OU entre les valeurs d'un même critère et ET entre critères ;
+ * seuls les identifiants de la page demandée sont extraits du résultat.
+ */
+@Slf4j
+@Component
+public class EventBitmapIndex {
+
+    private final EventRepository eventRepository;
+    private final TransactionTemplate lecture;
+
+    private final ReentrantReadWriteLock verrou = new ReentrantReadWriteLock();
+
+    private final RoaringBitmap tous = new RoaringBitmap();
+    private final Map<EventStatus, RoaringBitmap> parStatut = new EnumMap<>(EventStatus.class);
+    private final Map<EventCategory, RoaringBitmap> parCategorie = new EnumMap<>(EventCategory.class);
+    // Clé : ville normalisée (accents et casse ignorés)
+    private final Map<String, RoaringBitmap> parVille = new HashMap<>();
+    // Valeurs indexées par événement, pour le retirer des bons bitmaps
+    private final Map<Long, EventDimensions> dimensions = new HashMap<>();
+
+    private volatile boolean pret;
+
+    public EventBitmapIndex(EventRepository eventRepository, PlatformTransactionManager transactionManager) {
+        this.eventRepository = eventRepository;
+        this.lecture = new TransactionTemplate(transactionManager);
+        this.lecture.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.lecture.setReadOnly(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void construire() {
+        List<EventDimensions> evenements = lecture.execute(status -> eventRepository.findAllDimensions());
+
+        verrou.writeLock().lock();
+        try {
+            tous.clear();
+            parStatut.clear();
+            parCategorie.clear();
+            parVille.clear();
+            dimensions.clear();
+            evenements.forEach(this::ajouter);
+
+            // Compression des plages d'identifiants consécutifs
+            tous.runOptimize();
+            parStatut.values().forEach(RoaringBitmap::runOptimize);
+            parCategorie.values().forEach(RoaringBitmap::runOptimize);
+            parVille.values().forEach(RoaringBitmap::runOptimize);
+            pret = true;
+        } finally {
+            verrou.writeLock().unlock();
+        }
+        log.info("Index bitmap construits : {} événement(s), {} ville(s)", evenements.size(), parVille.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void surEvenementModifie(EventChangedEvent changement) {
+        Long id = changement.evenementId();
+        Optional<EventDimensions> valeurs = lecture.execute(status -> eventRepository.findDimensionsById(id));
+
+        verrou.writeLock().lock();
+        try {
+            supprimer(id);
+            valeurs.ifPresent(this::ajouter);
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    public boolean estPret() {
+        return pret;
+    }
+
+    /**
+     * Événements satisfaisant tous les critères renseignés (un critère null ou vide ne filtre rien),
+     * par identifiant croissant.
+     * @param debut Rang du premier identifiant à renvoyer
+     * @param taille Nombre maximal d'identifiants à renvoyer
+     */
+    public Selection selectionner(Collection<EventStatus> statuts,
+                                  Collection<EventCategory> categories,
+                                  Collection<String> villes,
+                                  long debut, int taille) {
+        verrou.readLock().lock();
+        try {
+            RoaringBitmap resultat = et(et(
+                    union(statuts, parStatut::get),
+                    union(categories, parCategorie::get)),
+                    union(villes, ville -> parVille.get(cleVille(ville))));
+            if (resultat == null) {
+                resultat = tous;
+            }
+
+            long total = resultat.getLongCardinality();
+            if (debut >= total || taille <= 0) {
+                return new Selection(List.of(), total);
+            }
+
+            // Positionnement direct sur le premier identifiant de la page
+            List<Long> ids = new ArrayList<>((int) Math.min(taille, total - debut));
+            PeekableIntIterator iterateur = resultat.getIntIterator();
+            iterateur.advanceIfNeeded(resultat.select((int) debut));
+            while (iterateur.hasNext() && ids.size() < taille) {
+                ids.add((long) iterateur.next());
+            }
+            return new Selection(ids, total);
+        } finally {
+            verrou.readLock().unlock();
+        }
+    }
+
+    public long compter(Collection<EventStatus> statuts,
+                        Collection<EventCategory> categories,
+                        Collection<String> villes) {
+        return selectionner(statuts, categories, villes, 0, 0).total();
+    }
+
+    private void ajouter(EventDimensions evenement) {
+        int bit = bit(evenement.id());
+        tous.add(bit);
+        parStatut.computeIfAbsent(evenement.statut(), s -> new RoaringBitmap()).add(bit);
+        parCategorie.computeIfAbsent(evenement.categorie(), c -> new RoaringBitmap()).add(bit);
+        parVille.computeIfAbsent(cleVille(evenement.ville()), v -> new RoaringBitmap()).add(bit);
+        dimensions.put(evenement.id(), evenement);
+    }
+
+    private void supprimer(Long evenementId) {
+        EventDimensions evenement = dimensions.remove(evenementId);
+        if (evenement == null) {
+            return;
+        }
+        int bit = bit(evenementId);
+        tous.remove(bit);
+        parStatut.get(evenement.statut()).remove(bit);
+        parCategorie.get(evenement.categorie()).remove(bit);
+        String ville = cleVille(evenement.ville());
+        RoaringBitmap evenementsDeLaVille = parVille.get(ville);
+        evenementsDeLaVille.remove(bit);
+        if (evenementsDeLaVille.isEmpty()) {
+            parVille.remove(ville);
+        }
+    }
+
+    /**
+     * OU des bitmaps des valeurs demandées ; null si le critère n'est pas renseigné
+     */
+    private static <T> RoaringBitmap union(Collection<T> valeurs, Function<T, RoaringBitmap> bitmap) {
+        if (valeurs == null || valeurs.isEmpty()) {
+            return null;
+        }
+        List<RoaringBitmap> bitmaps = new ArrayList<>(valeurs.size());
+        for (T valeur : valeurs) {
+            RoaringBitmap trouve = valeur != null ? bitmap.apply(valeur) : null;
+            if (trouve != null) {
+                bitmaps.add(trouve);
+            }
+        }
+        return RoaringBitmap.or(bitmaps.iterator());
+    }
+
+    /**
+     * ET de deux critères ; un critère null laisse passer tout
+     */
+    private static RoaringBitmap et(RoaringBitmap a, RoaringBitmap b) {
+        if (a == null) {
+            return b;
+        }
+        if (b == null) {
+            return a;
+        }
+        return RoaringBitmap.and(a, b);
+    }
+
+    private static int bit(Long evenementId) {
+        return Math.toIntExact(evenementId);
+    }
+
+    private static String cleVille(String ville) {
+        return TextNormalizer.normaliser(ville).trim();
+    }
+
+    /**
+     * Identifiants d'une page et nombre total d'événements correspondants
+     */
+    public record Selection(List<Long> ids, long total) {
+    }
+}
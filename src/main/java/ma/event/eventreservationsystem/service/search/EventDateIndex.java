@@ -0,0 +1,279 @@
+package ma.event.eventreservationsystem.service.search;
+
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongPredicate;
+
+/**
+ * Arbre d'intervalles (dateDebut, dateFin) des événements publiés.
+ * Arbre binaire de recherche ordonné par (dateDebut, id), équilibré par priorités aléatoires (treap) ;
+ * chaque nœud retient la plus grande dateFin de son sous-arbre, ce qui écarte d'un coup
+ * les sous-arbres entièrement terminés avant la période demandée.
+ * Les deux recherches coûtent O(log n + k) et rendent les événements par date de début.
+ */
+@Component
+public class EventDateIndex implements CatalogueIndex {
+
+    private final ReentrantReadWriteLock verrou = new ReentrantReadWriteLock();
+
+    private Noeud racine;
+    // Clé de chaque événement dans l'arbre, pour pouvoir le retirer ou le remplacer
+    private final Map<Long, Long> debuts = new HashMap<>();
+
+    private volatile boolean pret;
+
+    @Override
+    public void reconstruire(Collection<IndexedEvent> evenements) {
+        verrou.writeLock().lock();
+        try {
+            racine = null;
+            debuts.clear();
+            evenements.forEach(this::ajouter);
+            pret = true;
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void indexer(IndexedEvent evenement) {
+        verrou.writeLock().lock();
+        try {
+            supprimer(evenement.id());
+            ajouter(evenement);
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void retirer(Long evenementId) {
+        verrou.writeLock().lock();
+        try {
+            supprimer(evenementId);
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean estPret() {
+        return pret;
+    }
+
+    /**
+     * Événements en cours à un moment de la période : commencés au plus tard à {@code fin}
+     * et terminés au plus tôt à {@code debut}. Une borne nulle n'est pas limitée.
+     */
+    public List<Long> seDeroulantPendant(LocalDateTime debut, LocalDateTime fin) {
+        List<Long> ids = new ArrayList<>();
+        seDeroulantPendant(debut, fin, ids::add);
+        return ids;
+    }
+
+    /**
+     * Parcourt les événements en cours pendant la période, par date de début, tant que {@code action} renvoie vrai
+     */
+    public void seDeroulantPendant(LocalDateTime debut, LocalDateTime fin, LongPredicate action) {
+        verrou.readLock().lock();
+        try {
+            chevauchant(racine, borneBasse(debut), borneHaute(fin), action);
+        } finally {
+            verrou.readLock().unlock();
+        }
+    }
+
+    /**
+     * Événements dont la date de début est dans la période, bornes comprises. Une borne nulle n'est pas limitée.
+     */
+    public List<Long> commencantEntre(LocalDateTime debut, LocalDateTime fin) {
+        List<Long> ids = new ArrayList<>();
+        commencantEntre(debut, fin, ids::add);
+        return ids;
+    }
+
+    public void commencantEntre(LocalDateTime debut, LocalDateTime fin, LongPredicate action) {
+        verrou.readLock().lock();
+        try {
+            commencant(racine, borneBasse(debut), borneHaute(fin), action);
+        } finally {
+            verrou.readLock().unlock();
+        }
+    }
+
+    private void ajouter(IndexedEvent evenement) {
+        long debut = instant(evenement.dateDebut());
+        // Sans date de fin, l'événement est considéré ponctuel
+        long fin = evenement.dateFin() != null ? instant(evenement.dateFin()) : debut;
+        racine = inserer(racine, new Noeud(debut, Math.max(debut, fin), evenement.id()));
+        debuts.put(evenement.id(), debut);
+    }
+
+    private void supprimer(Long evenementId) {
+        Long debut = debuts.remove(evenementId);
+        if (debut != null) {
+            racine = supprimer(racine, debut, evenementId);
+        }
+    }
+
+    // --- Parcours ---
+
+    // Faux dès que l'action demande l'arrêt du parcours
+    private static boolean chevauchant(Noeud noeud, long debut, long fin, LongPredicate action) {
+        // Tout le sous-arbre est terminé avant le début de la période
+        if (noeud == null || noeud.maxFin < debut) {
+            return true;
+        }
+        if (!chevauchant(noeud.gauche, debut, fin, action)) {
+            return false;
+        }
+        // Ce nœud et tout le sous-arbre droit commencent après la période
+        if (noeud.debut > fin) {
+            return true;
+        }
+        if (noeud.fin >= debut && !action.test(noeud.id)) {
+            return false;
+        }
+        return chevauchant(noeud.droite, debut, fin, action);
+    }
+
+    private static boolean commencant(Noeud noeud, long debut, long fin, LongPredicate action) {
+        if (noeud == null) {
+            return true;
+        }
+        if (noeud.debut >= debut && !commencant(noeud.gauche, debut, fin, action)) {
+            return false;
+        }
+        if (noeud.debut >= debut && noeud.debut <= fin && !action.test(noeud.id)) {
+            return false;
+        }
+        return noeud.debut > fin || commencant(noeud.droite, debut, fin, action);
+    }
+
+    // --- Treap ---
+
+    private static Noeud inserer(Noeud noeud, Noeud nouveau) {
+        if (noeud == null) {
+            return nouveau;
+        }
+        if (nouveau.compareTo(noeud) < 0) {
+            noeud.gauche = inserer(noeud.gauche, nouveau);
+            if (noeud.gauche.priorite > noeud.priorite) {
+                noeud = rotationDroite(noeud);
+            }
+        } else {
+            noeud.droite = inserer(noeud.droite, nouveau);
+            if (noeud.droite.priorite > noeud.priorite) {
+                noeud = rotationGauche(noeud);
+            }
+        }
+        noeud.recalculer();
+        return noeud;
+    }
+
+    private static Noeud supprimer(Noeud noeud, long debut, long id) {
+        if (noeud == null) {
+            return null;
+        }
+        int ordre = Noeud.comparer(debut, id, noeud.debut, noeud.id);
+        if (ordre < 0) {
+            noeud.gauche = supprimer(noeud.gauche, debut, id);
+        } else if (ordre > 0) {
+            noeud.droite = supprimer(noeud.droite, debut, id);
+        } else {
+            // Le nœud descend du côté de l'enfant le plus prioritaire jusqu'à devenir une feuille
+            if (noeud.gauche == null) {
+                return noeud.droite;
+            }
+            if (noeud.droite == null) {
+                return noeud.gauche;
+            }
+            if (noeud.gauche.priorite > noeud.droite.priorite) {
+                noeud = rotationDroite(noeud);
+                noeud.droite = supprimer(noeud.droite, debut, id);
+            } else {
+                noeud = rotationGauche(noeud);
+                noeud.gauche = supprimer(noeud.gauche, debut, id);
+            }
+        }
+        noeud.recalculer();
+        return noeud;
+    }
+
+    private static Noeud rotationDroite(Noeud noeud) {
+        Noeud pivot = noeud.gauche;
+        noeud.gauche = pivot.droite;
+        pivot.droite = noeud;
+        noeud.recalculer();
+        pivot.recalculer();
+        return pivot;
+    }
+
+    private static Noeud rotationGauche(Noeud noeud) {
+        Noeud pivot = noeud.droite;
+        noeud.droite = pivot.gauche;
+        pivot.gauche = noeud;
+        noeud.recalculer();
+        pivot.recalculer();
+        return pivot;
+    }
+
+    // --- Dates ---
+
+    // Microsecondes depuis l'époque : la précision des dates en base
+    private static long instant(LocalDateTime date) {
+        return date.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + date.getNano() / 1_000;
+    }
+
+    private static long borneBasse(LocalDateTime date) {
+        return date != null ? instant(date) : Long.MIN_VALUE;
+    }
+
+    private static long borneHaute(LocalDateTime date) {
+        return date != null ? instant(date) : Long.MAX_VALUE;
+    }
+
+    private static final class Noeud implements Comparable<Noeud> {
+
+        private final long debut;
+        private final long fin;
+        private final long id;
+        private final int priorite = ThreadLocalRandom.current().nextInt();
+        private long maxFin;
+        private Noeud gauche;
+        private Noeud droite;
+
+        Noeud(long debut, long fin, long id) {
+            this.debut = debut;
+            this.fin = fin;
+            this.id = id;
+            this.maxFin = fin;
+        }
+
+        void recalculer() {
+            long max = fin;
+            if (gauche != null) {
+                max = Math.max(max, gauche.maxFin);
+            }
+            if (droite != null) {
+                max = Math.max(max, droite.maxFin);
+            }
+            maxFin = max;
+        }
+
+        static int comparer(long debut, long id, long autreDebut, long autreId) {
+            int parDebut = Long.compare(debut, autreDebut);
+            return parDebut != 0 ? parDebut : Long.compare(id, autreId);
+        }
+
+        @Override
+        public int compareTo(Noeud autre) {
+            return comparer(debut, id, autre.debut, autre.id);
+        }
+    }
+}
@@ -0,0 +1,357 @@
+package ma.event.eventreservationsystem.service.search;
+
+import lombok.RequiredArgsConstructor;
+import ma.event.eventreservationsystem.dto.EventFacets;
+import ma.event.eventreservationsystem.entity.enums.EventCategory;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongPredicate;
+
+/**
+ * Facettes du catalogue : pour chaque catégorie, ville et tranche de prix, l'ensemble des identifiants
+ * des événements publiés concernés, tenu à jour à chaque modification.
+ * Un comptage se réduit à des intersections d'ensembles ; les filtres de plage ne visitent que les événements
+ * de la période ({@link EventDateIndex}) ou de la plage de prix ({@link EventPriceIndex}).
+ */
+@Component
+@RequiredArgsConstructor
+public class EventFacetIndex implements CatalogueIndex {
+
+    // Jamais modifié : ensemble d'une valeur sans aucun événement
+    private static final BitSet VIDE = new BitSet();
+
+    private final EventDateIndex eventDateIndex;
+    private final EventPriceIndex eventPriceIndex;
+
+    private final ReentrantReadWriteLock verrou = new ReentrantReadWriteLock();
+
+    private final Map<Long, IndexedEvent> evenements = new HashMap<>();
+    private final BitSet tous = new BitSet();
+    private final Map<EventCategory, BitSet> parCategorie = new EnumMap<>(EventCategory.class);
+    private final Map<PriceBucket, BitSet> parTranchePrix = new EnumMap<>(PriceBucket.class);
+    // Clé : ville normalisée ("Fès" = "fes"), pour un libellé d'affichage unique
+    private final Map<String, Ville> parVille = new HashMap<>();
+
+    private volatile boolean pret;
+
+    @Override
+    public void reconstruire(Collection<IndexedEvent> publies) {
+        verrou.writeLock().lock();
+        try {
+            evenements.clear();
+            tous.clear();
+            parCategorie.clear();
+            parTranchePrix.clear();
+            parVille.clear();
+            publies.forEach(this::ajouter);
+            pret = true;
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void indexer(IndexedEvent evenement) {
+        verrou.writeLock().lock();
+        try {
+            supprimer(evenement.id());
+            ajouter(evenement);
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void retirer(Long evenementId) {
+        verrou.writeLock().lock();
+        try {
+            supprimer(evenementId);
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean estPret() {
+        return pret;
+    }
+
+    public EventFacets calculer(EventCategory categorie, LocalDateTime dateDebut, LocalDateTime dateFin,
+                                String ville, Double prixMin, Double prixMax) {
+        verrou.readLock().lock();
+        try {
+            // Filtres de plage résolus sur les index de dates et de prix (null = pas de filtre)
+            BitSet dansDates = pendant(dateDebut, dateFin);
+            if (dansDates == null) {
+                dansDates = tous;
+            }
+            BitSet dansDatesEtPrix = intersection(dansDates, entrePrix(prixMin, prixMax));
+
+            // Ensembles des filtres à valeur unique (null = pas de filtre)
+            BitSet dansCategorie = categorie == null ? null : parCategorie.getOrDefault(categorie, VIDE);
+            BitSet dansVille = null;
+            if (ville != null && !ville.isBlank()) {
+                Ville trouvee = parVille.get(cleVille(ville));
+                dansVille = trouvee != null ? trouvee.evenements : VIDE;
+            }
+
+            Map<EventCategory, Long> categories = new EnumMap<>(EventCategory.class);
+            BitSet sansFiltreCategorie = intersection(dansDatesEtPrix, dansVille);
+            for (EventCategory c : EventCategory.values()) {
+                categories.put(c, cardinaliteCommune(sansFiltreCategorie, parCategorie.getOrDefault(c, VIDE)));
+            }
+
+            BitSet sansFiltreVille = intersection(dansDatesEtPrix, dansCategorie);
+            List<Map.Entry<String, Long>> villes = new ArrayList<>();
+            for (Ville v : parVille.values()) {
+                long nombre = cardinaliteCommune(sansFiltreVille, v.evenements);
+                if (nombre > 0) {
+                    villes.add(Map.entry(v.libelle, nombre));
+                }
+            }
+            villes.sort(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry::getKey));
+            Map<String, Long> parVilleTriees = new LinkedHashMap<>();
+            villes.forEach(entree -> parVilleTriees.put(entree.getKey(), entree.getValue()));
+
+            Map<PriceBucket, Long> tranches = new EnumMap<>(PriceBucket.class);
+            BitSet sansFiltrePrix = intersection(intersection(dansDates, dansCategorie), dansVille);
+            for (PriceBucket tranche : PriceBucket.values()) {
+                tranches.put(tranche, cardinaliteCommune(sansFiltrePrix, parTranchePrix.getOrDefault(tranche, VIDE)));
+            }
+
+            long total = cardinaliteCommune(sansFiltreCategorie, dansCategorie);
+            return new EventFacets(total, categories, parVilleTriees, tranches);
+        } finally {
+            verrou.readLock().unlock();
+        }
+    }
+
+    /**
+     * Nombre d'événements satisfaisant tous les critères renseignés, comme {@link #calculer}
+     */
+    public long compter(EventCategory categorie, LocalDateTime dateDebut, LocalDateTime dateFin,
+                        String ville, Double prixMin, Double prixMax) {
+        verrou.readLock().lock();
+        try {
+            return retenus(categorie, dateDebut, dateFin, ville, prixMin, prixMax).cardinality();
+        } finally {
+            verrou.readLock().unlock();
+        }
+    }
+
+    /**
+     * Page des événements satisfaisant tous les critères renseignés, parcourus dans l'ordre de l'index
+     * de dates ou de prix : seuls les événements précédant la fin de la page sont visités.
+     * @param debut Rang du premier identifiant à renvoyer
+     * @param taille Nombre maximal d'identifiants à renvoyer
+     */
+    public EventBitmapIndex.Selection selectionner(EventCategory categorie, LocalDateTime dateDebut,
+                                                   LocalDateTime dateFin, String ville,
+                                                   Double prixMin, Double prixMax,
+                                                   Ordre ordre, long debut, int taille) {
+        verrou.readLock().lock();
+        try {
+            BitSet retenus = retenus(categorie, dateDebut, dateFin, ville, prixMin, prixMax);
+            long total = retenus.cardinality();
+            if (debut >= total || taille <= 0) {
+                return new EventBitmapIndex.Selection(List.of(), total);
+            }
+
+            List<Long> ids = new ArrayList<>((int) Math.min(taille, total - debut));
+            LongPredicate page = new LongPredicate() {
+                private long aSauter = debut;
+
+                @Override
+                public boolean test(long id) {
+                    if (!retenus.get(bit(id))) {
+                        return true;
+                    }
+                    if (aSauter > 0) {
+                        aSauter--;
+                        return true;
+                    }
+                    ids.add(id);
+                    return ids.size() < taille;
+                }
+            };
+            switch (ordre) {
+                case DATE_DEBUT -> eventDateIndex.seDeroulantPendant(dateDebut, dateFin, page);
+                case PRIX_CROISSANT -> eventPriceIndex.parcourir(prixMin, prixMax, true, page);
+                case PRIX_DECROISSANT -> eventPriceIndex.parcourir(prixMin, prixMax, false, page);
+            }
+            return new EventBitmapIndex.Selection(ids, total);
+        } finally {
+            verrou.readLock().unlock();
+        }
+    }
+
+    /**
+     * Vrai si les facettes et les index de dates et de prix qui les complètent sont construits
+     */
+    public boolean peutSelectionner() {
+        return pret && eventDateIndex.estPret() && eventPriceIndex.estPret();
+    }
+
+    private BitSet retenus(EventCategory categorie, LocalDateTime dateDebut, LocalDateTime dateFin,
+                           String ville, Double prixMin, Double prixMax) {
+        BitSet resultat = pendant(dateDebut, dateFin);
+        BitSet dansPrix = entrePrix(prixMin, prixMax);
+        if (resultat == null) {
+            resultat = dansPrix != null ? dansPrix : (BitSet) tous.clone();
+        } else if (dansPrix != null) {
+            resultat.and(dansPrix);
+        }
+        if (categorie != null) {
+            resultat.and(parCategorie.getOrDefault(categorie, VIDE));
+        }
+        if (ville != null && !ville.isBlank()) {
+            Ville trouvee = parVille.get(cleVille(ville));
+            resultat.and(trouvee != null ? trouvee.evenements : VIDE);
+        }
+        return resultat;
+    }
+
+    /**
+     * Événements en cours pendant la période ; null sans filtre de dates
+     */
+    private BitSet pendant(LocalDateTime dateDebut, LocalDateTime dateFin) {
+        if (dateDebut == null && dateFin == null) {
+            return null;
+        }
+        BitSet resultat = new BitSet();
+        if (eventDateIndex.estPret()) {
+            eventDateIndex.seDeroulantPendant(dateDebut, dateFin, id -> retenir(resultat, id));
+        } else {
+            for (IndexedEvent e : evenements.values()) {
+                if ((dateFin == null || !e.dateDebut().isAfter(dateFin))
+                        && (dateDebut == null || !e.dateFin().isBefore(dateDebut))) {
+                    retenir(resultat, e.id());
+                }
+            }
+        }
+        return resultat;
+    }
+
+    /**
+     * Événements dont le prix est dans la plage ; null sans filtre de prix
+     */
+    private BitSet entrePrix(Double prixMin, Double prixMax) {
+        if (prixMin == null && prixMax == null) {
+            return null;
+        }
+        BitSet resultat = new BitSet();
+        if (eventPriceIndex.estPret()) {
+            eventPriceIndex.parcourir(prixMin, prixMax, true, id -> retenir(resultat, id));
+        } else {
+            for (IndexedEvent e : evenements.values()) {
+                if ((prixMin == null || e.prixUnitaire() >= prixMin)
+                        && (prixMax == null || e.prixUnitaire() <= prixMax)) {
+                    retenir(resultat, e.id());
+                }
+            }
+        }
+        return resultat;
+    }
+
+    // Ignoré s'il n'est pas (ou plus) dans les facettes : les index sont mis à jour l'un après l'autre
+    private boolean retenir(BitSet ensemble, long evenementId) {
+        int bit = bit(evenementId);
+        if (tous.get(bit)) {
+            ensemble.set(bit);
+        }
+        return true;
+    }
+
+    private void ajouter(IndexedEvent evenement) {
+        int bit = bit(evenement.id());
+        evenements.put(evenement.id(), evenement);
+        tous.set(bit);
+        if (evenement.categorie() != null) {
+            parCategorie.computeIfAbsent(evenement.categorie(), c -> new BitSet()).set(bit);
+        }
+        parTranchePrix.computeIfAbsent(PriceBucket.de(evenement.prixUnitaire()), t -> new BitSet()).set(bit);
+        if (evenement.ville() != null) {
+            parVille.computeIfAbsent(cleVille(evenement.ville()), cle -> new Ville(evenement.ville().trim()))
+                    .evenements.set(bit);
+        }
+    }
+
+    private void supprimer(Long evenementId) {
+        IndexedEvent evenement = evenements.remove(evenementId);
+        if (evenement == null) {
+            return;
+        }
+        int bit = bit(evenementId);
+        tous.clear(bit);
+        if (evenement.categorie() != null) {
+            parCategorie.get(evenement.categorie()).clear(bit);
+        }
+        parTranchePrix.get(PriceBucket.de(evenement.prixUnitaire())).clear(bit);
+        if (evenement.ville() != null) {
+            String cle = cleVille(evenement.ville());
+            Ville ville = parVille.get(cle);
+            ville.evenements.clear(bit);
+            if (ville.evenements.isEmpty()) {
+                parVille.remove(cle);
+            }
+        }
+    }
+
+    private static int bit(long evenementId) {
+        return Math.toIntExact(evenementId);
+    }
+
+    private static String cleVille(String ville) {
+        return TextNormalizer.normaliser(ville).trim();
+    }
+
+    /**
+     * Intersection sans modifier les ensembles de l'index ; un filtre absent (null) laisse passer tout
+     */
+    private static BitSet intersection(BitSet ensemble, BitSet filtre) {
+        if (filtre == null) {
+            return ensemble;
+        }
+        BitSet resultat = (BitSet) ensemble.clone();
+        resultat.and(filtre);
+        return resultat;
+    }
+
+    /**
+     * Taille de l'intersection ; un filtre absent (null) laisse passer tout
+     */
+    private static long cardinaliteCommune(BitSet ensemble, BitSet autre) {
+        if (autre == null) {
+            return ensemble.cardinality();
+        }
+        if (autre.isEmpty()) {
+            return 0;
+        }
+        BitSet petit = ensemble.length() <= autre.length() ? ensemble : autre;
+        BitSet commun = (BitSet) petit.clone();
+        commun.and(petit == ensemble ? autre : ensemble);
+        return commun.cardinality();
+    }
+
+    /**
+     * Ordres de parcours servis par les index (à date égale ou prix égal, par identifiant)
+     */
+    public enum Ordre {
+        DATE_DEBUT,
+        PRIX_CROISSANT,
+        PRIX_DECROISSANT
+    }
+
+    private static final class Ville {
+
+        private final String libelle;
+        private final BitSet evenements = new BitSet();
+
+        Ville(String libelle) {
+            this.libelle = libelle;
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package ma.event.eventreservationsystem.service.search;
+
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongPredicate;
+
+/**
+ * Prix des événements publiés, triés dans deux tableaux primitifs parallèles (prix, identifiant).
+ * Une plage de prix se résout par deux recherches dichotomiques, puis se parcourt dans l'ordre des prix
+ * sans rien allouer par événement. Une modification décale la fin des tableaux (copie mémoire).
+ */
+@Component
+public class EventPriceIndex implements CatalogueIndex {
+
+    private static final int CAPACITE_INITIALE = 64;
+
+    private final ReentrantReadWriteLock verrou = new ReentrantReadWriteLock();
+
+    // Triés par (prix, id) sur les {@code taille} premières cases
+    private double[] prix = new double[CAPACITE_INITIALE];
+    private long[] ids = new long[CAPACITE_INITIALE];
+    private int taille;
+    // Prix indexé de chaque événement, pour le retrouver dans les tableaux
+    private final Map<Long, Double> prixParId = new HashMap<>();
+
+    private volatile boolean pret;
+
+    @Override
+    public void reconstruire(Collection<IndexedEvent> evenements) {
+        verrou.writeLock().lock();
+        try {
+            IndexedEvent[] tries = evenements.toArray(IndexedEvent[]::new);
+            Arrays.sort(tries, Comparator.comparingDouble(IndexedEvent::prixUnitaire).thenComparing(IndexedEvent::id));
+            int capacite = Math.max(CAPACITE_INITIALE, tries.length);
+            prix = new double[capacite];
+            ids = new long[capacite];
+            taille = tries.length;
+            prixParId.clear();
+            for (int i = 0; i < tries.length; i++) {
+                prix[i] = tries[i].prixUnitaire();
+                ids[i] = tries[i].id();
+                prixParId.put(tries[i].id(), tries[i].prixUnitaire());
+            }
+            pret = true;
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void indexer(IndexedEvent evenement) {
+        verrou.writeLock().lock();
+        try {
+            supprimer(evenement.id());
+            ajouter(evenement.id(), evenement.prixUnitaire());
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void retirer(Long evenementId) {
+        verrou.writeLock().lock();
+        try {
+            supprimer(evenementId);
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean estPret() {
+        return pret;
+    }
+
+    /**
+     * Nombre d'événements dont le prix est dans la plage, bornes comprises (une borne nulle n'est pas limitée)
+     */
+    public int compter(Double prixMin, Double prixMax) {
+        verrou.readLock().lock();
+        try {
+            return Math.max(0, finPlage(prixMax) - debutPlage(prixMin));
+        } finally {
+            verrou.readLock().unlock();
+        }
+    }
+
+    public List<Long> entre(Double prixMin, Double prixMax, boolean croissant) {
+        List<Long> resultat = new ArrayList<>();
+        parcourir(prixMin, prixMax, croissant, resultat::add);
+        return resultat;
+    }
+
+    /**
+     * Parcourt les événements de la plage de prix (bornes comprises, une borne nulle n'est pas limitée),
+     * à prix égal par identifiant, tant que {@code action} renvoie vrai.
+     */
+    public void parcourir(Double prixMin, Double prixMax, boolean croissant, LongPredicate action) {
+        verrou.readLock().lock();
+        try {
+            int debut = debutPlage(prixMin);
+            int fin = finPlage(prixMax);
+            if (croissant) {
+                for (int i = debut; i < fin; i++) {
+                    if (!action.test(ids[i])) {
+                        return;
+                    }
+                }
+            } else {
+                for (int i = fin - 1; i >= debut; i--) {
+                    if (!action.test(ids[i])) {
+                        return;
+                    }
+                }
+            }
+        } finally {
+            verrou.readLock().unlock();
+        }
+    }
+
+    private void ajouter(long id, double valeur) {
+        if (taille == prix.length) {
+            prix = Arrays.copyOf(prix, taille * 2);
+            ids = Arrays.copyOf(ids, taille * 2);
+        }
+        int position = position(valeur, id);
+        System.arraycopy(prix, position, prix, position + 1, taille - position);
+        System.arraycopy(ids, position, ids, position + 1, taille - position);
+        prix[position] = valeur;
+        ids[position] = id;
+        taille++;
+        prixParId.put(id, valeur);
+    }
+
+    private void supprimer(Long evenementId) {
+        Double valeur = prixParId.remove(evenementId);
+        if (valeur == null) {
+            return;
+        }
+        int position = position(valeur, evenementId);
+        System.arraycopy(prix, position + 1, prix, position, taille - position - 1);
+        System.arraycopy(ids, position + 1, ids, position, taille - position - 1);
+        taille--;
+    }
+
+    /**
+     * Première case dont le couple (prix, id) n'est pas inférieur à celui donné
+     */
+    private int position(double valeur, long id) {
+        int bas = 0;
+        int haut = taille;
+        while (bas < haut) {
+            int milieu = (bas + haut) >>> 1;
+            int ordre = Double.compare(prix[milieu], valeur);
+            if (ordre < 0 || (ordre == 0 && ids[milieu] < id)) {
+                bas = milieu + 1;
+            } else {
+                haut = milieu;
+            }
+        }
+        return bas;
+    }
+
+    // Première case d'un prix >= prixMin
+    private int debutPlage(Double prixMin) {
+        return prixMin == null ? 0 : premierPrix(prixMin, false);
+    }
+
+    // Première case d'un prix > prixMax
+    private int finPlage(Double prixMax) {
+        return prixMax == null ? taille : premierPrix(prixMax, true);
+    }
+
+    private int premierPrix(double valeur, boolean strictementSuperieur) {
+        int bas = 0;
+        int haut = taille;
+        while (bas < haut) {
+            int milieu = (bas + haut) >>> 1;
+            boolean avant = strictementSuperieur ? prix[milieu] <= valeur : prix[milieu] < valeur;
+            if (avant) {
+                bas = milieu + 1;
+            } else {
+                haut = milieu;
+            }
+        }
+        return bas;
+    }
+}
@@ -0,0 +1,249 @@
+package ma.event.eventreservationsystem.service.search;
+
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Index inversé des événements publiés : mot normalisé → événements qui le contiennent, avec un poids par champ
+ * (titre 3, ville 2, lieu et catégorie 1).
+ * Chaque mot de la requête doit être trouvé, en entier ou comme début d'un mot indexé ("thea" → "theatre") ;
+ * les résultats sont classés par pertinence puis par date de début.
+ * Une recherche ne parcourt que les listes des mots de la requête, jamais le catalogue entier.
+ */
+@Component
+public class EventSearchIndex implements CatalogueIndex {
+
+    private static final float POIDS_TITRE = 3f;
+    private static final float POIDS_VILLE = 2f;
+    private static final float POIDS_LIEU = 1f;
+    private static final float POIDS_CATEGORIE = 1f;
+
+    // Un mot trouvé seulement comme préfixe compte moitié moins qu'un mot exact
+    private static final float FACTEUR_PREFIXE = 0.5f;
+    private static final int LONGUEUR_MIN_PREFIXE = 2;
+    private static final int MAX_MOTS_PAR_PREFIXE = 100;
+
+    private final ReentrantReadWriteLock verrou = new ReentrantReadWriteLock();
+
+    // Dictionnaire trié : les mots commençant par un préfixe forment une plage contiguë
+    private final TreeMap<String, Map<Long, Float>> postings = new TreeMap<>();
+
+    // Mots indexés par événement, pour pouvoir le retirer ou le remplacer
+    private final Map<Long, Map<String, Float>> motsParEvenement = new HashMap<>();
+
+    // Départage des scores égaux : le plus proche d'abord
+    private final Map<Long, LocalDateTime> datesDebut = new HashMap<>();
+
+    private volatile boolean pret;
+
+    @Override
+    public void reconstruire(Collection<IndexedEvent> evenements) {
+        verrou.writeLock().lock();
+        try {
+            postings.clear();
+            motsParEvenement.clear();
+            datesDebut.clear();
+            evenements.forEach(this::ajouter);
+            pret = true;
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void indexer(IndexedEvent evenement) {
+        verrou.writeLock().lock();
+        try {
+            supprimer(evenement.id());
+            ajouter(evenement);
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void retirer(Long evenementId) {
+        verrou.writeLock().lock();
+        try {
+            supprimer(evenementId);
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean estPret() {
+        return pret;
+    }
+
+    public int taille() {
+        verrou.readLock().lock();
+        try {
+            return motsParEvenement.size();
+        } finally {
+            verrou.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return Les identifiants des événements correspondant à tous les mots de la requête, du plus pertinent au moins pertinent
+     */
+    public List<Long> rechercher(String requete, int limite) {
+        List<String> mots = TextNormalizer.mots(requete);
+        if (mots.isEmpty() || limite <= 0) {
+            return List.of();
+        }
+
+        verrou.readLock().lock();
+        try {
+            List<MotRecherche> recherches = new ArrayList<>(mots.size());
+            for (String mot : new LinkedHashSet<>(mots)) {
+                MotRecherche recherche = rechercherMot(mot);
+                if (recherche.taille == 0) {
+                    return List.of();
+                }
+                recherches.add(recherche);
+            }
+
+            // On part du mot le plus rare : les autres ne sont consultés que pour ses candidats
+            recherches.sort(Comparator.comparingInt(r -> r.taille));
+            Map<Long, Float> scores = recherches.get(0).scores();
+            for (int i = 1; i < recherches.size() && !scores.isEmpty(); i++) {
+                MotRecherche recherche = recherches.get(i);
+                scores.entrySet().removeIf(entree -> {
+                    float poids = recherche.score(entree.getKey());
+                    if (poids == 0f) {
+                        return true;
+                    }
+                    entree.setValue(entree.getValue() + poids);
+                    return false;
+                });
+            }
+            return scores.isEmpty() ? List.of() : meilleurs(scores, limite);
+        } finally {
+            verrou.readLock().unlock();
+        }
+    }
+
+    private void ajouter(IndexedEvent evenement) {
+        Map<String, Float> mots = new HashMap<>();
+        ponderer(mots, evenement.titre(), POIDS_TITRE);
+        ponderer(mots, evenement.ville(), POIDS_VILLE);
+        ponderer(mots, evenement.lieu(), POIDS_LIEU);
+        if (evenement.categorie() != null) {
+            ponderer(mots, evenement.categorie().getLabel(), POIDS_CATEGORIE);
+        }
+
+        mots.forEach((mot, poids) ->
+                postings.computeIfAbsent(mot, m -> new HashMap<>()).put(evenement.id(), poids));
+        motsParEvenement.put(evenement.id(), mots);
+        datesDebut.put(evenement.id(), evenement.dateDebut());
+    }
+
+    private void supprimer(Long evenementId) {
+        Map<String, Float> mots = motsParEvenement.remove(evenementId);
+        if (mots == null) {
+            return;
+        }
+        for (String mot : mots.keySet()) {
+            Map<Long, Float> evenements = postings.get(mot);
+            if (evenements != null) {
+                evenements.remove(evenementId);
+                if (evenements.isEmpty()) {
+                    postings.remove(mot);
+                }
+            }
+        }
+        datesDebut.remove(evenementId);
+    }
+
+    private static void ponderer(Map<String, Float> mots, String texte, float poids) {
+        for (String mot : TextNormalizer.mots(texte)) {
+            mots.merge(mot, poids, Float::sum);
+        }
+    }
+
+    /**
+     * Listes du mot exact et des mots qui commencent par lui
+     */
+    private MotRecherche rechercherMot(String mot) {
+        MotRecherche recherche = new MotRecherche();
+        Map<Long, Float> exacts = postings.get(mot);
+        if (exacts != null) {
+            recherche.ajouter(exacts, 1f);
+        }
+        if (mot.length() < LONGUEUR_MIN_PREFIXE) {
+            return recherche;
+        }
+
+        int motsParcourus = 0;
+        for (Map<Long, Float> evenements : postings.subMap(mot, false, mot + Character.MAX_VALUE, false).values()) {
+            if (++motsParcourus > MAX_MOTS_PAR_PREFIXE) {
+                break;
+            }
+            recherche.ajouter(evenements, FACTEUR_PREFIXE);
+        }
+        return recherche;
+    }
+
+    /**
+     * Les {@code limite} meilleurs résultats, sans trier toutes les correspondances
+     */
+    private List<Long> meilleurs(Map<Long, Float> scores, int limite) {
+        Comparator<Map.Entry<Long, Float>> pertinence = Map.Entry.<Long, Float>comparingByValue().reversed()
+                .thenComparing(entree -> datesDebut.get(entree.getKey()), Comparator.nullsLast(Comparator.naturalOrder()))
+                .thenComparing(Map.Entry::getKey);
+
+        // Tas des meilleurs, le moins bon en tête pour être évincé
+        PriorityQueue<Map.Entry<Long, Float>> tas = new PriorityQueue<>(limite + 1, pertinence.reversed());
+        for (Map.Entry<Long, Float> entree : scores.entrySet()) {
+            tas.offer(entree);
+            if (tas.size() > limite) {
+                tas.poll();
+            }
+        }
+
+        List<Map.Entry<Long, Float>> resultats = new ArrayList<>(tas);
+        resultats.sort(pertinence);
+        return resultats.stream().map(Map.Entry::getKey).toList();
+    }
+
+    /**
+     * Listes correspondant à un mot de la requête ; un événement garde le meilleur score obtenu
+     */
+    private static final class MotRecherche {
+
+        private final List<Map<Long, Float>> listes = new ArrayList<>();
+        private final List<Float> facteurs = new ArrayList<>();
+        private int taille;
+
+        void ajouter(Map<Long, Float> liste, float facteur) {
+            listes.add(liste);
+            facteurs.add(facteur);
+            taille += liste.size();
+        }
+
+        Map<Long, Float> scores() {
+            Map<Long, Float> scores = new HashMap<>(taille * 2);
+            for (int i = 0; i < listes.size(); i++) {
+                float facteur = facteurs.get(i);
+                listes.get(i).forEach((id, poids) -> scores.merge(id, poids * facteur, Math::max));
+            }
+            return scores;
+        }
+
+        float score(Long evenementId) {
+            float meilleur = 0f;
+            for (int i = 0; i < listes.size(); i++) {
+                Float poids = listes.get(i).get(evenementId);
+                if (poids != null) {
+                    meilleur = Math.max(meilleur, poids * facteurs.get(i));
+                }
+            }
+            return meilleur;
+        }
+    }
+}
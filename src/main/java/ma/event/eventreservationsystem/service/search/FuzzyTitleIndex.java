@@ -0,0 +1,404 @@
+package ma.event.eventreservationsystem.service.search;
+
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Recherche tolérante aux fautes de frappe sur les titres des événements publiés ("gnawa" → "Gnaoua").
+ * Les mots des titres forment un dictionnaire découpé en bigrammes ; pour chaque mot de la requête,
+ * seuls les mots du dictionnaire partageant assez de bigrammes avec lui sont candidats,
+ * puis la distance d'édition (bornée) est calculée sur ces seuls candidats.
+ * Chaque mot de la requête doit correspondre à un mot du titre ; les résultats sont classés
+ * par proximité puis par date de début.
+ * Les événements de chaque mot sont rangés par date : le parcours s'arrête dès que les meilleurs résultats
+ * ne peuvent plus être dépassés, sans visiter toutes les correspondances d'un mot fréquent.
+ */
+@Component
+public class FuzzyTitleIndex implements CatalogueIndex {
+
+    // Distance d'édition tolérée selon la longueur du mot cherché
+    private static final int LONGUEUR_MIN_UNE_ERREUR = 4;
+    private static final int LONGUEUR_MIN_DEUX_ERREURS = 5;
+
+    // Délimite le début et la fin des mots : "$g" et "a$" comptent comme bigrammes
+    private static final char BORD = '$';
+
+    private final ReentrantReadWriteLock verrou = new ReentrantReadWriteLock();
+
+    // Dictionnaire : chaque mot reçoit un numéro, réutilisé quand le mot disparaît
+    private final Map<String, Integer> numeros = new HashMap<>();
+    private final List<String> mots = new ArrayList<>();
+    private final List<NavigableSet<Cle>> evenementsParMot = new ArrayList<>();
+    private final ArrayDeque<Integer> numerosLibres = new ArrayDeque<>();
+
+    // Bigramme → numéros des mots qui le contiennent
+    private final Map<String, BitSet> bigrammes = new HashMap<>();
+
+    // Mots du titre de chaque événement, pour pouvoir le retirer ou le remplacer
+    private final Map<Long, Set<String>> motsParEvenement = new HashMap<>();
+
+    // Clé de tri (date de début, id) de chaque événement
+    private final Map<Long, Cle> cles = new HashMap<>();
+
+    private volatile boolean pret;
+
+    @Override
+    public void reconstruire(Collection<IndexedEvent> evenements) {
+        verrou.writeLock().lock();
+        try {
+            numeros.clear();
+            mots.clear();
+            evenementsParMot.clear();
+            numerosLibres.clear();
+            bigrammes.clear();
+            motsParEvenement.clear();
+            cles.clear();
+            evenements.forEach(this::ajouter);
+            pret = true;
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void indexer(IndexedEvent evenement) {
+        verrou.writeLock().lock();
+        try {
+            supprimer(evenement.id());
+            ajouter(evenement);
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void retirer(Long evenementId) {
+        verrou.writeLock().lock();
+        try {
+            supprimer(evenementId);
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean estPret() {
+        return pret;
+    }
+
+    /**
+     * @return Les identifiants des événements dont le titre contient un mot proche de chaque mot de la requête,
+     * du plus proche au moins proche
+     */
+    public List<Long> rechercher(String requete, int limite) {
+        List<String> motsRequete = TextNormalizer.mots(requete);
+        if (motsRequete.isEmpty() || limite <= 0) {
+            return List.of();
+        }
+
+        verrou.readLock().lock();
+        try {
+            List<MotApproche> recherches = new ArrayList<>(motsRequete.size());
+            for (String mot : new LinkedHashSet<>(motsRequete)) {
+                MotApproche recherche = rechercherMot(mot);
+                if (recherche.taille == 0) {
+                    return List.of();
+                }
+                recherches.add(recherche);
+            }
+
+            // On part du mot aux candidats les moins nombreux : les autres ne sont consultés que pour eux
+            recherches.sort(Comparator.comparingInt(r -> r.taille));
+            return meilleurs(recherches, limite);
+        } finally {
+            verrou.readLock().unlock();
+        }
+    }
+
+    /**
+     * Distance de Levenshtein, calculée seulement dans la bande utile
+     * @return La distance, ou {@code max + 1} dès qu'elle dépasse {@code max}
+     */
+    static int distance(String a, String b, int max) {
+        int n = a.length();
+        int m = b.length();
+        if (Math.abs(n - m) > max) {
+            return max + 1;
+        }
+        int horsBorne = max + 1;
+        int[] precedente = new int[m + 1];
+        int[] courante = new int[m + 1];
+        for (int j = 0; j <= m; j++) {
+            precedente[j] = j <= max ? j : horsBorne;
+        }
+
+        for (int i = 1; i <= n; i++) {
+            int debut = Math.max(1, i - max);
+            int fin = Math.min(m, i + max);
+            courante[0] = i <= max ? i : horsBorne;
+            if (debut > 1) {
+                courante[debut - 1] = horsBorne;
+            }
+            int minimumLigne = courante[0];
+            char c = a.charAt(i - 1);
+            for (int j = debut; j <= fin; j++) {
+                int cout = c == b.charAt(j - 1) ? 0 : 1;
+                int valeur = Math.min(precedente[j - 1] + cout, Math.min(precedente[j], courante[j - 1]) + 1);
+                courante[j] = Math.min(valeur, horsBorne);
+                minimumLigne = Math.min(minimumLigne, courante[j]);
+            }
+            if (fin < m) {
+                courante[fin + 1] = horsBorne;
+            }
+            // Toute la ligne dépasse déjà la borne : la distance finale aussi
+            if (minimumLigne > max) {
+                return horsBorne;
+            }
+            int[] echange = precedente;
+            precedente = courante;
+            courante = echange;
+        }
+        return precedente[m];
+    }
+
+    static int erreursTolerees(String mot) {
+        if (mot.length() >= LONGUEUR_MIN_DEUX_ERREURS) {
+            return 2;
+        }
+        return mot.length() >= LONGUEUR_MIN_UNE_ERREUR ? 1 : 0;
+    }
+
+    private void ajouter(IndexedEvent evenement) {
+        Cle cle = new Cle(evenement.dateDebut() != null ? evenement.dateDebut() : LocalDateTime.MAX, evenement.id());
+        Set<String> motsTitre = new HashSet<>(TextNormalizer.mots(evenement.titre()));
+        for (String mot : motsTitre) {
+            evenementsParMot.get(numero(mot)).add(cle);
+        }
+        motsParEvenement.put(evenement.id(), motsTitre);
+        cles.put(evenement.id(), cle);
+    }
+
+    private void supprimer(Long evenementId) {
+        Set<String> motsTitre = motsParEvenement.remove(evenementId);
+        if (motsTitre == null) {
+            return;
+        }
+        Cle cle = cles.remove(evenementId);
+        for (String mot : motsTitre) {
+            int numero = numeros.get(mot);
+            NavigableSet<Cle> evenements = evenementsParMot.get(numero);
+            evenements.remove(cle);
+            if (evenements.isEmpty()) {
+                oublier(mot, numero);
+            }
+        }
+    }
+
+    private int numero(String mot) {
+        Integer existant = numeros.get(mot);
+        if (existant != null) {
+            return existant;
+        }
+        int numero;
+        if (numerosLibres.isEmpty()) {
+            numero = mots.size();
+            mots.add(mot);
+            evenementsParMot.add(new TreeSet<>());
+        } else {
+            numero = numerosLibres.pop();
+            mots.set(numero, mot);
+            evenementsParMot.set(numero, new TreeSet<>());
+        }
+        numeros.put(mot, numero);
+        for (String bigramme : bigrammes(mot)) {
+            bigrammes.computeIfAbsent(bigramme, b -> new BitSet()).set(numero);
+        }
+        return numero;
+    }
+
+    private void oublier(String mot, int numero) {
+        numeros.remove(mot);
+        mots.set(numero, null);
+        numerosLibres.push(numero);
+        for (String bigramme : bigrammes(mot)) {
+            BitSet contenant = bigrammes.get(bigramme);
+            contenant.clear(numero);
+            if (contenant.isEmpty()) {
+                bigrammes.remove(bigramme);
+            }
+        }
+    }
+
+    private static Set<String> bigrammes(String mot) {
+        String borde = BORD + mot + BORD;
+        Set<String> resultat = new HashSet<>(borde.length());
+        for (int i = 0; i + 2 <= borde.length(); i++) {
+            resultat.add(borde.substring(i, i + 2));
+        }
+        return resultat;
+    }
+
+    /**
+     * Mots du dictionnaire à distance tolérée du mot cherché, avec leur similarité (1 pour le mot exact)
+     */
+    private MotApproche rechercherMot(String mot) {
+        MotApproche recherche = new MotApproche();
+        int erreurs = erreursTolerees(mot);
+        Integer exact = numeros.get(mot);
+        if (erreurs == 0) {
+            if (exact != null) {
+                recherche.ajouter(mot, evenementsParMot.get(exact), 1f);
+            }
+            return recherche;
+        }
+
+        // Une erreur fait perdre au plus deux bigrammes : un mot à distance d en partage au moins (n + 1) - 2d
+        Set<String> bigrammesMot = bigrammes(mot);
+        int communsMin = Math.max(1, bigrammesMot.size() - 2 * erreurs);
+        int[] communs = new int[mots.size()];
+        for (String bigramme : bigrammesMot) {
+            BitSet contenant = bigrammes.get(bigramme);
+            if (contenant == null) {
+                continue;
+            }
+            for (int numero = contenant.nextSetBit(0); numero >= 0; numero = contenant.nextSetBit(numero + 1)) {
+                communs[numero]++;
+            }
+        }
+
+        for (int numero = 0; numero < communs.length; numero++) {
+            if (communs[numero] < communsMin) {
+                continue;
+            }
+            String candidat = mots.get(numero);
+            int d = distance(mot, candidat, erreurs);
+            if (d <= erreurs) {
+                float similarite = 1f - (float) d / Math.max(mot.length(), candidat.length());
+                recherche.ajouter(candidat, evenementsParMot.get(numero), similarite);
+            }
+        }
+        return recherche;
+    }
+
+    /**
+     * Les {@code limite} meilleurs résultats. Les listes du mot de départ sont parcourues de la plus proche
+     * à la moins proche, chacune par date : un événement d'une liste ne peut dépasser sa similarité
+     * plus la meilleure similarité possible des autres mots, ce qui borne le parcours.
+     */
+    private List<Long> meilleurs(List<MotApproche> recherches, int limite) {
+        Comparator<Resultat> proximite = Comparator.comparingDouble(Resultat::score).reversed()
+                .thenComparing(Resultat::cle);
+        // Tas des meilleurs, le moins bon en tête pour être évincé
+        PriorityQueue<Resultat> tas = new PriorityQueue<>(limite + 1, proximite.reversed());
+
+        MotApproche depart = recherches.get(0);
+        float maximumAutres = 0f;
+        for (int i = 1; i < recherches.size(); i++) {
+            maximumAutres += recherches.get(i).similariteMax();
+        }
+
+        Set<Long> vus = new HashSet<>();
+        for (int liste : depart.ordreDecroissant()) {
+            // Listes parcourues de la plus proche à la moins proche : pour un événement pas encore vu,
+            // la similarité du mot de départ est celle de la liste courante
+            float similariteDepart = depart.similarites.get(liste);
+            float borne = similariteDepart + maximumAutres;
+            if (tas.size() == limite && tas.peek().score() > borne) {
+                break;
+            }
+            for (Cle cle : depart.listes.get(liste)) {
+                if (tas.size() == limite) {
+                    Resultat dernier = tas.peek();
+                    // Les suivants de cette liste sont plus tardifs et ne peuvent dépasser la borne
+                    if (dernier.score() > borne || (dernier.score() == borne && dernier.cle().compareTo(cle) < 0)) {
+                        break;
+                    }
+                }
+                if (!vus.add(cle.id())) {
+                    continue;
+                }
+                Set<String> motsTitre = motsParEvenement.get(cle.id());
+                float score = similariteDepart;
+                for (int i = 1; i < recherches.size() && score > 0f; i++) {
+                    float similarite = recherches.get(i).score(motsTitre);
+                    score = similarite == 0f ? 0f : score + similarite;
+                }
+                if (score == 0f) {
+                    continue;
+                }
+                tas.offer(new Resultat(cle, score));
+                if (tas.size() > limite) {
+                    tas.poll();
+                }
+            }
+        }
+
+        List<Resultat> resultats = new ArrayList<>(tas);
+        resultats.sort(proximite);
+        return resultats.stream().map(resultat -> resultat.cle().id()).toList();
+    }
+
+    /**
+     * Mots du dictionnaire proches d'un mot de la requête ; un événement garde la meilleure similarité obtenue
+     */
+    private static final class MotApproche {
+
+        private final List<NavigableSet<Cle>> listes = new ArrayList<>();
+        private final List<Float> similarites = new ArrayList<>();
+        private final Map<String, Float> parMot = new HashMap<>();
+        private int taille;
+
+        void ajouter(String mot, NavigableSet<Cle> liste, float similarite) {
+            parMot.put(mot, similarite);
+            listes.add(liste);
+            similarites.add(similarite);
+            taille += liste.size();
+        }
+
+        float similariteMax() {
+            float max = 0f;
+            for (float similarite : similarites) {
+                max = Math.max(max, similarite);
+            }
+            return max;
+        }
+
+        List<Integer> ordreDecroissant() {
+            List<Integer> ordre = new ArrayList<>(listes.size());
+            for (int i = 0; i < listes.size(); i++) {
+                ordre.add(i);
+            }
+            ordre.sort(Comparator.comparing(similarites::get, Comparator.reverseOrder()));
+            return ordre;
+        }
+
+        /**
+         * @return La meilleure similarité parmi les mots d'un titre, 0 si aucun n'est assez proche
+         */
+        float score(Set<String> motsTitre) {
+            float meilleure = 0f;
+            for (String mot : motsTitre) {
+                Float similarite = parMot.get(mot);
+                if (similarite != null && similarite > meilleure) {
+                    meilleure = similarite;
+                }
+            }
+            return meilleure;
+        }
+    }
+
+    private record Cle(LocalDateTime date, Long id) implements Comparable<Cle> {
+
+        @Override
+        public int compareTo(Cle autre) {
+            int parDate = date.compareTo(autre.date);
+            return parDate != 0 ? parDate : id.compareTo(autre.id);
+        }
+    }
+
+    private record Resultat(Cle cle, float score) {
+    }
+}
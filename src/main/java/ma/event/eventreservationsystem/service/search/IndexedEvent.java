@@ -0,0 +1,38 @@
+package ma.event.eventreservationsystem.service.search;
+
+import ma.event.eventreservationsystem.entity.Event;
+import ma.event.eventreservationsystem.entity.enums.EventCategory;
+
+import java.time.LocalDateTime;
+
+/**
+ * Copie immuable des champs d'un événement publié utiles aux index du catalogue
+ */
+public record IndexedEvent(Long id,
+                           String titre,
+                           String lieu,
+                           String ville,
+                           EventCategory categorie,
+                           LocalDateTime dateDebut,
+                           LocalDateTime dateFin,
+                           double prixUnitaire,
+                           int placesReservees) {
+
+    public static IndexedEvent depuis(Event event) {
+        return new IndexedEvent(
+                event.getId(),
+                event.getTitre(),
+                event.getLieu(),
+                event.getVille(),
+                event.getCategorie(),
+                event.getDateDebut(),
+                event.getDateFin(),
+                event.getPrixUnitaire() != null ? event.getPrixUnitaire() : 0.0,
+                event.getPlacesReservees() != null ? event.getPlacesReservees() : 0
+        );
+    }
+
+    public IndexedEvent avecPlacesReservees(int places) {
+        return new IndexedEvent(id, titre, lieu, ville, categorie, dateDebut, dateFin, prixUnitaire, places);
+    }
+}
@@ -0,0 +1,288 @@
+package ma.event.eventreservationsystem.service.search;
+
+import java.util.*;
+
+/**
+ * Arbre préfixe compact (arbre radix : chaque arête porte une chaîne, les chaînes sans embranchement
+ * sont fusionnées) de libellés pondérés par leur popularité.
+ * Chaque nœud garde en cache les meilleurs libellés de son sous-arbre : une suggestion ne coûte que la descente
+ * le long du préfixe, quelle que soit la taille du sous-arbre.
+ * Les clés doivent être normalisées par l'appelant ; plusieurs libellés peuvent partager une clé ("Fès", "Fes").
+ * Non synchronisé.
+ */
+public class PrefixTrie {
+
+    private final int tailleCache;
+    private Noeud racine = new Noeud("");
+
+    public PrefixTrie(int tailleCache) {
+        this.tailleCache = tailleCache;
+    }
+
+    /**
+     * Ajoute {@code delta} au poids du libellé sous cette clé ; à zéro, le libellé disparaît
+     */
+    public void ajuster(String cle, String libelle, long delta) {
+        ajuster(cle, libelle, delta, true);
+    }
+
+    /**
+     * Comme {@link #ajuster}, sans mettre à jour les caches : appeler {@link #recalculerTout()} à la fin du lot
+     */
+    public void ajusterEnLot(String cle, String libelle, long delta) {
+        ajuster(cle, libelle, delta, false);
+    }
+
+    /**
+     * Recalcule les caches de tous les nœuds, des feuilles vers la racine
+     */
+    public void recalculerTout() {
+        recalculerSousArbre(racine);
+    }
+
+    /**
+     * @return Les libellés les plus populaires dont une clé commence par ce préfixe (au plus la taille du cache)
+     */
+    public List<Suggestion> suggerer(String prefixe, int limite) {
+        Noeud noeud = racine;
+        int position = 0;
+        while (position < prefixe.length()) {
+            Noeud enfant = noeud.enfant(prefixe.charAt(position));
+            if (enfant == null) {
+                return List.of();
+            }
+            int commun = prefixeCommun(enfant.etiquette, prefixe, position);
+            if (position + commun == prefixe.length()) {
+                // Le préfixe s'arrête sur cette arête : tout le sous-arbre correspond
+                noeud = enfant;
+                break;
+            }
+            if (commun < enfant.etiquette.length()) {
+                return List.of();
+            }
+            position += commun;
+            noeud = enfant;
+        }
+        List<Suggestion> meilleures = noeud.meilleures;
+        return meilleures.size() <= limite ? meilleures : meilleures.subList(0, limite);
+    }
+
+    public void vider() {
+        racine = new Noeud("");
+    }
+
+    private void ajuster(String cle, String libelle, long delta, boolean recalculer) {
+        if (cle.isEmpty() || delta == 0) {
+            return;
+        }
+
+        // Descente en mémorisant le chemin, pour remettre à jour les caches en remontant
+        List<Noeud> chemin = new ArrayList<>();
+        chemin.add(racine);
+        Noeud noeud = racine;
+        int position = 0;
+        while (position < cle.length()) {
+            Noeud enfant = noeud.enfant(cle.charAt(position));
+            if (enfant == null) {
+                if (delta < 0) {
+                    return;
+                }
+                enfant = noeud.ajouterEnfant(new Noeud(cle.substring(position)));
+                position = cle.length();
+            } else {
+                int commun = prefixeCommun(enfant.etiquette, cle, position);
+                if (commun < enfant.etiquette.length()) {
+                    if (delta < 0) {
+                        return;
+                    }
+                    enfant = noeud.scinder(enfant, commun);
+                }
+                position += commun;
+            }
+            noeud = enfant;
+            chemin.add(noeud);
+        }
+
+        noeud.ajuster(libelle, delta);
+        if (!recalculer) {
+            return;
+        }
+
+        for (int i = chemin.size() - 1; i >= 0; i--) {
+            Noeud courant = chemin.get(i);
+            if (i > 0) {
+                Noeud parent = chemin.get(i - 1);
+                if (courant.estVide()) {
+                    parent.retirerEnfant(courant);
+                    continue;
+                }
+                if (courant.libelles == null && courant.enfants.length == 1) {
+                    // Plus d'embranchement : le nœud est fusionné avec son unique enfant (cache déjà à jour)
+                    Noeud unique = courant.enfants[0];
+                    unique.etiquette = courant.etiquette + unique.etiquette;
+                    parent.remplacerEnfant(unique);
+                    continue;
+                }
+            }
+            courant.recalculer(tailleCache);
+        }
+    }
+
+    private void recalculerSousArbre(Noeud noeud) {
+        for (Noeud enfant : noeud.enfants) {
+            recalculerSousArbre(enfant);
+        }
+        noeud.recalculer(tailleCache);
+    }
+
+    private static int prefixeCommun(String etiquette, String cle, int debut) {
+        int max = Math.min(etiquette.length(), cle.length() - debut);
+        int i = 0;
+        while (i < max && etiquette.charAt(i) == cle.charAt(debut + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    public record Suggestion(String libelle, long poids) {
+
+        static final Comparator<Suggestion> ORDRE = Comparator.comparingLong(Suggestion::poids).reversed()
+                .thenComparing(Suggestion::libelle);
+    }
+
+    private static final class Noeud {
+
+        private String etiquette;
+        // Enfants triés par premier caractère de leur étiquette (recherche dichotomique)
+        private char[] cles = new char[0];
+        private Noeud[] enfants = new Noeud[0];
+        // Libellés dont la clé se termine ici, avec leur poids
+        private Map<String, Long> libelles;
+        private List<Suggestion> meilleures = List.of();
+
+        Noeud(String etiquette) {
+            this.etiquette = etiquette;
+        }
+
+        Noeud enfant(char c) {
+            int i = Arrays.binarySearch(cles, c);
+            return i >= 0 ? enfants[i] : null;
+        }
+
+        Noeud ajouterEnfant(Noeud enfant) {
+            char c = enfant.etiquette.charAt(0);
+            int position = -(Arrays.binarySearch(cles, c) + 1);
+            char[] nouvellesCles = new char[cles.length + 1];
+            Noeud[] nouveauxEnfants = new Noeud[enfants.length + 1];
+            System.arraycopy(cles, 0, nouvellesCles, 0, position);
+            System.arraycopy(enfants, 0, nouveauxEnfants, 0, position);
+            System.arraycopy(cles, position, nouvellesCles, position + 1, cles.length - position);
+            System.arraycopy(enfants, position, nouveauxEnfants, position + 1, enfants.length - position);
+            nouvellesCles[position] = c;
+            nouveauxEnfants[position] = enfant;
+            cles = nouvellesCles;
+            enfants = nouveauxEnfants;
+            return enfant;
+        }
+
+        void retirerEnfant(Noeud enfant) {
+            int position = Arrays.binarySearch(cles, enfant.etiquette.charAt(0));
+            if (position < 0) {
+                return;
+            }
+            char[] nouvellesCles = new char[cles.length - 1];
+            Noeud[] nouveauxEnfants = new Noeud[enfants.length - 1];
+            System.arraycopy(cles, 0, nouvellesCles, 0, position);
+            System.arraycopy(enfants, 0, nouveauxEnfants, 0, position);
+            System.arraycopy(cles, position + 1, nouvellesCles, position, cles.length - position - 1);
+            System.arraycopy(enfants, position + 1, nouveauxEnfants, position, enfants.length - position - 1);
+            cles = nouvellesCles;
+            enfants = nouveauxEnfants;
+        }
+
+        /**
+         * Remplace l'enfant qui commence par le même caractère
+         */
+        void remplacerEnfant(Noeud enfant) {
+            enfants[Arrays.binarySearch(cles, enfant.etiquette.charAt(0))] = enfant;
+        }
+
+        /**
+         * Coupe l'arête d'un enfant après {@code longueur} caractères
+         * @return Le nœud intermédiaire créé
+         */
+        Noeud scinder(Noeud enfant, int longueur) {
+            Noeud intermediaire = new Noeud(enfant.etiquette.substring(0, longueur));
+            enfant.etiquette = enfant.etiquette.substring(longueur);
+            intermediaire.ajouterEnfant(enfant);
+            intermediaire.meilleures = enfant.meilleures;
+            remplacerEnfant(intermediaire);
+            return intermediaire;
+        }
+
+        void ajuster(String libelle, long delta) {
+            if (libelles == null) {
+                libelles = new HashMap<>(2);
+            }
+            long poids = libelles.getOrDefault(libelle, 0L) + delta;
+            if (poids > 0) {
+                libelles.put(libelle, poids);
+            } else {
+                libelles.remove(libelle);
+                if (libelles.isEmpty()) {
+                    libelles = null;
+                }
+            }
+        }
+
+        boolean estVide() {
+            return libelles == null && enfants.length == 0;
+        }
+
+        /**
+         * Meilleurs libellés du sous-arbre, fusionnés à partir des caches (triés) des enfants
+         */
+        void recalculer(int tailleCache) {
+            List<Suggestion> retenues = new ArrayList<>(tailleCache + 1);
+            if (libelles != null) {
+                libelles.forEach((libelle, poids) -> retenir(retenues, new Suggestion(libelle, poids), tailleCache));
+            }
+            for (Noeud enfant : enfants) {
+                for (Suggestion suggestion : enfant.meilleures) {
+                    if (!retenir(retenues, suggestion, tailleCache)) {
+                        // Cache trié : les suivantes ne feront pas mieux
+                        break;
+                    }
+                }
+            }
+            meilleures = List.copyOf(retenues);
+        }
+
+        /**
+         * Insère la suggestion à son rang. Un même libellé peut être atteint par plusieurs clés
+         * (un titre par chacun de ses mots) : seule sa meilleure occurrence est gardée.
+         * @return false si la liste est pleine et que la suggestion est moins bonne que toutes les retenues
+         */
+        private static boolean retenir(List<Suggestion> retenues, Suggestion suggestion, int tailleCache) {
+            if (retenues.size() == tailleCache
+                    && Suggestion.ORDRE.compare(suggestion, retenues.get(tailleCache - 1)) >= 0) {
+                return false;
+            }
+            for (int i = 0; i < retenues.size(); i++) {
+                if (retenues.get(i).libelle().equals(suggestion.libelle())) {
+                    if (Suggestion.ORDRE.compare(suggestion, retenues.get(i)) >= 0) {
+                        return true;
+                    }
+                    retenues.remove(i);
+                    break;
+                }
+            }
+            int position = Collections.binarySearch(retenues, suggestion, Suggestion.ORDRE);
+            retenues.add(position >= 0 ? position : -(position + 1), suggestion);
+            if (retenues.size() > tailleCache) {
+                retenues.remove(tailleCache);
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package ma.event.eventreservationsystem.service.search;
+
+/**
+ * Tranches de prix proposées comme facettes du catalogue (bornes en DH, min incluse, max exclue)
+ */
+public enum PriceBucket {
+    GRATUIT("Gratuit", 0, 0.01),
+    MOINS_DE_100("Moins de 100 DH", 0.01, 100),
+    DE_100_A_200("100 à 200 DH", 100, 200),
+    DE_200_A_500("200 à 500 DH", 200, 500),
+    PLUS_DE_500("500 DH et plus", 500, Double.MAX_VALUE);
+
+    private final String label;
+    private final double min;
+    private final double max;
+
+    PriceBucket(String label, double min, double max) {
+        this.label = label;
+        this.min = min;
+        this.max = max;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public double getMin() {
+        return min;
+    }
+
+    public double getMax() {
+        return max;
+    }
+
+    public static PriceBucket de(double prix) {
+        for (PriceBucket tranche : values()) {
+            if (prix < tranche.max) {
+                return tranche;
+            }
+        }
+        return PLUS_DE_500;
+    }
+}
@@ -0,0 +1,106 @@
+package ma.event.eventreservationsystem.service.search;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Compteur sur une fenêtre glissante découpée en cases (anneau), sans verrou.
+ * Chaque case tient dans un seul long : la période qu'elle couvre (bits de poids fort) et son total
+ * (24 bits de poids faible), mis à jour par compare-and-set. Une case d'une période révolue
+ * est réinitialisée par le premier ajout qui la réutilise.
+ */
+public class SlidingWindowCounter {
+
+    private static final int BITS_TOTAL = 24;
+    private static final long TOTAL_MAX = (1L << BITS_TOTAL) - 1;
+
+    private final long largeurMillis;
+    private final AtomicLongArray cases;
+
+    public SlidingWindowCounter(int nombreCases, long largeurMillis) {
+        if (nombreCases <= 0 || largeurMillis <= 0) {
+            throw new IllegalArgumentException("La fenêtre doit avoir au moins une case de largeur positive");
+        }
+        this.largeurMillis = largeurMillis;
+        this.cases = new AtomicLongArray(nombreCases);
+    }
+
+    /**
+     * Ajoute {@code quantite} à la case de l'instant donné ; ignoré si cet instant est déjà sorti de la fenêtre
+     */
+    public void ajouter(long instantMillis, long quantite) {
+        long periode = instantMillis / largeurMillis;
+        int indice = (int) (periode % cases.length());
+        while (true) {
+            long valeur = cases.get(indice);
+            long periodeCase = valeur >>> BITS_TOTAL;
+            long nouvelle;
+            if (periodeCase == periode) {
+                nouvelle = (periode << BITS_TOTAL) | Math.min(TOTAL_MAX, (valeur & TOTAL_MAX) + quantite);
+            } else if (periodeCase < periode) {
+                nouvelle = (periode << BITS_TOTAL) | Math.min(TOTAL_MAX, quantite);
+            } else {
+                // La case a déjà été réutilisée par une période plus récente
+                return;
+            }
+            if (cases.compareAndSet(indice, valeur, nouvelle)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Retire {@code quantite} de la case de l'instant donné, sans descendre sous zéro ;
+     * ignoré si cet instant est sorti de la fenêtre (sa case a été réutilisée)
+     */
+    public void retirer(long instantMillis, long quantite) {
+        long periode = instantMillis / largeurMillis;
+        int indice = (int) (periode % cases.length());
+        while (true) {
+            long valeur = cases.get(indice);
+            if (valeur >>> BITS_TOTAL != periode) {
+                return;
+            }
+            long nouvelle = (periode << BITS_TOTAL) | Math.max(0, (valeur & TOTAL_MAX) - quantite);
+            if (cases.compareAndSet(indice, valeur, nouvelle)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Total de la fenêtre, chaque case pondérée selon son âge : 1 pour la case courante,
+     * décroissant linéairement jusqu'à la plus ancienne. Un pic récent pèse plus qu'un pic ancien
+     * et sort de la fenêtre progressivement plutôt que d'un coup.
+     */
+    public double totalAmorti(long maintenantMillis) {
+        long periodeCourante = maintenantMillis / largeurMillis;
+        int nombreCases = cases.length();
+        double total = 0;
+        for (int i = 0; i < nombreCases; i++) {
+            long valeur = cases.get(i);
+            long age = periodeCourante - (valeur >>> BITS_TOTAL);
+            if (age >= 0 && age < nombreCases) {
+                total += (valeur & TOTAL_MAX) * (double) (nombreCases - age) / nombreCases;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Vrai si aucune case ne couvre une période encore dans la fenêtre
+     */
+    public boolean estVide(long maintenantMillis) {
+        long periodeCourante = maintenantMillis / largeurMillis;
+        for (int i = 0; i < cases.length(); i++) {
+            long valeur = cases.get(i);
+            if ((valeur & TOTAL_MAX) > 0 && periodeCourante - (valeur >>> BITS_TOTAL) < cases.length()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long getDureeMillis() {
+        return largeurMillis * cases.length();
+    }
+}
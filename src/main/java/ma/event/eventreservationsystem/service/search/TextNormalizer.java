@@ -0,0 +1,51 @@
+package ma.event.eventreservationsystem.service.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Normalisation des textes indexés et des requêtes :
+ * accents et casse ignorés ("Théâtre" = "theatre"), ligatures dépliées, découpage en mots.
+ */
+public final class TextNormalizer {
+
+    private static final Pattern DIACRITIQUES = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATEURS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    // Mots trop fréquents pour être discriminants ("Festival de la Musique")
+    private static final Set<String> MOTS_VIDES = Set.of(
+            "a", "au", "aux", "d", "de", "des", "du", "en", "et", "l", "la", "le", "les", "un", "une",
+            "the", "of", "and"
+    );
+
+    private TextNormalizer() {
+    }
+
+    public static String normaliser(String texte) {
+        if (texte == null) {
+            return "";
+        }
+        String sansLigatures = texte
+                .replace("œ", "oe").replace("Œ", "OE")
+                .replace("æ", "ae").replace("Æ", "AE");
+        String decompose = Normalizer.normalize(sansLigatures, Normalizer.Form.NFD);
+        return DIACRITIQUES.matcher(decompose).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * @return Les mots normalisés du texte, dans l'ordre, sans les mots vides
+     */
+    public static List<String> mots(String texte) {
+        List<String> mots = new ArrayList<>();
+        for (String mot : SEPARATEURS.split(normaliser(texte))) {
+            if (!mot.isEmpty() && !MOTS_VIDES.contains(mot)) {
+                mots.add(mot);
+            }
+        }
+        return mots;
+    }
+}
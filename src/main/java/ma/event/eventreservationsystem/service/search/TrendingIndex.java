@@ -0,0 +1,225 @@
+package ma.event.eventreservationsystem.service.search;
+
+import lombok.extern.slf4j.Slf4j;
+import ma.event.eventreservationsystem.entity.Reservation;
+import ma.event.eventreservationsystem.repository.ReservationRepository;
+import ma.event.eventreservationsystem.repository.projection.ReservationRecente;
+import ma.event.eventreservationsystem.util.TransactionHooks;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Événements publiés en tendance, classés selon leur vitesse de réservation (places réservées)
+ * sur trois fenêtres glissantes : 5 minutes, 1 heure et 24 heures.
+ * Chaque réservation validée incrémente sans verrou les compteurs de son événement, à la date de la réservation ;
+ * son annulation (ou l'expiration de son blocage) les décrémente à cette même date. Le classement
+ * des {@code reservation.trending.size} premiers est recalculé périodiquement et servi depuis la mémoire.
+ */
+@Slf4j
+@Component
+public class TrendingIndex implements CatalogueIndex {
+
+    private static final long SECONDE = 1000;
+    private static final long MINUTE = 60 * SECONDE;
+
+    // Poids de chaque fenêtre dans le score : la plus courte réagit le plus vite
+    private static final double POIDS_5_MINUTES = 0.5;
+    private static final double POIDS_1_HEURE = 0.3;
+    private static final double POIDS_24_HEURES = 0.2;
+
+    private final ReservationRepository reservationRepository;
+    private final TransactionTemplate lecture;
+    private final int tailleClassement;
+
+    private final Map<Long, Vitesse> vitesses = new ConcurrentHashMap<>();
+    private final Set<Long> publies = ConcurrentHashMap.newKeySet();
+
+    private volatile List<Long> classement = List.of();
+    private volatile boolean pret;
+
+    public TrendingIndex(ReservationRepository reservationRepository,
+                         PlatformTransactionManager transactionManager,
+                         @Value("${reservation.trending.size:20}") int tailleClassement) {
+        this.reservationRepository = reservationRepository;
+        this.lecture = new TransactionTemplate(transactionManager);
+        this.lecture.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.lecture.setReadOnly(true);
+        this.tailleClassement = tailleClassement;
+    }
+
+    @Override
+    public void reconstruire(Collection<IndexedEvent> evenements) {
+        publies.clear();
+        evenements.forEach(e -> publies.add(e.id()));
+        pret = true;
+        recalculer();
+    }
+
+    @Override
+    public void indexer(IndexedEvent evenement) {
+        publies.add(evenement.id());
+    }
+
+    @Override
+    public void retirer(Long evenementId) {
+        publies.remove(evenementId);
+        vitesses.remove(evenementId);
+        if (classement.contains(evenementId)) {
+            classement = classement.stream().filter(id -> !id.equals(evenementId)).toList();
+        }
+    }
+
+    @Override
+    public boolean estPret() {
+        return pret;
+    }
+
+    /**
+     * Recharge les réservations des dernières 24 heures (une requête sur l'index des dates de réservation)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void chargerReservationsRecentes() {
+        LocalDateTime depuis = LocalDateTime.now().minusHours(24);
+        List<ReservationRecente> recentes = lecture.execute(status -> reservationRepository.findRecentes(depuis));
+        recentes.forEach(r -> enregistrer(r.evenementId(), r.places(), instant(r.dateReservation())));
+        recalculer();
+        log.info("Tendances initialisées à partir de {} réservation(s) des dernières 24 heures", recentes.size());
+    }
+
+    /**
+     * Compte les places d'une réservation créée, une fois la transaction courante validée
+     */
+    public void enregistrer(Reservation reservation) {
+        Long evenementId = reservation.getEvenement().getId();
+        int places = reservation.getNombrePlaces();
+        long instant = instant(reservation);
+        TransactionHooks.apresCommit(() -> enregistrer(evenementId, places, instant));
+    }
+
+    /**
+     * Retire les places d'une réservation annulée, une fois la transaction courante validée :
+     * une rafale de réservations aussitôt annulées ne fait pas monter l'événement dans le classement
+     */
+    public void retrancher(Reservation reservation) {
+        retrancher(List.of(reservation));
+    }
+
+    public void retrancher(Collection<Reservation> reservations) {
+        List<ReservationRecente> annulees = reservations.stream()
+                .map(r -> new ReservationRecente(r.getEvenement().getId(), r.getNombrePlaces(), r.getDateReservation()))
+                .toList();
+        TransactionHooks.apresCommit(() -> annulees.forEach(r -> {
+            Vitesse vitesse = vitesses.get(r.evenementId());
+            if (vitesse != null) {
+                vitesse.retirer(instant(r.dateReservation()), r.places());
+            }
+        }));
+    }
+
+    /**
+     * Identifiants des événements publiés les plus réservés récemment, du plus rapide au moins rapide
+     * (au plus {@code nombre}, et au plus la taille du classement)
+     */
+    public List<Long> tendances(int nombre) {
+        List<Long> courant = classement;
+        return courant.subList(0, Math.min(nombre, courant.size()));
+    }
+
+    /**
+     * Sélection des premiers par un tas de taille fixe ; les événements sans réservation depuis 24 heures sont oubliés
+     */
+    @Scheduled(fixedDelayString = "${reservation.trending.refresh-ms:5000}")
+    public void recalculer() {
+        if (!pret) {
+            return;
+        }
+        long maintenant = System.currentTimeMillis();
+        PriorityQueue<Score> premiers = new PriorityQueue<>(Comparator.comparingDouble(Score::valeur));
+        Iterator<Map.Entry<Long, Vitesse>> it = vitesses.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Long, Vitesse> entree = it.next();
+            Vitesse vitesse = entree.getValue();
+            // Une réservation enregistrée pendant ce retrait peut être perdue : l'événement était inactif depuis 24 heures
+            if (vitesse.estInactive(maintenant)) {
+                it.remove();
+                continue;
+            }
+            if (!publies.contains(entree.getKey())) {
+                continue;
+            }
+            double valeur = vitesse.score(maintenant);
+            if (premiers.size() < tailleClassement) {
+                premiers.add(new Score(entree.getKey(), valeur));
+            } else if (valeur > premiers.peek().valeur()) {
+                premiers.poll();
+                premiers.add(new Score(entree.getKey(), valeur));
+            }
+        }
+        List<Score> tries = new ArrayList<>(premiers);
+        tries.sort(Comparator.comparingDouble(Score::valeur).reversed().thenComparing(Score::evenementId));
+        classement = tries.stream().map(Score::evenementId).toList();
+    }
+
+    private void enregistrer(Long evenementId, int places, long instantMillis) {
+        vitesses.computeIfAbsent(evenementId, id -> new Vitesse()).ajouter(instantMillis, places);
+    }
+
+    private static long instant(Reservation reservation) {
+        return instant(reservation.getDateReservation());
+    }
+
+    private static long instant(LocalDateTime date) {
+        return date != null ? date.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : System.currentTimeMillis();
+    }
+
+    private record Score(Long evenementId, double valeur) {
+    }
+
+    /**
+     * Places réservées par minute sur chaque fenêtre, combinées en un score
+     */
+    private static final class Vitesse {
+
+        private final SlidingWindowCounter cinqMinutes = new SlidingWindowCounter(30, 10 * SECONDE);
+        private final SlidingWindowCounter uneHeure = new SlidingWindowCounter(60, MINUTE);
+        private final SlidingWindowCounter vingtQuatreHeures = new SlidingWindowCounter(96, 15 * MINUTE);
+
+        void ajouter(long instantMillis, long places) {
+            cinqMinutes.ajouter(instantMillis, places);
+            uneHeure.ajouter(instantMillis, places);
+            vingtQuatreHeures.ajouter(instantMillis, places);
+        }
+
+        void retirer(long instantMillis, long places) {
+            cinqMinutes.retirer(instantMillis, places);
+            uneHeure.retirer(instantMillis, places);
+            vingtQuatreHeures.retirer(instantMillis, places);
+        }
+
+        double score(long maintenant) {
+            return POIDS_5_MINUTES * parMinute(cinqMinutes, maintenant)
+                    + POIDS_1_HEURE * parMinute(uneHeure, maintenant)
+                    + POIDS_24_HEURES * parMinute(vingtQuatreHeures, maintenant);
+        }
+
+        boolean estInactive(long maintenant) {
+            return vingtQuatreHeures.estVide(maintenant);
+        }
+
+        // L'amortissement linéaire divise par deux le poids moyen des cases : durée effective = moitié de la fenêtre
+        private static double parMinute(SlidingWindowCounter fenetre, long maintenant) {
+            return fenetre.totalAmorti(maintenant) / (fenetre.getDureeMillis() / 2.0 / MINUTE);
+        }
+    }
+}
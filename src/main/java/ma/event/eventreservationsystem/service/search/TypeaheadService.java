@@ -0,0 +1,159 @@
+package ma.event.eventreservationsystem.service.search;
+
+import ma.event.eventreservationsystem.service.events.SeatsReleasedEvent;
+import ma.event.eventreservationsystem.service.events.SeatsReservedEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Suggestions de saisie pour les villes et les titres des événements publiés.
+ * Villes classées par nombre d'événements publiés ; titres par places réservées, tenues à jour à chaque
+ * réservation ou libération de places validée.
+ * Un titre est proposé à partir du début de n'importe lequel de ses mots ("jazz" → "Festival de Jazz").
+ */
+@Component
+public class TypeaheadService implements CatalogueIndex {
+
+    public static final int MAX_SUGGESTIONS = 10;
+
+    private final ReentrantReadWriteLock verrou = new ReentrantReadWriteLock();
+    private final PrefixTrie villes = new PrefixTrie(MAX_SUGGESTIONS);
+    private final PrefixTrie titres = new PrefixTrie(MAX_SUGGESTIONS);
+    // Contribution de chaque événement, pour la retirer lors d'une mise à jour
+    private final Map<Long, IndexedEvent> evenements = new HashMap<>();
+
+    private volatile boolean pret;
+
+    @Override
+    public void reconstruire(Collection<IndexedEvent> publies) {
+        verrou.writeLock().lock();
+        try {
+            villes.vider();
+            titres.vider();
+            evenements.clear();
+            for (IndexedEvent evenement : publies) {
+                appliquer(evenement, 1, false);
+                evenements.put(evenement.id(), evenement);
+            }
+            villes.recalculerTout();
+            titres.recalculerTout();
+            pret = true;
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void indexer(IndexedEvent evenement) {
+        verrou.writeLock().lock();
+        try {
+            IndexedEvent precedent = evenements.put(evenement.id(), evenement);
+            if (precedent != null) {
+                appliquer(precedent, -1, true);
+            }
+            appliquer(evenement, 1, true);
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void retirer(Long evenementId) {
+        verrou.writeLock().lock();
+        try {
+            IndexedEvent precedent = evenements.remove(evenementId);
+            if (precedent != null) {
+                appliquer(precedent, -1, true);
+            }
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean estPret() {
+        return pret;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void surPlacesReservees(SeatsReservedEvent evenement) {
+        ajusterPopularite(evenement.evenementId(), evenement.places());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void surPlacesLiberees(SeatsReleasedEvent evenement) {
+        ajusterPopularite(evenement.evenementId(), -evenement.places());
+    }
+
+    public List<String> suggererVilles(String saisie, int limite) {
+        return suggerer(villes, String.join(" ", TextNormalizer.mots(saisie)), limite);
+    }
+
+    public List<String> suggererTitres(String saisie, int limite) {
+        return suggerer(titres, String.join(" ", TextNormalizer.mots(saisie)), limite);
+    }
+
+    private List<String> suggerer(PrefixTrie trie, String prefixe, int limite) {
+        verrou.readLock().lock();
+        try {
+            return trie.suggerer(prefixe, limite).stream()
+                    .map(PrefixTrie.Suggestion::libelle)
+                    .toList();
+        } finally {
+            verrou.readLock().unlock();
+        }
+    }
+
+    /**
+     * Déplace le titre d'un événement publié selon les places réservées ou rendues
+     */
+    private void ajusterPopularite(Long evenementId, int places) {
+        verrou.writeLock().lock();
+        try {
+            IndexedEvent precedent = evenements.get(evenementId);
+            if (precedent == null) {
+                return;
+            }
+            int placesReservees = Math.max(0, precedent.placesReservees() + places);
+            evenements.put(evenementId, precedent.avecPlacesReservees(placesReservees));
+            appliquerTitre(precedent, placesReservees - precedent.placesReservees(), true);
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ajoute (sens = 1) ou retire (sens = -1) la contribution d'un événement aux deux arbres
+     */
+    private void appliquer(IndexedEvent evenement, int sens, boolean recalculer) {
+        if (evenement.ville() != null && !evenement.ville().isBlank()) {
+            ajuster(villes, String.join(" ", TextNormalizer.mots(evenement.ville())),
+                    evenement.ville().trim(), sens, recalculer);
+        }
+        appliquerTitre(evenement, sens * (1L + evenement.placesReservees()), recalculer);
+    }
+
+    private void appliquerTitre(IndexedEvent evenement, long popularite, boolean recalculer) {
+        if (evenement.titre() == null) {
+            return;
+        }
+        List<String> mots = TextNormalizer.mots(evenement.titre());
+        // Une clé par mot du titre : du mot jusqu'à la fin
+        Set<String> cles = new HashSet<>();
+        for (int i = 0; i < mots.size(); i++) {
+            cles.add(String.join(" ", mots.subList(i, mots.size())));
+        }
+        cles.forEach(cle -> ajuster(titres, cle, evenement.titre().trim(), popularite, recalculer));
+    }
+
+    private static void ajuster(PrefixTrie trie, String cle, String libelle, long delta, boolean recalculer) {
+        if (recalculer) {
+            trie.ajuster(cle, libelle, delta);
+        } else {
+            trie.ajusterEnLot(cle, libelle, delta);
+        }
+    }
+}
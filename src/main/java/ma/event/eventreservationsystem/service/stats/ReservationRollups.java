@@ -0,0 +1,324 @@
+package ma.event.eventreservationsystem.service.stats;
+
+import lombok.extern.slf4j.Slf4j;
+import ma.event.eventreservationsystem.entity.Reservation;
+import ma.event.eventreservationsystem.entity.enums.EventCategory;
+import ma.event.eventreservationsystem.entity.enums.ReservationStatus;
+import ma.event.eventreservationsystem.repository.ReservationRepository;
+import ma.event.eventreservationsystem.repository.projection.ReservationsParHeure;
+import ma.event.eventreservationsystem.util.TransactionHooks;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Séries temporelles de l'activité de réservation, par événement, par catégorie et au total.
+ * Chaque réservation est comptée dans la tranche horaire de sa date de réservation ; les tranches sont
+ * ajustées après chaque création, confirmation ou annulation validée. Une tâche planifiée compacte les
+ * tranches horaires plus anciennes que {@code reservation.rollups.hourly-retention} en tranches journalières.
+ * Une requête sur une période ne lit que les tranches, jamais la table des réservations.
+ */
+@Slf4j
+@Component
+public class ReservationRollups {
+
+    public enum Granularite {
+        HEURE, JOUR
+    }
+
+    private static final int HEURES_PAR_JOUR = 24;
+
+    private final ReservationRepository reservationRepository;
+    private final TransactionTemplate lecture;
+    private final long retentionHeures;
+
+    // Mises à jour et lectures sous verrou partagé (les tranches sont des compteurs concurrents),
+    // reconstruction et compaction sous verrou exclusif
+    private final ReentrantReadWriteLock verrou = new ReentrantReadWriteLock();
+
+    private final Map<Long, Serie> parEvenement = new ConcurrentHashMap<>();
+    private final Map<EventCategory, Serie> parCategorie = new EnumMap<>(EventCategory.class);
+    private final Serie total = new Serie(null);
+
+    // Première heure (début d'un jour) conservée au détail horaire ; les heures antérieures sont journalières
+    private long limiteHoraire = Long.MIN_VALUE;
+
+    private volatile boolean pret;
+
+    public ReservationRollups(ReservationRepository reservationRepository,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${reservation.rollups.hourly-retention:7d}") Duration retentionHoraire) {
+        this.reservationRepository = reservationRepository;
+        this.lecture = new TransactionTemplate(transactionManager);
+        this.lecture.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.lecture.setReadOnly(true);
+        this.retentionHeures = retentionHoraire.toHours();
+        for (EventCategory categorie : EventCategory.values()) {
+            parCategorie.put(categorie, new Serie(categorie));
+        }
+    }
+
+    /**
+     * Une seule requête GROUP BY (événement, heure, statut). Comme pour {@link ReservationStatistics},
+     * les validations concurrentes de la reconstruction peuvent être comptées deux fois ou pas du tout.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconstruire() {
+        List<ReservationsParHeure> lignes = lecture.execute(status -> reservationRepository.sumParEvenementEtHeure());
+        verrou.writeLock().lock();
+        try {
+            parEvenement.clear();
+            parCategorie.values().forEach(Serie::vider);
+            total.vider();
+            limiteHoraire = Long.MIN_VALUE;
+            for (ReservationsParHeure ligne : lignes) {
+                boolean confirmees = ligne.statut() == ReservationStatus.CONFIRMEE;
+                boolean annulees = ligne.statut() == ReservationStatus.ANNULEE;
+                ajouter(ligne.evenementId(), ligne.categorie(), heure(ligne.debut()),
+                        ligne.nombre(), ligne.places(),
+                        confirmees ? ligne.nombre() : 0,
+                        annulees ? ligne.nombre() : 0,
+                        confirmees ? ligne.montant() : 0);
+            }
+            compacterJusqua(limiteCourante());
+            pret = true;
+        } finally {
+            verrou.writeLock().unlock();
+        }
+        log.info("Séries de réservations reconstruites : {} tranche(s) horaire(s) agrégée(s)", lignes.size());
+    }
+
+    public boolean estPret() {
+        return pret;
+    }
+
+    /**
+     * Compte une réservation créée, une fois la transaction courante validée
+     */
+    public void creee(Reservation reservation) {
+        Long evenementId = reservation.getEvenement().getId();
+        EventCategory categorie = reservation.getEvenement().getCategorie();
+        long heure = heure(reservation.getDateReservation());
+        long places = reservation.getNombrePlaces();
+        boolean confirmee = reservation.getStatut() == ReservationStatus.CONFIRMEE;
+        double revenu = confirmee ? reservation.getMontantTotal() : 0;
+        TransactionHooks.apresCommit(() -> mettreAJour(
+                evenementId, categorie, heure, 1, places, confirmee ? 1 : 0, 0, revenu));
+    }
+
+    /**
+     * Reporte un changement de statut dans la tranche de chaque réservation, une fois la transaction courante validée
+     */
+    public void transition(Collection<Reservation> reservations, ReservationStatus ancien, ReservationStatus nouveau) {
+        if (reservations.isEmpty() || ancien == nouveau) {
+            return;
+        }
+        int sens = nouveau == ReservationStatus.CONFIRMEE ? 1 : ancien == ReservationStatus.CONFIRMEE ? -1 : 0;
+        int annulees = nouveau == ReservationStatus.ANNULEE ? 1 : ancien == ReservationStatus.ANNULEE ? -1 : 0;
+        if (sens == 0 && annulees == 0) {
+            return;
+        }
+        List<Changement> changements = new ArrayList<>(reservations.size());
+        for (Reservation reservation : reservations) {
+            Long evenementId = reservation.getEvenement().getId();
+            Serie serie = parEvenement.get(evenementId);
+            // La catégorie n'est relue que si l'événement n'a pas encore de série (réservation antérieure au démarrage)
+            EventCategory categorie = serie != null ? serie.categorie : reservation.getEvenement().getCategorie();
+            changements.add(new Changement(evenementId, categorie, heure(reservation.getDateReservation()),
+                    sens * reservation.getMontantTotal()));
+        }
+        TransactionHooks.apresCommit(() -> changements.forEach(c ->
+                mettreAJour(c.evenementId(), c.categorie(), c.heure(), 0, 0, sens, annulees, c.revenu())));
+    }
+
+    public void transition(Reservation reservation, ReservationStatus ancien, ReservationStatus nouveau) {
+        transition(List.of(reservation), ancien, nouveau);
+    }
+
+    /**
+     * Tranches non vides d'un événement sur la période, bornes comprises, dans l'ordre chronologique
+     */
+    public List<RollupPoint> parEvenement(Long evenementId, Granularite granularite,
+                                          LocalDateTime debut, LocalDateTime fin) {
+        Serie serie = parEvenement.get(evenementId);
+        return serie == null ? List.of() : lire(serie, granularite, debut, fin);
+    }
+
+    public List<RollupPoint> parCategorie(EventCategory categorie, Granularite granularite,
+                                          LocalDateTime debut, LocalDateTime fin) {
+        return lire(parCategorie.get(categorie), granularite, debut, fin);
+    }
+
+    public List<RollupPoint> global(Granularite granularite, LocalDateTime debut, LocalDateTime fin) {
+        return lire(total, granularite, debut, fin);
+    }
+
+    /**
+     * Compacte en jours les tranches horaires sorties de la période de rétention
+     */
+    @Scheduled(fixedDelayString = "${reservation.rollups.compaction-ms:3600000}")
+    public void compacter() {
+        if (!pret) {
+            return;
+        }
+        verrou.writeLock().lock();
+        try {
+            int compactees = compacterJusqua(limiteCourante());
+            if (compactees > 0) {
+                log.debug("{} tranche(s) horaire(s) compactée(s) en jours", compactees);
+            }
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    private void mettreAJour(Long evenementId, EventCategory categorie, long heure,
+                             long reservations, long places, long confirmees, long annulees, double revenu) {
+        verrou.readLock().lock();
+        try {
+            ajouter(evenementId, categorie, heure, reservations, places, confirmees, annulees, revenu);
+        } finally {
+            verrou.readLock().unlock();
+        }
+    }
+
+    private void ajouter(Long evenementId, EventCategory categorie, long heure,
+                         long reservations, long places, long confirmees, long annulees, double revenu) {
+        Serie evenement = parEvenement.computeIfAbsent(evenementId, id -> new Serie(categorie));
+        for (Serie serie : List.of(evenement, parCategorie.get(evenement.categorie), total)) {
+            // Une heure déjà compactée (réservation ancienne confirmée ou annulée) va directement dans son jour
+            Cumul cumul = heure >= limiteHoraire
+                    ? serie.heures.computeIfAbsent(heure, h -> new Cumul())
+                    : serie.jours.computeIfAbsent(Math.floorDiv(heure, HEURES_PAR_JOUR), j -> new Cumul());
+            cumul.ajouter(reservations, places, confirmees, annulees, revenu);
+        }
+    }
+
+    private int compacterJusqua(long nouvelleLimite) {
+        if (nouvelleLimite <= limiteHoraire) {
+            return 0;
+        }
+        int compactees = 0;
+        List<Serie> series = new ArrayList<>(parEvenement.values());
+        series.addAll(parCategorie.values());
+        series.add(total);
+        for (Serie serie : series) {
+            Map<Long, Cumul> anciennes = serie.heures.headMap(nouvelleLimite);
+            for (Map.Entry<Long, Cumul> entree : anciennes.entrySet()) {
+                serie.jours.computeIfAbsent(Math.floorDiv(entree.getKey(), HEURES_PAR_JOUR), j -> new Cumul())
+                        .fusionner(entree.getValue());
+                compactees++;
+            }
+            anciennes.clear();
+        }
+        limiteHoraire = nouvelleLimite;
+        return compactees;
+    }
+
+    // Début du jour contenant la plus ancienne heure encore dans la période de rétention
+    private long limiteCourante() {
+        long premiere = heure(LocalDateTime.now()) - retentionHeures;
+        return Math.floorDiv(premiere, HEURES_PAR_JOUR) * HEURES_PAR_JOUR;
+    }
+
+    /**
+     * En granularité horaire, seules les heures encore dans la période de rétention sont disponibles.
+     * En granularité journalière, un jour peut encore être en partie au détail horaire : ses heures sont additionnées.
+     */
+    private List<RollupPoint> lire(Serie serie, Granularite granularite, LocalDateTime debut, LocalDateTime fin) {
+        long premiere = heure(debut);
+        long derniere = heure(fin);
+        if (derniere < premiere) {
+            return List.of();
+        }
+        verrou.readLock().lock();
+        try {
+            if (granularite == Granularite.HEURE) {
+                List<RollupPoint> points = new ArrayList<>();
+                serie.heures.subMap(premiere, true, derniere, true)
+                        .forEach((heure, cumul) -> points.add(cumul.point(heure)));
+                return points;
+            }
+            long premierJour = Math.floorDiv(premiere, HEURES_PAR_JOUR);
+            long dernierJour = Math.floorDiv(derniere, HEURES_PAR_JOUR);
+            TreeMap<Long, Cumul> jours = new TreeMap<>();
+            serie.jours.subMap(premierJour, true, dernierJour, true)
+                    .forEach((jour, cumul) -> jours.computeIfAbsent(jour, j -> new Cumul()).fusionner(cumul));
+            serie.heures.subMap(premierJour * HEURES_PAR_JOUR, (dernierJour + 1) * HEURES_PAR_JOUR)
+                    .forEach((heure, cumul) -> jours.computeIfAbsent(Math.floorDiv(heure, HEURES_PAR_JOUR),
+                            j -> new Cumul()).fusionner(cumul));
+            List<RollupPoint> points = new ArrayList<>(jours.size());
+            jours.forEach((jour, cumul) -> points.add(cumul.point(jour * HEURES_PAR_JOUR)));
+            return points;
+        } finally {
+            verrou.readLock().unlock();
+        }
+    }
+
+    // Heures écoulées depuis l'époque, les dates de réservation étant des dates locales sans fuseau
+    private static long heure(LocalDateTime date) {
+        return Math.floorDiv(date.toEpochSecond(ZoneOffset.UTC), 3600);
+    }
+
+    private record Changement(Long evenementId, EventCategory categorie, long heure, double revenu) {
+    }
+
+    private static final class Serie {
+
+        private final EventCategory categorie;
+        // Clés : heures (respectivement jours) écoulées depuis l'époque
+        private final ConcurrentSkipListMap<Long, Cumul> heures = new ConcurrentSkipListMap<>();
+        private final ConcurrentSkipListMap<Long, Cumul> jours = new ConcurrentSkipListMap<>();
+
+        Serie(EventCategory categorie) {
+            this.categorie = categorie;
+        }
+
+        void vider() {
+            heures.clear();
+            jours.clear();
+        }
+    }
+
+    private static final class Cumul {
+
+        private final LongAdder reservations = new LongAdder();
+        private final LongAdder places = new LongAdder();
+        private final LongAdder confirmees = new LongAdder();
+        private final LongAdder annulees = new LongAdder();
+        private final DoubleAdder revenu = new DoubleAdder();
+
+        void ajouter(long reservations, long places, long confirmees, long annulees, double revenu) {
+            this.reservations.add(reservations);
+            this.places.add(places);
+            this.confirmees.add(confirmees);
+            this.annulees.add(annulees);
+            this.revenu.add(revenu);
+        }
+
+        void fusionner(Cumul autre) {
+            ajouter(autre.reservations.sum(), autre.places.sum(), autre.confirmees.sum(),
+                    autre.annulees.sum(), autre.revenu.sum());
+        }
+
+        RollupPoint point(long heure) {
+            return new RollupPoint(LocalDateTime.ofEpochSecond(heure * 3600, 0, ZoneOffset.UTC),
+                    reservations.sum(), places.sum(), confirmees.sum(), annulees.sum(), revenu.sum());
+        }
+    }
+}
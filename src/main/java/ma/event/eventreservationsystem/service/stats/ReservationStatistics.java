@@ -0,0 +1,138 @@
+package ma.event.eventreservationsystem.service.stats;
+
+import lombok.extern.slf4j.Slf4j;
+import ma.event.eventreservationsystem.entity.Reservation;
+import ma.event.eventreservationsystem.entity.enums.ReservationStatus;
+import ma.event.eventreservationsystem.repository.ReservationRepository;
+import ma.event.eventreservationsystem.repository.projection.ReservationTotaux;
+import ma.event.eventreservationsystem.util.TransactionHooks;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Totaux des réservations par statut (nombre, places, montant) tenus en mémoire : reconstruits au démarrage
+ * par une seule requête GROUP BY, puis ajustés après chaque création, confirmation ou annulation validée.
+ * Une lecture coûte O(1) quel que soit le nombre de réservations.
+ */
+@Slf4j
+@Component
+public class ReservationStatistics {
+
+    private final ReservationRepository reservationRepository;
+    private final TransactionTemplate lecture;
+
+    private final Map<ReservationStatus, Compteurs> parStatut = new EnumMap<>(ReservationStatus.class);
+
+    private volatile boolean pret;
+
+    public ReservationStatistics(ReservationRepository reservationRepository,
+                                 PlatformTransactionManager transactionManager) {
+        this.reservationRepository = reservationRepository;
+        this.lecture = new TransactionTemplate(transactionManager);
+        this.lecture.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.lecture.setReadOnly(true);
+        for (ReservationStatus statut : ReservationStatus.values()) {
+            parStatut.put(statut, new Compteurs());
+        }
+    }
+
+    /**
+     * Les validations concurrentes de la reconstruction peuvent être comptées deux fois ou pas du tout :
+     * elle n'a lieu qu'au démarrage.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconstruire() {
+        List<ReservationTotaux> totaux = lecture.execute(status -> reservationRepository.sumParStatut());
+        parStatut.values().forEach(Compteurs::vider);
+        totaux.forEach(t -> parStatut.get(t.statut()).ajouter(t.nombre(), t.places(), t.montant()));
+        pret = true;
+        log.info("Statistiques des réservations reconstruites : {} statut(s)", totaux.size());
+    }
+
+    public boolean estPret() {
+        return pret;
+    }
+
+    /**
+     * Totaux courants de chaque statut ; avant la reconstruction, lus directement en base
+     */
+    public Map<ReservationStatus, ReservationTotaux> getTotaux() {
+        Map<ReservationStatus, ReservationTotaux> totaux = new EnumMap<>(ReservationStatus.class);
+        if (!pret) {
+            lecture.execute(status -> reservationRepository.sumParStatut()).forEach(t -> totaux.put(t.statut(), t));
+        } else {
+            parStatut.forEach((statut, compteurs) -> totaux.put(statut, new ReservationTotaux(
+                    statut, compteurs.nombre.sum(), compteurs.places.sum(), compteurs.montant.sum())));
+        }
+        for (ReservationStatus statut : ReservationStatus.values()) {
+            totaux.putIfAbsent(statut, new ReservationTotaux(statut, 0L, 0L, 0.0));
+        }
+        return totaux;
+    }
+
+    /**
+     * Compte une réservation créée, une fois la transaction courante validée
+     */
+    public void creee(Reservation reservation) {
+        int places = reservation.getNombrePlaces();
+        double montant = reservation.getMontantTotal();
+        ReservationStatus statut = reservation.getStatut();
+        TransactionHooks.apresCommit(() -> parStatut.get(statut).ajouter(1, places, montant));
+    }
+
+    /**
+     * Déplace des réservations d'un statut à l'autre, une fois la transaction courante validée
+     */
+    public void transition(Collection<Reservation> reservations, ReservationStatus ancien, ReservationStatus nouveau) {
+        if (reservations.isEmpty() || ancien == nouveau) {
+            return;
+        }
+        long places = 0;
+        double montant = 0;
+        for (Reservation reservation : reservations) {
+            places += reservation.getNombrePlaces();
+            montant += reservation.getMontantTotal();
+        }
+        long nombre = reservations.size();
+        long totalPlaces = places;
+        double totalMontant = montant;
+        TransactionHooks.apresCommit(() -> {
+            parStatut.get(ancien).ajouter(-nombre, -totalPlaces, -totalMontant);
+            parStatut.get(nouveau).ajouter(nombre, totalPlaces, totalMontant);
+        });
+    }
+
+    public void transition(Reservation reservation, ReservationStatus ancien, ReservationStatus nouveau) {
+        transition(List.of(reservation), ancien, nouveau);
+    }
+
+    private static final class Compteurs {
+
+        private final LongAdder nombre = new LongAdder();
+        private final LongAdder places = new LongAdder();
+        private final DoubleAdder montant = new DoubleAdder();
+
+        void ajouter(long nombre, long places, double montant) {
+            this.nombre.add(nombre);
+            this.places.add(places);
+            this.montant.add(montant);
+        }
+
+        void vider() {
+            nombre.reset();
+            places.reset();
+            montant.reset();
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package ma.event.eventreservationsystem.service.stats;
+
+import java.time.LocalDateTime;
+
+/**
+ * Activité de réservation d'une tranche horaire ou journalière commençant à {@code debut} :
+ * réservations faites (et leurs places), dont confirmées et annulées, revenu des confirmées.
+ */
+public record RollupPoint(LocalDateTime debut, long reservations, long places,
+                          long confirmees, long annulees, double revenu) {
+}
@@ -0,0 +1,122 @@
+package ma.event.eventreservationsystem.util;
+
+import ma.event.eventreservationsystem.exception.ConflictException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Résultats des opérations déjà exécutées, par clé d'idempotence fournie par le client.
+ * Une répétition (double clic, nouvel essai) reçoit le résultat de la première exécution sans la rejouer ;
+ * une répétition concurrente attend que la première exécution se termine.
+ * Le stockage est borné en taille ({@code reservation.idempotency.max-entries}) et en durée ({@code reservation.idempotency.ttl}).
+ * Les échecs ne sont pas conservés : une nouvelle tentative avec la même clé est réexécutée.
+ * Seules les exécutions terminées sont évincées : si la limite est atteinte par des exécutions en cours,
+ * une nouvelle clé est refusée plutôt que de perdre la protection d'une exécution en cours.
+ */
+@Component
+public class IdempotencyStore {
+
+    private final Duration ttl;
+    private final int tailleMax;
+
+    // Ordre d'insertion = ordre d'expiration
+    private final LinkedHashMap<String, Entree> entrees = new LinkedHashMap<>();
+
+    public IdempotencyStore(@Value("${reservation.idempotency.ttl:10m}") Duration ttl,
+                            @Value("${reservation.idempotency.max-entries:10000}") int tailleMax) {
+        this.ttl = ttl;
+        this.tailleMax = tailleMax;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T executer(String cle, Supplier<T> operation) {
+        CompletableFuture<T> resultat = new CompletableFuture<>();
+        Entree entree = new Entree(resultat, System.currentTimeMillis() + ttl.toMillis());
+        CompletableFuture<?> existant;
+
+        synchronized (entrees) {
+            purger();
+            Entree precedente = entrees.get(cle);
+            existant = precedente != null ? precedente.resultat() : null;
+            if (existant == null) {
+                if (entrees.size() >= tailleMax && !evincerTerminee()) {
+                    throw new ConflictException("Trop de demandes en cours de traitement, veuillez réessayer dans un instant");
+                }
+                entrees.put(cle, entree);
+            }
+        }
+
+        if (existant != null) {
+            return (T) attendre(existant);
+        }
+
+        try {
+            T valeur = operation.get();
+            resultat.complete(valeur);
+            return valeur;
+        } catch (RuntimeException | Error e) {
+            synchronized (entrees) {
+                entrees.remove(cle, entree);
+            }
+            resultat.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    public int taille() {
+        synchronized (entrees) {
+            return entrees.size();
+        }
+    }
+
+    private void purger() {
+        long maintenant = System.currentTimeMillis();
+        Iterator<Entree> iterateur = entrees.values().iterator();
+        while (iterateur.hasNext()) {
+            Entree entree = iterateur.next();
+            // Une exécution en cours reste enregistrée, même expirée : une répétition doit encore l'attendre
+            if (!entree.resultat().isDone()) {
+                continue;
+            }
+            // Les plus anciennes sont en tête : on s'arrête à la première terminée encore valide
+            if (entree.expiration() > maintenant) {
+                break;
+            }
+            iterateur.remove();
+        }
+    }
+
+    // Fait de la place pour une nouvelle clé en retirant la plus ancienne exécution terminée
+    private boolean evincerTerminee() {
+        Iterator<Entree> iterateur = entrees.values().iterator();
+        while (iterateur.hasNext()) {
+            if (iterateur.next().resultat().isDone()) {
+                iterateur.remove();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Object attendre(CompletableFuture<?> resultat) {
+        try {
+            return resultat.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private record Entree(CompletableFuture<?> resultat, long expiration) {
+    }
+}
@@ -0,0 +1,94 @@
+package ma.event.eventreservationsystem.util;
+
+import ma.event.eventreservationsystem.dto.KeysetPage;
+import ma.event.eventreservationsystem.exception.BadRequestException;
+import ma.event.eventreservationsystem.repository.projection.KeysetKey;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Curseurs de pagination par clé (date, id). Le curseur désigne la dernière ligne lue ;
+ * la page suivante commence strictement après elle, quel que soit le nombre de pages déjà parcourues.
+ * Encodé en Base64 pour rester opaque côté client.
+ */
+public final class KeysetCursor {
+
+    // Positions "avant la première ligne" selon le sens du tri (bornes acceptées par la base)
+    public static final Position DEBUT_CROISSANT = new Position(LocalDateTime.of(1900, 1, 1, 0, 0), 0L);
+    public static final Position DEBUT_DECROISSANT = new Position(LocalDateTime.of(9999, 12, 31, 23, 59), Long.MAX_VALUE);
+
+    private KeysetCursor() {
+    }
+
+    public static String encoder(LocalDateTime date, Long id) {
+        String cle = date + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(cle.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param curseur Curseur reçu, ou null pour la première page
+     * @param debut Position renvoyée pour la première page
+     */
+    public static Position decoder(String curseur, Position debut) {
+        if (curseur == null || curseur.isBlank()) {
+            return debut;
+        }
+        try {
+            String cle = new String(Base64.getUrlDecoder().decode(curseur), StandardCharsets.UTF_8);
+            int separateur = cle.lastIndexOf('|');
+            return new Position(LocalDateTime.parse(cle.substring(0, separateur)), Long.parseLong(cle.substring(separateur + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException | StringIndexOutOfBoundsException e) {
+            throw new BadRequestException("Curseur de pagination invalide");
+        }
+    }
+
+    /**
+     * Une ligne de plus que demandé : sa présence indique qu'il existe une fenêtre suivante
+     */
+    public static Pageable limite(int taille) {
+        if (taille < 1) {
+            throw new BadRequestException("La taille de la fenêtre doit être au moins 1");
+        }
+        return PageRequest.of(0, taille + 1);
+    }
+
+    /**
+     * Saut de {@code lignes} lignes en une requête : seule la dernière ligne sautée est lue
+     */
+    public static Pageable saut(int lignes) {
+        if (lignes < 1) {
+            throw new BadRequestException("Le saut doit porter sur au moins une ligne");
+        }
+        return PageRequest.of(lignes - 1, 1);
+    }
+
+    /**
+     * @return Le curseur désignant la dernière ligne sautée, ou null si le parcours s'arrête avant
+     */
+    public static String apresSaut(List<KeysetKey> derniere) {
+        return derniere.isEmpty() ? null : encoder(derniere.get(0).date(), derniere.get(0).id());
+    }
+
+    /**
+     * Construit la page à partir de {@code taille + 1} lignes lues : la ligne en trop signale qu'il y a une suite
+     */
+    public static <T> KeysetPage<T> page(List<T> lignes, int taille,
+                                         Function<T, LocalDateTime> date, Function<T, Long> id) {
+        if (lignes.size() <= taille) {
+            return new KeysetPage<>(lignes, null);
+        }
+        List<T> contenu = lignes.subList(0, taille);
+        T derniere = contenu.get(taille - 1);
+        return new KeysetPage<>(List.copyOf(contenu), encoder(date.apply(derniere), id.apply(derniere)));
+    }
+
+    public record Position(LocalDateTime date, Long id) {
+    }
+}
@@ -0,0 +1,72 @@
+package ma.event.eventreservationsystem.util;
+
+import ma.event.eventreservationsystem.dto.KeysetPage;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.BiFunction;
+
+/**
+ * Sert des demandes par position (offset, limite), comme celles d'une grille à défilement,
+ * à partir d'un parcours par clé : le curseur de chaque position déjà atteinte est mémorisé,
+ * et la lecture reprend depuis la plus proche.
+ * Un défilement continu ne coûte qu'une requête par fenêtre, à n'importe quelle profondeur ;
+ * un saut loin de toute position connue (barre de défilement tirée vers la fin) coûte une requête
+ * de plus, qui ne lit que les clés (date, id) des lignes sautées. Seule la fenêtre affichée est chargée.
+ * Une instance par liste affichée (non partagée entre utilisateurs) ; à recréer quand les filtres changent.
+ */
+public class KeysetNavigator<T> {
+
+    private final BiFunction<String, Integer, KeysetPage<T>> chargement;
+    private final BiFunction<String, Integer, String> saut;
+    private final NavigableMap<Integer, String> curseurs = new TreeMap<>();
+    private int fin = Integer.MAX_VALUE;
+
+    /**
+     * @param chargement (curseur, taille) → fenêtre suivante
+     * @param saut (curseur, lignes) → curseur situé autant de lignes plus loin, ou null au-delà de la fin
+     */
+    public KeysetNavigator(BiFunction<String, Integer, KeysetPage<T>> chargement,
+                           BiFunction<String, Integer, String> saut) {
+        this.chargement = chargement;
+        this.saut = saut;
+        this.curseurs.put(0, null);
+    }
+
+    public synchronized List<T> lire(int offset, int limite) {
+        List<T> resultat = new ArrayList<>();
+        if (offset >= fin) {
+            return resultat;
+        }
+
+        Map.Entry<Integer, String> depart = curseurs.floorEntry(offset);
+        int position = depart.getKey();
+        String curseur = depart.getValue();
+
+        if (position < offset) {
+            curseur = saut.apply(curseur, offset - position);
+            if (curseur == null) {
+                // Moins de lignes qu'annoncé (suppressions depuis le comptage)
+                return resultat;
+            }
+            position = offset;
+            curseurs.put(position, curseur);
+        }
+
+        while (resultat.size() < limite) {
+            KeysetPage<T> fenetre = chargement.apply(curseur, limite - resultat.size());
+            resultat.addAll(fenetre.contenu());
+            position += fenetre.contenu().size();
+            curseur = fenetre.curseurSuivant();
+            if (curseur == null) {
+                fin = position;
+                break;
+            }
+            curseurs.put(position, curseur);
+        }
+        return resultat;
+    }
+}
@@ -0,0 +1,152 @@
+package ma.event.eventreservationsystem.util;
+
+import lombok.extern.slf4j.Slf4j;
+import ma.event.eventreservationsystem.repository.ReservationRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Générateur de codes de réservation uniques, sans aucune requête en base.
+ *
+ * Format : {@code EVT-} + 10 caractères base32 Crockford + 1 caractère de contrôle (ex. {@code EVT-0F3KZ81M2QX}).
+ * Les 50 bits encodés sont : secondes depuis le 01/01/2025 (32 bits), identifiant du nœud (5 bits)
+ * et un compteur par seconde (13 bits, soit 8192 codes par seconde et par nœud).
+ * Quand le compteur d'une seconde est épuisé, le générateur emprunte la seconde suivante :
+ * les codes restent uniques et croissants, même si l'horloge recule.
+ *
+ * L'état du compteur n'est pas seulement en mémoire : au démarrage, le générateur reprend après le plus grand
+ * code déjà enregistré (la seconde de ce code est sautée entièrement), de sorte qu'un redémarrage dans la même
+ * seconde, ou après un emprunt de secondes futures, ne réémet jamais un code existant.
+ *
+ * Le caractère de contrôle (modulo 37, alphabet Crockford) détecte les fautes de frappe
+ * et les inversions de deux caractères.
+ */
+@Slf4j
+@Component
+public class ReservationCodeGenerator {
+
+    public static final String PREFIXE = "EVT-";
+
+    private static final String ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ";
+    private static final String ALPHABET_CONTROLE = ALPHABET + "*~$=U";
+
+    private static final long EPOQUE = Instant.parse("2025-01-01T00:00:00Z").getEpochSecond();
+    private static final int BITS_NOEUD = 5;
+    private static final int BITS_SEQUENCE = 13;
+    private static final long MASQUE_SEQUENCE = (1L << BITS_SEQUENCE) - 1;
+    private static final int LONGUEUR = 10;
+
+    private final ReservationRepository reservationRepository;
+    private final long noeud;
+
+    // (seconde << 13) | séquence du dernier code émis
+    private final AtomicLong dernier = new AtomicLong();
+
+    /**
+     * @param noeud identifiant de l'instance (0 à 31), obligatoire et distinct pour chaque instance
+     *              quand plusieurs instances partagent la base ; -1 (non configuré) vaut 0
+     */
+    public ReservationCodeGenerator(ReservationRepository reservationRepository,
+                                    @Value("${reservation.code.node-id:-1}") int noeud) {
+        if (noeud < -1 || noeud >= (1 << BITS_NOEUD)) {
+            throw new IllegalArgumentException("reservation.code.node-id doit être compris entre 0 et 31");
+        }
+        if (noeud == -1) {
+            log.warn("reservation.code.node-id non configuré : nœud 0 utilisé. Plusieurs instances sans "
+                    + "identifiant distinct produiraient des codes de réservation en double.");
+        }
+        this.reservationRepository = reservationRepository;
+        this.noeud = Math.max(0, noeud);
+    }
+
+    /**
+     * Reprend après le plus grand code enregistré en base (une lecture au démarrage)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reprendre() {
+        reservationRepository.findMaxCodeReservation(PREFIXE + "%", PREFIXE.length() + LONGUEUR + 1)
+                .ifPresent(this::reprendreApres);
+    }
+
+    /**
+     * Garantit que les codes suivants sont postérieurs à la seconde du code donné, quel que soit son nœud
+     */
+    public void reprendreApres(String code) {
+        if (!estValide(code)) {
+            return;
+        }
+        long seconde = decoder(code) >>> (BITS_NOEUD + BITS_SEQUENCE);
+        // Séquence saturée : le prochain code passe à la seconde suivante (ou à l'horloge si elle est en avance)
+        long etat = (seconde << BITS_SEQUENCE) | MASQUE_SEQUENCE;
+        dernier.accumulateAndGet(etat, Math::max);
+    }
+
+    public String generer() {
+        long etat;
+        long suivant;
+        do {
+            etat = dernier.get();
+            long seconde = etat >>> BITS_SEQUENCE;
+            long maintenant = Instant.now().getEpochSecond() - EPOQUE;
+            if (maintenant > seconde) {
+                suivant = maintenant << BITS_SEQUENCE;
+            } else if ((etat & MASQUE_SEQUENCE) < MASQUE_SEQUENCE) {
+                suivant = etat + 1;
+            } else {
+                suivant = (seconde + 1) << BITS_SEQUENCE;
+            }
+        } while (!dernier.compareAndSet(etat, suivant));
+
+        long valeur = ((suivant >>> BITS_SEQUENCE) << (BITS_NOEUD + BITS_SEQUENCE))
+                | (noeud << BITS_SEQUENCE)
+                | (suivant & MASQUE_SEQUENCE);
+        return PREFIXE + encoder(valeur) + ALPHABET_CONTROLE.charAt((int) (valeur % 37));
+    }
+
+    /**
+     * Vérifie le format et le caractère de contrôle d'un code saisi
+     * (insensible à la casse ; O, I et L sont lus comme 0, 1 et 1)
+     */
+    public static boolean estValide(String code) {
+        if (code == null || code.length() != PREFIXE.length() + LONGUEUR + 1
+                || !code.regionMatches(true, 0, PREFIXE, 0, PREFIXE.length())) {
+            return false;
+        }
+        String corps = normaliser(code);
+        for (int i = 0; i < LONGUEUR; i++) {
+            if (ALPHABET.indexOf(corps.charAt(i)) < 0) {
+                return false;
+            }
+        }
+        return ALPHABET_CONTROLE.indexOf(corps.charAt(LONGUEUR)) == decoder(code) % 37;
+    }
+
+    private static String normaliser(String code) {
+        return code.substring(PREFIXE.length()).toUpperCase()
+                .replace('O', '0').replace('I', '1').replace('L', '1');
+    }
+
+    // Valeur des 10 caractères encodés (code au format déjà vérifié)
+    private static long decoder(String code) {
+        String corps = normaliser(code);
+        long valeur = 0;
+        for (int i = 0; i < LONGUEUR; i++) {
+            valeur = (valeur << 5) | ALPHABET.indexOf(corps.charAt(i));
+        }
+        return valeur;
+    }
+
+    private static String encoder(long valeur) {
+        char[] caracteres = new char[LONGUEUR];
+        for (int i = LONGUEUR - 1; i >= 0; i--) {
+            caracteres[i] = ALPHABET.charAt((int) (valeur & 31));
+            valeur >>>= 5;
+        }
+        return new String(caracteres);
+    }
+}
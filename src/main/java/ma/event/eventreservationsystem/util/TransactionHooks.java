@@ -0,0 +1,48 @@
+package ma.event.eventreservationsystem.util;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Petits utilitaires pour accrocher des actions au cycle de vie de la transaction courante.
+ * Hors transaction, les actions "après commit" sont exécutées immédiatement.
+ */
+public final class TransactionHooks {
+
+    private TransactionHooks() {
+    }
+
+    /**
+     * Exécute l'action une fois la transaction courante validée
+     * @param action L'action à exécuter
+     */
+    public static void apresCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * Exécute une compensation si la transaction courante est annulée
+     * @param compensation L'action qui défait un effet déjà appliqué en mémoire
+     */
+    public static void siRollback(Runnable compensation) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        compensation.run();
+                    }
+                }
+            });
+        }
+    }
+}
@@ -22,15 +22,15 @@ import com.vaadin.flow.router.PageTitle;
 
 import com.vaadin.flow.router.Route;
 
-import ma.event.eventreservationsystem.entity.enums.EventStatus;
+import ma.event.eventreservationsystem.dto.AdminDashboard;
 
-import ma.event.eventreservationsystem.entity.enums.UserRole;
+import ma.event.eventreservationsystem.entity.enums.EventStatus;
 
-import ma.event.eventreservationsystem.service.EventService;
+import ma.event.eventreservationsystem.entity.enums.ReservationStatus;
 
-import ma.event.eventreservationsystem.service.ReservationService;
+import ma.event.eventreservationsystem.entity.enums.UserRole;
 
-import ma.event.eventreservationsystem.service.UserService;
+import ma.event.eventreservationsystem.service.DashboardService;
 
 import org.springframework.beans.factory.annotation.Autowired;
 
@@ -48,29 +48,15 @@ public class AdminDashboardView extends VerticalLayout {
 
 
 
-    private final UserService userService;
-
-    private final EventService eventService;
-
-    private final ReservationService reservationService;
-
-
-
-    public AdminDashboardView(
-
-            @Autowired UserService userService,
-
-            @Autowired EventService eventService,
+    // Tous les compteurs lus en une fois à l'ouverture, sans charger d'entités
 
-            @Autowired ReservationService reservationService
+    private final AdminDashboard dashboard;
 
-    ) {
 
-        this.userService = userService;
 
-        this.eventService = eventService;
+    public AdminDashboardView(@Autowired DashboardService dashboardService) {
 
-        this.reservationService = reservationService;
+        this.dashboard = dashboardService.getTableauDeBordAdmin();
 
 
 
@@ -144,15 +130,15 @@ public class AdminDashboardView extends VerticalLayout {
 
     private HorizontalLayout createUsersStats() {
 
-        long totalUsers = userService.findAll().size();
+        long totalUsers = dashboard.totalUtilisateurs();
 
-        long nbAdmins = userService.countByRole(UserRole.ADMIN);
+        long nbAdmins = dashboard.utilisateursParRole().get(UserRole.ADMIN);
 
-        long nbOrganizers = userService.countByRole(UserRole.ORGANIZER);
+        long nbOrganizers = dashboard.utilisateursParRole().get(UserRole.ORGANIZER);
 
-        long nbClients = userService.countByRole(UserRole.CLIENT);
+        long nbClients = dashboard.utilisateursParRole().get(UserRole.CLIENT);
 
-        long nbActifs = userService.findActifs().size();
+        long nbActifs = dashboard.utilisateursActifs();
 
 
 
@@ -188,15 +174,15 @@ public class AdminDashboardView extends VerticalLayout {
 
     private HorizontalLayout createEventsStats() {
 
-        long totalEvents = eventService.findAll().size();
+        long totalEvents = dashboard.totalEvenements();
 
-        long brouillons = eventService.findByStatut(EventStatus.BROUILLON).size();
+        long brouillons = dashboard.evenementsParStatut().get(EventStatus.BROUILLON);
 
-        long publies = eventService.findByStatut(EventStatus.PUBLIE).size();
+        long publies = dashboard.evenementsParStatut().get(EventStatus.PUBLIE);
 
-        long annules = eventService.findByStatut(EventStatus.ANNULE).size();
+        long annules = dashboard.evenementsParStatut().get(EventStatus.ANNULE);
 
-        long termines = eventService.findByStatut(EventStatus.TERMINE).size();
+        long termines = dashboard.evenementsParStatut().get(EventStatus.TERMINE);
 
 
 
@@ -232,7 +218,7 @@ public class AdminDashboardView extends VerticalLayout {
 
     private HorizontalLayout createReservationsStats() {
 
-        Map<String, Object> stats = reservationService.getStatistiquesReservation();
+        Map<ReservationStatus, Long> parStatut = dashboard.reservationsParStatut();
 
 
 
@@ -248,31 +234,31 @@ public class AdminDashboardView extends VerticalLayout {
 
                 createStatCard("🎫 Total réservations",
 
-                        stats.get("nombreTotalReservations").toString(),
+                        String.valueOf(dashboard.totalReservations()),
 
                         "Toutes les réservations", "#1976D2"),
 
                 createStatCard("✅ Confirmées",
 
-                        stats.get("reservationsConfirmees").toString(),
+                        String.valueOf(parStatut.get(ReservationStatus.CONFIRMEE)),
 
                         "Validées", "#28A745"),
 
                 createStatCard("⏳ En attente",
 
-                        stats.get("reservationsEnAttente").toString(),
+                        String.valueOf(parStatut.get(ReservationStatus.EN_ATTENTE)),
 
                         "À confirmer", "#FFA500"),
 
                 createStatCard("💰 Revenus totaux",
 
-                        String.format("%.2f DH", stats.get("revenuTotal")),
+                        String.format("%.2f DH", dashboard.revenuTotal()),
 
                         "Plateforme", "#28A745"),
 
                 createStatCard("👥 Places réservées",
 
-                        stats.get("nombreTotalPlaces").toString(),
+                        String.valueOf(dashboard.nombreTotalPlaces()),
 
                         "Total", "#9C27B0")
 
@@ -12,17 +12,22 @@ import com.vaadin.flow.component.notification.NotificationVariant;
 import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
 import com.vaadin.flow.component.textfield.TextField;
+import com.vaadin.flow.data.provider.Query;
 import com.vaadin.flow.router.PageTitle;
 import com.vaadin.flow.router.Route;
+import com.vaadin.flow.spring.data.VaadinSpringDataHelpers;
 import ma.event.eventreservationsystem.entity.Event;
 import ma.event.eventreservationsystem.entity.enums.EventCategory;
 import ma.event.eventreservationsystem.entity.enums.EventStatus;
 import ma.event.eventreservationsystem.repository.ReservationRepository;
 import ma.event.eventreservationsystem.service.EventService;
+import ma.event.eventreservationsystem.util.KeysetNavigator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 
 import java.time.format.DateTimeFormatter;
-import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Route("admin/events")
 @PageTitle("Gestion des Événements | Event Reservation System")
@@ -90,7 +95,7 @@ public class AllEventsManagementView extends VerticalLayout {
         // Colonne Titre
         grid.addColumn(Event::getTitre)
                 .setHeader("Titre")
-                .setSortable(true)
+                .setSortProperty("titre")
                 .setAutoWidth(true);
 
         // Colonne Organisateur
@@ -98,25 +103,25 @@ public class AllEventsManagementView extends VerticalLayout {
                         event.getOrganisateur().getPrenom() + " " + event.getOrganisateur().getNom()
                 )
                 .setHeader("Organisateur")
-                .setSortable(true)
+                .setSortProperty("organisateur.nom", "organisateur.prenom")
                 .setAutoWidth(true);
 
         // Colonne Catégorie
         grid.addColumn(event -> event.getCategorie().getLabel())
                 .setHeader("Catégorie")
-                .setSortable(true);
+                .setSortProperty("categorie");
 
         // Colonne Date
         grid.addColumn(event -> event.getDateDebut().format(
                         DateTimeFormatter.ofPattern("dd/MM/yyyy")
                 ))
                 .setHeader("Date")
-                .setSortable(true);
+                .setSortProperty("dateDebut");
 
         // Colonne Ville
         grid.addColumn(Event::getVille)
                 .setHeader("Ville")
-                .setSortable(true);
+                .setSortProperty("ville");
 
         // Colonne Statut avec badge
         grid.addComponentColumn(event -> {
@@ -200,34 +205,17 @@ public class AllEventsManagementView extends VerticalLayout {
 
     private void updateList() {
         try {
-            List<Event> events = eventService.findAll();
-
-            // Filtrage par catégorie
-            if (categoryFilter.getValue() != null) {
-                events = events.stream()
-                        .filter(e -> e.getCategorie() == categoryFilter.getValue())
-                        .toList();
-            }
-
-            // Filtrage par statut
-            if (statusFilter.getValue() != null) {
-                events = events.stream()
-                        .filter(e -> e.getStatut() == statusFilter.getValue())
-                        .toList();
-            }
-
-            // Recherche
-            if (!searchField.isEmpty()) {
-                String search = searchField.getValue().toLowerCase();
-                events = events.stream()
-                        .filter(e ->
-                                e.getTitre().toLowerCase().contains(search) ||
-                                        e.getVille().toLowerCase().contains(search)
-                        )
-                        .toList();
-            }
-
-            grid.setItems(events);
+            Set<EventCategory> categories = categoryFilter.getValue() != null
+                    ? Set.of(categoryFilter.getValue()) : Set.of();
+            Set<EventStatus> statuts = statusFilter.getValue() != null
+                    ? Set.of(statusFilter.getValue()) : Set.of();
+            String texte = searchField.getValue();
+
+            // Seule la page affichée est chargée ; le total est compté à part
+            KeysetNavigator<Event> navigateur = new KeysetNavigator<>(eventService::findFenetre, eventService::sauterFenetre);
+            grid.setItems(
+                    query -> charger(query, navigateur, statuts, categories, texte),
+                    query -> (int) eventService.countByCriteres(statuts, categories, texte));
 
         } catch (Exception e) {
             showError("Erreur lors du chargement des événements");
@@ -235,6 +223,22 @@ public class AllEventsManagementView extends VerticalLayout {
         }
     }
 
+    private Stream<Event> charger(Query<Event, Void> query, KeysetNavigator<Event> navigateur,
+                                  Set<EventStatus> statuts, Set<EventCategory> categories, String texte) {
+        if (texte.isBlank() && query.getSortOrders().isEmpty()) {
+            if (statuts.isEmpty() && categories.isEmpty()) {
+                // Aucun filtre : tous les événements par date de début, parcourus par clé (dateDebut, id)
+                return navigateur.lire(query.getOffset(), query.getLimit()).stream();
+            }
+            // Filtres catégorie / statut résolus par l'index bitmap
+            return eventService.findByCriteres(statuts, categories, null,
+                    PageRequest.of(query.getPage(), query.getPageSize())).stream();
+        }
+        // Recherche texte ou tri de colonne : filtres et tri faits par la base
+        return eventService.searchByCriteres(statuts, categories, texte,
+                VaadinSpringDataHelpers.toSpringPageRequest(query)).stream();
+    }
+
     private void publierEvent(Event event) {
         try {
             eventService.publierEvent(event.getId(), currentUserId);
@@ -13,18 +13,18 @@ import com.vaadin.flow.component.orderedlayout.VerticalLayout;
 import com.vaadin.flow.component.textfield.TextField;
 import com.vaadin.flow.data.renderer.ComponentRenderer;
 import com.vaadin.flow.data.value.ValueChangeMode;
+import com.vaadin.flow.spring.data.VaadinSpringDataHelpers;
 import com.vaadin.flow.router.PageTitle;
 import com.vaadin.flow.router.Route;
 import com.vaadin.flow.theme.lumo.LumoUtility;
 import ma.event.eventreservationsystem.entity.Reservation;
 import ma.event.eventreservationsystem.entity.enums.ReservationStatus;
 import ma.event.eventreservationsystem.service.ReservationService;
+import ma.event.eventreservationsystem.util.KeysetNavigator;
 import org.springframework.beans.factory.annotation.Autowired;
 
 import java.time.format.DateTimeFormatter;
-import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 @Route("admin/reservations")
 @PageTitle("Gestion des Réservations | Event Reservation System")
@@ -167,7 +167,7 @@ public class AllReservationsView extends VerticalLayout {
                 .setHeader("Code")
                 .setAutoWidth(true)
                 .setFlexGrow(0)
-                .setSortable(true);
+                .setSortProperty("codeReservation");
 
         // Colonne Utilisateur (Nom + Email)
         grid.addColumn(new ComponentRenderer<>(r -> {
@@ -180,30 +180,32 @@ public class AllReservationsView extends VerticalLayout {
             layout.setSpacing(false);
             layout.setPadding(false);
             return layout;
-        })).setHeader("Client").setAutoWidth(true);
+        })).setHeader("Client").setAutoWidth(true).setSortProperty("utilisateur.nom", "utilisateur.prenom");
 
         // Colonne Événement
         grid.addColumn(r -> r.getEvenement().getTitre())
                 .setHeader("Événement")
-                .setSortable(true);
+                .setSortProperty("evenement.titre");
 
         // Colonne Date
         grid.addColumn(res -> res.getDateReservation().format(DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm")))
                 .setHeader("Date Réservation")
-                .setAutoWidth(true);
+                .setAutoWidth(true)
+                .setSortProperty("dateReservation");
 
         // Colonne Places
         grid.addColumn(Reservation::getNombrePlaces)
                 .setHeader("Places")
                 .setTextAlign(ColumnTextAlign.CENTER)
-                .setAutoWidth(true);
+                .setAutoWidth(true)
+                .setSortProperty("nombrePlaces");
 
         // Colonne Montant (Aligné à droite, en gras)
         grid.addColumn(new ComponentRenderer<>(r -> {
             Span amount = new Span(String.format("%.2f DH", r.getMontantTotal()));
             amount.addClassNames(LumoUtility.FontWeight.BOLD, LumoUtility.TextColor.SUCCESS);
             return amount;
-        })).setHeader("Montant").setTextAlign(ColumnTextAlign.END);
+        })).setHeader("Montant").setTextAlign(ColumnTextAlign.END).setSortProperty("montantTotal");
 
         // Colonne Statut (Badge)
         grid.addColumn(new ComponentRenderer<>(this::createStatusBadge))
@@ -239,31 +241,21 @@ public class AllReservationsView extends VerticalLayout {
     // --- LOGIQUE METIER ---
 
     private void updateList() {
-        // 1. Récupération
-        List<Reservation> reservations = reservationService.getAllReservations();
-
-        // 2. Filtrage (Streams)
-        if (statusFilter.getValue() != null) {
-            reservations = reservations.stream()
-                    .filter(r -> r.getStatut() == statusFilter.getValue())
-                    .collect(Collectors.toList());
-        }
-
-        // 3. Recherche
-        if (!searchField.isEmpty()) {
-            String search = searchField.getValue().toLowerCase();
-            reservations = reservations.stream()
-                    .filter(r ->
-                            (r.getCodeReservation() != null && r.getCodeReservation().toLowerCase().contains(search)) ||
-                                    (r.getUtilisateur().getNom() != null && r.getUtilisateur().getNom().toLowerCase().contains(search)) ||
-                                    (r.getUtilisateur().getPrenom() != null && r.getUtilisateur().getPrenom().toLowerCase().contains(search)) ||
-                                    (r.getEvenement().getTitre() != null && r.getEvenement().getTitre().toLowerCase().contains(search))
-                    )
-                    .collect(Collectors.toList());
-        }
-
-        // 4. Update
-        grid.setItems(reservations);
+        ReservationStatus statut = statusFilter.getValue();
+        String texte = searchField.getValue();
+
+        // Filtres, tri et découpage faits par la base ; le total est compté à part.
+        // Sans recherche ni tri de colonne : défilement par clé (dateReservation, id), des plus récentes aux plus anciennes.
+        // Le navigateur est recréé à chaque changement de filtre : ses curseurs ne valent que pour ce statut.
+        KeysetNavigator<Reservation> navigateur = new KeysetNavigator<>(
+                (curseur, taille) -> reservationService.findFenetre(statut, curseur, taille),
+                (curseur, lignes) -> reservationService.sauterFenetre(statut, curseur, lignes));
+        grid.setItems(
+                query -> texte.isBlank() && query.getSortOrders().isEmpty()
+                        ? navigateur.lire(query.getOffset(), query.getLimit()).stream()
+                        : reservationService.searchReservations(statut, null, texte,
+                                VaadinSpringDataHelpers.toSpringPageRequest(query)).stream(),
+                query -> (int) reservationService.countReservations(statut, null, texte));
     }
 
     // Helpers Couleurs
@@ -14,13 +14,13 @@ import com.vaadin.flow.component.orderedlayout.VerticalLayout;
 import com.vaadin.flow.component.textfield.TextField;
 import com.vaadin.flow.router.PageTitle;
 import com.vaadin.flow.router.Route;
+import com.vaadin.flow.spring.data.VaadinSpringDataHelpers;
 import ma.event.eventreservationsystem.entity.User;
 import ma.event.eventreservationsystem.entity.enums.UserRole;
 import ma.event.eventreservationsystem.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 
 import java.time.format.DateTimeFormatter;
-import java.util.List;
 
 @Route("admin/users")
 @PageTitle("Gestion Utilisateurs | Event Reservation System")
@@ -80,13 +80,13 @@ public class UserManagementView extends VerticalLayout {
         // Colonne Nom
         grid.addColumn(user -> user.getNom() + " " + user.getPrenom())
                 .setHeader("Nom complet")
-                .setSortable(true)
+                .setSortProperty("nom", "prenom")
                 .setAutoWidth(true);
 
         // Colonne Email
         grid.addColumn(User::getEmail)
                 .setHeader("Email")
-                .setSortable(true)
+                .setSortProperty("email")
                 .setAutoWidth(true);
 
         // Colonne Rôle avec badge
@@ -111,7 +111,7 @@ public class UserManagementView extends VerticalLayout {
                         DateTimeFormatter.ofPattern("dd/MM/yyyy")
                 ))
                 .setHeader("Inscription")
-                .setSortable(true);
+                .setSortProperty("dateInscription");
 
         // Colonne Statut
         grid.addComponentColumn(user -> {
@@ -160,35 +160,15 @@ public class UserManagementView extends VerticalLayout {
 
     private void updateList() {
         try {
-            List<User> users = userService.findAll();
-
-            // Filtrage par rôle
-            if (roleFilter.getValue() != null) {
-                users = users.stream()
-                        .filter(u -> u.getRole() == roleFilter.getValue())
-                        .toList();
-            }
-
-            // Filtrage par statut
-            if (statusFilter.getValue() != null) {
-                users = users.stream()
-                        .filter(u -> u.getActif() == statusFilter.getValue())
-                        .toList();
-            }
-
-            // Recherche
-            if (!searchField.isEmpty()) {
-                String search = searchField.getValue().toLowerCase();
-                users = users.stream()
-                        .filter(u ->
-                                u.getNom().toLowerCase().contains(search) ||
-                                        u.getPrenom().toLowerCase().contains(search) ||
-                                        u.getEmail().toLowerCase().contains(search)
-                        )
-                        .toList();
-            }
-
-            grid.setItems(users);
+            UserRole role = roleFilter.getValue();
+            Boolean actif = statusFilter.getValue();
+            String texte = searchField.getValue();
+
+            // Filtres, tri et découpage faits par la base ; le total est compté à part
+            grid.setItems(
+                    query -> userService.searchUsers(role, actif, texte,
+                            VaadinSpringDataHelpers.toSpringPageRequest(query)).stream(),
+                    query -> (int) userService.countUsers(role, actif, texte));
 
         } catch (Exception e) {
             showError("Erreur lors du chargement des utilisateurs");
@@ -17,9 +17,11 @@ import com.vaadin.flow.router.Route;
 import com.vaadin.flow.server.auth.AnonymousAllowed;
 import ma.event.eventreservationsystem.entity.Reservation;
 import ma.event.eventreservationsystem.entity.User;
+import ma.event.eventreservationsystem.entity.WaitlistEntry;
 import ma.event.eventreservationsystem.entity.enums.ReservationStatus;
 import ma.event.eventreservationsystem.security.SecurityService;
 import ma.event.eventreservationsystem.service.ReservationService;
+import ma.event.eventreservationsystem.service.WaitlistService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -34,19 +36,23 @@ import java.util.Map;
 public class MyReservationsView extends VerticalLayout {
 
     private final ReservationService reservationService;
+    private final WaitlistService waitlistService;
     private final SecurityService securityService;
 
     private final Grid<Reservation> grid = new Grid<>(Reservation.class, false);
     private final ComboBox<ReservationStatus> statusFilter = new ComboBox<>("Filtrer par statut");
     private final TextField searchField = new TextField("Rechercher par code");
+    private final VerticalLayout promotionsLayout = new VerticalLayout();
 
     private User currentUser;
 
     public MyReservationsView(
             @Autowired ReservationService reservationService,
+            @Autowired WaitlistService waitlistService,
             @Autowired SecurityService securityService) {
 
         this.reservationService = reservationService;
+        this.waitlistService = waitlistService;
         this.securityService = securityService;
 
         setSizeFull();
@@ -82,11 +88,15 @@ public class MyReservationsView extends VerticalLayout {
         HorizontalLayout filtersLayout = new HorizontalLayout(statusFilter, searchField);
         filtersLayout.setDefaultVerticalComponentAlignment(Alignment.END);
 
+        // Places obtenues par la liste d'attente, à confirmer
+        promotionsLayout.setPadding(false);
+        promotionsLayout.setSpacing(false);
+
         // Grille
         configureGrid();
 
         // Assemblage
-        add(title, filtersLayout, grid);
+        add(title, promotionsLayout, filtersLayout, grid);
 
         // Charger les données
         updateList();
@@ -205,14 +215,22 @@ public class MyReservationsView extends VerticalLayout {
             detailsButton.addThemeVariants(ButtonVariant.LUMO_SMALL);
             detailsButton.addClickListener(e -> showDetails(reservation));
 
+            actions.add(detailsButton);
+
+            // Bouton confirmer (réservations en attente : les places ne sont bloquées que pour un temps limité)
+            if (reservation.getStatut() == ReservationStatus.EN_ATTENTE) {
+                Button confirmButton = new Button("Confirmer");
+                confirmButton.addThemeVariants(ButtonVariant.LUMO_SMALL, ButtonVariant.LUMO_SUCCESS);
+                confirmButton.addClickListener(e -> confirmReservation(reservation));
+                actions.add(confirmButton);
+            }
+
             // Bouton annuler (seulement si possible)
             if (reservation.getStatut() != ReservationStatus.ANNULEE) {
                 Button cancelButton = new Button("Annuler");
                 cancelButton.addThemeVariants(ButtonVariant.LUMO_SMALL, ButtonVariant.LUMO_ERROR);
                 cancelButton.addClickListener(e -> confirmCancellation(reservation));
-                actions.add(detailsButton, cancelButton);
-            } else {
-                actions.add(detailsButton);
+                actions.add(cancelButton);
             }
 
             return actions;
@@ -225,6 +243,8 @@ public class MyReservationsView extends VerticalLayout {
             return;
         }
 
+        updatePromotions();
+
         try {
             System.out.println("🔄 Chargement des réservations pour l'utilisateur ID: " + currentUser.getId());
 
@@ -282,6 +302,27 @@ public class MyReservationsView extends VerticalLayout {
         }
     }
 
+    private void updatePromotions() {
+        promotionsLayout.removeAll();
+        try {
+            for (WaitlistEntry promotion : waitlistService.findPromotionsAConfirmer(currentUser.getId())) {
+                Span message = new Span("🎉 Une place s'est libérée pour « " + promotion.getEvenement().getTitre() +
+                        " » : confirmez votre réservation avant le " +
+                        promotion.getEcheanceConfirmation().format(DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm")));
+                message.getStyle()
+                        .set("background", "#E3F2FD")
+                        .set("color", "#1976D2")
+                        .set("padding", "8px 12px")
+                        .set("border-radius", "8px")
+                        .set("margin-bottom", "6px");
+                promotionsLayout.add(message);
+            }
+        } catch (Exception e) {
+            System.err.println("⚠️ Impossible de charger les promotions de la liste d'attente: " + e.getMessage());
+        }
+        promotionsLayout.setVisible(promotionsLayout.getComponentCount() > 0);
+    }
+
     private void showDetails(Reservation reservation) {
         try {
             Map<String, Object> recap = reservationService.getRecapitulatifReservation(reservation.getId());
@@ -318,6 +359,17 @@ public class MyReservationsView extends VerticalLayout {
         dialog.open();
     }
 
+    private void confirmReservation(Reservation reservation) {
+        try {
+            reservationService.confirmerReservation(reservation.getId(), currentUser.getId());
+            showSuccess("Réservation confirmée avec succès");
+            updateList();
+        } catch (Exception e) {
+            showError(e.getMessage());
+            updateList();
+        }
+    }
+
     private void cancelReservation(Reservation reservation) {
         try {
             reservationService.annulerReservation(reservation.getId(), currentUser.getId());
@@ -1,5 +1,6 @@
 package ma.event.eventreservationsystem.views.client;
 
+import com.vaadin.flow.component.UI;
 import com.vaadin.flow.component.button.Button;
 import com.vaadin.flow.component.button.ButtonVariant;
 import com.vaadin.flow.component.html.*;
@@ -7,20 +8,26 @@ import com.vaadin.flow.component.notification.Notification;
 import com.vaadin.flow.component.notification.NotificationVariant;
 import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+import com.vaadin.flow.component.progressbar.ProgressBar;
 import com.vaadin.flow.component.textfield.IntegerField;
 import com.vaadin.flow.component.textfield.TextArea;
 import com.vaadin.flow.router.*;
+import com.vaadin.flow.shared.Registration;
 import jakarta.annotation.security.RolesAllowed;
 import ma.event.eventreservationsystem.entity.Event;
 import ma.event.eventreservationsystem.entity.Reservation;
 import ma.event.eventreservationsystem.entity.User;
+import ma.event.eventreservationsystem.entity.WaitlistEntry;
 import ma.event.eventreservationsystem.security.SecurityService;
 import ma.event.eventreservationsystem.service.EventService;
 import ma.event.eventreservationsystem.service.ReservationService;
+import ma.event.eventreservationsystem.service.WaitlistService;
+import ma.event.eventreservationsystem.service.inventory.WaitingRoom;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.format.DateTimeFormatter;
+import java.util.UUID;
 
 @Route("event/:id/reserve")
 @PageTitle("Réserver | Event Reservation System")
@@ -30,26 +37,41 @@ public class ReservationFormView extends VerticalLayout implements HasUrlParamet
 
     private final EventService eventService;
     private final ReservationService reservationService;
+    private final WaitlistService waitlistService;
+    private final WaitingRoom waitingRoom;
     private final SecurityService securityService;
 
     private User currentUser;
     private Long eventId;
     private Event event;
 
+    // Ticket de la salle d'attente virtuelle pour cet événement
+    private long ticket;
+    private final Span positionSpan = new Span();
+    private Registration pollRegistration;
+
     private final IntegerField nombrePlacesField = new IntegerField("Nombre de places");
     private final TextArea commentaireField = new TextArea("Commentaire (optionnel)");
     private final Span montantTotalSpan = new Span();
     private final Button reserverButton = new Button("Confirmer la réservation");
+    private final Button listeAttenteButton = new Button("Rejoindre la liste d'attente");
 
     private final VerticalLayout contentLayout = new VerticalLayout();
 
+    // Clé d'idempotence du formulaire affiché : un double clic ou un nouvel essai ne crée qu'une réservation
+    private String cleIdempotence;
+
     public ReservationFormView(
             @Autowired EventService eventService,
             @Autowired ReservationService reservationService,
+            @Autowired WaitlistService waitlistService,
+            @Autowired WaitingRoom waitingRoom,
             @Autowired SecurityService securityService
     ) {
         this.eventService = eventService;
         this.reservationService = reservationService;
+        this.waitlistService = waitlistService;
+        this.waitingRoom = waitingRoom;
         this.securityService = securityService;
 
         setSizeFull();
@@ -66,6 +88,9 @@ public class ReservationFormView extends VerticalLayout implements HasUrlParamet
             return;
         }
 
+        configureReserverButton();
+        configureListeAttenteButton();
+        addDetachListener(e -> arreterAttente());
         add(contentLayout);
     }
 
@@ -86,7 +111,13 @@ public class ReservationFormView extends VerticalLayout implements HasUrlParamet
                 return;
             }
 
-            displayReservationForm();
+            // Salle d'attente : le formulaire n'est affiché qu'une fois le ticket admis
+            ticket = waitingRoom.entrer(eventId);
+            if (waitingRoom.estAdmis(eventId, ticket)) {
+                displayReservationForm();
+            } else {
+                displayWaitingRoom();
+            }
 
         } catch (Exception e) {
             showError("Événement non trouvé");
@@ -98,7 +129,59 @@ public class ReservationFormView extends VerticalLayout implements HasUrlParamet
         return event.getStatut() == ma.event.eventreservationsystem.entity.enums.EventStatus.PUBLIE;
     }
 
+    private void displayWaitingRoom() {
+        contentLayout.removeAll();
+        contentLayout.setMaxWidth("700px");
+        contentLayout.setAlignItems(Alignment.CENTER);
+
+        H1 title = new H1("⏳ File d'attente");
+        title.getStyle().set("color", "#1976D2");
+
+        Paragraph info = new Paragraph(
+                "De nombreuses personnes souhaitent réserver « " + event.getTitre() + " ». " +
+                        "Vous serez redirigé automatiquement vers le formulaire dès que votre tour arrivera. " +
+                        "Ne fermez pas cette page."
+        );
+        info.getStyle().set("text-align", "center");
+
+        positionSpan.getStyle()
+                .set("font-size", "1.5em")
+                .set("font-weight", "bold");
+        updatePosition();
+
+        ProgressBar progressBar = new ProgressBar();
+        progressBar.setIndeterminate(true);
+
+        contentLayout.add(title, info, positionSpan, progressBar);
+
+        // Rafraîchissement de la position chaque seconde
+        UI ui = UI.getCurrent();
+        ui.setPollInterval(1000);
+        pollRegistration = ui.addPollListener(e -> {
+            if (updatePosition() == 0) {
+                arreterAttente();
+                contentLayout.setAlignItems(Alignment.STRETCH);
+                displayReservationForm();
+            }
+        });
+    }
+
+    private long updatePosition() {
+        long position = waitingRoom.getPosition(eventId, ticket);
+        positionSpan.setText("Votre position dans la file : " + position);
+        return position;
+    }
+
+    private void arreterAttente() {
+        if (pollRegistration != null) {
+            pollRegistration.remove();
+            pollRegistration = null;
+            getUI().ifPresent(ui -> ui.setPollInterval(-1));
+        }
+    }
+
     private void displayReservationForm() {
+        cleIdempotence = UUID.randomUUID().toString();
         contentLayout.removeAll();
         contentLayout.setMaxWidth("700px");
         contentLayout.setPadding(true);
@@ -125,7 +208,7 @@ public class ReservationFormView extends VerticalLayout implements HasUrlParamet
         // Récapitulatif
         VerticalLayout recapSection = createRecapSection();
 
-        contentLayout.add(backButton, title, eventInfo, reservationForm, recapSection, reserverButton);
+        contentLayout.add(backButton, title, eventInfo, reservationForm, recapSection, reserverButton, listeAttenteButton);
     }
 
     private VerticalLayout createEventInfoSection() {
@@ -221,10 +304,11 @@ public class ReservationFormView extends VerticalLayout implements HasUrlParamet
                 );
                 nombrePlacesField.setInvalid(true);
                 reserverButton.setEnabled(false);
+                listeAttenteButton.setVisible(true);
             } else {
                 nombrePlacesField.setInvalid(false);
                 reserverButton.setEnabled(true);
-                configureReserverButton();
+                listeAttenteButton.setVisible(false);
             }
         }
     }
@@ -232,17 +316,50 @@ public class ReservationFormView extends VerticalLayout implements HasUrlParamet
     private void configureReserverButton() {
         reserverButton.setWidthFull();
         reserverButton.addThemeVariants(ButtonVariant.LUMO_PRIMARY, ButtonVariant.LUMO_LARGE);
+        reserverButton.setDisableOnClick(true);
         reserverButton.addClickListener(e -> confirmerReservation());
     }
 
+    private void configureListeAttenteButton() {
+        listeAttenteButton.setWidthFull();
+        listeAttenteButton.addThemeVariants(ButtonVariant.LUMO_CONTRAST, ButtonVariant.LUMO_LARGE);
+        listeAttenteButton.setVisible(false);
+        listeAttenteButton.addClickListener(e -> rejoindreListeAttente());
+    }
+
+    private void rejoindreListeAttente() {
+        try {
+            WaitlistEntry entree = waitlistService.inscrire(
+                    currentUser.getId(),
+                    eventId,
+                    nombrePlacesField.getValue()
+            );
+
+            long rang = waitlistService.getRang(entree.getId());
+            if (rang == 0) {
+                // Des places se sont libérées entre-temps : la réservation a déjà été créée
+                showSuccess("Des places se sont libérées : votre réservation a été créée, confirmez-la depuis « Mes réservations »");
+            } else {
+                showSuccess("Vous êtes n° " + rang + " sur la liste d'attente. " +
+                        "Une réservation sera créée automatiquement dès que des places se libèrent.");
+            }
+            listeAttenteButton.setEnabled(false);
+
+        } catch (Exception e) {
+            showError(e.getMessage());
+        }
+    }
+
     private void confirmerReservation() {
         if (nombrePlacesField.getValue() == null || nombrePlacesField.getValue() < 1) {
             showError("Veuillez sélectionner au moins 1 place");
+            reserverButton.setEnabled(true);
             return;
         }
 
         if (nombrePlacesField.getValue() > 10) {
             showError("Maximum 10 places par réservation");
+            reserverButton.setEnabled(true);
             return;
         }
 
@@ -252,16 +369,20 @@ public class ReservationFormView extends VerticalLayout implements HasUrlParamet
                     .commentaire(commentaireField.getValue())
                     .build();
 
-            Reservation savedReservation = reservationService.createReservation(
-                    reservation,
-                    currentUser.getId(),
-                    eventId
+            Reservation savedReservation = waitingRoom.executer(eventId, ticket, () ->
+                    reservationService.createReservation(
+                            reservation,
+                            currentUser.getId(),
+                            eventId,
+                            cleIdempotence
+                    )
             );
 
             showReservationSuccess(savedReservation);
 
         } catch (Exception e) {
             showError(e.getMessage());
+            reserverButton.setEnabled(true);
         }
     }
 
@@ -288,7 +409,9 @@ public class ReservationFormView extends VerticalLayout implements HasUrlParamet
 
         Paragraph info = new Paragraph(
                 "Votre réservation a été enregistrée avec succès. " +
-                        "Conservez précieusement ce code pour accéder à l'événement."
+                        "Conservez précieusement ce code pour accéder à l'événement. " +
+                        "Pensez à la confirmer depuis « Mes réservations » : " +
+                        "les places ne restent bloquées que pendant une durée limitée."
         );
         info.getStyle().set("text-align", "center").set("max-width", "500px");
 
@@ -327,6 +450,11 @@ public class ReservationFormView extends VerticalLayout implements HasUrlParamet
         contentLayout.add(successLayout);
     }
 
+    private void showSuccess(String message) {
+        Notification notification = Notification.show(message, 5000, Notification.Position.TOP_CENTER);
+        notification.addThemeVariants(NotificationVariant.LUMO_SUCCESS);
+    }
+
     private void showError(String message) {
         Notification notification = Notification.show(message, 4000, Notification.Position.TOP_CENTER);
         notification.addThemeVariants(NotificationVariant.LUMO_ERROR);
@@ -1,26 +1,33 @@
 package ma.event.eventreservationsystem.views.organizer;
 
 import com.vaadin.flow.component.button.Button;
+import com.vaadin.flow.component.button.ButtonVariant;
 import com.vaadin.flow.component.combobox.ComboBox;
 import com.vaadin.flow.component.grid.Grid;
 import com.vaadin.flow.component.html.H1;
 import com.vaadin.flow.component.html.H2;
 import com.vaadin.flow.component.html.Paragraph;
 import com.vaadin.flow.component.html.Span;
+import com.vaadin.flow.component.notification.Notification;
+import com.vaadin.flow.component.notification.NotificationVariant;
 import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
 import com.vaadin.flow.component.textfield.TextField;
 import com.vaadin.flow.router.*;
+import com.vaadin.flow.spring.data.VaadinSpringDataHelpers;
+import ma.event.eventreservationsystem.dto.ResultatOperation;
 import ma.event.eventreservationsystem.entity.Event;
 import ma.event.eventreservationsystem.entity.Reservation;
 import ma.event.eventreservationsystem.entity.enums.ReservationStatus;
 import ma.event.eventreservationsystem.repository.ReservationRepository;
+import ma.event.eventreservationsystem.security.SecurityService;
 import ma.event.eventreservationsystem.service.EventService;
 import ma.event.eventreservationsystem.service.ReservationService;
 import org.springframework.beans.factory.annotation.Autowired;
 
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.function.Function;
 
 @Route("organizer/event/:id/reservations")
 @PageTitle("Réservations de l'événement | Event Reservation System")
@@ -29,21 +36,29 @@ public class EventReservationsView extends VerticalLayout implements HasUrlParam
     private final EventService eventService;
     private final ReservationService reservationService;
     private final ReservationRepository reservationRepository;
+    private final SecurityService securityService;
 
     private Event event;
+    private VerticalLayout statsSection;
     private final Grid<Reservation> grid = new Grid<>(Reservation.class, false);
 
     private final ComboBox<ReservationStatus> statusFilter = new ComboBox<>("Filtrer par statut");
     private final TextField searchField = new TextField("Rechercher");
 
+    // Actions groupées sur la sélection
+    private final Button confirmSelectionButton = new Button("✅ Confirmer la sélection");
+    private final Button cancelSelectionButton = new Button("❌ Annuler la sélection");
+
     public EventReservationsView(
             @Autowired EventService eventService,
             @Autowired ReservationService reservationService,
-            @Autowired ReservationRepository reservationRepository
+            @Autowired ReservationRepository reservationRepository,
+            @Autowired SecurityService securityService
     ) {
         this.eventService = eventService;
         this.reservationService = reservationService;
         this.reservationRepository = reservationRepository;
+        this.securityService = securityService;
 
         setSizeFull();
         setPadding(true);
@@ -72,11 +87,13 @@ public class EventReservationsView extends VerticalLayout implements HasUrlParam
         title.getStyle().set("color", "#1976D2");
 
         // Statistiques
-        VerticalLayout statsSection = createStatsSection();
+        statsSection = createStatsSection();
 
         // Filtres
         configureFilters();
-        HorizontalLayout filtersLayout = new HorizontalLayout(statusFilter, searchField);
+        configureBulkActions();
+        HorizontalLayout filtersLayout = new HorizontalLayout(statusFilter, searchField,
+                confirmSelectionButton, cancelSelectionButton);
         filtersLayout.setDefaultVerticalComponentAlignment(Alignment.END);
 
         // Grille
@@ -99,19 +116,11 @@ public class EventReservationsView extends VerticalLayout implements HasUrlParam
         H2 statsTitle = new H2("Statistiques");
         statsTitle.getStyle().set("margin", "0 0 15px 0");
 
-        // Récupérer les statistiques
-        List<Reservation> allReservations = reservationService.findByEvenement(event.getId());
-
-        long totalReservations = allReservations.size();
-        long confirmees = allReservations.stream()
-                .filter(r -> r.getStatut() == ReservationStatus.CONFIRMEE)
-                .count();
-        long enAttente = allReservations.stream()
-                .filter(r -> r.getStatut() == ReservationStatus.EN_ATTENTE)
-                .count();
-        long annulees = allReservations.stream()
-                .filter(r -> r.getStatut() == ReservationStatus.ANNULEE)
-                .count();
+        // Récupérer les statistiques (comptées par la base, sans charger les réservations)
+        long confirmees = reservationService.countReservations(ReservationStatus.CONFIRMEE, event.getId(), null);
+        long enAttente = reservationService.countReservations(ReservationStatus.EN_ATTENTE, event.getId(), null);
+        long annulees = reservationService.countReservations(ReservationStatus.ANNULEE, event.getId(), null);
+        long totalReservations = confirmees + enAttente + annulees;
 
         Integer placesReservees = reservationRepository.countTotalPlacesReserveesForEvent(event.getId());
         Double revenu = reservationRepository.calculateTotalRevenueByEvent(event.getId());
@@ -183,13 +192,61 @@ public class EventReservationsView extends VerticalLayout implements HasUrlParam
         searchField.addValueChangeListener(e -> loadReservations());
     }
 
+    private void configureBulkActions() {
+        confirmSelectionButton.addThemeVariants(ButtonVariant.LUMO_SUCCESS);
+        confirmSelectionButton.setEnabled(false);
+        confirmSelectionButton.addClickListener(e -> executerSurSelection(ids ->
+                reservationService.confirmerReservations(event.getId(), ids,
+                        securityService.getAuthenticatedUser().getId()), "confirmée(s)"));
+
+        cancelSelectionButton.addThemeVariants(ButtonVariant.LUMO_ERROR);
+        cancelSelectionButton.setEnabled(false);
+        cancelSelectionButton.addClickListener(e -> executerSurSelection(ids ->
+                reservationService.annulerReservations(event.getId(), ids,
+                        securityService.getAuthenticatedUser().getId()), "annulée(s)"));
+    }
+
+    private void executerSurSelection(Function<List<Long>, List<ResultatOperation>> operation, String libelle) {
+        List<Long> ids = grid.getSelectedItems().stream().map(Reservation::getId).toList();
+        try {
+            List<ResultatOperation> resultats = operation.apply(ids);
+            long reussies = resultats.stream().filter(ResultatOperation::reussie).count();
+            long refusees = resultats.size() - reussies;
+
+            String message = reussies + " réservation(s) " + libelle;
+            if (refusees > 0) {
+                // Premier motif de refus, à titre d'exemple
+                message += ", " + refusees + " ignorée(s) : " + resultats.stream()
+                        .filter(r -> !r.reussie()).findFirst().map(ResultatOperation::motif).orElse("");
+            }
+            Notification notification = Notification.show(message, 5000, Notification.Position.TOP_CENTER);
+            notification.addThemeVariants(refusees == 0 ? NotificationVariant.LUMO_SUCCESS : NotificationVariant.LUMO_CONTRAST);
+
+            // Rafraîchir les statistiques et la grille
+            VerticalLayout nouvellesStats = createStatsSection();
+            replace(statsSection, nouvellesStats);
+            statsSection = nouvellesStats;
+            grid.deselectAll();
+            loadReservations();
+        } catch (Exception ex) {
+            Notification notification = Notification.show(ex.getMessage(), 4000, Notification.Position.TOP_CENTER);
+            notification.addThemeVariants(NotificationVariant.LUMO_ERROR);
+        }
+    }
+
     private void configureGrid() {
         grid.setSizeFull();
+        grid.setSelectionMode(Grid.SelectionMode.MULTI);
+        grid.addSelectionListener(e -> {
+            boolean selection = !e.getAllSelectedItems().isEmpty();
+            confirmSelectionButton.setEnabled(selection);
+            cancelSelectionButton.setEnabled(selection);
+        });
 
         // Colonne Code
         grid.addColumn(Reservation::getCodeReservation)
                 .setHeader("Code")
-                .setSortable(true)
+                .setSortProperty("codeReservation")
                 .setAutoWidth(true);
 
         // Colonne Client
@@ -197,30 +254,30 @@ public class EventReservationsView extends VerticalLayout implements HasUrlParam
                         res.getUtilisateur().getPrenom() + " " + res.getUtilisateur().getNom()
                 )
                 .setHeader("Client")
-                .setSortable(true)
+                .setSortProperty("utilisateur.prenom", "utilisateur.nom")
                 .setAutoWidth(true);
 
         // Colonne Email
         grid.addColumn(res -> res.getUtilisateur().getEmail())
                 .setHeader("Email")
-                .setSortable(true);
+                .setSortProperty("utilisateur.email");
 
         // Colonne Date réservation
         grid.addColumn(res -> res.getDateReservation().format(
                         DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm")
                 ))
                 .setHeader("Date réservation")
-                .setSortable(true);
+                .setSortProperty("dateReservation");
 
         // Colonne Places
         grid.addColumn(Reservation::getNombrePlaces)
                 .setHeader("Places")
-                .setSortable(true);
+                .setSortProperty("nombrePlaces");
 
         // Colonne Montant
         grid.addColumn(res -> res.getMontantTotal() + " DH")
                 .setHeader("Montant")
-                .setSortable(true);
+                .setSortProperty("montantTotal");
 
         // Colonne Statut avec badge
         grid.addComponentColumn(reservation -> {
@@ -242,31 +299,20 @@ public class EventReservationsView extends VerticalLayout implements HasUrlParam
 
     private void loadReservations() {
         try {
-            List<Reservation> reservations = reservationService.findByEvenement(event.getId());
-
-            // Filtrage par statut
-            if (statusFilter.getValue() != null) {
-                reservations = reservations.stream()
-                        .filter(r -> r.getStatut() == statusFilter.getValue())
-                        .toList();
-            }
-
-            // Recherche par nom/code
-            if (!searchField.isEmpty()) {
-                String search = searchField.getValue().toLowerCase();
-                reservations = reservations.stream()
-                        .filter(r ->
-                                r.getCodeReservation().toLowerCase().contains(search) ||
-                                        r.getUtilisateur().getNom().toLowerCase().contains(search) ||
-                                        r.getUtilisateur().getPrenom().toLowerCase().contains(search)
-                        )
-                        .toList();
-            }
-
-            grid.setItems(reservations);
+            Long evenementId = event.getId();
+            ReservationStatus statut = statusFilter.getValue();
+            String texte = searchField.getValue();
+
+            // Filtres, tri et découpage faits par la base ; le total est compté à part.
+            // Les réservations sont identifiées par leur id pour conserver la sélection d'une page à l'autre.
+            grid.setItems(
+                    query -> reservationService.searchReservations(statut, evenementId, texte,
+                            VaadinSpringDataHelpers.toSpringPageRequest(query)).stream(),
+                    query -> (int) reservationService.countReservations(statut, evenementId, texte))
+                    .setIdentifierProvider(Reservation::getId);
 
         } catch (Exception e) {
             grid.setItems();
         }
     }
-}
\ No newline at end of file
+}
@@ -10,11 +10,11 @@ import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
 import com.vaadin.flow.router.PageTitle;
 import com.vaadin.flow.router.Route;
+import ma.event.eventreservationsystem.dto.OrganizerStatistics;
+import ma.event.eventreservationsystem.entity.enums.EventStatus;
 import ma.event.eventreservationsystem.service.EventService;
 import org.springframework.beans.factory.annotation.Autowired;
 
-import java.util.Map;
-
 @Route("organizer/dashboard")
 @PageTitle("Dashboard Organisateur | Event Reservation System")
 public class OrganizerDashboardView extends VerticalLayout {
@@ -47,12 +47,12 @@ public class OrganizerDashboardView extends VerticalLayout {
     }
 
     private HorizontalLayout createStatsCards() {
-        Map<String, Object> stats = eventService.getStatistiquesOrganisateur(currentUserId);
+        OrganizerStatistics stats = eventService.getStatistiquesOrganisateur(currentUserId);
 
         // Carte événements
         VerticalLayout eventsCard = createStatCard(
                 "📅 Événements",
-                stats.get("nombreEvenements").toString(),
+                String.valueOf(stats.nombreEvenements()),
                 "Total créés",
                 "#1976D2"
         );
@@ -60,7 +60,7 @@ public class OrganizerDashboardView extends VerticalLayout {
         // Carte brouillons
         VerticalLayout brouillonsCard = createStatCard(
                 "✏️ Brouillons",
-                stats.get("nombreBrouillons").toString(),
+                String.valueOf(stats.nombre(EventStatus.BROUILLON)),
                 "En attente de publication",
                 "#FFA500"
         );
@@ -68,7 +68,7 @@ public class OrganizerDashboardView extends VerticalLayout {
         // Carte publiés
         VerticalLayout publiesCard = createStatCard(
                 "✅ Publiés",
-                stats.get("nombrePublies").toString(),
+                String.valueOf(stats.nombre(EventStatus.PUBLIE)),
                 "Événements actifs",
                 "#28A745"
         );
@@ -76,7 +76,7 @@ public class OrganizerDashboardView extends VerticalLayout {
         // Carte réservations
         VerticalLayout reservationsCard = createStatCard(
                 "🎫 Réservations",
-                stats.get("nombreTotalReservations").toString(),
+                String.valueOf(stats.nombreTotalReservations()),
                 "Total reçues",
                 "#9C27B0"
         );
@@ -84,7 +84,7 @@ public class OrganizerDashboardView extends VerticalLayout {
         // Carte revenus
         VerticalLayout revenusCard = createStatCard(
                 "💰 Revenus",
-                String.format("%.2f DH", stats.get("revenuTotal")),
+                String.format("%.2f DH", stats.revenuTotal()),
                 "Total généré",
                 "#28A745"
         );
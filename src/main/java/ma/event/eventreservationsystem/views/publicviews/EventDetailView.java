@@ -138,6 +138,9 @@ public class EventDetailView extends VerticalLayout implements HasUrlParameter<L
         H2 infoTitle = new H2("Informations Pratiques");
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy à HH:mm");
 
+        // Une seule lecture des places disponibles par affichage
+        int placesDisponibles = eventService.getPlacesDisponibles(eventId);
+
         VerticalLayout infoLayout = new VerticalLayout();
         infoLayout.setPadding(true);
         infoLayout.getStyle().set("background", "#F5F5F5").set("border-radius", "8px");
@@ -149,8 +152,7 @@ public class EventDetailView extends VerticalLayout implements HasUrlParameter<L
                 createInfoRow("🏙️ Ville", event.getVille()),
                 createInfoRow("💰 Prix unitaire", event.getPrixUnitaire() + " DH"),
                 createInfoRow("👥 Capacité totale", event.getCapaciteMax() + " places"),
-                createInfoRow("✅ Places disponibles",
-                        eventService.getPlacesDisponibles(eventId) + " places")
+                createInfoRow("✅ Places disponibles", placesDisponibles + " places")
         );
 
         // Organisateur
@@ -168,7 +170,7 @@ public class EventDetailView extends VerticalLayout implements HasUrlParameter<L
         });
 
         // Si pas de places disponibles
-        if (eventService.getPlacesDisponibles(eventId) == 0) {
+        if (placesDisponibles == 0) {
             reserveButton.setText("Complet - Aucune place disponible");
             reserveButton.setEnabled(false);
         }
@@ -6,34 +6,42 @@ import com.vaadin.flow.component.combobox.ComboBox;
 import com.vaadin.flow.component.datepicker.DatePicker;
 import com.vaadin.flow.component.grid.Grid;
 import com.vaadin.flow.component.html.H1;
+import com.vaadin.flow.component.html.Span;
 import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
 import com.vaadin.flow.component.textfield.NumberField;
-import com.vaadin.flow.component.textfield.TextField;
 import com.vaadin.flow.router.PageTitle;
 import com.vaadin.flow.router.Route;
+import com.vaadin.flow.spring.data.VaadinSpringDataHelpers;
+import ma.event.eventreservationsystem.dto.EventFacets;
 import ma.event.eventreservationsystem.entity.Event;
 import ma.event.eventreservationsystem.entity.enums.EventCategory;
-import ma.event.eventreservationsystem.entity.enums.EventStatus;
 import ma.event.eventreservationsystem.service.EventService;
+import ma.event.eventreservationsystem.service.search.PriceBucket;
+import ma.event.eventreservationsystem.service.search.TypeaheadService;
 import org.springframework.beans.factory.annotation.Autowired;
 
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 @Route("events")
 @PageTitle("Événements | Event Reservation System")
 public class EventListView extends VerticalLayout {
 
+    private static final int MAX_VILLES_AFFICHEES = 8;
+
     private final EventService eventService;
+    private final TypeaheadService typeaheadService;
 
     private final Grid<Event> grid = new Grid<>(Event.class, false);
 
     // Filtres
-    private final TextField searchField = new TextField("Recherche");
+    private final ComboBox<String> searchField = new ComboBox<>("Recherche");
     private final ComboBox<EventCategory> categoryFilter = new ComboBox<>("Catégorie");
-    private final TextField villeFilter = new TextField("Ville");
+    private final ComboBox<String> villeFilter = new ComboBox<>("Ville");
     private final DatePicker dateDebutFilter = new DatePicker("Date début");
     private final DatePicker dateFinFilter = new DatePicker("Date fin");
     private final NumberField prixMinFilter = new NumberField("Prix min");
@@ -41,8 +49,16 @@ public class EventListView extends VerticalLayout {
     private final Button filterButton = new Button("Filtrer");
     private final Button resetButton = new Button("Réinitialiser");
 
-    public EventListView(@Autowired EventService eventService) {
+    // Facettes : nombre d'événements par valeur de filtre
+    private final Span totalLabel = new Span();
+    private final HorizontalLayout villeFacets = new HorizontalLayout();
+    private final HorizontalLayout prixFacets = new HorizontalLayout();
+    private Map<EventCategory, Long> nombresParCategorie = Map.of();
+
+    public EventListView(@Autowired EventService eventService,
+                         @Autowired TypeaheadService typeaheadService) {
         this.eventService = eventService;
+        this.typeaheadService = typeaheadService;
 
         setSizeFull();
         setPadding(true);
@@ -69,8 +85,13 @@ public class EventListView extends VerticalLayout {
 
         HorizontalLayout buttonsLayout = new HorizontalLayout(filterButton, resetButton);
 
+        villeFacets.setSpacing(false);
+        villeFacets.getStyle().set("flex-wrap", "wrap");
+        prixFacets.setSpacing(false);
+        prixFacets.getStyle().set("flex-wrap", "wrap");
+
         VerticalLayout filtersLayout = new VerticalLayout(
-                filtersRow1, filtersRow2, buttonsLayout
+                filtersRow1, filtersRow2, villeFacets, prixFacets, buttonsLayout, totalLabel
         );
         filtersLayout.setPadding(true);
         filtersLayout.getStyle()
@@ -89,15 +110,27 @@ public class EventListView extends VerticalLayout {
     }
 
     private void configureFilters() {
+        // Suggestions chargées à la demande au fil de la saisie ; toute autre saisie reste acceptée
         searchField.setPlaceholder("Rechercher par titre...");
         searchField.setClearButtonVisible(true);
+        searchField.setAllowCustomValue(true);
+        searchField.setItems(query -> suggestions(
+                typeaheadService.suggererTitres(query.getFilter().orElse(""), query.getOffset() + query.getLimit()),
+                query.getOffset(), query.getLimit()));
+        searchField.addCustomValueSetListener(e -> searchField.setValue(e.getDetail()));
+        searchField.addValueChangeListener(e -> updateList());
 
         categoryFilter.setItems(EventCategory.values());
-        categoryFilter.setItemLabelGenerator(EventCategory::getLabel);
+        categoryFilter.setItemLabelGenerator(this::libelleCategorie);
         categoryFilter.setClearButtonVisible(true);
 
         villeFilter.setPlaceholder("Nom de la ville");
         villeFilter.setClearButtonVisible(true);
+        villeFilter.setAllowCustomValue(true);
+        villeFilter.setItems(query -> suggestions(
+                typeaheadService.suggererVilles(query.getFilter().orElse(""), query.getOffset() + query.getLimit()),
+                query.getOffset(), query.getLimit()));
+        villeFilter.addCustomValueSetListener(e -> villeFilter.setValue(e.getDetail()));
 
         prixMinFilter.setPlaceholder("0");
         prixMinFilter.setMin(0);
@@ -118,28 +151,31 @@ public class EventListView extends VerticalLayout {
         grid.addColumn(Event::getTitre)
                 .setHeader("Titre")
                 .setSortable(true)
+                .setSortProperty("titre")
                 .setAutoWidth(true);
 
         grid.addColumn(event -> event.getCategorie().getLabel())
                 .setHeader("Catégorie")
-                .setSortable(true);
+                .setSortable(true)
+                .setSortProperty("categorie");
 
         grid.addColumn(event -> event.getDateDebut().toLocalDate())
                 .setHeader("Date")
-                .setSortable(true);
+                .setSortable(true)
+                .setSortProperty("dateDebut");
 
         grid.addColumn(Event::getVille)
                 .setHeader("Ville")
-                .setSortable(true);
+                .setSortable(true)
+                .setSortProperty("ville");
 
         grid.addColumn(event -> event.getPrixUnitaire() + " DH")
                 .setHeader("Prix")
-                .setSortable(true);
+                .setSortable(true)
+                .setSortProperty("prixUnitaire");
 
-        grid.addColumn(event -> {
-                    int dispo = event.getCapaciteMax() - 0; // TODO: calculer vraiment
-                    return dispo + " / " + event.getCapaciteMax();
-                })
+        // Compteur dénormalisé lu avec la ligne : aucune requête par événement affiché
+        grid.addColumn(event -> event.getPlacesDisponibles() + " / " + event.getCapaciteMax())
                 .setHeader("Places dispo")
                 .setSortable(false);
 
@@ -154,6 +190,10 @@ public class EventListView extends VerticalLayout {
         }).setHeader("Actions");
     }
 
+    private static Stream<String> suggestions(List<String> suggestions, int offset, int limit) {
+        return suggestions.stream().skip(offset).limit(limit);
+    }
+
     private void updateList() {
         try {
             // Récupération des valeurs des filtres
@@ -162,42 +202,79 @@ public class EventListView extends VerticalLayout {
             Double prixMin = prixMinFilter.getValue();
             Double prixMax = prixMaxFilter.getValue();
 
-            LocalDateTime dateDebut = null;
-            LocalDateTime dateFin = null;
-
-            if (dateDebutFilter.getValue() != null) {
-                dateDebut = dateDebutFilter.getValue().atStartOfDay();
-            }
-            if (dateFinFilter.getValue() != null) {
-                dateFin = dateFinFilter.getValue().atTime(LocalTime.MAX);
-            }
-
-            // Recherche avec filtres
-            List<Event> events;
+            LocalDateTime dateDebut = dateDebutFilter.getValue() != null
+                    ? dateDebutFilter.getValue().atStartOfDay() : null;
+            LocalDateTime dateFin = dateFinFilter.getValue() != null
+                    ? dateFinFilter.getValue().atTime(LocalTime.MAX) : null;
 
             if (!searchField.isEmpty()) {
-                // Recherche par titre
-                events = eventService.searchByTitre(searchField.getValue());
-            } else if (category != null || dateDebut != null || ville != null || prixMin != null) {
-                // Recherche avancée
-                events = eventService.searchEvents(category, dateDebut, dateFin, ville, prixMin, prixMax);
-            } else {
-                // Tous les événements disponibles
-                events = eventService.findAvailableEvents();
+                // Recherche par mots-clés dans le catalogue (événements publiés)
+                List<Event> events = eventService.searchCatalogue(searchField.getValue());
+                grid.setItems(events);
+                effacerFacettes(events.size());
+                return;
             }
 
-            // Filtrer uniquement les événements publiés
-            events = events.stream()
-                    .filter(e -> e.getStatut() == EventStatus.PUBLIE)
-                    .toList();
+            afficherFacettes(eventService.getFacettes(category, dateDebut, dateFin, ville, prixMin, prixMax));
 
-            grid.setItems(events);
+            // Avec ou sans critère : la grille ne charge que les pages affichées, triées par les index
+            // du catalogue (date, prix) ou par la base ; le total est compté à part
+            grid.setItems(
+                    query -> eventService.searchEvents(category, dateDebut, dateFin, ville, prixMin, prixMax,
+                            VaadinSpringDataHelpers.toSpringPageRequest(query)).stream(),
+                    query -> (int) eventService.countEvents(category, dateDebut, dateFin, ville, prixMin, prixMax));
 
         } catch (Exception e) {
             grid.setItems();
         }
     }
 
+    private void afficherFacettes(EventFacets facettes) {
+        totalLabel.setText(facettes.total() + " événement(s)");
+
+        nombresParCategorie = facettes.parCategorie();
+        categoryFilter.setItemLabelGenerator(this::libelleCategorie);
+
+        villeFacets.removeAll();
+        facettes.parVille().entrySet().stream()
+                .limit(MAX_VILLES_AFFICHEES)
+                .forEach(entree -> villeFacets.add(boutonFacette(entree.getKey() + " (" + entree.getValue() + ")", () -> {
+                    villeFilter.setValue(entree.getKey());
+                    updateList();
+                })));
+
+        prixFacets.removeAll();
+        facettes.parTranchePrix().forEach((tranche, nombre) -> {
+            if (nombre > 0) {
+                prixFacets.add(boutonFacette(tranche.getLabel() + " (" + nombre + ")", () -> {
+                    prixMinFilter.setValue(tranche.getMin());
+                    // Bornes du filtre incluses, plafond de la tranche exclu
+                    prixMaxFilter.setValue(tranche == PriceBucket.PLUS_DE_500 ? null : tranche.getMax() - 0.01);
+                    updateList();
+                }));
+            }
+        });
+    }
+
+    private void effacerFacettes(int total) {
+        totalLabel.setText(total + " événement(s)");
+        nombresParCategorie = Map.of();
+        categoryFilter.setItemLabelGenerator(this::libelleCategorie);
+        villeFacets.removeAll();
+        prixFacets.removeAll();
+    }
+
+    private String libelleCategorie(EventCategory categorie) {
+        Long nombre = nombresParCategorie.get(categorie);
+        return nombre == null ? categorie.getLabel() : categorie.getLabel() + " (" + nombre + ")";
+    }
+
+    private Button boutonFacette(String libelle, Runnable action) {
+        Button bouton = new Button(libelle, e -> action.run());
+        bouton.addThemeVariants(ButtonVariant.LUMO_TERTIARY, ButtonVariant.LUMO_SMALL);
+        return bouton;
+    }
+
     private void resetFilters() {
         searchField.clear();
         categoryFilter.clear();
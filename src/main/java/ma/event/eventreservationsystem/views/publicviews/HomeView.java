@@ -21,6 +21,8 @@ import java.util.List;
 @PageTitle("Accueil | Event Reservation System")
 public class HomeView extends VerticalLayout {
 
+    private static final int NOMBRE_EVENEMENTS_POPULAIRES = 3;
+
     private final EventService eventService;
 
     public HomeView(@Autowired EventService eventService) {
@@ -70,7 +72,7 @@ public class HomeView extends VerticalLayout {
         H2 popularTitle = new H2("🔥 Événements Populaires");
         popularTitle.getStyle().set("margin-top", "30px");
 
-        List<Event> popularEvents = eventService.findPopularEvents();
+        List<Event> popularEvents = eventService.findTrendingEvents(NOMBRE_EVENEMENTS_POPULAIRES);
 
         FlexLayout cardsLayout = new FlexLayout();
         cardsLayout.setFlexWrap(FlexLayout.FlexWrap.WRAP);
@@ -81,9 +83,7 @@ public class HomeView extends VerticalLayout {
         if (popularEvents.isEmpty()) {
             content.add(new Paragraph("Aucun événement disponible pour le moment"));
         } else {
-            popularEvents.stream()
-                    .limit(3)
-                    .forEach(event -> cardsLayout.add(createEventCard(event)));
+            popularEvents.forEach(event -> cardsLayout.add(createEventCard(event)));
         }
 
         content.add(popularTitle, cardsLayout);
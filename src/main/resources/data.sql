@@ -55,47 +55,48 @@ INSERT INTO events (titre, description, categorie, date_debut, date_fin, lieu, v
 -- ============================================
 -- INSERTION DES RÉSERVATIONS (20 minimum requis)
 -- ============================================
+-- Les identifiants sont tirés de la séquence utilisée par Hibernate (allocation groupée)
 
 -- Réservations pour "Festival Gnaoua" (Event ID: 1)
-INSERT INTO reservations (utilisateur_id, evenement_id, nombre_places, montant_total, date_reservation, statut, code_reservation, commentaire) VALUES
-                                                                                                                                                   (4, 1, 2, 300.0, CURRENT_TIMESTAMP, 'CONFIRMEE', 'EVT-10001', 'Places VIP s''il vous plaît'),
-                                                                                                                                                   (5, 1, 4, 600.0, CURRENT_TIMESTAMP, 'CONFIRMEE', 'EVT-10002', 'Réservation pour famille'),
-                                                                                                                                                   (4, 1, 1, 150.0, CURRENT_TIMESTAMP, 'EN_ATTENTE', 'EVT-10003', null);
+INSERT INTO reservations (id, utilisateur_id, evenement_id, nombre_places, montant_total, date_reservation, statut, code_reservation, commentaire) VALUES
+                                                                                                                                                   (NEXT VALUE FOR reservations_seq, 4, 1, 2, 300.0, CURRENT_TIMESTAMP, 'CONFIRMEE', 'EVT-10001', 'Places VIP s''il vous plaît'),
+                                                                                                                                                   (NEXT VALUE FOR reservations_seq, 5, 1, 4, 600.0, CURRENT_TIMESTAMP, 'CONFIRMEE', 'EVT-10002', 'Réservation pour famille'),
+                                                                                                                                                   (NEXT VALUE FOR reservations_seq, 4, 1, 1, 150.0, CURRENT_TIMESTAMP, 'EN_ATTENTE', 'EVT-10003', null);
 
 -- Réservations pour "Concert de RAI" (Event ID: 2)
-INSERT INTO reservations (utilisateur_id, evenement_id, nombre_places, montant_total, date_reservation, statut, code_reservation, commentaire) VALUES
-                                                                                                                                                   (5, 2, 3, 600.0, CURRENT_TIMESTAMP, 'CONFIRMEE', 'EVT-10004', 'Groupe d''amis'),
-                                                                                                                                                   (4, 2, 5, 1000.0, CURRENT_TIMESTAMP, 'CONFIRMEE', 'EVT-10005', null),
-                                                                                                                                                   (5, 2, 2, 400.0, CURRENT_TIMESTAMP, 'ANNULEE', 'EVT-10006', 'Changement de plans');
+INSERT INTO reservations (id, utilisateur_id, evenement_id, nombre_places, montant_total, date_reservation, statut, code_reservation, commentaire) VALUES
+                                                                                                                                                   (NEXT VALUE FOR reservations_seq, 5, 2, 3, 600.0, CURRENT_TIMESTAMP, 'CONFIRMEE', 'EVT-10004', 'Groupe d''amis'),
+                                                                                                                                                   (NEXT VALUE FOR reservations_seq, 4, 2, 5, 1000.0, CURRENT_TIMESTAMP, 'CONFIRMEE', 'EVT-10005', null),
+                                                                                                                                                   (NEXT VALUE FOR reservations_seq, 5, 2, 2, 400.0, CURRENT_TIMESTAMP, 'ANNULEE', 'EVT-10006', 'Changement de plans');
 
 -- Réservations pour "Le Malade Imaginaire" (Event ID: 4)
-INSERT INTO reservations (utilisateur_id, evenement_id, nombre_places, montant_total, date_reservation, statut, code_reservation, commentaire) VALUES
-                                                                                                                                                   (4, 4, 2, 240.0, CURRENT_TIMESTAMP, 'CONFIRMEE', 'EVT-10007', 'Places centrales préférées'),
-                                                                                                                                                   (5, 4, 3, 360.0, CURRENT_TIMESTAMP, 'EN_ATTENTE', 'EVT-10008', null);
+INSERT INTO reservations (id, utilisateur_id, evenement_id, nombre_places, montant_total, date_reservation, statut, code_reservation, commentaire) VALUES
+                                                                                                                                                   (NEXT VALUE FOR reservations_seq, 4, 4, 2, 240.0, CURRENT_TIMESTAMP, 'CONFIRMEE', 'EVT-10007', 'Places centrales préférées'),
+                                                                                                                                                   (NEXT VALUE FOR reservations_seq, 5, 4, 3, 360.0, CURRENT_TIMESTAMP, 'EN_ATTENTE', 'EVT-10008', null);
 
 -- Réservations pour "Spectacle Comique" (Event ID: 5)
-INSERT INTO reservations (utilisateur_id, evenement_id, nombre_places, montant_total, date_reservation, statut, code_reservation, commentaire) VALUES
-                                                                                                                                                   (4, 5, 4, 400.0, CURRENT_TIMESTAMP, 'CONFIRMEE', 'EVT-10009', null),
-                                                                                                                                                   (5, 5, 2, 200.0, CURRENT_TIMESTAMP, 'CONFIRMEE', 'EVT-10010', 'Cadeau d''anniversaire');
+INSERT INTO reservations (id, utilisateur_id, evenement_id, nombre_places, montant_total, date_reservation, statut, code_reservation, commentaire) VALUES
+                                                                                                                                                   (NEXT VALUE FOR reservations_seq, 4, 5, 4, 400.0, CURRENT_TIMESTAMP, 'CONFIRMEE', 'EVT-10009', null),
+                                                                                                                                                   (NEXT VALUE FOR reservations_seq, 5, 5, 2, 200.0, CURRENT_TIMESTAMP, 'CONFIRMEE', 'EVT-10010', 'Cadeau d''anniversaire');
 
 -- Réservations pour "Innovation & IA au Maroc" (Event ID: 7)
-INSERT INTO reservations (utilisateur_id, evenement_id, nombre_places, montant_total, date_reservation, statut, code_reservation, commentaire) VALUES
-                                                                                                                                                   (4, 7, 1, 500.0, CURRENT_TIMESTAMP, 'CONFIRMEE', 'EVT-10011', 'Intéressé par l''IA'),
-                                                                                                                                                   (5, 7, 2, 1000.0, CURRENT_TIMESTAMP, 'CONFIRMEE', 'EVT-10012', 'Pour mon équipe'),
-                                                                                                                                                   (4, 7, 3, 1500.0, CURRENT_TIMESTAMP, 'EN_ATTENTE', 'EVT-10013', null);
+INSERT INTO reservations (id, utilisateur_id, evenement_id, nombre_places, montant_total, date_reservation, statut, code_reservation, commentaire) VALUES
+                                                                                                                                                   (NEXT VALUE FOR reservations_seq, 4, 7, 1, 500.0, CURRENT_TIMESTAMP, 'CONFIRMEE', 'EVT-10011', 'Intéressé par l''IA'),
+                                                                                                                                                   (NEXT VALUE FOR reservations_seq, 5, 7, 2, 1000.0, CURRENT_TIMESTAMP, 'CONFIRMEE', 'EVT-10012', 'Pour mon équipe'),
+                                                                                                                                                   (NEXT VALUE FOR reservations_seq, 4, 7, 3, 1500.0, CURRENT_TIMESTAMP, 'EN_ATTENTE', 'EVT-10013', null);
 
 -- Réservations pour "Entrepreneuriat Digital" (Event ID: 8)
-INSERT INTO reservations (utilisateur_id, evenement_id, nombre_places, montant_total, date_reservation, statut, code_reservation, commentaire) VALUES
-                                                                                                                                                   (5, 8, 5, 1500.0, CURRENT_TIMESTAMP, 'CONFIRMEE', 'EVT-10014', 'Startup team'),
-                                                                                                                                                   (4, 8, 1, 300.0, CURRENT_TIMESTAMP, 'CONFIRMEE', 'EVT-10015', null);
+INSERT INTO reservations (id, utilisateur_id, evenement_id, nombre_places, montant_total, date_reservation, statut, code_reservation, commentaire) VALUES
+                                                                                                                                                   (NEXT VALUE FOR reservations_seq, 5, 8, 5, 1500.0, CURRENT_TIMESTAMP, 'CONFIRMEE', 'EVT-10014', 'Startup team'),
+                                                                                                                                                   (NEXT VALUE FOR reservations_seq, 4, 8, 1, 300.0, CURRENT_TIMESTAMP, 'CONFIRMEE', 'EVT-10015', null);
 
 -- Réservations pour "Finale Coupe du Trône" (Event ID: 10)
-INSERT INTO reservations (utilisateur_id, evenement_id, nombre_places, montant_total, date_reservation, statut, code_reservation, commentaire) VALUES
-                                                                                                                                                   (4, 10, 6, 480.0, CURRENT_TIMESTAMP, 'CONFIRMEE', 'EVT-10016', 'Fan du Wydad'),
-                                                                                                                                                   (5, 10, 4, 320.0, CURRENT_TIMESTAMP, 'CONFIRMEE', 'EVT-10017', null),
-                                                                                                                                                   (4, 10, 2, 160.0, CURRENT_TIMESTAMP, 'ANNULEE', 'EVT-10018', 'Indisponible ce jour');
+INSERT INTO reservations (id, utilisateur_id, evenement_id, nombre_places, montant_total, date_reservation, statut, code_reservation, commentaire) VALUES
+                                                                                                                                                   (NEXT VALUE FOR reservations_seq, 4, 10, 6, 480.0, CURRENT_TIMESTAMP, 'CONFIRMEE', 'EVT-10016', 'Fan du Wydad'),
+                                                                                                                                                   (NEXT VALUE FOR reservations_seq, 5, 10, 4, 320.0, CURRENT_TIMESTAMP, 'CONFIRMEE', 'EVT-10017', null),
+                                                                                                                                                   (NEXT VALUE FOR reservations_seq, 4, 10, 2, 160.0, CURRENT_TIMESTAMP, 'ANNULEE', 'EVT-10018', 'Indisponible ce jour');
 
 -- Réservations pour "Marathon International de Rabat" (Event ID: 11)
-INSERT INTO reservations (utilisateur_id, evenement_id, nombre_places, montant_total, date_reservation, statut, code_reservation, commentaire) VALUES
-                                                                                                                                                   (5, 11, 1, 200.0, CURRENT_TIMESTAMP, 'CONFIRMEE', 'EVT-10019', 'Premier marathon !'),
-                                                                                                                                                   (4, 11, 2, 400.0, CURRENT_TIMESTAMP, 'EN_ATTENTE', 'EVT-10020', 'Avec mon frère');
\ No newline at end of file
+INSERT INTO reservations (id, utilisateur_id, evenement_id, nombre_places, montant_total, date_reservation, statut, code_reservation, commentaire) VALUES
+                                                                                                                                                   (NEXT VALUE FOR reservations_seq, 5, 11, 1, 200.0, CURRENT_TIMESTAMP, 'CONFIRMEE', 'EVT-10019', 'Premier marathon !'),
+                                                                                                                                                   (NEXT VALUE FOR reservations_seq, 4, 11, 2, 400.0, CURRENT_TIMESTAMP, 'EN_ATTENTE', 'EVT-10020', 'Avec mon frère');
\ No newline at end of file
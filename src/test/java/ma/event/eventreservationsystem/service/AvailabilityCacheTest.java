@@ -0,0 +1,157 @@
+package ma.event.eventreservationsystem.service;
+
+import ma.event.eventreservationsystem.entity.Event;
+import ma.event.eventreservationsystem.entity.User;
+import ma.event.eventreservationsystem.entity.enums.EventCategory;
+import ma.event.eventreservationsystem.entity.enums.UserRole;
+import ma.event.eventreservationsystem.repository.projection.EventSeatCounter;
+import ma.event.eventreservationsystem.service.inventory.AvailabilityCache;
+import ma.event.eventreservationsystem.service.inventory.SeatCounter;
+import ma.event.eventreservationsystem.service.inventory.SeatInventory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Durée de vie longue : une valeur n'est relue que si elle a été invalidée
+@SpringBootTest(properties = "reservation.availability.ttl=1m")
+class AvailabilityCacheTest {
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private SeatInventory seatInventory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Event event;
+
+    @BeforeEach
+    void setUp() {
+        User organizer = userService.inscription(User.builder()
+                .nom("Organizer")
+                .prenom("Test")
+                .email("org." + UUID.randomUUID() + "@test.com")
+                .password("password123")
+                .role(UserRole.ORGANIZER)
+                .build());
+        event = eventService.createEvent(Event.builder()
+                .titre("Concert Test Disponibilité")
+                .description("Test")
+                .categorie(EventCategory.CONCERT)
+                .dateDebut(LocalDateTime.now().plusDays(10))
+                .dateFin(LocalDateTime.now().plusDays(10).plusHours(3))
+                .lieu("Salle")
+                .ville("Casablanca")
+                .capaciteMax(100)
+                .prixUnitaire(50.0)
+                .build(), organizer.getId());
+        event = eventService.publierEvent(event.getId(), organizer.getId());
+    }
+
+    @Test
+    void testGetPlacesDisponibles_UneSeuleLecturePourLesAppelsSimultanes() throws Exception {
+        // ARRANGE : une lecture lente, 16 appels simultanés sur une entrée absente
+        AtomicInteger lectures = new AtomicInteger();
+        AvailabilityCache cache = new AvailabilityCache(compteurLent(lectures), Duration.ofMinutes(1));
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        CountDownLatch depart = new CountDownLatch(1);
+        List<Future<Integer>> resultats = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            resultats.add(executor.submit(() -> {
+                depart.await();
+                return cache.getPlacesDisponibles(1L);
+            }));
+        }
+
+        // ACT
+        depart.countDown();
+        for (Future<Integer> resultat : resultats) {
+            // ASSERT : tous reçoivent la valeur de l'unique lecture
+            assertEquals(99, resultat.get());
+        }
+        executor.shutdown();
+
+        assertEquals(1, lectures.get());
+    }
+
+    @Test
+    void testGetPlacesDisponibles_RelueApresExpiration() throws Exception {
+        // ARRANGE
+        AtomicInteger lectures = new AtomicInteger();
+        AvailabilityCache cache = new AvailabilityCache(compteurLent(lectures), Duration.ofMillis(300));
+
+        // ACT & ASSERT : servie depuis le cache pendant la durée de vie, relue ensuite
+        assertEquals(99, cache.getPlacesDisponibles(1L));
+        assertEquals(99, cache.getPlacesDisponibles(1L));
+        assertEquals(1, lectures.get());
+        Thread.sleep(400);
+        assertEquals(98, cache.getPlacesDisponibles(1L));
+        assertEquals(2, lectures.get());
+    }
+
+    @Test
+    void testInvalidation_ApresValidationMaisPasApresAnnulation() {
+        // ARRANGE : valeur mise en cache, puis compteur modifié directement en base (hors application)
+        assertEquals(100, eventService.getPlacesDisponibles(event.getId()));
+        jdbcTemplate.update("UPDATE events SET places_reservees = 50 WHERE id = ?", event.getId());
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        // ACT : réservation annulée
+        transaction.executeWithoutResult(status -> {
+            assertTrue(seatInventory.reserver(event.getId(), 100, 5));
+            // Dans la transaction, la lecture voit le compteur modifié sans le mettre en cache
+            assertEquals(45, eventService.getPlacesDisponibles(event.getId()));
+            status.setRollbackOnly();
+        });
+
+        // ASSERT : l'entrée n'a pas été invalidée (la valeur en cache, d'avant la modification directe, est servie)
+        assertEquals(100, eventService.getPlacesDisponibles(event.getId()));
+
+        // ACT : réservation validée
+        transaction.executeWithoutResult(status -> assertTrue(seatInventory.reserver(event.getId(), 100, 5)));
+
+        // ASSERT : l'entrée a été invalidée, la base est relue
+        assertEquals(45, eventService.getPlacesDisponibles(event.getId()));
+    }
+
+    // Compteur simulé : chaque lecture prend 200 ms et réserve une place de plus
+    private static SeatCounter compteurLent(AtomicInteger lectures) {
+        return new SeatCounter(null) {
+            @Override
+            public EventSeatCounter lire(Long evenementId) {
+                int numero = lectures.incrementAndGet();
+                try {
+                    Thread.sleep(200);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return new EventSeatCounter(evenementId, 100, numero);
+            }
+        };
+    }
+}
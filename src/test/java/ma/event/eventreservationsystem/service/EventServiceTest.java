@@ -1,23 +1,44 @@
 package ma.event.eventreservationsystem.service;
 
+import jakarta.persistence.EntityManagerFactory;
+import ma.event.eventreservationsystem.dto.AdminDashboard;
+import ma.event.eventreservationsystem.dto.EventFacets;
+import ma.event.eventreservationsystem.dto.OrganizerStatistics;
 import ma.event.eventreservationsystem.entity.Event;
+import ma.event.eventreservationsystem.entity.Reservation;
 import ma.event.eventreservationsystem.entity.User;
 import ma.event.eventreservationsystem.entity.enums.EventCategory;
 import ma.event.eventreservationsystem.entity.enums.EventStatus;
 import ma.event.eventreservationsystem.entity.enums.UserRole;
 import ma.event.eventreservationsystem.exception.BadRequestException;
 import ma.event.eventreservationsystem.exception.ForbiddenException;
+import ma.event.eventreservationsystem.service.search.PriceBucket;
+import ma.event.eventreservationsystem.service.search.TrendingIndex;
+import ma.event.eventreservationsystem.service.search.TypeaheadService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 
-@SpringBootTest
+// Statistiques Hibernate : nombre de requêtes préparées, pour les tests de non-régression N+1.
+// Classement des tendances assez long pour contenir les événements des autres tests
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "reservation.trending.size=1000"
+})
 class EventServiceTest {
 
     @Autowired
@@ -26,6 +47,21 @@ class EventServiceTest {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private TypeaheadService typeaheadService;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private DashboardService dashboardService;
+
+    @Autowired
+    private TrendingIndex trendingIndex;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
     private User organizer;
     private User client;
 
@@ -197,4 +233,422 @@ class EventServiceTest {
         // ASSERT
         assertEquals(100, placesDisponibles, "Toutes les places doivent être disponibles");
     }
-}
\ No newline at end of file
+
+    @Test
+    void testSearchCatalogue_AccentsPrefixesEtMiseAJour() {
+        // ARRANGE
+        Event event = Event.builder()
+                .titre("Théâtre des Zygomatiques")
+                .description("Test")
+                .categorie(EventCategory.THEATRE)
+                .dateDebut(LocalDateTime.now().plusDays(10))
+                .dateFin(LocalDateTime.now().plusDays(10).plusHours(2))
+                .lieu("Salle Molière")
+                .ville("Fès")
+                .capaciteMax(100)
+                .prixUnitaire(80.0)
+                .build();
+        Event saved = eventService.createEvent(event, organizer.getId());
+
+        // ASSERT : un brouillon n'est pas dans le catalogue, mais reste trouvé par son organisateur
+        assertTrue(eventService.searchCatalogue("zygomatiques").isEmpty());
+        assertTrue(eventService.searchByTitre("zygomatiques").stream()
+                .anyMatch(e -> e.getId().equals(saved.getId())));
+
+        // ACT
+        eventService.publierEvent(saved.getId(), organizer.getId());
+
+        // ASSERT : accents et casse ignorés, mots partiels acceptés
+        assertTrue(eventService.searchCatalogue("theatre zygomatiques").stream()
+                .anyMatch(e -> e.getId().equals(saved.getId())));
+        assertTrue(eventService.searchCatalogue("ZYGO fes").stream()
+                .anyMatch(e -> e.getId().equals(saved.getId())));
+        assertTrue(eventService.searchCatalogue("zygomatiques casablanca").isEmpty());
+
+        // ACT : l'annulation le retire du catalogue
+        eventService.annulerEvent(saved.getId(), organizer.getId());
+
+        // ASSERT
+        assertTrue(eventService.searchCatalogue("zygomatiques").isEmpty());
+        assertTrue(eventService.searchByTitre("zygomatiques").stream()
+                .anyMatch(e -> e.getId().equals(saved.getId()) && e.getStatut() == EventStatus.ANNULE));
+    }
+
+    @Test
+    void testFuzzySearchByTitre_FautesDeFrappeTolerees() {
+        // ARRANGE
+        Event event = Event.builder()
+                .titre("Festival Gnaoua Musiques du Monde")
+                .description("Test")
+                .categorie(EventCategory.CONCERT)
+                .dateDebut(LocalDateTime.now().plusDays(20))
+                .dateFin(LocalDateTime.now().plusDays(22))
+                .lieu("Place Moulay Hassan")
+                .ville("Essaouira")
+                .capaciteMax(100)
+                .prixUnitaire(50.0)
+                .build();
+        Event saved = eventService.createEvent(event, organizer.getId());
+        eventService.publierEvent(saved.getId(), organizer.getId());
+
+        // ACT & ASSERT : deux erreurs tolérées sur un mot de cinq lettres ou plus
+        assertTrue(eventService.fuzzySearchByTitre("gnawa").stream()
+                .anyMatch(e -> e.getId().equals(saved.getId())));
+        // La recherche par titre bascule sur la recherche approchée quand aucun mot n'est trouvé tel quel
+        assertTrue(eventService.searchCatalogue("festivl gnawa").stream()
+                .anyMatch(e -> e.getId().equals(saved.getId())));
+        // Trop éloigné
+        assertTrue(eventService.fuzzySearchByTitre("gnawa jazzz").stream()
+                .noneMatch(e -> e.getId().equals(saved.getId())));
+    }
+
+    @Test
+    void testFindHappeningBetween_EvenementsEnCoursPendantLaPeriode() {
+        // ARRANGE : festival sur trois jours
+        LocalDateTime debut = LocalDateTime.now().plusDays(30);
+        Event event = Event.builder()
+                .titre("Festival Sur Trois Jours")
+                .description("Test")
+                .categorie(EventCategory.CONCERT)
+                .dateDebut(debut)
+                .dateFin(debut.plusDays(2))
+                .lieu("Plage")
+                .ville("Agadir")
+                .capaciteMax(100)
+                .prixUnitaire(50.0)
+                .build();
+        Event saved = eventService.createEvent(event, organizer.getId());
+        eventService.publierEvent(saved.getId(), organizer.getId());
+
+        LocalDateTime deuxiemeJour = debut.plusDays(1);
+        LocalDateTime finDeuxiemeJour = deuxiemeJour.plusHours(12);
+
+        // ACT & ASSERT : en cours le deuxième jour, mais n'y commence pas
+        assertTrue(eventService.findHappeningBetween(deuxiemeJour, finDeuxiemeJour).stream()
+                .anyMatch(e -> e.getId().equals(saved.getId())));
+        assertTrue(eventService.findStartingBetween(deuxiemeJour, finDeuxiemeJour).stream()
+                .noneMatch(e -> e.getId().equals(saved.getId())));
+        assertTrue(eventService.findStartingBetween(debut, debut).stream()
+                .anyMatch(e -> e.getId().equals(saved.getId())));
+        // Terminé avant la période
+        assertTrue(eventService.findHappeningBetween(debut.plusDays(3), debut.plusDays(4)).stream()
+                .noneMatch(e -> e.getId().equals(saved.getId())));
+        // Les filtres de dates du catalogue retiennent aussi les événements déjà commencés
+        assertEquals(1, eventService.searchEvents(null, deuxiemeJour, finDeuxiemeJour, "Agadir", null, null,
+                PageRequest.of(0, 50)).stream().filter(e -> e.getId().equals(saved.getId())).count());
+
+        // Reporté après la période : l'index suit la modification
+        saved.setDateDebut(debut.plusDays(5));
+        saved.setDateFin(debut.plusDays(6));
+        eventService.updateEvent(saved.getId(), saved, organizer.getId());
+        assertTrue(eventService.findHappeningBetween(deuxiemeJour, finDeuxiemeJour).stream()
+                .noneMatch(e -> e.getId().equals(saved.getId())));
+    }
+
+    @Test
+    void testGetStatistiquesOrganisateur_UneSeuleRequete() {
+        // ARRANGE : un brouillon et deux événements publiés, dont un avec deux réservations
+        eventService.createEvent(evenementDansVille("Rabat", 10, 100.0), organizer.getId());
+        Event premier = eventService.createEvent(evenementDansVille("Rabat", 11, 100.0), organizer.getId());
+        eventService.publierEvent(premier.getId(), organizer.getId());
+        Event second = eventService.createEvent(evenementDansVille("Rabat", 12, 40.0), organizer.getId());
+        eventService.publierEvent(second.getId(), organizer.getId());
+        Reservation confirmee = reservationService.createReservation(
+                Reservation.builder().nombrePlaces(2).build(), client.getId(), premier.getId());
+        reservationService.confirmerReservation(confirmee.getId(), client.getId());
+        reservationService.createReservation(Reservation.builder().nombrePlaces(1).build(), client.getId(), premier.getId());
+
+        Statistics statistiques = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistiques.clear();
+
+        // ACT
+        OrganizerStatistics stats = eventService.getStatistiquesOrganisateur(organizer.getId());
+
+        // ASSERT : une requête, quel que soit le nombre d'événements
+        assertEquals(1, statistiques.getPrepareStatementCount());
+        assertEquals(3, stats.nombreEvenements());
+        assertEquals(1, stats.nombre(EventStatus.BROUILLON));
+        assertEquals(2, stats.nombre(EventStatus.PUBLIE));
+        assertEquals(0, stats.nombre(EventStatus.ANNULE));
+        assertEquals(2, stats.nombreTotalReservations());
+        // Seule la réservation confirmée compte dans le revenu
+        assertEquals(200.0, stats.revenuTotal(), 0.001);
+    }
+
+    @Test
+    void testFindTrendingEvents_ClassementEnMemoire() {
+        // ARRANGE : deux événements publiés, le second réservé plus vite
+        Event calme = eventService.createEvent(evenementDansVille("Rabat", 10, 100.0), organizer.getId());
+        eventService.publierEvent(calme.getId(), organizer.getId());
+        Event demande = eventService.createEvent(evenementDansVille("Rabat", 11, 100.0), organizer.getId());
+        eventService.publierEvent(demande.getId(), organizer.getId());
+        reservationService.createReservation(Reservation.builder().nombrePlaces(1).build(), client.getId(), calme.getId());
+        for (int i = 0; i < 3; i++) {
+            reservationService.createReservation(
+                    Reservation.builder().nombrePlaces(10).build(), client.getId(), demande.getId());
+        }
+
+        // ACT
+        trendingIndex.recalculer();
+        List<Long> tendances = trendingIndex.tendances(Integer.MAX_VALUE);
+
+        // ASSERT
+        assertTrue(tendances.indexOf(demande.getId()) >= 0);
+        assertTrue(tendances.indexOf(demande.getId()) < tendances.indexOf(calme.getId()));
+
+        // ACT : la page d'accueil ne fait que charger les événements classés
+        Statistics statistiques = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistiques.clear();
+        List<Event> accueil = eventService.findTrendingEvents(3);
+
+        // ASSERT : une requête par identifiants, aucun agrégat sur les réservations
+        assertEquals(1, statistiques.getPrepareStatementCount());
+        assertFalse(accueil.isEmpty());
+        assertTrue(accueil.size() <= 3);
+
+        // Un événement annulé sort du classement
+        eventService.annulerEvent(demande.getId(), organizer.getId());
+        assertFalse(trendingIndex.tendances(Integer.MAX_VALUE).contains(demande.getId()));
+    }
+
+    @Test
+    void testFindTrendingEvents_AnnulationsRetrancheesDuClassement() {
+        // ARRANGE : une rafale de réservations aussitôt annulées, face à une seule réservation maintenue
+        Event calme = eventService.createEvent(evenementDansVille("Rabat", 10, 100.0), organizer.getId());
+        eventService.publierEvent(calme.getId(), organizer.getId());
+        Event rafale = eventService.createEvent(evenementDansVille("Rabat", 11, 100.0), organizer.getId());
+        eventService.publierEvent(rafale.getId(), organizer.getId());
+        reservationService.createReservation(Reservation.builder().nombrePlaces(1).build(), client.getId(), calme.getId());
+        for (int i = 0; i < 3; i++) {
+            Reservation annulee = reservationService.createReservation(
+                    Reservation.builder().nombrePlaces(10).build(), client.getId(), rafale.getId());
+            reservationService.annulerReservation(annulee.getId(), client.getId());
+        }
+
+        // ACT
+        trendingIndex.recalculer();
+        List<Long> tendances = trendingIndex.tendances(Integer.MAX_VALUE);
+
+        // ASSERT : plus aucune place comptée pour la rafale
+        assertTrue(tendances.contains(calme.getId()));
+        assertFalse(tendances.contains(rafale.getId()));
+    }
+
+    @Test
+    void testGetTableauDeBordAdmin_DeuxRequetesGroupees() {
+        // ARRANGE : un événement publié et un brouillon de plus
+        Event publie = eventService.createEvent(evenementDansVille("Rabat", 10, 100.0), organizer.getId());
+        eventService.publierEvent(publie.getId(), organizer.getId());
+        eventService.createEvent(evenementDansVille("Rabat", 11, 100.0), organizer.getId());
+
+        Statistics statistiques = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistiques.clear();
+
+        // ACT
+        AdminDashboard dashboard = dashboardService.getTableauDeBordAdmin();
+
+        // ASSERT : deux requêtes, et les mêmes chiffres que les comptages un par un
+        assertEquals(2, statistiques.getPrepareStatementCount());
+        assertEquals(userService.findAll().size(), dashboard.totalUtilisateurs());
+        assertEquals(userService.countByRole(UserRole.ORGANIZER),
+                dashboard.utilisateursParRole().get(UserRole.ORGANIZER));
+        assertEquals(userService.findActifs().size(), dashboard.utilisateursActifs());
+        assertEquals(eventService.findAll().size(), dashboard.totalEvenements());
+        for (EventStatus statut : EventStatus.values()) {
+            assertEquals(eventService.findByStatut(statut).size(), dashboard.evenementsParStatut().get(statut));
+        }
+    }
+
+    @Test
+    void testSearchEvents_FiltresEtPaginationEnBase() {
+        // ARRANGE : trois événements publiés dans une ville propre au test, un brouillon et un hors budget
+        String ville = "Ville " + UUID.randomUUID();
+        for (int jours = 12; jours >= 10; jours--) {
+            Event publie = eventService.createEvent(evenementDansVille(ville, jours, 100.0), organizer.getId());
+            eventService.publierEvent(publie.getId(), organizer.getId());
+        }
+        eventService.createEvent(evenementDansVille(ville, 5, 100.0), organizer.getId());
+        Event cher = eventService.createEvent(evenementDansVille(ville, 6, 900.0), organizer.getId());
+        eventService.publierEvent(cher.getId(), organizer.getId());
+
+        // ACT
+        Page<Event> page = eventService.searchEvents(EventCategory.CONCERT, null, null, ville.toUpperCase(),
+                null, 500.0, PageRequest.of(0, 2));
+
+        // ASSERT : seuls les publiés dans le budget, triés par date de début
+        assertEquals(3, page.getTotalElements());
+        assertEquals(2, page.getContent().size());
+        assertTrue(page.getContent().get(0).getDateDebut().isBefore(page.getContent().get(1).getDateDebut()));
+        assertTrue(page.getContent().stream().allMatch(e -> e.getStatut() == EventStatus.PUBLIE));
+    }
+
+    @Test
+    void testSearchEvents_PlageEtTriParPrixSurLIndex() {
+        // ARRANGE
+        String ville = "Ville " + UUID.randomUUID();
+        Event moyen = null;
+        for (double prix : new double[]{300.0, 50.0, 150.0, 900.0}) {
+            Event publie = eventService.createEvent(evenementDansVille(ville, 10, prix), organizer.getId());
+            eventService.publierEvent(publie.getId(), organizer.getId());
+            if (prix == 150.0) {
+                moyen = publie;
+            }
+        }
+
+        // ACT
+        Page<Event> page = eventService.searchEvents(null, null, null, ville, 100.0, 500.0,
+                PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "prixUnitaire")));
+
+        // ASSERT : bornes comprises, du plus cher au moins cher
+        assertEquals(List.of(300.0, 150.0), page.getContent().stream().map(Event::getPrixUnitaire).toList());
+        assertEquals(2, eventService.countEvents(null, null, null, ville, 100.0, 500.0));
+        Long moyenId = moyen.getId();
+        assertTrue(eventService.findByPrixBetween(150.0, 150.0).stream().anyMatch(e -> e.getId().equals(moyenId)));
+
+        // La modification du prix déplace l'événement dans l'index
+        moyen.setPrixUnitaire(600.0);
+        eventService.updateEvent(moyenId, moyen, organizer.getId());
+        assertEquals(1, eventService.countEvents(null, null, null, ville, 100.0, 500.0));
+        assertTrue(eventService.findByPrixBetween(150.0, 150.0).stream().noneMatch(e -> e.getId().equals(moyenId)));
+    }
+
+    @Test
+    void testSearchEvents_VilleSansAccentsCommeLesIndex() {
+        // ARRANGE : une ville accentuée, propre au test
+        String suffixe = UUID.randomUUID().toString();
+        for (int jours = 10; jours <= 11; jours++) {
+            Event publie = eventService.createEvent(evenementDansVille("Fès " + suffixe, jours, 100.0), organizer.getId());
+            eventService.publierEvent(publie.getId(), organizer.getId());
+        }
+        String recherche = "FES " + suffixe;
+
+        // ACT : tri par titre (critères en base) et comptage (index des facettes)
+        Page<Event> parTitre = eventService.searchEvents(null, null, null, recherche, null, null,
+                PageRequest.of(0, 10, Sort.by("titre")));
+        long total = eventService.countEvents(null, null, null, recherche, null, null);
+        Page<Event> parCriteres = eventService.findByCriteres(Set.of(EventStatus.PUBLIE), null,
+                Set.of(recherche), PageRequest.of(0, 10));
+
+        // ASSERT : les deux chemins retrouvent les mêmes événements
+        assertEquals(2, parTitre.getTotalElements());
+        assertEquals(2, total);
+        assertEquals(2, parCriteres.getTotalElements());
+        assertEquals(0, eventService.searchEvents(null, null, null, "Fez " + suffixe, null, null,
+                PageRequest.of(0, 10, Sort.by("titre"))).getTotalElements());
+    }
+
+    @Test
+    void testGetFacettes_ComptesParValeurSelonLesAutresFiltres() {
+        // ARRANGE
+        String ville = "Ville " + UUID.randomUUID();
+        Event theatre = evenementDansVille(ville, 10, 0.0);
+        theatre.setCategorie(EventCategory.THEATRE);
+        for (Event event : List.of(evenementDansVille(ville, 10, 50.0), evenementDansVille(ville, 11, 150.0), theatre)) {
+            Event saved = eventService.createEvent(event, organizer.getId());
+            eventService.publierEvent(saved.getId(), organizer.getId());
+        }
+
+        // ACT
+        EventFacets facettes = eventService.getFacettes(EventCategory.CONCERT, null, null, ville, null, null);
+
+        // ASSERT : la facette catégorie ignore son propre filtre, les autres l'appliquent
+        assertEquals(2, facettes.total());
+        assertEquals(2L, facettes.parCategorie().get(EventCategory.CONCERT));
+        assertEquals(1L, facettes.parCategorie().get(EventCategory.THEATRE));
+        assertEquals(Map.of(ville, 2L), facettes.parVille());
+        assertEquals(0L, facettes.parTranchePrix().get(PriceBucket.GRATUIT));
+        assertEquals(1L, facettes.parTranchePrix().get(PriceBucket.MOINS_DE_100));
+        assertEquals(1L, facettes.parTranchePrix().get(PriceBucket.DE_100_A_200));
+    }
+
+    @Test
+    void testFindByCriteres_CombinaisonDeFiltresPaginee() {
+        // ARRANGE : deux concerts publiés et un brouillon dans une ville propre au test
+        String ville = "Ville " + UUID.randomUUID();
+        Event premier = eventService.createEvent(evenementDansVille(ville, 10, 50.0), organizer.getId());
+        eventService.publierEvent(premier.getId(), organizer.getId());
+        Event second = eventService.createEvent(evenementDansVille(ville, 11, 50.0), organizer.getId());
+        eventService.publierEvent(second.getId(), organizer.getId());
+        eventService.createEvent(evenementDansVille(ville, 12, 50.0), organizer.getId());
+
+        // ACT
+        Page<Event> page1 = eventService.findByCriteres(Set.of(EventStatus.PUBLIE), Set.of(EventCategory.CONCERT),
+                Set.of(ville.toLowerCase()), PageRequest.of(0, 1));
+        Page<Event> page2 = eventService.findByCriteres(Set.of(EventStatus.PUBLIE), Set.of(EventCategory.CONCERT),
+                Set.of(ville.toLowerCase()), PageRequest.of(1, 1));
+        Page<Event> tousStatuts = eventService.findByCriteres(Set.of(EventStatus.PUBLIE, EventStatus.BROUILLON), null,
+                Set.of(ville), PageRequest.of(0, 10));
+
+        // ASSERT
+        assertEquals(2, page1.getTotalElements());
+        assertEquals(premier.getId(), page1.getContent().get(0).getId());
+        assertEquals(second.getId(), page2.getContent().get(0).getId());
+        assertEquals(3, tousStatuts.getTotalElements());
+    }
+
+    @Test
+    void testSuggestions_TitresEtVillesMisesAJour() {
+        // ARRANGE
+        String ville = "Ouarzazate " + UUID.randomUUID();
+        Event event = evenementDansVille(ville, 10, 50.0);
+        event.setTitre("Festival de Zythologie");
+        Event saved = eventService.createEvent(event, organizer.getId());
+
+        // ACT
+        eventService.publierEvent(saved.getId(), organizer.getId());
+
+        // ASSERT : à partir de n'importe quel mot du titre, sans accents ni casse
+        assertTrue(typeaheadService.suggererTitres("ZYTHO", 5).contains("Festival de Zythologie"));
+        assertTrue(typeaheadService.suggererTitres("festival de zyth", 5).contains("Festival de Zythologie"));
+        assertEquals(List.of(ville), typeaheadService.suggererVilles(ville.substring(0, 20), 5));
+
+        // ACT : un événement annulé n'est plus suggéré
+        eventService.annulerEvent(saved.getId(), organizer.getId());
+
+        // ASSERT
+        assertFalse(typeaheadService.suggererTitres("zytho", 5).contains("Festival de Zythologie"));
+        assertTrue(typeaheadService.suggererVilles(ville.substring(0, 20), 5).isEmpty());
+    }
+
+    @Test
+    void testSuggestions_TitresReclassesAChaqueReservation() {
+        // ARRANGE : deux titres de même préfixe, sans réservation
+        String mot = "gala" + UUID.randomUUID().toString().substring(0, 8);
+        Event alpha = evenementDansVille("Rabat", 10, 50.0);
+        alpha.setTitre(mot + " Alpha");
+        alpha = eventService.createEvent(alpha, organizer.getId());
+        eventService.publierEvent(alpha.getId(), organizer.getId());
+        Event beta = evenementDansVille("Rabat", 10, 50.0);
+        beta.setTitre(mot + " Beta");
+        beta = eventService.createEvent(beta, organizer.getId());
+        eventService.publierEvent(beta.getId(), organizer.getId());
+
+        // ACT
+        Reservation reservation = reservationService.createReservation(
+                Reservation.builder().nombrePlaces(3).build(), client.getId(), beta.getId());
+
+        // ASSERT : le titre réservé passe devant, sans réindexation de l'événement
+        assertEquals(List.of(mot + " Beta", mot + " Alpha"), typeaheadService.suggererTitres(mot, 5));
+
+        // ACT : les places rendues le font reculer
+        reservationService.annulerReservation(reservation.getId(), client.getId());
+        reservationService.createReservation(Reservation.builder().nombrePlaces(1).build(), client.getId(), alpha.getId());
+
+        // ASSERT
+        assertEquals(List.of(mot + " Alpha", mot + " Beta"), typeaheadService.suggererTitres(mot, 5));
+    }
+
+    private Event evenementDansVille(String ville, int joursAvantDebut, double prix) {
+        return Event.builder()
+                .titre("Concert Recherche")
+                .description("Test")
+                .categorie(EventCategory.CONCERT)
+                .dateDebut(LocalDateTime.now().plusDays(joursAvantDebut))
+                .dateFin(LocalDateTime.now().plusDays(joursAvantDebut).plusHours(3))
+                .lieu("Salle")
+                .ville(ville)
+                .capaciteMax(100)
+                .prixUnitaire(prix)
+                .build();
+    }
+}
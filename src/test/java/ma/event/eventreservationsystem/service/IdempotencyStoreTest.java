@@ -0,0 +1,78 @@
+package ma.event.eventreservationsystem.service;
+
+import ma.event.eventreservationsystem.exception.ConflictException;
+import ma.event.eventreservationsystem.util.IdempotencyStore;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Stockage seul (sans contexte Spring) : deux entrées au plus
+class IdempotencyStoreTest {
+
+    private final IdempotencyStore idempotencyStore = new IdempotencyStore(Duration.ofMinutes(10), 2);
+
+    @Test
+    void testExecuter_EvinceLaPlusAncienneExecutionTerminee() {
+        // ARRANGE : deux exécutions terminées remplissent le stockage
+        AtomicInteger executions = new AtomicInteger();
+        idempotencyStore.executer("a", executions::incrementAndGet);
+        idempotencyStore.executer("b", executions::incrementAndGet);
+
+        // ACT : une nouvelle clé évince la plus ancienne
+        idempotencyStore.executer("c", executions::incrementAndGet);
+
+        // ASSERT : "b" est toujours servie sans réexécution, "a" est réexécutée
+        assertEquals(2, idempotencyStore.taille());
+        assertEquals(2, idempotencyStore.executer("b", executions::incrementAndGet));
+        assertEquals(4, idempotencyStore.executer("a", executions::incrementAndGet));
+    }
+
+    @Test
+    void testExecuter_RefuseUneNouvelleCleQuandToutEstEnCours() throws Exception {
+        // ARRANGE : deux exécutions bloquées occupent tout le stockage
+        CountDownLatch liberation = new CountDownLatch(1);
+        CountDownLatch demarrees = new CountDownLatch(2);
+        AtomicInteger executions = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        CompletableFuture<Integer> premiere = CompletableFuture.supplyAsync(
+                () -> idempotencyStore.executer("a", () -> bloquer(demarrees, liberation, executions)), executor);
+        CompletableFuture<Integer> seconde = CompletableFuture.supplyAsync(
+                () -> idempotencyStore.executer("b", () -> bloquer(demarrees, liberation, executions)), executor);
+        assertTrue(demarrees.await(5, TimeUnit.SECONDS));
+
+        // ACT & ASSERT : la nouvelle clé est refusée, aucune exécution en cours n'est évincée
+        assertThrows(ConflictException.class, () -> idempotencyStore.executer("c", executions::incrementAndGet));
+        assertEquals(2, idempotencyStore.taille());
+
+        // Une répétition concurrente attend toujours la première exécution au lieu de la rejouer
+        CompletableFuture<Integer> repetition = CompletableFuture.supplyAsync(
+                () -> idempotencyStore.executer("a", executions::incrementAndGet), executor);
+        liberation.countDown();
+        assertEquals(premiere.get(5, TimeUnit.SECONDS), repetition.get(5, TimeUnit.SECONDS));
+        seconde.get(5, TimeUnit.SECONDS);
+        executor.shutdown();
+        assertEquals(2, executions.get());
+
+        // Une fois les exécutions terminées, la nouvelle clé est acceptée
+        assertEquals(3, idempotencyStore.executer("c", executions::incrementAndGet));
+    }
+
+    private static int bloquer(CountDownLatch demarrees, CountDownLatch liberation, AtomicInteger executions) {
+        int numero = executions.incrementAndGet();
+        demarrees.countDown();
+        try {
+            liberation.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return numero;
+    }
+}
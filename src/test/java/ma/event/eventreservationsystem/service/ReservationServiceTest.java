@@ -1,5 +1,9 @@
 package ma.event.eventreservationsystem.service;
 
+import ma.event.eventreservationsystem.dto.DemandeReservation;
+import ma.event.eventreservationsystem.dto.KeysetPage;
+import ma.event.eventreservationsystem.dto.ResultatOperation;
+import ma.event.eventreservationsystem.dto.ResultatReservation;
 import ma.event.eventreservationsystem.entity.Event;
 import ma.event.eventreservationsystem.entity.Reservation;
 import ma.event.eventreservationsystem.entity.User;
@@ -7,14 +11,37 @@ import ma.event.eventreservationsystem.entity.enums.EventCategory;
 import ma.event.eventreservationsystem.entity.enums.EventStatus;
 import ma.event.eventreservationsystem.entity.enums.ReservationStatus;
 import ma.event.eventreservationsystem.entity.enums.UserRole;
+import ma.event.eventreservationsystem.exception.BadRequestException;
 import ma.event.eventreservationsystem.exception.BusinessException;
+import ma.event.eventreservationsystem.exception.ConflictException;
+import ma.event.eventreservationsystem.exception.ForbiddenException;
+import ma.event.eventreservationsystem.repository.ReservationRepository;
+import ma.event.eventreservationsystem.service.inventory.SeatCounter;
+import ma.event.eventreservationsystem.service.stats.ReservationRollups;
+import ma.event.eventreservationsystem.service.stats.RollupPoint;
+import ma.event.eventreservationsystem.util.KeysetNavigator;
+import ma.event.eventreservationsystem.util.ReservationCodeGenerator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -30,7 +57,20 @@ class ReservationServiceTest {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private ReservationRollups reservationRollups;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SeatCounter seatCounter;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
     private User client;
+    private User organizer;
     private Event event;
 
     @BeforeEach
@@ -46,7 +86,7 @@ class ReservationServiceTest {
         client = userService.inscription(client);
 
         // Créer un organisateur
-        User organizer = User.builder()
+        organizer = User.builder()
                 .nom("Organizer")
                 .prenom("Test")
                 .email("org." + UUID.randomUUID() + "@test.com")
@@ -145,4 +185,397 @@ class ReservationServiceTest {
         assertNotEquals(saved1.getCodeReservation(), saved2.getCodeReservation(),
                 "Les codes de réservation doivent être uniques");
     }
-}
\ No newline at end of file
+
+    @Test
+    void testCodeReservation_SansCollisionApresRedemarrage() {
+        // ARRANGE : une instance qui a épuisé le compteur de plusieurs secondes (secondes futures empruntées)
+        ReservationCodeGenerator avant = new ReservationCodeGenerator(reservationRepository, 0);
+        Set<String> emis = new HashSet<>();
+        String dernier = null;
+        for (int i = 0; i < 20_000; i++) {
+            dernier = avant.generer();
+            emis.add(dernier);
+        }
+
+        // ACT : redémarrage dans la même seconde, reprise après le dernier code émis
+        ReservationCodeGenerator apres = new ReservationCodeGenerator(reservationRepository, 0);
+        apres.reprendreApres(dernier);
+
+        // ASSERT
+        for (int i = 0; i < 20_000; i++) {
+            String code = apres.generer();
+            assertTrue(emis.add(code), "Code réémis après redémarrage : " + code);
+        }
+    }
+
+    @Test
+    void testCodeReservation_RepriseDepuisLaBase() {
+        // ARRANGE
+        Reservation enregistree = reservationService.createReservation(
+                Reservation.builder().nombrePlaces(1).build(), client.getId(), event.getId());
+
+        // ACT : nouvelle instance, état relu depuis les codes enregistrés
+        ReservationCodeGenerator redemarre = new ReservationCodeGenerator(reservationRepository, 0);
+        redemarre.reprendre();
+
+        // ASSERT
+        assertTrue(redemarre.generer().compareTo(enregistree.getCodeReservation()) > 0);
+    }
+
+    @Test
+    void testCreateReservation_CapaciteRespecteeSousConcurrence() throws Exception {
+        // ARRANGE : 20 demandes simultanées de 10 places pour un événement de 100 places
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch depart = new CountDownLatch(1);
+        List<Future<Boolean>> resultats = new ArrayList<>();
+
+        for (int i = 0; i < 20; i++) {
+            resultats.add(executor.submit(() -> {
+                depart.await();
+                try {
+                    reservationService.createReservation(
+                            Reservation.builder().nombrePlaces(10).build(),
+                            client.getId(),
+                            event.getId()
+                    );
+                    return true;
+                } catch (ConflictException e) {
+                    // Seul un refus pour capacité est admis, jamais un abandon dû à la contention
+                    assertTrue(e.getMessage().startsWith("Places insuffisantes"), e.getMessage());
+                    return false;
+                }
+            }));
+        }
+
+        // ACT
+        depart.countDown();
+        long acceptees = 0;
+        for (Future<Boolean> resultat : resultats) {
+            if (resultat.get()) {
+                acceptees++;
+            }
+        }
+        executor.shutdown();
+
+        // ASSERT
+        assertEquals(10, acceptees, "La capacité de l'événement ne doit jamais être dépassée");
+        assertEquals(0, eventService.getPlacesDisponibles(event.getId()));
+    }
+
+    @Test
+    void testCreateReservation_ContentionSansEchecTantQueDesPlacesRestent() throws Exception {
+        // ARRANGE : 30 acheteurs simultanés d'une place chacun, bien plus que de places libres manquantes
+        ExecutorService executor = Executors.newFixedThreadPool(30);
+        CountDownLatch depart = new CountDownLatch(1);
+        List<Future<Reservation>> resultats = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            resultats.add(executor.submit(() -> {
+                depart.await();
+                return reservationService.createReservation(
+                        Reservation.builder().nombrePlaces(1).build(), client.getId(), event.getId());
+            }));
+        }
+
+        // ACT
+        depart.countDown();
+        List<Reservation> creees = new ArrayList<>();
+        for (Future<Reservation> resultat : resultats) {
+            creees.add(resultat.get());
+        }
+        // Les annulations passent elles aussi sous la charge
+        ExecutorService annulations = Executors.newFixedThreadPool(10);
+        List<Future<?>> fins = new ArrayList<>();
+        for (Reservation reservation : creees.subList(0, 10)) {
+            fins.add(annulations.submit(() -> reservationService.annulerReservation(reservation.getId(), client.getId())));
+        }
+        for (Future<?> fin : fins) {
+            fin.get();
+        }
+        executor.shutdown();
+        annulations.shutdown();
+
+        // ASSERT : aucune demande refusée alors qu'il restait des places
+        assertEquals(30, creees.size());
+        assertEquals(80, eventService.getPlacesDisponibles(event.getId()));
+    }
+
+    @Test
+    void testCompteurDePlaces_SansEffetSurLaVersionNiLEdition() {
+        // ARRANGE
+        Long versionAvant = eventService.findById(event.getId()).getVersion();
+        reservationService.createReservation(Reservation.builder().nombrePlaces(4).build(), client.getId(), event.getId());
+
+        // ACT : l'organisateur modifie l'événement pendant les ventes
+        Event modifie = eventService.findById(event.getId());
+        assertEquals(versionAvant, modifie.getVersion());
+        modifie.setTitre("Concert Test Réservation (modifié)");
+        eventService.updateEvent(event.getId(), modifie, organizer.getId());
+
+        // ASSERT : l'enregistrement de l'événement n'a pas écrasé le compteur
+        assertEquals(96, eventService.getPlacesDisponibles(event.getId()));
+        reservationService.createReservation(Reservation.builder().nombrePlaces(1).build(), client.getId(), event.getId());
+        assertEquals(95, eventService.getPlacesDisponibles(event.getId()));
+    }
+
+    @Test
+    void testReconcilier_RecalculeLeCompteurDepuisLesReservations() {
+        // ARRANGE : un compteur faussé directement en base
+        reservationService.createReservation(Reservation.builder().nombrePlaces(3).build(), client.getId(), event.getId());
+        Reservation annulee = reservationService.createReservation(
+                Reservation.builder().nombrePlaces(2).build(), client.getId(), event.getId());
+        reservationService.annulerReservation(annulee.getId(), client.getId());
+        jdbcTemplate.update("UPDATE events SET places_reservees = 42 WHERE id = ?", event.getId());
+
+        // ACT
+        seatCounter.reconcilier();
+
+        // ASSERT : seules les réservations non annulées comptent
+        assertEquals(3, seatCounter.lire(event.getId()).placesReservees());
+    }
+
+    @Test
+    void testCreateReservations_LotAvecResultatParDemande() {
+        // ARRANGE
+        List<DemandeReservation> demandes = List.of(
+                new DemandeReservation(client.getId(), event.getId(), 10, "Guichet"),
+                new DemandeReservation(client.getId(), event.getId(), 11, null),      // Plus de 10 !
+                new DemandeReservation(-1L, event.getId(), 2, null),                  // Utilisateur inconnu
+                new DemandeReservation(client.getId(), event.getId(), 5, null)
+        );
+
+        // ACT
+        List<ResultatReservation> resultats = reservationService.createReservations(demandes);
+
+        // ASSERT
+        assertEquals(4, resultats.size());
+        assertTrue(resultats.get(0).estReussie());
+        assertFalse(resultats.get(1).estReussie());
+        assertFalse(resultats.get(2).estReussie());
+        assertTrue(resultats.get(3).estReussie());
+        assertNotNull(resultats.get(0).reservation().getId());
+        assertEquals(250.0, resultats.get(3).reservation().getMontantTotal()); // 5 × 50
+        assertNotEquals(resultats.get(0).reservation().getCodeReservation(),
+                resultats.get(3).reservation().getCodeReservation());
+        assertEquals(85, eventService.getPlacesDisponibles(event.getId()));
+    }
+
+    @Test
+    void testCreateReservation_IdempotenceSousConcurrence() throws Exception {
+        // ARRANGE : 10 soumissions simultanées du même formulaire (même clé)
+        String cle = UUID.randomUUID().toString();
+        ExecutorService executor = Executors.newFixedThreadPool(10);
+        CountDownLatch depart = new CountDownLatch(1);
+        List<Future<Reservation>> resultats = new ArrayList<>();
+
+        for (int i = 0; i < 10; i++) {
+            resultats.add(executor.submit(() -> {
+                depart.await();
+                return reservationService.createReservation(
+                        Reservation.builder().nombrePlaces(2).build(),
+                        client.getId(),
+                        event.getId(),
+                        cle
+                );
+            }));
+        }
+
+        // ACT
+        depart.countDown();
+        List<Long> ids = new ArrayList<>();
+        for (Future<Reservation> resultat : resultats) {
+            ids.add(resultat.get().getId());
+        }
+        executor.shutdown();
+
+        // ASSERT : une seule réservation créée, renvoyée à toutes les soumissions
+        assertEquals(1, ids.stream().distinct().count());
+        assertEquals(1, reservationService.findByEvenement(event.getId()).size());
+        assertEquals(98, eventService.getPlacesDisponibles(event.getId()));
+    }
+
+    @Test
+    void testOperationsGroupees_ResultatParReservationEtCompteurCoherent() {
+        // ARRANGE
+        Reservation r1 = reservationService.createReservation(
+                Reservation.builder().nombrePlaces(2).build(), client.getId(), event.getId());
+        Reservation r2 = reservationService.createReservation(
+                Reservation.builder().nombrePlaces(3).build(), client.getId(), event.getId());
+        Reservation r3 = reservationService.createReservation(
+                Reservation.builder().nombrePlaces(4).build(), client.getId(), event.getId());
+        reservationService.confirmerReservation(r1.getId(), client.getId());
+
+        // ACT : confirmation groupée (r1 déjà confirmée, un ID inconnu)
+        List<ResultatOperation> confirmations = reservationService.confirmerReservations(
+                event.getId(), List.of(r1.getId(), r2.getId(), -1L), organizer.getId());
+
+        // ASSERT
+        assertEquals(3, confirmations.size());
+        assertFalse(confirmations.get(0).reussie());
+        assertTrue(confirmations.get(1).reussie());
+        assertFalse(confirmations.get(2).reussie());
+        assertEquals(ReservationStatus.CONFIRMEE, reservationService.findById(r2.getId()).getStatut());
+
+        // ACT : annulation groupée de tout le lot, puis une seconde fois
+        List<ResultatOperation> annulations = reservationService.annulerReservations(
+                event.getId(), List.of(r1.getId(), r2.getId(), r3.getId()), organizer.getId());
+        List<ResultatOperation> secondesAnnulations = reservationService.annulerReservations(
+                event.getId(), List.of(r1.getId(), r2.getId(), r3.getId()), organizer.getId());
+
+        // ASSERT : toutes les places sont rendues, une seule fois
+        assertTrue(annulations.stream().allMatch(ResultatOperation::reussie));
+        assertTrue(secondesAnnulations.stream().noneMatch(ResultatOperation::reussie));
+        assertEquals(100, eventService.getPlacesDisponibles(event.getId()));
+    }
+
+    @Test
+    void testGetStatistiquesReservation_TenuesAJourSansRelecture() {
+        // ARRANGE
+        Map<String, Object> avant = reservationService.getStatistiquesReservation();
+        Reservation confirmee = reservationService.createReservation(
+                Reservation.builder().nombrePlaces(2).build(), client.getId(), event.getId());
+        Reservation annulee = reservationService.createReservation(
+                Reservation.builder().nombrePlaces(3).build(), client.getId(), event.getId());
+
+        // ACT
+        reservationService.confirmerReservation(confirmee.getId(), client.getId());
+        reservationService.annulerReservation(annulee.getId(), client.getId());
+        Map<String, Object> apres = reservationService.getStatistiquesReservation();
+
+        // ASSERT : écarts dus à ces seules opérations, et mêmes valeurs qu'un comptage en base
+        assertEquals(2L, (long) apres.get("nombreTotalReservations") - (long) avant.get("nombreTotalReservations"));
+        assertEquals(1L, (long) apres.get("reservationsConfirmees") - (long) avant.get("reservationsConfirmees"));
+        assertEquals(1L, (long) apres.get("reservationsAnnulees") - (long) avant.get("reservationsAnnulees"));
+        assertEquals(avant.get("reservationsEnAttente"), apres.get("reservationsEnAttente"));
+        assertEquals(100.0, (double) apres.get("revenuTotal") - (double) avant.get("revenuTotal"), 0.001);
+        assertEquals(2, (int) apres.get("nombreTotalPlaces") - (int) avant.get("nombreTotalPlaces"));
+        assertEquals(reservationService.countReservations(ReservationStatus.CONFIRMEE, null, null),
+                apres.get("reservationsConfirmees"));
+        assertEquals(reservationService.countReservations(null, null, null), apres.get("nombreTotalReservations"));
+    }
+
+    @Test
+    void testRollups_TranchesHorairesEtJournalieres() {
+        // ARRANGE
+        LocalDateTime maintenant = LocalDateTime.now();
+        Reservation confirmee = reservationService.createReservation(
+                Reservation.builder().nombrePlaces(2).build(), client.getId(), event.getId());
+        Reservation annulee = reservationService.createReservation(
+                Reservation.builder().nombrePlaces(3).build(), client.getId(), event.getId());
+        Reservation ancienne = reservationService.createReservation(
+                Reservation.builder().nombrePlaces(1).build(), client.getId(), event.getId());
+
+        // ACT
+        reservationService.confirmerReservation(confirmee.getId(), client.getId());
+        reservationService.annulerReservation(annulee.getId(), client.getId());
+        reservationService.confirmerReservation(ancienne.getId(), client.getId());
+        List<RollupPoint> heures = reservationRollups.parEvenement(event.getId(),
+                ReservationRollups.Granularite.HEURE, maintenant.minusDays(40), maintenant.plusHours(1));
+
+        // ASSERT : tranches tenues à jour sans relecture (sommées, le test pouvant chevaucher deux heures)
+        assertEquals(3, heures.stream().mapToLong(RollupPoint::reservations).sum());
+        assertEquals(6, heures.stream().mapToLong(RollupPoint::places).sum());
+        assertEquals(2, heures.stream().mapToLong(RollupPoint::confirmees).sum());
+        assertEquals(1, heures.stream().mapToLong(RollupPoint::annulees).sum());
+        assertEquals(150.0, heures.stream().mapToDouble(RollupPoint::revenu).sum(), 0.001);
+
+        // ACT : une réservation vieillie hors de la période de rétention horaire, puis reconstruction depuis la base
+        jdbcTemplate.update("UPDATE reservations SET date_reservation = ? WHERE id = ?",
+                maintenant.minusDays(30), ancienne.getId());
+        reservationRollups.reconstruire();
+        heures = reservationRollups.parEvenement(event.getId(),
+                ReservationRollups.Granularite.HEURE, maintenant.minusDays(40), maintenant.plusHours(1));
+        List<RollupPoint> jours = reservationRollups.parEvenement(event.getId(),
+                ReservationRollups.Granularite.JOUR, maintenant.minusDays(40), maintenant.plusHours(1));
+
+        // ASSERT : la réservation ancienne n'existe plus qu'au niveau journalier
+        assertEquals(2, heures.stream().mapToLong(RollupPoint::reservations).sum());
+        assertEquals(100.0, heures.stream().mapToDouble(RollupPoint::revenu).sum(), 0.001);
+        assertEquals(maintenant.minusDays(30).toLocalDate(), jours.get(0).debut().toLocalDate());
+        assertEquals(1, jours.get(0).reservations());
+        assertEquals(50.0, jours.get(0).revenu(), 0.001);
+        assertEquals(3, jours.stream().mapToLong(RollupPoint::reservations).sum());
+    }
+
+    @Test
+    void testOperationsGroupees_ReserveesALOrganisateur() {
+        // ARRANGE
+        Reservation reservation = reservationService.createReservation(
+                Reservation.builder().nombrePlaces(1).build(), client.getId(), event.getId());
+
+        // ACT & ASSERT
+        assertThrows(ForbiddenException.class, () ->
+                reservationService.confirmerReservations(event.getId(), List.of(reservation.getId()), client.getId()));
+    }
+
+    @Test
+    void testFindFenetre_ParcoursParCleSansDoublon() {
+        // ARRANGE
+        List<Long> attendus = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            attendus.add(reservationService.createReservation(
+                    Reservation.builder().nombrePlaces(1).build(), client.getId(), event.getId()).getId());
+        }
+
+        // ACT : fenêtres de 3, en suivant le curseur
+        List<Long> parcourus = new ArrayList<>();
+        List<Integer> tailles = new ArrayList<>();
+        String curseur = null;
+        do {
+            KeysetPage<Reservation> fenetre = reservationService.findFenetreByEvenement(event.getId(), curseur, 3);
+            fenetre.contenu().forEach(r -> parcourus.add(r.getId()));
+            tailles.add(fenetre.contenu().size());
+            curseur = fenetre.curseurSuivant();
+        } while (curseur != null);
+
+        // ASSERT : toutes les réservations, une seule fois, des plus récentes aux plus anciennes
+        assertEquals(List.of(3, 3, 1), tailles);
+        Collections.reverse(attendus);
+        assertEquals(attendus, parcourus);
+        assertThrows(BadRequestException.class, () ->
+                reservationService.findFenetreByEvenement(event.getId(), "pas-un-curseur", 3));
+    }
+
+    @Test
+    void testKeysetNavigator_SautDirectVersUnePositionLointaine() {
+        // ARRANGE : les 8 réservations les plus récentes
+        List<Long> attendus = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            attendus.add(reservationService.createReservation(
+                    Reservation.builder().nombrePlaces(1).build(), client.getId(), event.getId()).getId());
+        }
+        Collections.reverse(attendus);
+        KeysetNavigator<Reservation> navigateur = new KeysetNavigator<>(
+                (curseur, taille) -> reservationService.findFenetre(null, curseur, taille),
+                (curseur, lignes) -> reservationService.sauterFenetre(null, curseur, lignes));
+
+        // ACT : saut à la position 5 sans lecture préalable, puis retour en arrière
+        List<Long> loin = navigateur.lire(5, 3).stream().map(Reservation::getId).toList();
+        List<Long> debut = navigateur.lire(2, 2).stream().map(Reservation::getId).toList();
+
+        // ASSERT : mêmes lignes qu'un parcours depuis le début
+        assertEquals(attendus.subList(5, 8), loin);
+        assertEquals(attendus.subList(2, 4), debut);
+        assertNull(reservationService.sauterFenetre(null, null, Integer.MAX_VALUE));
+    }
+
+    @Test
+    void testSearchReservations_FiltresTriEtComptageEnBase() {
+        // ARRANGE
+        Reservation une = reservationService.createReservation(
+                Reservation.builder().nombrePlaces(1).build(), client.getId(), event.getId());
+        reservationService.createReservation(Reservation.builder().nombrePlaces(3).build(), client.getId(), event.getId());
+        reservationService.createReservation(Reservation.builder().nombrePlaces(2).build(), client.getId(), event.getId());
+
+        // ACT : première page de 2, triée par nombre de places décroissant
+        Page<Reservation> page = reservationService.searchReservations(null, event.getId(), null,
+                PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "nombrePlaces")));
+
+        // ASSERT
+        assertEquals(List.of(3, 2), page.getContent().stream().map(Reservation::getNombrePlaces).toList());
+        assertEquals(3, reservationService.countReservations(null, event.getId(), null));
+        assertEquals(3, reservationService.countReservations(ReservationStatus.EN_ATTENTE, event.getId(), null));
+        assertEquals(0, reservationService.countReservations(ReservationStatus.CONFIRMEE, event.getId(), null));
+        assertEquals(1, reservationService.countReservations(null, event.getId(),
+                une.getCodeReservation().toLowerCase()));
+    }
+}
@@ -0,0 +1,118 @@
+package ma.event.eventreservationsystem.service;
+
+import ma.event.eventreservationsystem.entity.Event;
+import ma.event.eventreservationsystem.entity.Reservation;
+import ma.event.eventreservationsystem.entity.User;
+import ma.event.eventreservationsystem.entity.enums.EventCategory;
+import ma.event.eventreservationsystem.entity.enums.UserRole;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Débit de création de réservations selon la taille de la table des réservations.
+ * Lancement : {@code mvn test -Pbenchmark} (paliers modifiables avec -Dbenchmark.paliers=0,100000,1000000).
+ */
+@Tag("benchmark")
+@SpringBootTest
+class ReservationThroughputBenchmarkTest {
+
+    private static final int RESERVATIONS_PAR_MESURE = 2000;
+    private static final int TAILLE_LOT_REMPLISSAGE = 100_000;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void benchmarkDebitCreationSelonTailleTable() {
+        // ARRANGE
+        User client = userService.inscription(User.builder()
+                .nom("Client").prenom("Benchmark")
+                .email("bench." + UUID.randomUUID() + "@test.com")
+                .password("password123")
+                .role(UserRole.CLIENT)
+                .build());
+        User organizer = userService.inscription(User.builder()
+                .nom("Organizer").prenom("Benchmark")
+                .email("bench.org." + UUID.randomUUID() + "@test.com")
+                .password("password123")
+                .role(UserRole.ORGANIZER)
+                .build());
+
+        Event event = eventService.createEvent(Event.builder()
+                .titre("Benchmark Réservations")
+                .description("Benchmark")
+                .categorie(EventCategory.CONCERT)
+                .dateDebut(LocalDateTime.now().plusDays(30))
+                .dateFin(LocalDateTime.now().plusDays(30).plusHours(3))
+                .lieu("Salle")
+                .ville("Casablanca")
+                .capaciteMax(Integer.MAX_VALUE)
+                .prixUnitaire(10.0)
+                .build(), organizer.getId());
+        event = eventService.publierEvent(event.getId(), organizer.getId());
+
+        long[] paliers = Arrays.stream(System.getProperty("benchmark.paliers", "0,100000,1000000").split(","))
+                .mapToLong(p -> Long.parseLong(p.trim()))
+                .toArray();
+
+        // Préchauffage (JIT, pools, caches)
+        mesurerDebit(client.getId(), event.getId());
+
+        // ACT
+        List<Double> debits = new ArrayList<>();
+        for (long palier : paliers) {
+            remplirTable(palier, client.getId(), event.getId());
+            double debit = mesurerDebit(client.getId(), event.getId());
+            debits.add(debit);
+            System.out.printf("Réservations en table : %,d -> %,.0f réservations/s%n",
+                    jdbcTemplate.queryForObject("SELECT COUNT(*) FROM reservations", Long.class), debit);
+        }
+
+        // ASSERT : le débit ne doit pas s'effondrer quand la table grossit
+        double premier = debits.get(0);
+        double dernier = debits.get(debits.size() - 1);
+        assertTrue(dernier >= premier * 0.5,
+                String.format("Débit dégradé : %.0f/s au départ, %.0f/s au dernier palier", premier, dernier));
+    }
+
+    private double mesurerDebit(Long clientId, Long eventId) {
+        long debut = System.nanoTime();
+        for (int i = 0; i < RESERVATIONS_PAR_MESURE; i++) {
+            reservationService.createReservation(Reservation.builder().nombrePlaces(1).build(), clientId, eventId);
+        }
+        return RESERVATIONS_PAR_MESURE / ((System.nanoTime() - debut) / 1e9);
+    }
+
+    // Fait grossir la table jusqu'à la taille voulue (lignes annulées : le compteur de places n'est pas touché)
+    private void remplirTable(long taille, Long clientId, Long eventId) {
+        Long actuel = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM reservations", Long.class);
+        for (long debut = actuel + 1; debut <= taille; debut += TAILLE_LOT_REMPLISSAGE) {
+            long fin = Math.min(taille, debut + TAILLE_LOT_REMPLISSAGE - 1);
+            jdbcTemplate.update("INSERT INTO reservations (id, utilisateur_id, evenement_id, nombre_places, montant_total, " +
+                            "date_reservation, statut, code_reservation) " +
+                            "SELECT NEXT VALUE FOR reservations_seq, ?, ?, 1, 10.0, CURRENT_TIMESTAMP, 'ANNULEE', 'BENCH-' || X " +
+                            "FROM SYSTEM_RANGE(?, ?)",
+                    clientId, eventId, debut, fin);
+        }
+    }
+}
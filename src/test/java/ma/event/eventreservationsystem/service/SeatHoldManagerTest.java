@@ -0,0 +1,171 @@
+package ma.event.eventreservationsystem.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import ma.event.eventreservationsystem.entity.Event;
+import ma.event.eventreservationsystem.entity.Reservation;
+import ma.event.eventreservationsystem.entity.User;
+import ma.event.eventreservationsystem.entity.enums.EventCategory;
+import ma.event.eventreservationsystem.entity.enums.ReservationStatus;
+import ma.event.eventreservationsystem.entity.enums.UserRole;
+import ma.event.eventreservationsystem.exception.BusinessException;
+import ma.event.eventreservationsystem.repository.ReservationRepository;
+import ma.event.eventreservationsystem.service.inventory.SeatHoldExpirer;
+import ma.event.eventreservationsystem.service.inventory.SeatHoldManager;
+import ma.event.eventreservationsystem.service.inventory.TimingWheel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Blocages d'une seconde ; la roue n'avance qu'une fois par heure, pour que les tests
+// déclenchent eux-mêmes l'expiration sans course avec la tâche planifiée
+@SpringBootTest(properties = {
+        "reservation.hold.ttl=1s",
+        "reservation.hold.tick-ms=3600000"
+})
+class SeatHoldManagerTest {
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private SeatHoldExpirer seatHoldExpirer;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    private User client;
+    private Event event;
+
+    @BeforeEach
+    void setUp() {
+        client = userService.inscription(User.builder()
+                .nom("Client")
+                .prenom("Test")
+                .email("client." + UUID.randomUUID() + "@test.com")
+                .password("password123")
+                .role(UserRole.CLIENT)
+                .build());
+        User organizer = userService.inscription(User.builder()
+                .nom("Organizer")
+                .prenom("Test")
+                .email("org." + UUID.randomUUID() + "@test.com")
+                .password("password123")
+                .role(UserRole.ORGANIZER)
+                .build());
+
+        event = eventService.createEvent(Event.builder()
+                .titre("Concert Test Blocage")
+                .description("Test")
+                .categorie(EventCategory.CONCERT)
+                .dateDebut(LocalDateTime.now().plusDays(10))
+                .dateFin(LocalDateTime.now().plusDays(10).plusHours(3))
+                .lieu("Salle")
+                .ville("Casablanca")
+                .capaciteMax(100)
+                .prixUnitaire(50.0)
+                .build(), organizer.getId());
+        event = eventService.publierEvent(event.getId(), organizer.getId());
+    }
+
+    @Test
+    void testTimingWheel_EcheancesAuDelaDUnTour() {
+        // ARRANGE : 512 cases de 10 ms, une échéance dans le premier tour et deux après un tour complet
+        long debut = 1_000_000;
+        TimingWheel<String> roue = new TimingWheel<>(512, 10, debut);
+        roue.planifier("proche", debut + 5 * 10);
+        roue.planifier("tour suivant", debut + 600 * 10);
+        roue.planifier("meme case, tour suivant", debut + (5 + 512) * 10);
+
+        // ACT & ASSERT : la case 5 ne rend que l'échéance de ce tour
+        assertEquals(List.of("proche"), roue.avancer(debut + 5 * 10));
+        assertEquals(List.of(), roue.avancer(debut + 511 * 10));
+        assertEquals(List.of("meme case, tour suivant"), roue.avancer(debut + 517 * 10));
+        assertEquals(1, roue.taille());
+        // Long retard (plus d'un tour d'un coup) : l'échéance restante est rendue une seule fois
+        assertEquals(List.of("tour suivant"), roue.avancer(debut + 2000 * 10));
+        assertEquals(0, roue.taille());
+    }
+
+    @Test
+    void testExpirer_RendLesPlacesDuBlocage() {
+        // ARRANGE
+        Reservation reservation = reservationService.createReservation(
+                Reservation.builder().nombrePlaces(2).build(), client.getId(), event.getId());
+        assertEquals(98, eventService.getPlacesDisponibles(event.getId()));
+
+        // ACT
+        int expirees = seatHoldExpirer.expirer(List.of(reservation.getId()));
+
+        // ASSERT : réservation annulée, places rendues au compteur et à l'inventaire en mémoire
+        assertEquals(1, expirees);
+        assertEquals(ReservationStatus.ANNULEE, reservationService.findById(reservation.getId()).getStatut());
+        assertEquals(100, eventService.getPlacesDisponibles(event.getId()));
+        Reservation suivante = reservationService.createReservation(
+                Reservation.builder().nombrePlaces(10).build(), client.getId(), event.getId());
+        assertNotNull(suivante.getId());
+        assertEquals(90, eventService.getPlacesDisponibles(event.getId()));
+    }
+
+    @Test
+    void testExpirer_IgnoreLesReservationsConfirmees() {
+        // ARRANGE
+        Reservation reservation = reservationService.createReservation(
+                Reservation.builder().nombrePlaces(2).build(), client.getId(), event.getId());
+        reservationService.confirmerReservation(reservation.getId(), client.getId());
+
+        // ACT
+        int expirees = seatHoldExpirer.expirer(List.of(reservation.getId()));
+
+        // ASSERT
+        assertEquals(0, expirees);
+        assertEquals(98, eventService.getPlacesDisponibles(event.getId()));
+    }
+
+    @Test
+    void testConfirmerReservation_RefuseUnBlocageExpire() throws Exception {
+        // ARRANGE
+        Reservation reservation = reservationService.createReservation(
+                Reservation.builder().nombrePlaces(1).build(), client.getId(), event.getId());
+        Thread.sleep(1_100);
+
+        // ACT & ASSERT : le délai est dépassé même si l'expiration n'a pas encore été traitée
+        BusinessException erreur = assertThrows(BusinessException.class, () ->
+                reservationService.confirmerReservation(reservation.getId(), client.getId()));
+        assertTrue(erreur.getMessage().contains("délai de confirmation"));
+        assertEquals(ReservationStatus.EN_ATTENTE, reservationService.findById(reservation.getId()).getStatut());
+    }
+
+    @Test
+    void testChargerBlocagesEnAttente_ReconstruitDepuisLaBase() throws Exception {
+        // ARRANGE : une réservation en attente et une confirmée, puis un gestionnaire neuf (redémarrage)
+        Reservation enAttente = reservationService.createReservation(
+                Reservation.builder().nombrePlaces(1).build(), client.getId(), event.getId());
+        Reservation confirmee = reservationService.createReservation(
+                Reservation.builder().nombrePlaces(1).build(), client.getId(), event.getId());
+        reservationService.confirmerReservation(confirmee.getId(), client.getId());
+        SeatHoldManager redemarre = new SeatHoldManager(reservationRepository, seatHoldExpirer,
+                new SimpleMeterRegistry(), Duration.ofSeconds(1), 3_600_000, 500);
+
+        // ACT
+        redemarre.chargerBlocagesEnAttente();
+        Thread.sleep(1_100);
+
+        // ASSERT : seule la réservation en attente a retrouvé un blocage, échu selon sa date de réservation
+        assertTrue(redemarre.estExpire(enAttente.getId()));
+        assertFalse(redemarre.estExpire(confirmee.getId()));
+    }
+}
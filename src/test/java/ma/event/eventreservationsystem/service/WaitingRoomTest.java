@@ -0,0 +1,109 @@
+package ma.event.eventreservationsystem.service;
+
+import ma.event.eventreservationsystem.exception.BusinessException;
+import ma.event.eventreservationsystem.service.inventory.WaitingRoom;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Salle d'attente seule (sans contexte Spring) : 10 admissions par seconde, rafale de 2
+class WaitingRoomTest {
+
+    private static final Long EVENEMENT = 1L;
+
+    private final WaitingRoom waitingRoom = new WaitingRoom(10, 2, 1, Duration.ofMillis(100), Duration.ofMinutes(5));
+
+    @Test
+    void testEntrer_RafaleAdmiseAussitotPuisFile() {
+        // ACT
+        long premier = waitingRoom.entrer(EVENEMENT);
+        long deuxieme = waitingRoom.entrer(EVENEMENT);
+        long troisieme = waitingRoom.entrer(EVENEMENT);
+        long quatrieme = waitingRoom.entrer(EVENEMENT);
+
+        // ASSERT : les jetons de la rafale admettent les deux premiers, les suivants attendent dans l'ordre
+        assertTrue(waitingRoom.estAdmis(EVENEMENT, premier));
+        assertTrue(waitingRoom.estAdmis(EVENEMENT, deuxieme));
+        assertEquals(1, waitingRoom.getPosition(EVENEMENT, troisieme));
+        assertEquals(2, waitingRoom.getPosition(EVENEMENT, quatrieme));
+    }
+
+    @Test
+    void testAdmettre_RechargeAuDebitEtPlafonneeParLaRafale() throws Exception {
+        // ARRANGE : rafale consommée, quatre visiteurs en file
+        waitingRoom.entrer(EVENEMENT);
+        waitingRoom.entrer(EVENEMENT);
+        long[] file = new long[4];
+        for (int i = 0; i < file.length; i++) {
+            file[i] = waitingRoom.entrer(EVENEMENT);
+        }
+
+        // ACT : plus de 200 ms écoulées, soit au moins 2 jetons, plafonnés à la rafale
+        Thread.sleep(400);
+        waitingRoom.admettre();
+
+        // ASSERT : exactement deux admis, les plus anciens
+        assertTrue(waitingRoom.estAdmis(EVENEMENT, file[0]));
+        assertTrue(waitingRoom.estAdmis(EVENEMENT, file[1]));
+        assertEquals(1, waitingRoom.getPosition(EVENEMENT, file[2]));
+        assertEquals(2, waitingRoom.getPosition(EVENEMENT, file[3]));
+    }
+
+    @Test
+    void testEntrer_UnNouveauVenuNeDoublePasLaFile() throws Exception {
+        // ARRANGE : rafale consommée, un visiteur en attente
+        waitingRoom.entrer(EVENEMENT);
+        waitingRoom.entrer(EVENEMENT);
+        long enAttente = waitingRoom.entrer(EVENEMENT);
+        Thread.sleep(400);
+
+        // ACT : des jetons sont disponibles quand un nouveau visiteur arrive
+        waitingRoom.admettre();
+        long nouveau = waitingRoom.entrer(EVENEMENT);
+
+        // ASSERT : le visiteur en attente passe en premier ; le nouveau prend le dernier jeton après lui
+        assertTrue(waitingRoom.estAdmis(EVENEMENT, enAttente));
+        assertTrue(nouveau > enAttente);
+        assertTrue(waitingRoom.estAdmis(EVENEMENT, nouveau));
+        assertEquals(1, waitingRoom.getPosition(EVENEMENT, waitingRoom.entrer(EVENEMENT)));
+    }
+
+    @Test
+    void testAdmettre_RetireLesSallesInactivesSansInvaliderLeursTickets() throws Exception {
+        // ARRANGE : salles inactives après 100 ms, débit trop faible pour admettre qui que ce soit pendant le test
+        WaitingRoom salles = new WaitingRoom(0.1, 2, 1, Duration.ofMillis(100), Duration.ofMillis(100));
+        long admis = salles.entrer(EVENEMENT);
+        Long autre = 2L;
+        salles.entrer(autre);
+        salles.entrer(autre);
+        long enAttente = salles.entrer(autre);
+
+        // ACT
+        Thread.sleep(200);
+        salles.admettre();
+
+        // ASSERT : seule la salle où quelqu'un attend est conservée
+        assertEquals(1, salles.taille());
+        assertEquals(1, salles.getPosition(autre, enAttente));
+
+        // La salle recréée considère l'ancien ticket comme admis et numérote les nouveaux au-delà
+        assertTrue(salles.estAdmis(EVENEMENT, admis));
+        long nouveau = salles.entrer(EVENEMENT);
+        assertTrue(nouveau > enAttente);
+        assertTrue(salles.estAdmis(EVENEMENT, nouveau));
+    }
+
+    @Test
+    void testExecuter_RefuseUnTicketNonAdmis() {
+        // ARRANGE
+        waitingRoom.entrer(EVENEMENT);
+        waitingRoom.entrer(EVENEMENT);
+        long enAttente = waitingRoom.entrer(EVENEMENT);
+
+        // ACT & ASSERT
+        assertThrows(BusinessException.class, () -> waitingRoom.executer(EVENEMENT, enAttente, () -> "réservé"));
+        assertEquals("réservé", waitingRoom.executer(EVENEMENT, 1, () -> "réservé"));
+    }
+}
@@ -0,0 +1,219 @@
+package ma.event.eventreservationsystem.service;
+
+import ma.event.eventreservationsystem.entity.Event;
+import ma.event.eventreservationsystem.entity.Reservation;
+import ma.event.eventreservationsystem.entity.User;
+import ma.event.eventreservationsystem.entity.WaitlistEntry;
+import ma.event.eventreservationsystem.entity.enums.EventCategory;
+import ma.event.eventreservationsystem.entity.enums.ReservationStatus;
+import ma.event.eventreservationsystem.entity.enums.UserRole;
+import ma.event.eventreservationsystem.entity.enums.WaitlistStatus;
+import ma.event.eventreservationsystem.exception.BusinessException;
+import ma.event.eventreservationsystem.repository.WaitlistEntryRepository;
+import ma.event.eventreservationsystem.service.inventory.SeatHoldExpirer;
+import ma.event.eventreservationsystem.service.inventory.SeatHoldManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class WaitlistServiceTest {
+
+    @Autowired
+    private WaitlistService waitlistService;
+
+    @Autowired
+    private WaitlistEntryRepository waitlistEntryRepository;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private SeatHoldManager seatHoldManager;
+
+    @Autowired
+    private SeatHoldExpirer seatHoldExpirer;
+
+    private User client1;
+    private User client2;
+    private User client3;
+    private User organizer;
+    private Event event;
+
+    @BeforeEach
+    void setUp() {
+        client1 = creerClient();
+        client2 = creerClient();
+        client3 = creerClient();
+
+        organizer = userService.inscription(User.builder()
+                .nom("Organizer")
+                .prenom("Test")
+                .email("org." + UUID.randomUUID() + "@test.com")
+                .password("password123")
+                .role(UserRole.ORGANIZER)
+                .build());
+
+        // Petit événement complet : 10 places, toutes réservées par client1
+        event = Event.builder()
+                .titre("Concert Liste d'Attente")
+                .description("Test")
+                .categorie(EventCategory.CONCERT)
+                .dateDebut(LocalDateTime.now().plusDays(10))
+                .dateFin(LocalDateTime.now().plusDays(10).plusHours(3))
+                .lieu("Salle")
+                .ville("Rabat")
+                .capaciteMax(10)
+                .prixUnitaire(50.0)
+                .build();
+        event = eventService.createEvent(event, organizer.getId());
+        event = eventService.publierEvent(event.getId(), organizer.getId());
+    }
+
+    @Test
+    void testInscrire_RefuseSiPlacesDisponibles() {
+        // ACT & ASSERT
+        assertThrows(BusinessException.class, () ->
+                waitlistService.inscrire(client2.getId(), event.getId(), 2));
+    }
+
+    @Test
+    void testAnnulation_PromeutLaTeteDeFile() {
+        // ARRANGE
+        Reservation complet = reservationService.createReservation(
+                Reservation.builder().nombrePlaces(10).build(), client1.getId(), event.getId());
+        WaitlistEntry premier = waitlistService.inscrire(client2.getId(), event.getId(), 4);
+        WaitlistEntry second = waitlistService.inscrire(client3.getId(), event.getId(), 8);
+
+        assertEquals(1, waitlistService.getRang(premier.getId()));
+        assertEquals(2, waitlistService.getRang(second.getId()));
+
+        // ACT
+        reservationService.annulerReservation(complet.getId(), client1.getId());
+
+        // ASSERT : le premier est servi, le second attend (8 places demandées, 6 restantes)
+        assertEquals(WaitlistStatus.PROMUE, waitlistEntryRepository.findById(premier.getId()).orElseThrow().getStatut());
+        assertEquals(1, waitlistService.getRang(second.getId()));
+
+        List<Reservation> reservationsClient2 = reservationService.findByUtilisateur(client2.getId());
+        assertEquals(1, reservationsClient2.size());
+        assertEquals(4, reservationsClient2.get(0).getNombrePlaces());
+        assertEquals(ReservationStatus.EN_ATTENTE, reservationsClient2.get(0).getStatut());
+        assertEquals(6, eventService.getPlacesDisponibles(event.getId()));
+    }
+
+    @Test
+    void testPromotion_DelaiProlongePuisExpirationSansConfirmation() {
+        // ARRANGE : client2 (4 places) puis client3 (8 places) attendent ; l'annulation ne sert que client2
+        Reservation complet = reservationService.createReservation(
+                Reservation.builder().nombrePlaces(10).build(), client1.getId(), event.getId());
+        WaitlistEntry premier = waitlistService.inscrire(client2.getId(), event.getId(), 4);
+        WaitlistEntry second = waitlistService.inscrire(client3.getId(), event.getId(), 8);
+        reservationService.annulerReservation(complet.getId(), client1.getId());
+
+        // ASSERT : la promotion est visible par l'utilisateur, avec une échéance au-delà du blocage standard
+        WaitlistEntry promue = waitlistEntryRepository.findById(premier.getId()).orElseThrow();
+        assertEquals(WaitlistStatus.PROMUE, promue.getStatut());
+        assertTrue(promue.getEcheanceConfirmation().isAfter(LocalDateTime.now().plus(seatHoldManager.getTtl())));
+        List<WaitlistEntry> aConfirmer = waitlistService.findPromotionsAConfirmer(client2.getId());
+        assertEquals(1, aConfirmer.size());
+        assertEquals(promue.getReservationId(), aConfirmer.get(0).getReservationId());
+        assertFalse(seatHoldManager.estExpire(promue.getReservationId()));
+
+        // ACT : l'échéance passe sans confirmation
+        assertEquals(1, seatHoldExpirer.expirer(List.of(promue.getReservationId())));
+
+        // ASSERT : la promotion est perdue et l'indique, les places reviennent au suivant de la file
+        assertEquals(WaitlistStatus.EXPIREE, waitlistEntryRepository.findById(premier.getId()).orElseThrow().getStatut());
+        assertTrue(waitlistService.findPromotionsAConfirmer(client2.getId()).isEmpty());
+        assertEquals(ReservationStatus.ANNULEE,
+                reservationService.findById(promue.getReservationId()).getStatut());
+        assertEquals(WaitlistStatus.PROMUE, waitlistEntryRepository.findById(second.getId()).orElseThrow().getStatut());
+        assertEquals(2, eventService.getPlacesDisponibles(event.getId()));
+    }
+
+    @Test
+    void testAnnulationsSimultanees_PromeutToutesLesEntreesDansLOrdre() throws Exception {
+        // ARRANGE : 5 réservations de 2 places, 5 inscrits de 2 places chacun
+        List<Reservation> reservations = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            reservations.add(reservationService.createReservation(
+                    Reservation.builder().nombrePlaces(2).build(), client1.getId(), event.getId()));
+        }
+        List<WaitlistEntry> inscrits = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            inscrits.add(waitlistService.inscrire(creerClient().getId(), event.getId(), 2));
+        }
+
+        // ACT : les 5 annulations sont validées en même temps ; les promotions concurrentes
+        // se relaient au lieu de s'attendre
+        ExecutorService executor = Executors.newFixedThreadPool(5);
+        CountDownLatch depart = new CountDownLatch(1);
+        List<Future<?>> annulations = new ArrayList<>();
+        for (Reservation reservation : reservations) {
+            annulations.add(executor.submit(() -> {
+                depart.await();
+                reservationService.annulerReservation(reservation.getId(), client1.getId());
+                return null;
+            }));
+        }
+        depart.countDown();
+        for (Future<?> annulation : annulations) {
+            annulation.get();
+        }
+        executor.shutdown();
+
+        // ASSERT : tous promus, dans l'ordre d'arrivée
+        Long precedente = 0L;
+        for (WaitlistEntry inscrit : inscrits) {
+            WaitlistEntry entree = waitlistEntryRepository.findById(inscrit.getId()).orElseThrow();
+            assertEquals(WaitlistStatus.PROMUE, entree.getStatut());
+            assertTrue(entree.getReservationId() > precedente);
+            precedente = entree.getReservationId();
+        }
+        assertEquals(0, eventService.getPlacesDisponibles(event.getId()));
+    }
+
+    @Test
+    void testAnnulerEvent_ExpireLesEntreesEnAttente() {
+        // ARRANGE
+        reservationService.createReservation(
+                Reservation.builder().nombrePlaces(10).build(), client1.getId(), event.getId());
+        WaitlistEntry entree = waitlistService.inscrire(client2.getId(), event.getId(), 2);
+
+        // ACT
+        eventService.annulerEvent(event.getId(), organizer.getId());
+
+        // ASSERT
+        assertEquals(WaitlistStatus.EXPIREE, waitlistEntryRepository.findById(entree.getId()).orElseThrow().getStatut());
+        assertEquals(0, waitlistService.getRang(entree.getId()));
+    }
+
+    private User creerClient() {
+        return userService.inscription(User.builder()
+                .nom("Client")
+                .prenom("Test")
+                .email("client." + UUID.randomUUID() + "@test.com")
+                .password("password123")
+                .role(UserRole.CLIENT)
+                .build());
+    }
+}